@@ -31,6 +31,7 @@ import org.wso2.carbon.certificate.mgt.core.exception.CertificateManagementExcep
 import org.wso2.carbon.certificate.mgt.core.exception.KeystoreException;
 import org.wso2.carbon.certificate.mgt.core.util.Serializer;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -45,6 +46,8 @@ import java.sql.SQLException;
 public class KeyStoreReader {
 
     private static final Log log = LogFactory.getLog(KeyStoreReader.class);
+    private static final Object snapshotLock = new Object();
+    private static volatile KeyStoreSnapshot snapshot;
 
     private CertificateDAO certDao;
 
@@ -89,8 +92,8 @@ public class KeyStoreReader {
         return keystore;
     }
 
-    private synchronized void saveKeyStore(KeyStore keyStore, String configEntryKeyStorePath,
-                                           String configEntryKeyStorePassword) throws KeystoreException {
+    private void saveKeyStore(KeyStore keyStore, String configEntryKeyStorePath,
+                              String configEntryKeyStorePassword) throws KeystoreException {
         FileOutputStream os = null;
         try {
             os = new FileOutputStream(configEntryKeyStorePath);
@@ -121,106 +124,79 @@ public class KeyStoreReader {
         }
     }
 
-
+    /**
+     * Loads the certificate keystore from the file. The returned keystore is not shared, hence it may be modified and
+     * saved through {@link #saveCertificateKeyStore(KeyStore)}.
+     */
     KeyStore loadCertificateKeyStore() throws KeystoreException {
-        KeyStore keyStore = null;
-        try {
-            CertificateKeystoreConfig certificateKeystoreConfig = CertificateConfigurationManager.getInstance().
-                    getCertificateKeyStoreConfig();
-            keyStore = loadKeyStore(certificateKeystoreConfig.getCertificateKeystoreType(),
-                    certificateKeystoreConfig.getCertificateKeystoreLocation(),
-                    certificateKeystoreConfig.getCertificateKeystorePassword());
-        } catch (CertificateManagementException e) {
-            String errorMsg = "Unable to find KeyStore configuration in certificate-mgt.config file.";
-            throw new KeystoreException(errorMsg, e);
-        }
-        return keyStore;
+        CertificateKeystoreConfig certificateKeystoreConfig = getCertificateKeystoreConfig();
+        return loadKeyStore(certificateKeystoreConfig.getCertificateKeystoreType(),
+                certificateKeystoreConfig.getCertificateKeystoreLocation(),
+                certificateKeystoreConfig.getCertificateKeystorePassword());
     }
 
+    /**
+     * Saves the keystore to the file and replaces the keystore snapshot with one created from the saved keystore.
+     */
     void saveCertificateKeyStore(KeyStore keyStore) throws KeystoreException {
-        try {
-            CertificateKeystoreConfig certificateKeystoreConfig = CertificateConfigurationManager.getInstance().
-                    getCertificateKeyStoreConfig();
+        CertificateKeystoreConfig certificateKeystoreConfig = getCertificateKeystoreConfig();
+        synchronized (snapshotLock) {
             saveKeyStore(keyStore, certificateKeystoreConfig.getCertificateKeystoreLocation(),
                     certificateKeystoreConfig.getCertificateKeystorePassword());
-        } catch (CertificateManagementException e) {
-            String errorMsg = "Unable to find KeyStore configuration in certificate-mgt.config file.";
-            throw new KeystoreException(errorMsg, e);
+            File keyStoreFile = new File(certificateKeystoreConfig.getCertificateKeystoreLocation());
+            snapshot = new KeyStoreSnapshot(certificateKeystoreConfig, keyStore, keyStoreFile.lastModified(),
+                    keyStoreFile.length());
         }
     }
 
-    public Certificate getCACertificate() throws KeystoreException {
-        KeyStore keystore = loadCertificateKeyStore();
-        Certificate caCertificate;
-        try {
-            CertificateKeystoreConfig certificateKeystoreConfig = CertificateConfigurationManager.getInstance().
-                    getCertificateKeyStoreConfig();
-            caCertificate = keystore.getCertificate(certificateKeystoreConfig.getCACertAlias());
-        } catch (KeyStoreException e) {
-            String errorMsg = "KeyStore issue occurred when loading KeyStore";
-            throw new KeystoreException(errorMsg, e);
-        } catch (CertificateManagementException e) {
-            String errorMsg = "Unable to find KeyStore configuration in certificate-mgt.config file.";
-            throw new KeystoreException(errorMsg, e);
+    /**
+     * Returns the snapshot of the certificate keystore, which is reloaded only if the keystore configuration, or the
+     * modification time or size of the keystore file, changed since the snapshot was created.
+     */
+    KeyStoreSnapshot getKeyStoreSnapshot() throws KeystoreException {
+        CertificateKeystoreConfig certificateKeystoreConfig = getCertificateKeystoreConfig();
+        File keyStoreFile = new File(certificateKeystoreConfig.getCertificateKeystoreLocation());
+        long lastModified = keyStoreFile.lastModified();
+        long length = keyStoreFile.length();
+        KeyStoreSnapshot current = snapshot;
+        if (current != null && current.isCurrent(certificateKeystoreConfig, lastModified, length)) {
+            return current;
         }
-
-        if (caCertificate == null) {
-            throw new KeystoreException("CA certificate not found in KeyStore");
+        synchronized (snapshotLock) {
+            current = snapshot;
+            if (current == null || !current.isCurrent(certificateKeystoreConfig, lastModified, length)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Loading certificate KeyStore from " + keyStoreFile.getPath());
+                }
+                KeyStore keyStore = loadKeyStore(certificateKeystoreConfig.getCertificateKeystoreType(),
+                        certificateKeystoreConfig.getCertificateKeystoreLocation(),
+                        certificateKeystoreConfig.getCertificateKeystorePassword());
+                current = new KeyStoreSnapshot(certificateKeystoreConfig, keyStore, lastModified, length);
+                snapshot = current;
+            }
+            return current;
         }
-
-        return caCertificate;
     }
 
-    PrivateKey getCAPrivateKey() throws KeystoreException {
-        KeyStore keyStore = loadCertificateKeyStore();
-        PrivateKey caPrivateKey;
+    private CertificateKeystoreConfig getCertificateKeystoreConfig() throws KeystoreException {
         try {
-            CertificateKeystoreConfig certificateKeystoreConfig = CertificateConfigurationManager.getInstance().
-                    getCertificateKeyStoreConfig();
-            caPrivateKey = (PrivateKey) keyStore.getKey(certificateKeystoreConfig.getCACertAlias(), certificateKeystoreConfig
-                    .
-                            getCAPrivateKeyPassword().toCharArray());
-        } catch (UnrecoverableKeyException e) {
-            String errorMsg = "Key is unrecoverable when retrieving CA private key";
-            throw new KeystoreException(errorMsg, e);
-        } catch (KeyStoreException e) {
-            String errorMsg = "KeyStore issue occurred when retrieving CA private key";
-            throw new KeystoreException(errorMsg, e);
-        } catch (NoSuchAlgorithmException e) {
-            String errorMsg = "Algorithm not found when retrieving CA private key";
-            throw new KeystoreException(errorMsg, e);
+            return CertificateConfigurationManager.getInstance().getCertificateKeyStoreConfig();
         } catch (CertificateManagementException e) {
             String errorMsg = "Unable to find KeyStore configuration in certificate-mgt.config file.";
             throw new KeystoreException(errorMsg, e);
         }
+    }
 
-        if (caPrivateKey == null) {
-            throw new KeystoreException("CA private key not found in KeyStore");
-        }
+    public Certificate getCACertificate() throws KeystoreException {
+        return getKeyStoreSnapshot().getCACertificate();
+    }
 
-        return caPrivateKey;
+    PrivateKey getCAPrivateKey() throws KeystoreException {
+        return getKeyStoreSnapshot().getCAPrivateKey();
     }
 
     public Certificate getRACertificate() throws KeystoreException {
-        KeyStore keystore = loadCertificateKeyStore();
-        Certificate raCertificate;
-        try {
-            CertificateKeystoreConfig certificateKeystoreConfig = CertificateConfigurationManager.getInstance().
-                    getCertificateKeyStoreConfig();
-            raCertificate = keystore.getCertificate(certificateKeystoreConfig.getRACertAlias());
-        } catch (KeyStoreException e) {
-            String errorMsg = "KeyStore issue occurred when retrieving RA private key";
-            throw new KeystoreException(errorMsg, e);
-        } catch (CertificateManagementException e) {
-            String errorMsg = "Unable to find KeyStore configuration in certificate-mgt.config file.";
-            throw new KeystoreException(errorMsg, e);
-        }
-
-        if (raCertificate == null) {
-            throw new KeystoreException("RA certificate not found in KeyStore");
-        }
-
-        return raCertificate;
+        return getKeyStoreSnapshot().getRACertificate();
     }
 
     public Certificate getCertificateByAlias(String alias) throws KeystoreException {
@@ -247,32 +223,7 @@ public class KeyStoreReader {
     }
 
     public PrivateKey getRAPrivateKey() throws KeystoreException {
-        KeyStore keystore = loadCertificateKeyStore();
-        PrivateKey raPrivateKey;
-        try {
-            CertificateKeystoreConfig certificateKeystoreConfig = CertificateConfigurationManager.getInstance().
-                    getCertificateKeyStoreConfig();
-            raPrivateKey = (PrivateKey) keystore.getKey(certificateKeystoreConfig.getRACertAlias(),
-                    certificateKeystoreConfig.getRAPrivateKeyPassword().toCharArray());
-        } catch (UnrecoverableKeyException e) {
-            String errorMsg = "Key is unrecoverable when retrieving RA private key";
-            throw new KeystoreException(errorMsg, e);
-        } catch (KeyStoreException e) {
-            String errorMsg = "KeyStore issue occurred when retrieving RA private key";
-            throw new KeystoreException(errorMsg, e);
-        } catch (NoSuchAlgorithmException e) {
-            String errorMsg = "Algorithm not found when retrieving RA private key";
-            throw new KeystoreException(errorMsg, e);
-        } catch (CertificateManagementException e) {
-            String errorMsg = "Unable to find KeyStore configuration in certificate-mgt.config file.";
-            throw new KeystoreException(errorMsg, e);
-        }
-
-        if (raPrivateKey == null) {
-            throw new KeystoreException("RA private key not found in KeyStore");
-        }
-
-        return raPrivateKey;
+        return getKeyStoreSnapshot().getRAPrivateKey();
     }
 
     public CertificateResponse getCertificateBySerial(String serialNumber) throws KeystoreException {
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.certificate.mgt.core.impl;
+
+import org.wso2.carbon.certificate.mgt.core.config.CertificateKeystoreConfig;
+import org.wso2.carbon.certificate.mgt.core.exception.KeystoreException;
+
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+
+/**
+ * Immutable snapshot of the certificate keystore, holding the CA and RA certificates and private keys extracted when
+ * the snapshot is created, so that they are not loaded and decrypted on every request. The snapshot records the
+ * modification time and size of the keystore file it was created from, which are used to detect changes to the file.
+ * <p>
+ * An entry which could not be extracted does not fail the snapshot, instead the error is raised when the entry is
+ * requested, as it would be when reading the entry from the keystore directly.
+ */
+class KeyStoreSnapshot {
+
+    private static final String CONFIG_ERROR_MSG = "Unable to find KeyStore configuration in certificate-mgt.config " +
+            "file.";
+
+    private final CertificateKeystoreConfig config;
+    private final long lastModified;
+    private final long length;
+    private final Entry<Certificate> caCertificate;
+    private final Entry<PrivateKey> caPrivateKey;
+    private final Entry<Certificate> raCertificate;
+    private final Entry<PrivateKey> raPrivateKey;
+
+    /**
+     * @param config       configuration the keystore was loaded with.
+     * @param keyStore     keystore to extract the entries from.
+     * @param lastModified modification time of the keystore file when it was loaded.
+     * @param length       size of the keystore file when it was loaded.
+     */
+    KeyStoreSnapshot(CertificateKeystoreConfig config, KeyStore keyStore, long lastModified, long length) {
+        this.config = config;
+        this.lastModified = lastModified;
+        this.length = length;
+        this.caCertificate = getCertificate(keyStore, config.getCACertAlias(), "CA certificate not found in KeyStore",
+                "KeyStore issue occurred when loading KeyStore");
+        this.caPrivateKey = getPrivateKey(keyStore, config.getCACertAlias(), config.getCAPrivateKeyPassword(), "CA");
+        this.raCertificate = getCertificate(keyStore, config.getRACertAlias(), "RA certificate not found in KeyStore",
+                "KeyStore issue occurred when retrieving RA private key");
+        this.raPrivateKey = getPrivateKey(keyStore, config.getRACertAlias(), config.getRAPrivateKeyPassword(), "RA");
+    }
+
+    /**
+     * @return true if the snapshot was created with the given configuration, from the keystore file of the given
+     * modification time and size.
+     */
+    boolean isCurrent(CertificateKeystoreConfig config, long lastModified, long length) {
+        return this.config == config && this.lastModified == lastModified && this.length == length;
+    }
+
+    Certificate getCACertificate() throws KeystoreException {
+        return caCertificate.get();
+    }
+
+    PrivateKey getCAPrivateKey() throws KeystoreException {
+        return caPrivateKey.get();
+    }
+
+    Certificate getRACertificate() throws KeystoreException {
+        return raCertificate.get();
+    }
+
+    PrivateKey getRAPrivateKey() throws KeystoreException {
+        return raPrivateKey.get();
+    }
+
+    private static Entry<Certificate> getCertificate(KeyStore keyStore, String alias, String notFoundMsg,
+                                                     String keyStoreErrorMsg) {
+        if (alias == null) {
+            return new Entry<>(null, CONFIG_ERROR_MSG, null);
+        }
+        try {
+            Certificate certificate = keyStore.getCertificate(alias);
+            if (certificate == null) {
+                return new Entry<>(null, notFoundMsg, null);
+            }
+            return new Entry<>(certificate, null, null);
+        } catch (KeyStoreException e) {
+            return new Entry<>(null, keyStoreErrorMsg, e);
+        }
+    }
+
+    private static Entry<PrivateKey> getPrivateKey(KeyStore keyStore, String alias, String password, String owner) {
+        if (alias == null || password == null) {
+            return new Entry<>(null, CONFIG_ERROR_MSG, null);
+        }
+        try {
+            PrivateKey privateKey = (PrivateKey) keyStore.getKey(alias, password.toCharArray());
+            if (privateKey == null) {
+                return new Entry<>(null, owner + " private key not found in KeyStore", null);
+            }
+            return new Entry<>(privateKey, null, null);
+        } catch (UnrecoverableKeyException e) {
+            return new Entry<>(null, "Key is unrecoverable when retrieving " + owner + " private key", e);
+        } catch (KeyStoreException e) {
+            return new Entry<>(null, "KeyStore issue occurred when retrieving " + owner + " private key", e);
+        } catch (NoSuchAlgorithmException e) {
+            return new Entry<>(null, "Algorithm not found when retrieving " + owner + " private key", e);
+        }
+    }
+
+    /**
+     * An entry of the keystore, or the error which occurred when extracting it.
+     */
+    private static class Entry<T> {
+
+        private final T value;
+        private final String errorMsg;
+        private final Exception cause;
+
+        private Entry(T value, String errorMsg, Exception cause) {
+            this.value = value;
+            this.errorMsg = errorMsg;
+            this.cause = cause;
+        }
+
+        private T get() throws KeystoreException {
+            if (errorMsg == null) {
+                return value;
+            }
+            if (cause == null) {
+                throw new KeystoreException(errorMsg);
+            }
+            throw new KeystoreException(errorMsg, cause);
+        }
+    }
+}
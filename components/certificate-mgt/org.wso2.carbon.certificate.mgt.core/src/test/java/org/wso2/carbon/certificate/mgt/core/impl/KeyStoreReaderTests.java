@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.certificate.mgt.core.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.certificate.mgt.core.common.BaseDeviceManagementCertificateTest;
+import org.wso2.carbon.certificate.mgt.core.config.CertificateConfigurationManager;
+import org.wso2.carbon.certificate.mgt.core.dao.CertificateManagementDAOFactory;
+
+import java.io.File;
+
+/**
+ * This class tests the keystore snapshot of the KeyStoreReader.
+ */
+public class KeyStoreReaderTests extends BaseDeviceManagementCertificateTest {
+
+    private KeyStoreReader keyStoreReader;
+
+    @BeforeClass
+    @Override
+    public void init() throws Exception {
+        initDataSource();
+        CertificateManagementDAOFactory.init(this.getDataSource());
+        keyStoreReader = new KeyStoreReader();
+    }
+
+    @Test(description = "This test case tests that the keystore is not reloaded while the file is unchanged")
+    public void testSnapshotReuse() throws Exception {
+        KeyStoreSnapshot snapshot = keyStoreReader.getKeyStoreSnapshot();
+        Assert.assertSame(new KeyStoreReader().getKeyStoreSnapshot(), snapshot);
+        Assert.assertSame(keyStoreReader.getCACertificate(), keyStoreReader.getCACertificate());
+        Assert.assertSame(keyStoreReader.getRAPrivateKey(), keyStoreReader.getRAPrivateKey());
+    }
+
+    @Test(description = "This test case tests that the keystore is reloaded when the file is modified",
+            dependsOnMethods = "testSnapshotReuse")
+    public void testSnapshotReloadOnModification() throws Exception {
+        KeyStoreSnapshot snapshot = keyStoreReader.getKeyStoreSnapshot();
+        File keyStoreFile = new File(CertificateConfigurationManager.getInstance().getCertificateKeyStoreConfig()
+                .getCertificateKeystoreLocation());
+        Assert.assertTrue(keyStoreFile.setLastModified(keyStoreFile.lastModified() - 10000));
+        KeyStoreSnapshot reloaded = keyStoreReader.getKeyStoreSnapshot();
+        Assert.assertNotSame(reloaded, snapshot);
+        Assert.assertEquals(reloaded.getCACertificate(), snapshot.getCACertificate());
+        Assert.assertSame(keyStoreReader.getKeyStoreSnapshot(), reloaded);
+    }
+}
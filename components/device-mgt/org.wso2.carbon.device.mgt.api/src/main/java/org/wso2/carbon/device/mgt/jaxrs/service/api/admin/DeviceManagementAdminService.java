@@ -32,8 +32,13 @@ import io.swagger.annotations.ResponseHeader;
 import org.wso2.carbon.apimgt.annotations.api.Scope;
 import org.wso2.carbon.apimgt.annotations.api.Scopes;
 import org.wso2.carbon.device.mgt.common.Device;
+import org.wso2.carbon.device.mgt.core.cache.DeviceCacheStatistics;
+import org.wso2.carbon.device.mgt.core.cache.GroupCacheStatistics;
+import org.wso2.carbon.device.mgt.core.push.notification.mgt.PushNotificationDispatcherStatistics;
 import org.wso2.carbon.device.mgt.jaxrs.beans.ErrorResponse;
 import org.wso2.carbon.device.mgt.jaxrs.util.Constants;
+import org.wso2.carbon.policy.mgt.core.cache.EffectivePolicyCacheStatistics;
+import org.wso2.carbon.policy.mgt.core.enforcement.PolicyDelegationStatistics;
 
 import javax.validation.constraints.Size;
 import javax.ws.rs.*;
@@ -167,4 +172,207 @@ public interface DeviceManagementAdminService {
                     required = false,
                     defaultValue = "5")
             @QueryParam("limit") int limit);
+
+    @GET
+    @Path("/cache/statistics")
+    @ApiOperation(
+            produces = MediaType.APPLICATION_JSON,
+            httpMethod = "GET",
+            value = "Getting the Device Cache Statistics",
+            notes = "Get the hit, miss and eviction counts of the device cache of the node serving the request, " +
+                    "since the node was started.",
+            response = DeviceCacheStatistics.class,
+            tags = "Device Management Administrative Service",
+            extensions = {
+                    @Extension(properties = {
+                            @ExtensionProperty(name = Constants.SCOPE, value = "perm:admin:devices:view")
+                    })
+            }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK. \n Successfully fetched the device cache statistics.",
+                    response = DeviceCacheStatistics.class,
+                    responseHeaders = {
+                            @ResponseHeader(
+                                    name = "Content-Type",
+                                    description = "The content type of the body")
+                    }),
+            @ApiResponse(
+                    code = 401,
+                    message = "Unauthorized.\n The unauthorized access to the requested resource.",
+                    response = ErrorResponse.class),
+            @ApiResponse(
+                    code = 406,
+                    message = "Not Acceptable.\n The requested media type is not supported"),
+            @ApiResponse(
+                    code = 500,
+                    message = "Internal Server Error. \n Server error occurred while fetching the device cache " +
+                            "statistics.",
+                    response = ErrorResponse.class)
+    })
+    Response getDeviceCacheStatistics();
+
+    @GET
+    @Path("/group-cache/statistics")
+    @ApiOperation(
+            produces = MediaType.APPLICATION_JSON,
+            httpMethod = "GET",
+            value = "Getting the Group Cache Statistics",
+            notes = "Get the hit, miss and invalidation counts of the group cache of the node serving the request, " +
+                    "since the node was started.",
+            response = GroupCacheStatistics.class,
+            tags = "Device Management Administrative Service",
+            extensions = {
+                    @Extension(properties = {
+                            @ExtensionProperty(name = Constants.SCOPE, value = "perm:admin:devices:view")
+                    })
+            }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK. \n Successfully fetched the group cache statistics.",
+                    response = GroupCacheStatistics.class,
+                    responseHeaders = {
+                            @ResponseHeader(
+                                    name = "Content-Type",
+                                    description = "The content type of the body")
+                    }),
+            @ApiResponse(
+                    code = 401,
+                    message = "Unauthorized.\n The unauthorized access to the requested resource.",
+                    response = ErrorResponse.class),
+            @ApiResponse(
+                    code = 406,
+                    message = "Not Acceptable.\n The requested media type is not supported"),
+            @ApiResponse(
+                    code = 500,
+                    message = "Internal Server Error. \n Server error occurred while fetching the group cache " +
+                            "statistics.",
+                    response = ErrorResponse.class)
+    })
+    Response getGroupCacheStatistics();
+
+    @GET
+    @Path("/push-notifications/statistics")
+    @ApiOperation(
+            produces = MediaType.APPLICATION_JSON,
+            httpMethod = "GET",
+            value = "Getting the Push Notification Dispatcher Statistics",
+            notes = "Get the sent, retried, failed and rejected push notification counts, the dispatch latencies and " +
+                    "the queue depths of the node serving the request, since the node was started.",
+            response = PushNotificationDispatcherStatistics.class,
+            tags = "Device Management Administrative Service",
+            extensions = {
+                    @Extension(properties = {
+                            @ExtensionProperty(name = Constants.SCOPE, value = "perm:admin:devices:view")
+                    })
+            }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK. \n Successfully fetched the push notification dispatcher " +
+                    "statistics.",
+                    response = PushNotificationDispatcherStatistics.class,
+                    responseHeaders = {
+                            @ResponseHeader(
+                                    name = "Content-Type",
+                                    description = "The content type of the body")
+                    }),
+            @ApiResponse(
+                    code = 401,
+                    message = "Unauthorized.\n The unauthorized access to the requested resource.",
+                    response = ErrorResponse.class),
+            @ApiResponse(
+                    code = 404,
+                    message = "Not Found.\n The push notification dispatcher is disabled.",
+                    response = ErrorResponse.class),
+            @ApiResponse(
+                    code = 406,
+                    message = "Not Acceptable.\n The requested media type is not supported"),
+            @ApiResponse(
+                    code = 500,
+                    message = "Internal Server Error. \n Server error occurred while fetching the push notification " +
+                            "dispatcher statistics.",
+                    response = ErrorResponse.class)
+    })
+    Response getPushNotificationDispatcherStatistics();
+
+    @GET
+    @Path("/policies/delegation/statistics")
+    @ApiOperation(
+            produces = MediaType.APPLICATION_JSON,
+            httpMethod = "GET",
+            value = "Getting the Policy Re-enforcement Statistics",
+            notes = "Get the evaluated device, device group and operation counts and the evaluation times of the " +
+                    "policy re-enforcements run by the node serving the request, since the node was started.",
+            response = PolicyDelegationStatistics.class,
+            tags = "Device Management Administrative Service",
+            extensions = {
+                    @Extension(properties = {
+                            @ExtensionProperty(name = Constants.SCOPE, value = "perm:admin:devices:view")
+                    })
+            }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK. \n Successfully fetched the policy re-enforcement statistics.",
+                    response = PolicyDelegationStatistics.class,
+                    responseHeaders = {
+                            @ResponseHeader(
+                                    name = "Content-Type",
+                                    description = "The content type of the body")
+                    }),
+            @ApiResponse(
+                    code = 401,
+                    message = "Unauthorized.\n The unauthorized access to the requested resource.",
+                    response = ErrorResponse.class),
+            @ApiResponse(
+                    code = 406,
+                    message = "Not Acceptable.\n The requested media type is not supported"),
+            @ApiResponse(
+                    code = 500,
+                    message = "Internal Server Error. \n Server error occurred while fetching the policy " +
+                            "re-enforcement statistics.",
+                    response = ErrorResponse.class)
+    })
+    Response getPolicyDelegationStatistics();
+
+    @GET
+    @Path("/policies/effective-policy-cache/statistics")
+    @ApiOperation(
+            produces = MediaType.APPLICATION_JSON,
+            httpMethod = "GET",
+            value = "Getting the Effective Policy Cache Statistics",
+            notes = "Get the hit, miss and eviction counts, the hit ratio and the average evaluation time of the " +
+                    "effective policy cache of each policy evaluation point of the node serving the request, since " +
+                    "the node was started.",
+            response = EffectivePolicyCacheStatistics.class,
+            responseContainer = "List",
+            tags = "Device Management Administrative Service",
+            extensions = {
+                    @Extension(properties = {
+                            @ExtensionProperty(name = Constants.SCOPE, value = "perm:admin:devices:view")
+                    })
+            }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK. \n Successfully fetched the effective policy cache statistics.",
+                    response = EffectivePolicyCacheStatistics.class,
+                    responseContainer = "List",
+                    responseHeaders = {
+                            @ResponseHeader(
+                                    name = "Content-Type",
+                                    description = "The content type of the body")
+                    }),
+            @ApiResponse(
+                    code = 401,
+                    message = "Unauthorized.\n The unauthorized access to the requested resource.",
+                    response = ErrorResponse.class),
+            @ApiResponse(
+                    code = 406,
+                    message = "Not Acceptable.\n The requested media type is not supported"),
+            @ApiResponse(
+                    code = 500,
+                    message = "Internal Server Error. \n Server error occurred while fetching the effective policy " +
+                            "cache statistics.",
+                    response = ErrorResponse.class)
+    })
+    Response getEffectivePolicyCacheStatistics();
 }
@@ -26,11 +26,16 @@ import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.device.mgt.common.Device;
 import org.wso2.carbon.device.mgt.common.DeviceManagementException;
 import org.wso2.carbon.device.mgt.common.PaginationRequest;
+import org.wso2.carbon.device.mgt.core.cache.DeviceCacheStatistics;
+import org.wso2.carbon.device.mgt.core.cache.GroupCacheStatistics;
+import org.wso2.carbon.device.mgt.core.push.notification.mgt.PushNotificationDispatcherStatistics;
 import org.wso2.carbon.device.mgt.jaxrs.beans.DeviceList;
 import org.wso2.carbon.device.mgt.jaxrs.beans.ErrorResponse;
 import org.wso2.carbon.device.mgt.jaxrs.service.api.admin.DeviceManagementAdminService;
 import org.wso2.carbon.device.mgt.jaxrs.service.impl.util.RequestValidationUtil;
 import org.wso2.carbon.device.mgt.jaxrs.util.DeviceMgtAPIUtils;
+import org.wso2.carbon.policy.mgt.core.cache.EffectivePolicyCacheStatistics;
+import org.wso2.carbon.policy.mgt.core.enforcement.PolicyDelegationStatistics;
 
 import javax.validation.constraints.Size;
 import javax.ws.rs.*;
@@ -87,4 +92,83 @@ public class DeviceManagementAdminServiceImpl implements DeviceManagementAdminSe
         }
     }
 
+    @Override
+    @GET
+    @Path("/cache/statistics")
+    public Response getDeviceCacheStatistics() {
+        int currentTenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+        if (MultitenantConstants.SUPER_TENANT_ID != currentTenantId) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity(
+                    new ErrorResponse.ErrorResponseBuilder().setMessage(
+                            "Current logged in user is not authorized to perform this operation").build()).build();
+        }
+        DeviceCacheStatistics statistics = DeviceMgtAPIUtils.getDeviceManagementService().getDeviceCacheStatistics();
+        return Response.status(Response.Status.OK).entity(statistics).build();
+    }
+
+    @Override
+    @GET
+    @Path("/group-cache/statistics")
+    public Response getGroupCacheStatistics() {
+        int currentTenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+        if (MultitenantConstants.SUPER_TENANT_ID != currentTenantId) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity(
+                    new ErrorResponse.ErrorResponseBuilder().setMessage(
+                            "Current logged in user is not authorized to perform this operation").build()).build();
+        }
+        GroupCacheStatistics statistics =
+                DeviceMgtAPIUtils.getGroupManagementProviderService().getGroupCacheStatistics();
+        return Response.status(Response.Status.OK).entity(statistics).build();
+    }
+
+    @Override
+    @GET
+    @Path("/push-notifications/statistics")
+    public Response getPushNotificationDispatcherStatistics() {
+        int currentTenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+        if (MultitenantConstants.SUPER_TENANT_ID != currentTenantId) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity(
+                    new ErrorResponse.ErrorResponseBuilder().setMessage(
+                            "Current logged in user is not authorized to perform this operation").build()).build();
+        }
+        PushNotificationDispatcherStatistics statistics =
+                DeviceMgtAPIUtils.getDeviceManagementService().getPushNotificationDispatcherStatistics();
+        if (statistics == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity(
+                    new ErrorResponse.ErrorResponseBuilder().setMessage(
+                            "Push notification dispatcher is disabled").build()).build();
+        }
+        return Response.status(Response.Status.OK).entity(statistics).build();
+    }
+
+    @Override
+    @GET
+    @Path("/policies/delegation/statistics")
+    public Response getPolicyDelegationStatistics() {
+        int currentTenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+        if (MultitenantConstants.SUPER_TENANT_ID != currentTenantId) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity(
+                    new ErrorResponse.ErrorResponseBuilder().setMessage(
+                            "Current logged in user is not authorized to perform this operation").build()).build();
+        }
+        PolicyDelegationStatistics statistics =
+                DeviceMgtAPIUtils.getPolicyManagementService().getPolicyDelegationStatistics();
+        return Response.status(Response.Status.OK).entity(statistics).build();
+    }
+
+    @Override
+    @GET
+    @Path("/policies/effective-policy-cache/statistics")
+    public Response getEffectivePolicyCacheStatistics() {
+        int currentTenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+        if (MultitenantConstants.SUPER_TENANT_ID != currentTenantId) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity(
+                    new ErrorResponse.ErrorResponseBuilder().setMessage(
+                            "Current logged in user is not authorized to perform this operation").build()).build();
+        }
+        List<EffectivePolicyCacheStatistics> statistics =
+                DeviceMgtAPIUtils.getPolicyManagementService().getEffectivePolicyCacheStatistics();
+        return Response.status(Response.Status.OK).entity(statistics).build();
+    }
+
 }
@@ -21,6 +21,7 @@ import org.wso2.carbon.device.mgt.common.configuration.mgt.PlatformConfiguration
 import org.wso2.carbon.device.mgt.common.license.mgt.License;
 import org.wso2.carbon.device.mgt.common.license.mgt.LicenseManagementException;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -128,6 +129,29 @@ public interface DeviceManager {
      */
     Device getDevice(DeviceIdentifier deviceId) throws DeviceManagementException;
 
+    /**
+     * Method to retrieve metadata of a list of devices corresponding to a particular type. Plugins that can read
+     * several devices at once should override this method, the default implementation retrieves the devices one
+     * by one.
+     *
+     * @param deviceIds Fully qualified device identifiers
+     * @return Metadata of the devices that were found, each carrying its device identifier
+     * @throws DeviceManagementException If some unusual behaviour is observed obtaining the device objects
+     */
+    default List<Device> getDevices(List<DeviceIdentifier> deviceIds) throws DeviceManagementException {
+        List<Device> devices = new ArrayList<>();
+        for (DeviceIdentifier deviceId : deviceIds) {
+            Device device = this.getDevice(deviceId);
+            if (device != null) {
+                if (device.getDeviceIdentifier() == null) {
+                    device.setDeviceIdentifier(deviceId.getId());
+                }
+                devices.add(device);
+            }
+        }
+        return devices;
+    }
+
     /**
      * Method to update device properties.
      *
@@ -25,6 +25,12 @@ public final class DeviceManagementConstants {
 
     public static final String DM_CACHE_MANAGER = "DM_CACHE_MANAGER";
     public static final String DEVICE_CACHE = "DEVICE_CACHE";
+    public static final int DEFAULT_DEVICE_NEAR_CACHE_CAPACITY = 1000;
+    public static final int DEFAULT_DEVICE_NEAR_CACHE_EXPIRY_TIME = 10;
+    public static final int DEFAULT_DEVICE_NEGATIVE_CACHE_EXPIRY_TIME = 5;
+    public static final String PENDING_OPERATION_CACHE = "PENDING_OPERATION_CACHE";
+    public static final String GROUP_PERMISSION_CACHE = "GROUP_PERMISSION_CACHE";
+    public static final String GROUP_ROLE_CACHE = "GROUP_ROLE_CACHE";
 
     public static final class Common {
         private Common() {
@@ -89,6 +95,9 @@ public final class DeviceManagementConstants {
         private OperationAttributes() {throw new AssertionError(); }
         public static final String ACTIVITY = "ACTIVITY_";
         public static final int APPLIST_VERSION_MAX_LENGTH = 50;
+        // Upper bound of the device ids bound to a single IN clause while fanning out an operation. Kept within
+        // the 1000 element IN list limit of Oracle.
+        public static final int DEVICE_ID_BATCH_SIZE = 1000;
     }
 
     public static final class PushNotifications {
@@ -98,6 +107,13 @@ public final class DeviceManagementConstants {
         public static final int DEFAULT_SCHEDULER_TASK_INITIAL_DELAY = 60000;
         public static final int DEFAULT_BATCH_DELAY_MILLS = 60000;
         public static final int DEFAULT_BATCH_SIZE = 1000;
+        public static final int DEFAULT_SCHEDULER_TASK_WORKER_COUNT = 5;
+        public static final int DEFAULT_SCHEDULER_TASK_LEASE_TIME_MILLS = 300000;
+        public static final int DEFAULT_DISPATCHER_THREAD_COUNT = 5;
+        public static final int DEFAULT_DISPATCHER_QUEUE_CAPACITY = 10000;
+        public static final int DEFAULT_DISPATCHER_MAX_RETRIES = 3;
+        public static final int DEFAULT_DISPATCHER_RETRY_BACKOFF_MILLS = 1000;
+        public static final long DISPATCHER_SHUTDOWN_TIMEOUT = 5000;
     }
 
     public static final class User {
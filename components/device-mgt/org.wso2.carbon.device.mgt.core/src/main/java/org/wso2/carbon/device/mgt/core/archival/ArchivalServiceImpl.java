@@ -23,12 +23,15 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.device.mgt.common.TransactionManagementException;
 import org.wso2.carbon.device.mgt.core.archival.dao.*;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.config.archival.ArchivalTaskConfiguration;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class ArchivalServiceImpl implements ArchivalService {
     private static Log log = LogFactory.getLog(ArchivalServiceImpl.class);
@@ -42,13 +45,21 @@ public class ArchivalServiceImpl implements ArchivalService {
     private String[] NOT_PENDING_OPS = new String[]{"COMPLETED", "ERROR", "REPEATED", "IN_PROGRESS"};
     private String[] NOT_PENDING_IN_PROGRESS_OPS = new String[]{"COMPLETED", "ERROR", "REPEATED"};
 
+    private ArchivalTaskConfiguration taskConfiguration;
+
     public ArchivalServiceImpl() {
         this.archivalDAO = ArchivalSourceDAOFactory.getDataPurgingDAO();
         this.dataDeletionDAO = ArchivalDestinationDAOFactory.getDataDeletionDAO();
+        this.taskConfiguration = DeviceConfigurationManager.getInstance().getDeviceManagementConfig()
+                .getArchivalConfiguration().getArchivalTaskConfiguration();
     }
 
     @Override
     public void archiveTransactionalRecords() throws ArchivalException {
+        if (taskConfiguration.isStreamingEnabled()) {
+            this.archiveInChunks();
+            return;
+        }
         try {
             ArchivalSourceDAOFactory.openConnection();
             ArchivalDestinationDAOFactory.openConnection();
@@ -141,6 +152,108 @@ public class ArchivalServiceImpl implements ArchivalService {
         }
     }
 
+    /**
+     * Archives the operations chunk by chunk. Candidate operations are paged by their ids and each chunk is moved and
+     * committed in its own transaction, so the memory and the undo log needed do not grow with the backlog. Archived
+     * operations are removed from the source tables, hence a run which is interrupted or fails continues with the
+     * remaining operations the next time it is executed.
+     */
+    private void archiveInChunks() throws ArchivalException {
+        int chunkSize = taskConfiguration.getChunkSize() > 0 ?
+                taskConfiguration.getChunkSize() : ArchivalDAO.DEFAULT_BATCH_SIZE;
+        int maxRowsPerSecond = taskConfiguration.getMaxRowsPerSecond();
+        // Operations of the retention period are kept in the transactional tables
+        long createdBefore = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) -
+                TimeUnit.DAYS.toSeconds(taskConfiguration.getRetentionPeriod());
+        long startTime = System.currentTimeMillis();
+        int lastOperationId = 0;
+        int chunks = 0;
+        long operations = 0;
+        long rows = 0;
+        while (true) {
+            long chunkStartTime = System.currentTimeMillis();
+            List<Integer> operationIds;
+            int chunkRows;
+            try {
+                beginTransactions();
+                operationIds = archivalDAO.getOperationIdsForArchival(lastOperationId, createdBefore, chunkSize);
+                if (operationIds.isEmpty()) {
+                    break;
+                }
+                archivalDAO.deleteArchivedCopies(operationIds);
+                prepareTempTable(operationIds);
+                chunkRows = this.moveChunk();
+                // The archival copy is committed first. If the source commit fails, the copy is replaced when the
+                // chunk is archived again.
+                ArchivalDestinationDAOFactory.getConnection().commit();
+                ArchivalSourceDAOFactory.getConnection().commit();
+            } catch (ArchivalDAOException e) {
+                rollbackTransactions();
+                throw new ArchivalException("An error occurred while archiving the operations after " +
+                        lastOperationId, e);
+            } catch (SQLException e) {
+                rollbackTransactions();
+                throw new ArchivalException("An error occurred while committing the operations archived after " +
+                        lastOperationId, e);
+            } finally {
+                ArchivalSourceDAOFactory.closeConnection();
+                ArchivalDestinationDAOFactory.closeConnection();
+            }
+            lastOperationId = operationIds.get(operationIds.size() - 1);
+            chunks++;
+            operations += operationIds.size();
+            rows += chunkRows;
+            if (log.isDebugEnabled()) {
+                long elapsed = System.currentTimeMillis() - startTime;
+                log.debug("Archived chunk " + chunks + " up to operation " + lastOperationId + ". " + operations +
+                        " operations and " + rows + " rows archived in " + elapsed + " ms (" +
+                        (elapsed > 0 ? rows * 1000 / elapsed : rows) + " rows/s).");
+            }
+            if (maxRowsPerSecond > 0 && !this.throttle(chunkRows, maxRowsPerSecond, chunkStartTime)) {
+                log.warn("Archival interrupted after operation " + lastOperationId + ". " + this.getSummary(chunks,
+                        operations, rows, startTime) + " Remaining operations will be archived in the next run.");
+                return;
+            }
+        }
+        log.info("Archival completed. " + this.getSummary(chunks, operations, rows, startTime));
+    }
+
+    private String getSummary(int chunks, long operations, long rows, long startTime) {
+        long elapsed = System.currentTimeMillis() - startTime;
+        return chunks + " chunks, " + operations + " operations and " + rows + " rows archived in " + elapsed +
+                " ms (" + (elapsed > 0 ? rows * 1000 / elapsed : rows) + " rows/s).";
+    }
+
+    private int moveChunk() throws ArchivalDAOException {
+        int rows = archivalDAO.moveOperationResponses();
+        rows += archivalDAO.moveNotifications();
+        rows += archivalDAO.moveCommandOperations();
+        rows += archivalDAO.moveProfileOperations();
+        rows += archivalDAO.moveConfigOperations();
+        rows += archivalDAO.moveEnrolmentMappings();
+        rows += archivalDAO.moveOperations();
+        return rows;
+    }
+
+    /**
+     * Pauses the archival so that the rows moved by the last chunk do not exceed the configured rate.
+     *
+     * @return false if the thread was interrupted while waiting.
+     */
+    private boolean throttle(int chunkRows, int maxRowsPerSecond, long chunkStartTime) {
+        long budget = TimeUnit.SECONDS.toMillis(chunkRows) / maxRowsPerSecond;
+        long wait = budget - (System.currentTimeMillis() - chunkStartTime);
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void prepareTempTable(List<Integer> subList) throws ArchivalDAOException {
         //Clean up the DM_ARCHIVED_OPERATIONS table
         if (log.isDebugEnabled()) {
@@ -31,21 +31,42 @@ public interface ArchivalDAO {
 
     List<Integer> getPendingAndInProgressOperations() throws ArchivalDAOException;
 
+    /**
+     * Returns the next chunk of operations which are ready to be archived, ordered by the operation id. An operation
+     * qualifies when it was enrolled before the given time and none of its enrolment mappings is still pending or
+     * in progress.
+     *
+     * @param lastOperationId largest operation id of the previous chunk, 0 for the first chunk.
+     * @param createdBefore   enrolment mapping creation time, in seconds since epoch, of the retention boundary.
+     * @param limit           maximum number of operation ids to return.
+     * @return operation ids of the chunk, empty if nothing is left to archive.
+     */
+    List<Integer> getOperationIdsForArchival(int lastOperationId, long createdBefore, int limit)
+            throws ArchivalDAOException;
+
+    /**
+     * Removes the archived copies of the given operations from the archival database, so that a chunk copied by an
+     * interrupted run can be copied again without violating the primary keys of the archival tables.
+     *
+     * @param operationIds operations of the chunk being archived.
+     */
+    void deleteArchivedCopies(List<Integer> operationIds) throws ArchivalDAOException;
+
     void copyOperationIDsForArchival(List<Integer> operationIds) throws ArchivalDAOException;
 
-    void moveOperationResponses() throws ArchivalDAOException;
+    int moveOperationResponses() throws ArchivalDAOException;
 
-    void moveNotifications() throws ArchivalDAOException;
+    int moveNotifications() throws ArchivalDAOException;
 
-    void moveCommandOperations() throws ArchivalDAOException;
+    int moveCommandOperations() throws ArchivalDAOException;
 
-    void moveProfileOperations() throws ArchivalDAOException;
+    int moveProfileOperations() throws ArchivalDAOException;
 
-    void moveConfigOperations() throws ArchivalDAOException;
+    int moveConfigOperations() throws ArchivalDAOException;
 
-    void moveEnrolmentMappings() throws ArchivalDAOException;
+    int moveEnrolmentMappings() throws ArchivalDAOException;
 
-    void moveOperations() throws ArchivalDAOException;
+    int moveOperations() throws ArchivalDAOException;
 
     void truncateOperationIDsForArchival() throws ArchivalDAOException;
 
@@ -33,6 +33,7 @@ public class ArchivalDAOImpl implements ArchivalDAO {
     private int retentionPeriod;
     private int batchSize = ArchivalDAO.DEFAULT_BATCH_SIZE;
     private Timestamp currentTimestamp;
+    private boolean directCopy;
 
 
     public ArchivalDAOImpl(int retentionPeriod) {
@@ -48,6 +49,86 @@ public class ArchivalDAOImpl implements ArchivalDAO {
         }
     }
 
+    /**
+     * @param directCopy whether the archival tables are reachable through the source data source, in which case the
+     *                   rows are moved with INSERT ... SELECT statements instead of being streamed through the JVM.
+     */
+    public ArchivalDAOImpl(int retentionPeriod, int batchSize, boolean directCopy) {
+        this(retentionPeriod, batchSize);
+        this.directCopy = directCopy;
+    }
+
+    @Override
+    public List<Integer> getOperationIdsForArchival(int lastOperationId, long createdBefore, int limit)
+            throws ArchivalDAOException {
+        List<Integer> operationIds = new ArrayList<>();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            Connection conn = ArchivalSourceDAOFactory.getConnection();
+            String sql = "SELECT DISTINCT m.OPERATION_ID FROM DM_ENROLMENT_OP_MAPPING m " +
+                    "WHERE m.OPERATION_ID > ? AND m.CREATED_TIMESTAMP < ? AND NOT EXISTS (" +
+                    "SELECT 1 FROM DM_ENROLMENT_OP_MAPPING p WHERE p.OPERATION_ID = m.OPERATION_ID " +
+                    "AND p.STATUS IN ('PENDING', 'IN_PROGRESS')) ORDER BY m.OPERATION_ID";
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setMaxRows(limit);
+            stmt.setFetchSize(limit);
+            stmt.setInt(1, lastOperationId);
+            stmt.setLong(2, createdBefore);
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                operationIds.add(rs.getInt("OPERATION_ID"));
+            }
+        } catch (SQLException e) {
+            throw new ArchivalDAOException("An error occurred while getting a chunk of operation Ids to archive", e);
+        } finally {
+            ArchivalDAOUtil.cleanupResources(stmt, rs);
+        }
+        return operationIds;
+    }
+
+    @Override
+    public void deleteArchivedCopies(List<Integer> operationIds) throws ArchivalDAOException {
+        if (this.directCopy || operationIds.isEmpty()) {
+            // Direct copies are inserted and deleted in the same transaction, hence cannot be left behind.
+            return;
+        }
+        StringBuilder params = new StringBuilder();
+        for (int i = 0; i < operationIds.size(); i++) {
+            params.append(i == 0 ? "?" : ", ?");
+        }
+        String[] tables = {"DM_DEVICE_OPERATION_RESPONSE_ARCH", "DM_NOTIFICATION_ARCH", "DM_COMMAND_OPERATION_ARCH",
+                "DM_PROFILE_OPERATION_ARCH", "DM_CONFIG_OPERATION_ARCH", "DM_ENROLMENT_OP_MAPPING_ARCH"};
+        try {
+            Connection conn = ArchivalDestinationDAOFactory.getConnection();
+            for (String table : tables) {
+                this.deleteByOperationIds(conn, "DELETE FROM " + table + " WHERE OPERATION_ID IN (" + params + ")",
+                        operationIds);
+            }
+            this.deleteByOperationIds(conn, "DELETE FROM DM_OPERATION_ARCH WHERE ID IN (" + params + ")",
+                    operationIds);
+        } catch (SQLException e) {
+            throw new ArchivalDAOException("Error occurred while removing partially archived operations", e);
+        }
+    }
+
+    private void deleteByOperationIds(Connection conn, String sql, List<Integer> operationIds) throws SQLException {
+        PreparedStatement stmt = null;
+        try {
+            stmt = conn.prepareStatement(sql);
+            int index = 1;
+            for (Integer operationId : operationIds) {
+                stmt.setInt(index++, operationId);
+            }
+            int affected = stmt.executeUpdate();
+            if (affected > 0 && log.isDebugEnabled()) {
+                log.debug(affected + " partially archived rows removed with: " + sql);
+            }
+        } finally {
+            ArchivalDAOUtil.cleanupResources(stmt);
+        }
+    }
+
     @Override
     public List<Integer> getAllOperations() throws ArchivalDAOException {
         List<Integer> operationIds = new ArrayList<>();
@@ -130,7 +211,12 @@ public class ArchivalDAOImpl implements ArchivalDAO {
     }
 
     @Override
-    public void moveOperationResponses() throws ArchivalDAOException {
+    public int moveOperationResponses() throws ArchivalDAOException {
+        if (this.directCopy) {
+            return this.moveWithinSourceDatabase("DM_DEVICE_OPERATION_RESPONSE",
+                    "ID, ENROLMENT_ID, OPERATION_ID, " +
+                    "EN_OP_MAP_ID, OPERATION_RESPONSE, RECEIVED_TIMESTAMP", "OPERATION_ID");
+        }
         Statement stmt = null;
         PreparedStatement stmt2 = null;
         Statement stmt3 = null;
@@ -176,6 +262,7 @@ public class ArchivalDAOImpl implements ArchivalDAO {
             if (log.isDebugEnabled()) {
                 log.debug(affected + " Rows deleted");
             }
+            return count;
         } catch (SQLException e) {
             throw new ArchivalDAOException("Error occurred while moving operations ", e);
         } finally {
@@ -186,7 +273,11 @@ public class ArchivalDAOImpl implements ArchivalDAO {
     }
 
     @Override
-    public void moveNotifications() throws ArchivalDAOException {
+    public int moveNotifications() throws ArchivalDAOException {
+        if (this.directCopy) {
+            return this.moveWithinSourceDatabase("DM_NOTIFICATION",
+                    "NOTIFICATION_ID, DEVICE_ID, OPERATION_ID, TENANT_ID, STATUS, DESCRIPTION", "OPERATION_ID");
+        }
         Statement stmt = null;
         PreparedStatement stmt2 = null;
         Statement stmt3 = null;
@@ -230,6 +321,7 @@ public class ArchivalDAOImpl implements ArchivalDAO {
             if (log.isDebugEnabled()) {
                 log.debug(affected + " Rows deleted");
             }
+            return count;
         } catch (SQLException e) {
             throw new ArchivalDAOException("Error occurred while moving notifications ", e);
         } finally {
@@ -240,7 +332,11 @@ public class ArchivalDAOImpl implements ArchivalDAO {
     }
 
     @Override
-    public void moveCommandOperations() throws ArchivalDAOException {
+    public int moveCommandOperations() throws ArchivalDAOException {
+        if (this.directCopy) {
+            return this.moveWithinSourceDatabase("DM_COMMAND_OPERATION",
+                    "OPERATION_ID, ENABLED", "OPERATION_ID");
+        }
         Statement stmt = null;
         PreparedStatement stmt2 = null;
         Statement stmt3 = null;
@@ -279,6 +375,7 @@ public class ArchivalDAOImpl implements ArchivalDAO {
             if (log.isDebugEnabled()) {
                 log.debug(affected + " Rows deleted");
             }
+            return count;
         } catch (SQLException e) {
             throw new ArchivalDAOException("Error occurred while moving command operations", e);
         } finally {
@@ -289,7 +386,11 @@ public class ArchivalDAOImpl implements ArchivalDAO {
     }
 
     @Override
-    public void moveProfileOperations() throws ArchivalDAOException {
+    public int moveProfileOperations() throws ArchivalDAOException {
+        if (this.directCopy) {
+            return this.moveWithinSourceDatabase("DM_PROFILE_OPERATION",
+                    "OPERATION_ID, ENABLED, OPERATION_DETAILS", "OPERATION_ID");
+        }
         Statement stmt = null;
         PreparedStatement stmt2 = null;
         Statement stmt3 = null;
@@ -329,6 +430,7 @@ public class ArchivalDAOImpl implements ArchivalDAO {
             if (log.isDebugEnabled()) {
                 log.debug(affected + " Rows deleted");
             }
+            return count;
         } catch (SQLException e) {
             throw new ArchivalDAOException("Error occurred while moving profile operations", e);
         } finally {
@@ -339,7 +441,11 @@ public class ArchivalDAOImpl implements ArchivalDAO {
     }
 
     @Override
-    public void moveConfigOperations() throws ArchivalDAOException {
+    public int moveConfigOperations() throws ArchivalDAOException {
+        if (this.directCopy) {
+            return this.moveWithinSourceDatabase("DM_CONFIG_OPERATION",
+                    "OPERATION_ID, OPERATION_CONFIG, ENABLED", "OPERATION_ID");
+        }
         Statement stmt = null;
         PreparedStatement stmt2 = null;
         Statement stmt3 = null;
@@ -379,6 +485,7 @@ public class ArchivalDAOImpl implements ArchivalDAO {
             if (log.isDebugEnabled()) {
                 log.debug(affected + " Rows deleted");
             }
+            return count;
         } catch (SQLException e) {
             throw new ArchivalDAOException("Error occurred while moving config operations", e);
         } finally {
@@ -389,7 +496,12 @@ public class ArchivalDAOImpl implements ArchivalDAO {
     }
 
     @Override
-    public void moveEnrolmentMappings() throws ArchivalDAOException {
+    public int moveEnrolmentMappings() throws ArchivalDAOException {
+        if (this.directCopy) {
+            return this.moveWithinSourceDatabase("DM_ENROLMENT_OP_MAPPING",
+                    "ID, ENROLMENT_ID, OPERATION_ID, " +
+                    "STATUS, PUSH_NOTIFICATION_STATUS, CREATED_TIMESTAMP, UPDATED_TIMESTAMP", "OPERATION_ID");
+        }
         Statement stmt = null;
         PreparedStatement stmt2 = null;
         Statement stmt3 = null;
@@ -436,6 +548,7 @@ public class ArchivalDAOImpl implements ArchivalDAO {
             if (log.isDebugEnabled()) {
                 log.debug(affected + " Rows deleted");
             }
+            return count;
         } catch (SQLException e) {
             throw new ArchivalDAOException("Error occurred while moving enrolment mappings", e);
         } finally {
@@ -446,7 +559,11 @@ public class ArchivalDAOImpl implements ArchivalDAO {
     }
 
     @Override
-    public void moveOperations() throws ArchivalDAOException {
+    public int moveOperations() throws ArchivalDAOException {
+        if (this.directCopy) {
+            return this.moveWithinSourceDatabase("DM_OPERATION",
+                    "ID, TYPE, CREATED_TIMESTAMP, RECEIVED_TIMESTAMP, OPERATION_CODE", "ID");
+        }
         Statement stmt = null;
         PreparedStatement stmt2 = null;
         Statement stmt3 = null;
@@ -486,6 +603,7 @@ public class ArchivalDAOImpl implements ArchivalDAO {
             if (log.isDebugEnabled()) {
                 log.debug(affected + " Rows deleted");
             }
+            return count;
         } catch (SQLException e) {
             throw new ArchivalDAOException("Error occurred while moving operations", e);
         } finally {
@@ -501,7 +619,7 @@ public class ArchivalDAOImpl implements ArchivalDAO {
         try {
             Connection conn = ArchivalSourceDAOFactory.getConnection();
             conn.setAutoCommit(false);
-            String sql = "TRUNCATE DM_ARCHIVED_OPERATIONS";
+            String sql = "TRUNCATE TABLE DM_ARCHIVED_OPERATIONS";
             stmt = conn.prepareStatement(sql);
             stmt.addBatch();
             stmt.executeBatch();
@@ -513,6 +631,35 @@ public class ArchivalDAOImpl implements ArchivalDAO {
         }
     }
 
+    private int moveWithinSourceDatabase(String table, String columns, String keyColumn)
+            throws ArchivalDAOException {
+        PreparedStatement stmt = null;
+        Statement stmt2 = null;
+        try {
+            Connection conn = ArchivalSourceDAOFactory.getConnection();
+            String sql = "INSERT INTO " + table + "_ARCH (" + columns + ", ARCHIVED_AT) SELECT " + columns +
+                    ", ? FROM " + table + " WHERE " + keyColumn + " IN (SELECT ID FROM DM_ARCHIVED_OPERATIONS)";
+            stmt = conn.prepareStatement(sql);
+            stmt.setTimestamp(1, this.currentTimestamp);
+            int count = stmt.executeUpdate();
+            if (log.isDebugEnabled()) {
+                log.debug(count + " [" + table + "] Records copied to the archival table. Starting deletion");
+            }
+            sql = "DELETE FROM " + table + " WHERE " + keyColumn + " IN (SELECT ID FROM DM_ARCHIVED_OPERATIONS)";
+            stmt2 = conn.createStatement();
+            int affected = stmt2.executeUpdate(sql);
+            if (log.isDebugEnabled()) {
+                log.debug(affected + " Rows deleted");
+            }
+            return count;
+        } catch (SQLException e) {
+            throw new ArchivalDAOException("Error occurred while moving records of " + table, e);
+        } finally {
+            ArchivalDAOUtil.cleanupResources(stmt);
+            ArchivalDAOUtil.cleanupResources(stmt2);
+        }
+    }
+
     private Statement createMemoryEfficientStatement(Connection conn) throws ArchivalDAOException, SQLException {
         Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
         stmt.setFetchSize(Integer.MIN_VALUE);
@@ -22,6 +22,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.CarbonConstants;
 import org.wso2.carbon.context.CarbonContext;
+import org.wso2.carbon.device.mgt.common.Device;
 import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
 import org.wso2.carbon.device.mgt.common.DeviceManagementException;
 import org.wso2.carbon.device.mgt.common.authorization.DeviceAccessAuthorizationException;
@@ -33,10 +34,17 @@ import org.wso2.carbon.device.mgt.common.permission.mgt.Permission;
 import org.wso2.carbon.device.mgt.common.permission.mgt.PermissionManagementException;
 import org.wso2.carbon.device.mgt.core.internal.DeviceManagementDataHolder;
 import org.wso2.carbon.device.mgt.core.permission.mgt.PermissionUtils;
+import org.wso2.carbon.device.mgt.core.service.GroupManagementProviderService;
 import org.wso2.carbon.user.api.UserRealm;
 import org.wso2.carbon.user.api.UserStoreException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 /**
@@ -115,6 +123,13 @@ public class DeviceAccessAuthorizationServiceImpl implements DeviceAccessAuthori
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * For users other than device administrators, the devices are resolved in bulk and the groups permitted to the
+     * user are read once per permission, hence the cost does not grow with the number of devices times the number of
+     * permissions.
+     */
     @Override
     public DeviceAuthorizationResult isUserAuthorized(List<DeviceIdentifier> deviceIdentifiers, String username,
                                                       String[] groupPermissions)
@@ -128,35 +143,33 @@ public class DeviceAccessAuthorizationServiceImpl implements DeviceAccessAuthori
             deviceAuthorizationResult.setAuthorizedDevices(deviceIdentifiers);
             return deviceAuthorizationResult;
         }
+        Map<String, Device> devices = getDevices(deviceIdentifiers, username);
+        //check for ownership
+        Map<Integer, Boolean> decisions = new HashMap<>();
+        List<Integer> nonOwnedDeviceIds = new ArrayList<>();
+        for (Device device : devices.values()) {
+            boolean isOwner = device.getEnrolmentInfo() != null &&
+                    username.equals(device.getEnrolmentInfo().getOwner());
+            decisions.put(device.getId(), isOwner);
+            if (!isOwner) {
+                nonOwnedDeviceIds.add(device.getId());
+            }
+        }
+        //check for group permissions
+        if (!nonOwnedDeviceIds.isEmpty() && groupPermissions != null && groupPermissions.length > 0) {
+            try {
+                authorizeViaGroups(username, nonOwnedDeviceIds, groupPermissions, decisions);
+            } catch (GroupManagementException e) {
+                throw new DeviceAccessAuthorizationException("Unable to authorize the access to devices for the " +
+                                                             "user : " + username, e);
+            }
+        }
         for (DeviceIdentifier deviceIdentifier : deviceIdentifiers) {
-            //check for admin and ownership permissions
-            if (isDeviceOwner(deviceIdentifier, username)) {
+            Device device = devices.get(getDeviceKey(deviceIdentifier.getType(), deviceIdentifier.getId()));
+            if (device != null && decisions.get(device.getId())) {
                 deviceAuthorizationResult.addAuthorizedDevice(deviceIdentifier);
             } else {
-                try {
-                    if (groupPermissions == null || groupPermissions.length == 0) {
-                        deviceAuthorizationResult.setUnauthorizedDevices(deviceIdentifiers);
-                        return deviceAuthorizationResult;
-                    }
-                    //check for group permissions
-                    boolean isAuthorized = true;
-                    for (String groupPermission : groupPermissions) {
-                        if (!isAuthorizedViaGroup(username, deviceIdentifier, groupPermission)) {
-                            //if at least one failed, authorizations fails and break the loop
-                            isAuthorized = false;
-                            break;
-                        }
-                    }
-                    if (isAuthorized) {
-                        deviceAuthorizationResult.addAuthorizedDevice(deviceIdentifier);
-                    } else {
-                        deviceAuthorizationResult.addUnauthorizedDevice(deviceIdentifier);
-                    }
-                } catch (GroupManagementException | UserStoreException e) {
-                    throw new DeviceAccessAuthorizationException("Unable to authorize the access to device : " +
-                                                                 deviceIdentifier.getId() + " for the user : " +
-                                                                 username, e);
-                }
+                deviceAuthorizationResult.addUnauthorizedDevice(deviceIdentifier);
             }
         }
         return deviceAuthorizationResult;
@@ -211,6 +224,61 @@ public class DeviceAccessAuthorizationServiceImpl implements DeviceAccessAuthori
         return false;
     }
 
+    /**
+     * Marks the given devices as authorized if each of the permissions is granted to the user through at least one of
+     * the groups of the device.
+     */
+    private void authorizeViaGroups(String username, List<Integer> deviceIds, String[] groupPermissions,
+                                    Map<Integer, Boolean> decisions) throws GroupManagementException {
+        GroupManagementProviderService groupManagementProviderService =
+                DeviceManagementDataHolder.getInstance().getGroupManagementProviderService();
+        List<Set<Integer>> permittedGroupIds = new ArrayList<>(groupPermissions.length);
+        for (String groupPermission : groupPermissions) {
+            Set<Integer> groupIds = new HashSet<>(groupManagementProviderService.getGroupIds(username,
+                    groupPermission));
+            if (groupIds.isEmpty()) {
+                //if at least one permission is not granted through a group, authorization fails for all devices
+                return;
+            }
+            permittedGroupIds.add(groupIds);
+        }
+        Map<Integer, List<Integer>> groupIdsOfDevices = groupManagementProviderService.getGroupIdsOfDevices(deviceIds);
+        for (Map.Entry<Integer, List<Integer>> entry : groupIdsOfDevices.entrySet()) {
+            boolean isAuthorized = true;
+            for (Set<Integer> groupIds : permittedGroupIds) {
+                if (Collections.disjoint(groupIds, entry.getValue())) {
+                    isAuthorized = false;
+                    break;
+                }
+            }
+            if (isAuthorized) {
+                decisions.put(entry.getKey(), true);
+            }
+        }
+    }
+
+    /**
+     * @return the enrolled devices among the given identifiers, keyed by type and identifier.
+     */
+    private Map<String, Device> getDevices(List<DeviceIdentifier> deviceIdentifiers, String username)
+            throws DeviceAccessAuthorizationException {
+        try {
+            Map<String, Device> devices = new HashMap<>();
+            for (Device device : DeviceManagementDataHolder.getInstance().getDeviceManagementProvider()
+                    .getDevices(deviceIdentifiers)) {
+                devices.put(getDeviceKey(device.getType(), device.getDeviceIdentifier()), device);
+            }
+            return devices;
+        } catch (DeviceManagementException e) {
+            throw new DeviceAccessAuthorizationException("Unable to authorize the access to devices for the user : " +
+                                                         username, e);
+        }
+    }
+
+    private String getDeviceKey(String deviceType, String deviceId) {
+        return deviceType + "/" + deviceId;
+    }
+
     private boolean isDeviceOwner(DeviceIdentifier deviceIdentifier, String username)
             throws DeviceAccessAuthorizationException {
         //Check for device ownership. If the user is the owner of the device we allow the access.
@@ -30,6 +30,15 @@ public class DeviceCacheKey {
     private int tenantId;
     private volatile int hashCode;
 
+    public DeviceCacheKey() {
+    }
+
+    public DeviceCacheKey(String deviceId, String deviceType, int tenantId) {
+        this.deviceId = deviceId;
+        this.deviceType = deviceType;
+        this.tenantId = tenantId;
+    }
+
     public String getDeviceId() {
         return deviceId;
     }
@@ -56,6 +65,9 @@ public class DeviceCacheKey {
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
         if (obj == null) {
             return false;
         }
@@ -63,12 +75,8 @@ public class DeviceCacheKey {
             return false;
         }
         final DeviceCacheKey other = (DeviceCacheKey) obj;
-        String thisId = this.deviceId + "-" + this.deviceType + "_" + this.tenantId;
-        String otherId = other.deviceId + "-" + other.deviceType + "_" + other.tenantId;
-        if (!thisId.equals(otherId)) {
-            return false;
-        }
-        return true;
+        return tenantId == other.tenantId && Objects.equals(deviceId, other.deviceId) &&
+                Objects.equals(deviceType, other.deviceType);
     }
 
     @Override
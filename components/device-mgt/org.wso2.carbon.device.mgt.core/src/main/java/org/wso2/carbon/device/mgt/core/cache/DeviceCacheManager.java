@@ -22,6 +22,7 @@ import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
 import org.wso2.carbon.device.mgt.common.Device;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * This defines the contract to be implemented by DeviceCacheManager which holds the necessary functionalities to
@@ -70,4 +71,44 @@ public interface DeviceCacheManager {
      *
      */
     Device getDeviceFromCache(DeviceIdentifier deviceIdentifier, int tenantId);
+
+    /**
+     * Fetches a list of device objects from device-cache.
+     * @param cacheKeys - List of Cache-Keys of the device objects to be fetched.
+     * @return Map of the cached device objects against their Cache-Keys, devices which are not cached are left out.
+     *
+     */
+    Map<DeviceCacheKey, Device> getDevicesFromCache(List<DeviceCacheKey> cacheKeys);
+
+    /**
+     * Adds a list of device objects to the device-cache.
+     * @param devices - List of device objects to be added.
+     * @param tenantId - Owning tenant of the devices.
+     *
+     */
+    void addDevicesToCache(List<Device> devices, int tenantId);
+
+    /**
+     * Records that a device identifier does not belong to any device, for a short period.
+     * @param deviceIdentifier - DeviceIdentifier which was not found.
+     * @param tenantId - Tenant the identifier was looked up in.
+     *
+     */
+    void addUnknownDeviceToCache(DeviceIdentifier deviceIdentifier, int tenantId);
+
+    /**
+     * Checks whether a device identifier was recently found not to belong to any device.
+     * @param deviceIdentifier - DeviceIdentifier to be checked.
+     * @param tenantId - Tenant the identifier is looked up in.
+     * @return true if the identifier is known not to belong to a device.
+     *
+     */
+    boolean isUnknownDevice(DeviceIdentifier deviceIdentifier, int tenantId);
+
+    /**
+     * Returns the statistics of the device-cache of this node.
+     * @return DeviceCacheStatistics object
+     *
+     */
+    DeviceCacheStatistics getStatistics();
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.cache;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * This represents the statistics of the device cache of a node, since the node was started.
+ */
+@ApiModel(value = "DeviceCacheStatistics", description = "Statistics of the device cache of a node.")
+public class DeviceCacheStatistics {
+
+    @ApiModelProperty(name = "hitCount", value = "Lookups answered by the near-cache or the device cache.")
+    private long hitCount;
+
+    @ApiModelProperty(name = "nearCacheHitCount", value = "Lookups answered by the near-cache of the node.")
+    private long nearCacheHitCount;
+
+    @ApiModelProperty(name = "missCount", value = "Lookups which had to read the device from the database.")
+    private long missCount;
+
+    @ApiModelProperty(name = "negativeHitCount", value = "Lookups of identifiers known not to belong to a device.")
+    private long negativeHitCount;
+
+    @ApiModelProperty(name = "evictionCount", value = "Entries evicted from the near-cache to keep it bounded.")
+    private long evictionCount;
+
+    @ApiModelProperty(name = "nearCacheSize", value = "Current number of entries in the near-cache.")
+    private int nearCacheSize;
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public long getNearCacheHitCount() {
+        return nearCacheHitCount;
+    }
+
+    public void setNearCacheHitCount(long nearCacheHitCount) {
+        this.nearCacheHitCount = nearCacheHitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    public long getNegativeHitCount() {
+        return negativeHitCount;
+    }
+
+    public void setNegativeHitCount(long negativeHitCount) {
+        this.negativeHitCount = negativeHitCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    public int getNearCacheSize() {
+        return nearCacheSize;
+    }
+
+    public void setNearCacheSize(int nearCacheSize) {
+        this.nearCacheSize = nearCacheSize;
+    }
+}
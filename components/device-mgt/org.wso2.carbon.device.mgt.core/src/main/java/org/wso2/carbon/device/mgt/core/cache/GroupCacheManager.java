@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.cache;
+
+import java.util.List;
+
+/**
+ * This defines the contract to be implemented by GroupCacheManager which holds the ids of the groups permitted to a
+ * user for a permission and the roles each group is shared with, so that group based authorization does not hit the
+ * user store and the database for every request.
+ */
+public interface GroupCacheManager {
+
+    /**
+     * Returns the invalidation generation of the cached groups of a tenant. It must be taken before the permitted
+     * groups or the roles of a group are loaded, and passed when adding them to the cache.
+     * @param tenantId - Owning tenant of the groups.
+     * @return Generation which changes whenever cached groups of the tenant are cleared or removed.
+     *
+     */
+    long getGeneration(int tenantId);
+
+    /**
+     * Adds the ids of the groups permitted to a user to the cache, unless cached groups of the tenant were cleared
+     * since the generation was taken, in which case the ids may have been loaded before a change.
+     * @param username - Name of the user.
+     * @param permission - Permission the groups are permitted for.
+     * @param groupIds - Ids of the permitted groups, an empty list if there are none.
+     * @param tenantId - Owning tenant of the user.
+     * @param generation - Generation of the tenant taken before the ids were loaded.
+     * @return true if the ids were added to the cache.
+     *
+     */
+    boolean addPermittedGroupIdsToCache(String username, String permission, List<Integer> groupIds, int tenantId,
+                                        long generation);
+
+    /**
+     * Fetches the ids of the groups permitted to a user from the cache.
+     * @param username - Name of the user.
+     * @param permission - Permission the groups are permitted for.
+     * @param tenantId - Owning tenant of the user.
+     * @return List of group ids or null if the user and permission are not in the cache.
+     *
+     */
+    List<Integer> getPermittedGroupIdsFromCache(String username, String permission, int tenantId);
+
+    /**
+     * Removes the permitted groups of all the users of the current tenant. This must be called whenever groups are
+     * added, removed, shared or updated, or the roles of users or the permissions of roles change.
+     *
+     */
+    void clearPermittedGroupIds();
+
+    /**
+     * Adds the roles a group is shared with to the cache, unless cached groups of the tenant were cleared or removed
+     * since the generation was taken.
+     * @param groupId - Id of the group.
+     * @param roles - Roles the group is shared with.
+     * @param tenantId - Owning tenant of the group.
+     * @param generation - Generation of the tenant taken before the roles were loaded.
+     * @return true if the roles were added to the cache.
+     *
+     */
+    boolean addGroupRolesToCache(int groupId, List<String> roles, int tenantId, long generation);
+
+    /**
+     * Fetches the roles a group is shared with from the cache.
+     * @param groupId - Id of the group.
+     * @param tenantId - Owning tenant of the group.
+     * @return List of roles or null if the group is not in the cache.
+     *
+     */
+    List<String> getGroupRolesFromCache(int groupId, int tenantId);
+
+    /**
+     * Removes the cached roles of a group. This must be called whenever the group is removed or its sharing changes.
+     * @param groupId - Id of the group.
+     * @param tenantId - Owning tenant of the group.
+     *
+     */
+    void removeGroupRolesFromCache(int groupId, int tenantId);
+
+    /**
+     * @return Number of lookups which were served from the cache.
+     */
+    long getHitCount();
+
+    /**
+     * @return Number of lookups which were not found in the cache.
+     */
+    long getMissCount();
+
+    /**
+     * @return Number of times the permitted groups of a tenant were invalidated.
+     */
+    long getInvalidationCount();
+
+    /**
+     * Returns the statistics of the group cache of this node.
+     * @return GroupCacheStatistics object
+     *
+     */
+    GroupCacheStatistics getStatistics();
+}
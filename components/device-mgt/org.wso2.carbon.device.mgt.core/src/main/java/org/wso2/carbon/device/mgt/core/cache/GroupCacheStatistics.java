@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.cache;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * This represents the statistics of the group cache of a node, since the node was started.
+ */
+@ApiModel(value = "GroupCacheStatistics", description = "Statistics of the group cache of a node.")
+public class GroupCacheStatistics {
+
+    @ApiModelProperty(name = "enabled", value = "Whether the group cache is enabled.")
+    private boolean enabled;
+
+    @ApiModelProperty(name = "hitCount", value = "Lookups of permitted groups or group roles answered by the cache.")
+    private long hitCount;
+
+    @ApiModelProperty(name = "missCount", value = "Lookups which had to read the user store or the database.")
+    private long missCount;
+
+    @ApiModelProperty(name = "invalidationCount", value = "Times the permitted groups of a tenant were cleared.")
+    private long invalidationCount;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public void setInvalidationCount(long invalidationCount) {
+        this.invalidationCount = invalidationCount;
+    }
+}
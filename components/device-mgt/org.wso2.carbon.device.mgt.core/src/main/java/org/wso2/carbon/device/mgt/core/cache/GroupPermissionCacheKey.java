@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.cache;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * This represents a Key object used in GroupPermissionCache, which holds the groups permitted to a user.
+ */
+public class GroupPermissionCacheKey implements Serializable {
+
+    private static final long serialVersionUID = 6327845612097741255L;
+
+    private String username;
+    private String permission;
+    private int tenantId;
+
+    public GroupPermissionCacheKey(String username, String permission, int tenantId) {
+        this.username = username;
+        this.permission = permission;
+        this.tenantId = tenantId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPermission() {
+        return permission;
+    }
+
+    public int getTenantId() {
+        return tenantId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        GroupPermissionCacheKey other = (GroupPermissionCacheKey) obj;
+        return tenantId == other.tenantId && Objects.equals(username, other.username) &&
+                Objects.equals(permission, other.permission);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(username, permission, tenantId);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.cache;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * This represents a Key object used in PendingOperationCache.
+ */
+public class PendingOperationCacheKey implements Serializable {
+
+    private static final long serialVersionUID = -2425719545442473512L;
+
+    private int enrolmentId;
+    private int tenantId;
+
+    public PendingOperationCacheKey(int enrolmentId, int tenantId) {
+        this.enrolmentId = enrolmentId;
+        this.tenantId = tenantId;
+    }
+
+    public int getEnrolmentId() {
+        return enrolmentId;
+    }
+
+    public int getTenantId() {
+        return tenantId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        PendingOperationCacheKey other = (PendingOperationCacheKey) obj;
+        return enrolmentId == other.enrolmentId && tenantId == other.tenantId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(enrolmentId, tenantId);
+    }
+}
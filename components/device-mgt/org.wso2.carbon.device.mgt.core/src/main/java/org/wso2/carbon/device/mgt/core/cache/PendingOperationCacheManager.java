@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.cache;
+
+import java.util.List;
+
+/**
+ * This defines the contract to be implemented by PendingOperationCacheManager which holds the ids of the pending
+ * operations of each enrolment, so that polling devices without pending operations do not hit the database.
+ */
+public interface PendingOperationCacheManager {
+
+    /**
+     * Returns the invalidation generation of an enrolment. It must be taken before the pending operations are loaded
+     * from the database and passed to {@link #addPendingOperationsToCache(int, List, int, long)}.
+     * @param enrolmentId - Enrolment id of the device.
+     * @param tenantId - Owning tenant of the device.
+     * @return Generation which changes whenever the cached pending operations of the enrolment are removed.
+     *
+     */
+    long getGeneration(int enrolmentId, int tenantId);
+
+    /**
+     * Adds the pending operation ids of an enrolment to the cache, unless they were removed after the given
+     * generation was taken, in which case the ids may have been loaded before an operation was added.
+     * @param enrolmentId - Enrolment id of the device.
+     * @param operationIds - Ids of the pending operations, an empty list if there are none.
+     * @param tenantId - Owning tenant of the device.
+     * @param generation - Generation of the enrolment taken before the ids were loaded.
+     * @return true if the ids were added to the cache.
+     *
+     */
+    boolean addPendingOperationsToCache(int enrolmentId, List<Integer> operationIds, int tenantId, long generation);
+
+    /**
+     * Fetches the pending operation ids of an enrolment from the cache.
+     * @param enrolmentId - Enrolment id of the device.
+     * @param tenantId - Owning tenant of the device.
+     * @return List of pending operation ids or null if the enrolment is not in the cache.
+     *
+     */
+    List<Integer> getPendingOperationsFromCache(int enrolmentId, int tenantId);
+
+    /**
+     * Removes the cached pending operations of an enrolment. This must be called after the change of the pending
+     * operations of the enrolment is committed.
+     * @param enrolmentId - Enrolment id of the device.
+     * @param tenantId - Owning tenant of the device.
+     *
+     */
+    void removePendingOperationsFromCache(int enrolmentId, int tenantId);
+
+    /**
+     * Removes the cached pending operations of a list of enrolments.
+     * @param enrolmentIds - Enrolment ids of the devices.
+     * @param tenantId - Owning tenant of the devices.
+     *
+     */
+    void removePendingOperationsFromCache(List<Integer> enrolmentIds, int tenantId);
+
+    /**
+     * @return Number of lookups which were served from the cache.
+     */
+    long getHitCount();
+
+    /**
+     * @return Number of lookups which were not found in the cache.
+     */
+    long getMissCount();
+}
@@ -22,15 +22,29 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.device.mgt.common.Device;
 import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
+import org.wso2.carbon.device.mgt.common.EnrolmentInfo;
+import org.wso2.carbon.device.mgt.core.DeviceManagementConstants;
 import org.wso2.carbon.device.mgt.core.cache.DeviceCacheKey;
 import org.wso2.carbon.device.mgt.core.cache.DeviceCacheManager;
+import org.wso2.carbon.device.mgt.core.cache.DeviceCacheStatistics;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.config.cache.DeviceCacheConfiguration;
 import org.wso2.carbon.device.mgt.core.util.DeviceManagerUtil;
 
 import javax.cache.Cache;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Implementation of DeviceCacheManager.
+ * Implementation of DeviceCacheManager. Devices are cached in two tiers, a bounded near-cache local to the node in
+ * front of the device cache, which is synchronized with the other nodes of the cluster. Identifiers which do not
+ * belong to a device are remembered in the device cache by a marker device, so that enrolling the device on any node
+ * invalidates them on every node as it does for devices.
  */
 public class DeviceCacheManagerImpl implements DeviceCacheManager {
 
@@ -38,6 +52,15 @@ public class DeviceCacheManagerImpl implements DeviceCacheManager {
 
     private static DeviceCacheManagerImpl deviceCacheManager;
 
+    private static final int UNKNOWN_DEVICE_MARKER_ID = -1;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong nearCacheHitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong negativeHitCount = new AtomicLong();
+
+    private volatile DeviceNearCache nearCache;
+
     private DeviceCacheManagerImpl() {
     }
 
@@ -57,11 +80,8 @@ public class DeviceCacheManagerImpl implements DeviceCacheManager {
         Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
         if (lCache != null) {
             DeviceCacheKey cacheKey = getCacheKey(deviceIdentifier, tenantId);
-            if (lCache.containsKey(cacheKey)) {
-                this.updateDeviceInCache(deviceIdentifier, device, tenantId);
-            } else {
-                lCache.put(cacheKey, device);
-            }
+            lCache.put(cacheKey, device);
+            getNearCache().put(cacheKey, device);
         }
     }
 
@@ -70,9 +90,8 @@ public class DeviceCacheManagerImpl implements DeviceCacheManager {
         Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
         if (lCache != null) {
             DeviceCacheKey cacheKey = getCacheKey(deviceIdentifier, tenantId);
-            if (lCache.containsKey(cacheKey)) {
-                lCache.remove(cacheKey);
-            }
+            getNearCache().remove(cacheKey);
+            lCache.remove(cacheKey);
         }
     }
 
@@ -81,9 +100,8 @@ public class DeviceCacheManagerImpl implements DeviceCacheManager {
         Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
         if (lCache != null) {
             for (DeviceCacheKey cacheKey : deviceList) {
-                if (lCache.containsKey(cacheKey)) {
-                    lCache.remove(cacheKey);
-                }
+                getNearCache().remove(cacheKey);
+                lCache.remove(cacheKey);
             }
         }
     }
@@ -93,27 +111,171 @@ public class DeviceCacheManagerImpl implements DeviceCacheManager {
         Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
         if (lCache != null) {
             DeviceCacheKey cacheKey = getCacheKey(deviceIdentifier, tenantId);
-            if (lCache.containsKey(cacheKey)) {
-                lCache.replace(cacheKey, device);
+            if (lCache.replace(cacheKey, device)) {
+                getNearCache().put(cacheKey, device);
+            } else {
+                getNearCache().remove(cacheKey);
             }
         }
     }
 
     @Override
     public Device getDeviceFromCache(DeviceIdentifier deviceIdentifier, int tenantId) {
+        Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
+        if (lCache == null) {
+            return null;
+        }
+        DeviceCacheKey cacheKey = getCacheKey(deviceIdentifier, tenantId);
+        Device device = getNearCache().get(cacheKey);
+        if (device != null) {
+            hitCount.incrementAndGet();
+            nearCacheHitCount.incrementAndGet();
+            return device;
+        }
+        device = lCache.get(cacheKey);
+        if (device == null) {
+            missCount.incrementAndGet();
+        } else if (isUnknownDeviceMarker(device)) {
+            // Answered by isUnknownDevice, hence not counted here
+            return null;
+        } else {
+            hitCount.incrementAndGet();
+            getNearCache().put(cacheKey, device);
+        }
+        return device;
+    }
+
+    @Override
+    public Map<DeviceCacheKey, Device> getDevicesFromCache(List<DeviceCacheKey> cacheKeys) {
+        Map<DeviceCacheKey, Device> devices = new HashMap<>();
+        Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
+        if (lCache == null) {
+            return devices;
+        }
+        Set<DeviceCacheKey> remainingKeys = new HashSet<>();
+        for (DeviceCacheKey cacheKey : cacheKeys) {
+            Device device = getNearCache().get(cacheKey);
+            if (device == null) {
+                remainingKeys.add(cacheKey);
+            } else {
+                devices.put(cacheKey, device);
+            }
+        }
+        hitCount.addAndGet(devices.size());
+        nearCacheHitCount.addAndGet(devices.size());
+        if (!remainingKeys.isEmpty()) {
+            Map<DeviceCacheKey, Device> cachedDevices = lCache.getAll(remainingKeys);
+            for (Map.Entry<DeviceCacheKey, Device> cachedDevice : cachedDevices.entrySet()) {
+                if (cachedDevice.getValue() != null && !isUnknownDeviceMarker(cachedDevice.getValue())) {
+                    devices.put(cachedDevice.getKey(), cachedDevice.getValue());
+                    getNearCache().put(cachedDevice.getKey(), cachedDevice.getValue());
+                    hitCount.incrementAndGet();
+                }
+            }
+            missCount.addAndGet(cacheKeys.size() - devices.size());
+        }
+        return devices;
+    }
+
+    @Override
+    public void addDevicesToCache(List<Device> devices, int tenantId) {
+        Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
+        if (lCache != null && !devices.isEmpty()) {
+            Map<DeviceCacheKey, Device> cacheEntries = new HashMap<>();
+            for (Device device : devices) {
+                DeviceCacheKey cacheKey = new DeviceCacheKey(device.getDeviceIdentifier(), device.getType(),
+                        tenantId);
+                cacheEntries.put(cacheKey, device);
+                getNearCache().put(cacheKey, device);
+            }
+            lCache.putAll(cacheEntries);
+        }
+    }
+
+    @Override
+    public void addUnknownDeviceToCache(DeviceIdentifier deviceIdentifier, int tenantId) {
         Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
         if (lCache != null) {
-            return lCache.get(getCacheKey(deviceIdentifier, tenantId));
+            DeviceCacheKey cacheKey = getCacheKey(deviceIdentifier, tenantId);
+            getNearCache().remove(cacheKey);
+            lCache.put(cacheKey, createUnknownDeviceMarker());
         }
-        return null;
     }
 
+    @Override
+    public boolean isUnknownDevice(DeviceIdentifier deviceIdentifier, int tenantId) {
+        Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
+        if (lCache == null) {
+            return false;
+        }
+        DeviceCacheKey cacheKey = getCacheKey(deviceIdentifier, tenantId);
+        Device device = lCache.get(cacheKey);
+        if (device == null || !isUnknownDeviceMarker(device)) {
+            return false;
+        }
+        if (device.getEnrolmentInfo().getDateOfLastUpdate() <= System.currentTimeMillis()) {
+            lCache.remove(cacheKey);
+            return false;
+        }
+        negativeHitCount.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug("Device '" + deviceIdentifier.getId() + "' of type '" + deviceIdentifier.getType() +
+                    "' is known not to exist in tenant " + tenantId);
+        }
+        return true;
+    }
+
+    @Override
+    public DeviceCacheStatistics getStatistics() {
+        DeviceCacheStatistics statistics = new DeviceCacheStatistics();
+        statistics.setHitCount(hitCount.get());
+        statistics.setNearCacheHitCount(nearCacheHitCount.get());
+        statistics.setMissCount(missCount.get());
+        statistics.setNegativeHitCount(negativeHitCount.get());
+        statistics.setEvictionCount(getNearCache().getEvictionCount());
+        statistics.setNearCacheSize(getNearCache().size());
+        return statistics;
+    }
+
+    private DeviceNearCache getNearCache() {
+        if (nearCache == null) {
+            synchronized (this) {
+                if (nearCache == null) {
+                    DeviceCacheConfiguration config = DeviceConfigurationManager.getInstance()
+                            .getDeviceManagementConfig().getDeviceCacheConfiguration();
+                    int capacity = config.getNearCacheCapacity() > 0 ? config.getNearCacheCapacity() :
+                            DeviceManagementConstants.DEFAULT_DEVICE_NEAR_CACHE_CAPACITY;
+                    int expiryTime = config.getNearCacheExpiryTime() > 0 ? config.getNearCacheExpiryTime() :
+                            DeviceManagementConstants.DEFAULT_DEVICE_NEAR_CACHE_EXPIRY_TIME;
+                    nearCache = new DeviceNearCache(capacity, expiryTime);
+                }
+            }
+        }
+        return nearCache;
+    }
+
+    /**
+     * Creates the device which marks an identifier which does not belong to a device. The marker carries the time it
+     * expires at as the date of last update of its enrolment, as the device cache may keep it longer.
+     */
+    private Device createUnknownDeviceMarker() {
+        DeviceCacheConfiguration config = DeviceConfigurationManager.getInstance().getDeviceManagementConfig()
+                .getDeviceCacheConfiguration();
+        int negativeExpiryTime = config.getNegativeCacheExpiryTime() > 0 ? config.getNegativeCacheExpiryTime() :
+                DeviceManagementConstants.DEFAULT_DEVICE_NEGATIVE_CACHE_EXPIRY_TIME;
+        EnrolmentInfo enrolmentInfo = new EnrolmentInfo();
+        enrolmentInfo.setDateOfLastUpdate(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(negativeExpiryTime));
+        Device marker = new Device();
+        marker.setId(UNKNOWN_DEVICE_MARKER_ID);
+        marker.setEnrolmentInfo(enrolmentInfo);
+        return marker;
+    }
+
+    private static boolean isUnknownDeviceMarker(Device device) {
+        return device.getId() == UNKNOWN_DEVICE_MARKER_ID;
+    }
 
     private DeviceCacheKey getCacheKey(DeviceIdentifier deviceIdentifier, int tenantId) {
-        DeviceCacheKey deviceCacheKey = new DeviceCacheKey();
-        deviceCacheKey.setDeviceId(deviceIdentifier.getId());
-        deviceCacheKey.setDeviceType(deviceIdentifier.getType());
-        deviceCacheKey.setTenantId(tenantId);
-        return deviceCacheKey;
+        return new DeviceCacheKey(deviceIdentifier.getId(), deviceIdentifier.getType(), tenantId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.cache.impl;
+
+import org.wso2.carbon.device.mgt.common.Device;
+import org.wso2.carbon.device.mgt.common.EnrolmentInfo;
+import org.wso2.carbon.device.mgt.core.cache.DeviceCacheKey;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, node local cache of devices in front of the device cache. Entries expire a fixed time after they are
+ * written and the least recently used entry is evicted when the cache is full.
+ * <p>
+ * Devices are copied, including their features, properties, device info and applications, when they are written and
+ * when they are read. Hence callers may modify the returned devices as they would modify a device read from the
+ * device cache, which stores devices by value.
+ */
+class DeviceNearCache {
+
+    private final int capacity;
+    private final long expiryNanos;
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final Map<DeviceCacheKey, Entry> entries;
+
+    /**
+     * @param capacity   maximum number of entries.
+     * @param expiryTime seconds a device is kept.
+     */
+    DeviceNearCache(int capacity, int expiryTime) {
+        this.capacity = capacity;
+        this.expiryNanos = TimeUnit.SECONDS.toNanos(expiryTime);
+        this.entries = new LinkedHashMap<DeviceCacheKey, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DeviceCacheKey, Entry> eldest) {
+                if (size() > DeviceNearCache.this.capacity) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return a copy of the cached device of the key, or null if there is none or it has expired.
+     */
+    Device get(DeviceCacheKey key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(key);
+                return null;
+            }
+        }
+        return entry == null ? null : copyOf(entry.device);
+    }
+
+    void put(DeviceCacheKey key, Device device) {
+        if (expiryNanos <= 0) {
+            return;
+        }
+        Device copy;
+        try {
+            copy = copyOf(device);
+        } catch (IllegalArgumentException e) {
+            // A device which cannot be copied is only kept in the device cache
+            remove(key);
+            return;
+        }
+        Entry entry = new Entry(copy, System.nanoTime() + expiryNanos);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    void remove(DeviceCacheKey key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Returns a copy of the device which shares no mutable state with it.
+     *
+     * @throws IllegalArgumentException if the device info, a feature or an application of the device can not be
+     *                                  serialized.
+     */
+    static Device copyOf(Device device) {
+        Device copy = new Device();
+        copy.setId(device.getId());
+        copy.setName(device.getName());
+        copy.setType(device.getType());
+        copy.setDescription(device.getDescription());
+        copy.setDeviceIdentifier(device.getDeviceIdentifier());
+        if (device.getFeatures() != null) {
+            copy.setFeatures(copyList(device.getFeatures()));
+        }
+        if (device.getProperties() != null) {
+            List<Device.Property> properties = new ArrayList<>();
+            for (Device.Property property : device.getProperties()) {
+                Device.Property propertyCopy = null;
+                if (property != null) {
+                    propertyCopy = new Device.Property();
+                    propertyCopy.setName(property.getName());
+                    propertyCopy.setValue(property.getValue());
+                }
+                properties.add(propertyCopy);
+            }
+            copy.setProperties(properties);
+        }
+        if (device.getDeviceInfo() != null) {
+            copy.setDeviceInfo(copyValue(device.getDeviceInfo()));
+        }
+        if (device.getApplications() != null) {
+            copy.setApplications(copyList(device.getApplications()));
+        }
+        EnrolmentInfo enrolmentInfo = device.getEnrolmentInfo();
+        if (enrolmentInfo != null) {
+            EnrolmentInfo enrolmentCopy = new EnrolmentInfo(enrolmentInfo.getOwner(), enrolmentInfo.getOwnership(),
+                    enrolmentInfo.getStatus());
+            enrolmentCopy.setId(enrolmentInfo.getId());
+            enrolmentCopy.setDateOfEnrolment(enrolmentInfo.getDateOfEnrolment());
+            enrolmentCopy.setDateOfLastUpdate(enrolmentInfo.getDateOfLastUpdate());
+            copy.setEnrolmentInfo(enrolmentCopy);
+        }
+        return copy;
+    }
+
+    private static <T extends Serializable> List<T> copyList(List<T> list) {
+        List<T> copy = new ArrayList<>(list.size());
+        for (T element : list) {
+            copy.add(element == null ? null : copyValue(element));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Serializable> T copyValue(T object) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(object);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                return (T) in.readObject();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalArgumentException("Unable to copy " + object.getClass().getName(), e);
+        }
+    }
+
+    private static class Entry {
+
+        private final Device device;
+        private final long expiresAt;
+
+        private Entry(Device device, long expiresAt) {
+            this.device = device;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.cache.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.device.mgt.core.cache.GroupCacheManager;
+import org.wso2.carbon.device.mgt.core.cache.GroupCacheStatistics;
+import org.wso2.carbon.device.mgt.core.cache.GroupPermissionCacheKey;
+import org.wso2.carbon.device.mgt.core.cache.GroupRoleCacheKey;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.config.cache.GroupCacheConfiguration;
+import org.wso2.carbon.device.mgt.core.util.DeviceManagerUtil;
+
+import javax.cache.Cache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of GroupCacheManager. The caches are obtained from the cache manager of the current tenant, hence
+ * clearing the permitted groups affects only the current tenant.
+ * <p>
+ * Each tenant has an invalidation generation, which is incremented together with any clear or removal of its cached
+ * groups. Loaded groups are added to the cache only if the generation did not change while they were loaded, hence a
+ * load which raced a change does not cache the groups read before the change.
+ */
+public class GroupCacheManagerImpl implements GroupCacheManager {
+
+    private static final Log log = LogFactory.getLog(GroupCacheManagerImpl.class);
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private static GroupCacheManagerImpl groupCacheManager;
+
+    private final long[] generations = new long[GENERATION_STRIPES];
+    private final Object[] locks = new Object[GENERATION_STRIPES];
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    private GroupCacheManagerImpl() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public static GroupCacheManagerImpl getInstance() {
+        if (groupCacheManager == null) {
+            synchronized (GroupCacheManagerImpl.class) {
+                if (groupCacheManager == null) {
+                    groupCacheManager = new GroupCacheManagerImpl();
+                }
+            }
+        }
+        return groupCacheManager;
+    }
+
+    @Override
+    public long getGeneration(int tenantId) {
+        int stripe = getStripe(tenantId);
+        synchronized (locks[stripe]) {
+            return generations[stripe];
+        }
+    }
+
+    @Override
+    public boolean addPermittedGroupIdsToCache(String username, String permission, List<Integer> groupIds,
+                                               int tenantId, long generation) {
+        Cache<GroupPermissionCacheKey, ArrayList<Integer>> lCache = DeviceManagerUtil.getGroupPermissionCache();
+        if (lCache == null) {
+            return false;
+        }
+        int stripe = getStripe(tenantId);
+        synchronized (locks[stripe]) {
+            if (generations[stripe] != generation) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Groups of tenant " + tenantId + " changed while loading the groups permitted to '" +
+                            username + "', hence they are not cached.");
+                }
+                return false;
+            }
+            lCache.put(new GroupPermissionCacheKey(username, permission, tenantId), new ArrayList<>(groupIds));
+        }
+        return true;
+    }
+
+    @Override
+    public List<Integer> getPermittedGroupIdsFromCache(String username, String permission, int tenantId) {
+        Cache<GroupPermissionCacheKey, ArrayList<Integer>> lCache = DeviceManagerUtil.getGroupPermissionCache();
+        if (lCache == null) {
+            return null;
+        }
+        return this.count(lCache.get(new GroupPermissionCacheKey(username, permission, tenantId)));
+    }
+
+    @Override
+    public void clearPermittedGroupIds() {
+        Cache<GroupPermissionCacheKey, ArrayList<Integer>> lCache = DeviceManagerUtil.getGroupPermissionCache();
+        if (lCache != null) {
+            int stripe = getStripe(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId());
+            synchronized (locks[stripe]) {
+                generations[stripe]++;
+                lCache.removeAll();
+            }
+            invalidationCount.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug("Cleared the permitted groups of the users. Hits: " + hitCount.get() + ", misses: " +
+                        missCount.get() + ", invalidations: " + invalidationCount.get());
+            }
+        }
+    }
+
+    @Override
+    public boolean addGroupRolesToCache(int groupId, List<String> roles, int tenantId, long generation) {
+        Cache<GroupRoleCacheKey, ArrayList<String>> lCache = DeviceManagerUtil.getGroupRoleCache();
+        if (lCache == null) {
+            return false;
+        }
+        int stripe = getStripe(tenantId);
+        synchronized (locks[stripe]) {
+            if (generations[stripe] != generation) {
+                return false;
+            }
+            lCache.put(new GroupRoleCacheKey(groupId, tenantId), new ArrayList<>(roles));
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> getGroupRolesFromCache(int groupId, int tenantId) {
+        Cache<GroupRoleCacheKey, ArrayList<String>> lCache = DeviceManagerUtil.getGroupRoleCache();
+        if (lCache == null) {
+            return null;
+        }
+        List<String> roles = this.count(lCache.get(new GroupRoleCacheKey(groupId, tenantId)));
+        // Callers may modify the roles, as they would modify the roles read from the database
+        return roles == null ? null : new ArrayList<>(roles);
+    }
+
+    @Override
+    public void removeGroupRolesFromCache(int groupId, int tenantId) {
+        Cache<GroupRoleCacheKey, ArrayList<String>> lCache = DeviceManagerUtil.getGroupRoleCache();
+        if (lCache != null) {
+            int stripe = getStripe(tenantId);
+            synchronized (locks[stripe]) {
+                generations[stripe]++;
+                lCache.remove(new GroupRoleCacheKey(groupId, tenantId));
+            }
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    @Override
+    public GroupCacheStatistics getStatistics() {
+        GroupCacheConfiguration config = DeviceConfigurationManager.getInstance().getDeviceManagementConfig()
+                .getGroupCacheConfiguration();
+        GroupCacheStatistics statistics = new GroupCacheStatistics();
+        statistics.setEnabled(config != null && config.isEnabled());
+        statistics.setHitCount(hitCount.get());
+        statistics.setMissCount(missCount.get());
+        statistics.setInvalidationCount(invalidationCount.get());
+        return statistics;
+    }
+
+    private static int getStripe(int tenantId) {
+        return (tenantId & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private <T> T count(T value) {
+        if (value == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.cache.impl;
+
+import org.wso2.carbon.device.mgt.core.cache.PendingOperationCacheKey;
+import org.wso2.carbon.device.mgt.core.cache.PendingOperationCacheManager;
+import org.wso2.carbon.device.mgt.core.util.DeviceManagerUtil;
+
+import javax.cache.Cache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of PendingOperationCacheManager. Entries are removed through the javax.cache API, hence the
+ * removals are propagated to the other nodes of the cluster in the same way as the device cache.
+ * <p>
+ * Each removal moves the generation of the enrolment forward, and a load which was started before the removal is not
+ * added to the cache, since it may have missed the operation which caused the removal. Generations are kept in a
+ * fixed number of stripes, so an unrelated removal may only make a load skip the cache.
+ */
+public class PendingOperationCacheManagerImpl implements PendingOperationCacheManager {
+
+    private static PendingOperationCacheManagerImpl pendingOperationCacheManager;
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final long[] generations = new long[GENERATION_STRIPES];
+    private final Object[] locks = new Object[GENERATION_STRIPES];
+
+    private PendingOperationCacheManagerImpl() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public static PendingOperationCacheManagerImpl getInstance() {
+        if (pendingOperationCacheManager == null) {
+            synchronized (PendingOperationCacheManagerImpl.class) {
+                if (pendingOperationCacheManager == null) {
+                    pendingOperationCacheManager = new PendingOperationCacheManagerImpl();
+                }
+            }
+        }
+        return pendingOperationCacheManager;
+    }
+
+    @Override
+    public long getGeneration(int enrolmentId, int tenantId) {
+        int stripe = getStripe(enrolmentId, tenantId);
+        synchronized (locks[stripe]) {
+            return generations[stripe];
+        }
+    }
+
+    @Override
+    public boolean addPendingOperationsToCache(int enrolmentId, List<Integer> operationIds, int tenantId,
+                                               long generation) {
+        Cache<PendingOperationCacheKey, ArrayList<Integer>> lCache = DeviceManagerUtil.getPendingOperationCache();
+        if (lCache == null) {
+            return false;
+        }
+        int stripe = getStripe(enrolmentId, tenantId);
+        // Checked and put under the lock of the removal, so that a removal cannot happen in between
+        synchronized (locks[stripe]) {
+            if (generations[stripe] != generation) {
+                return false;
+            }
+            lCache.put(new PendingOperationCacheKey(enrolmentId, tenantId), new ArrayList<>(operationIds));
+        }
+        return true;
+    }
+
+    @Override
+    public List<Integer> getPendingOperationsFromCache(int enrolmentId, int tenantId) {
+        Cache<PendingOperationCacheKey, ArrayList<Integer>> lCache = DeviceManagerUtil.getPendingOperationCache();
+        if (lCache == null) {
+            return null;
+        }
+        List<Integer> operationIds = lCache.get(new PendingOperationCacheKey(enrolmentId, tenantId));
+        if (operationIds == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return operationIds;
+    }
+
+    @Override
+    public void removePendingOperationsFromCache(int enrolmentId, int tenantId) {
+        Cache<PendingOperationCacheKey, ArrayList<Integer>> lCache = DeviceManagerUtil.getPendingOperationCache();
+        int stripe = getStripe(enrolmentId, tenantId);
+        synchronized (locks[stripe]) {
+            generations[stripe]++;
+            if (lCache != null) {
+                lCache.remove(new PendingOperationCacheKey(enrolmentId, tenantId));
+            }
+        }
+    }
+
+    @Override
+    public void removePendingOperationsFromCache(List<Integer> enrolmentIds, int tenantId) {
+        for (Integer enrolmentId : enrolmentIds) {
+            removePendingOperationsFromCache(enrolmentId, tenantId);
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private static int getStripe(int enrolmentId, int tenantId) {
+        return ((31 * tenantId + enrolmentId) & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+}
@@ -21,10 +21,13 @@ import org.wso2.carbon.device.mgt.core.config.analytics.OperationAnalyticsConfig
 import org.wso2.carbon.device.mgt.core.config.archival.ArchivalConfiguration;
 import org.wso2.carbon.device.mgt.core.config.cache.CertificateCacheConfiguration;
 import org.wso2.carbon.device.mgt.core.config.cache.DeviceCacheConfiguration;
+import org.wso2.carbon.device.mgt.core.config.cache.GroupCacheConfiguration;
+import org.wso2.carbon.device.mgt.core.config.cache.PendingOperationCacheConfiguration;
 import org.wso2.carbon.device.mgt.core.config.geo.location.GeoLocationConfiguration;
 import org.wso2.carbon.device.mgt.core.config.identity.IdentityConfigurations;
 import org.wso2.carbon.device.mgt.core.config.keymanager.KeyManagerConfigurations;
 import org.wso2.carbon.device.mgt.core.config.pagination.PaginationConfiguration;
+import org.wso2.carbon.device.mgt.core.config.payload.PayloadConfiguration;
 import org.wso2.carbon.device.mgt.core.config.policy.PolicyConfiguration;
 import org.wso2.carbon.device.mgt.core.config.pull.notification.PullNotificationConfiguration;
 import org.wso2.carbon.device.mgt.core.config.push.notification.PushNotificationConfiguration;
@@ -52,12 +55,15 @@ public final class DeviceManagementConfig {
     private PullNotificationConfiguration pullNotificationConfiguration;
     private DeviceStatusTaskConfig deviceStatusTaskConfig;
     private DeviceCacheConfiguration deviceCacheConfiguration;
+    private PendingOperationCacheConfiguration pendingOperationCacheConfiguration;
+    private GroupCacheConfiguration groupCacheConfiguration;
     private CertificateCacheConfiguration certificateCacheConfiguration;
     private OperationAnalyticsConfiguration operationAnalyticsConfiguration;
     private GeoLocationConfiguration geoLocationConfiguration;
     private String defaultGroupsConfiguration;
     private RemoteSessionConfiguration remoteSessionConfiguration;
     private ArchivalConfiguration archivalConfiguration;
+    private PayloadConfiguration payloadConfiguration;
 
 
     @XmlElement(name = "ManagementRepository", required = true)
@@ -151,6 +157,25 @@ public final class DeviceManagementConfig {
         this.deviceCacheConfiguration = deviceCacheConfiguration;
     }
 
+    @XmlElement(name = "PendingOperationCacheConfiguration")
+    public PendingOperationCacheConfiguration getPendingOperationCacheConfiguration() {
+        return pendingOperationCacheConfiguration;
+    }
+
+    public void setPendingOperationCacheConfiguration(
+            PendingOperationCacheConfiguration pendingOperationCacheConfiguration) {
+        this.pendingOperationCacheConfiguration = pendingOperationCacheConfiguration;
+    }
+
+    @XmlElement(name = "GroupCacheConfiguration")
+    public GroupCacheConfiguration getGroupCacheConfiguration() {
+        return groupCacheConfiguration;
+    }
+
+    public void setGroupCacheConfiguration(GroupCacheConfiguration groupCacheConfiguration) {
+        this.groupCacheConfiguration = groupCacheConfiguration;
+    }
+
     @XmlElement(name = "CertificateCacheConfiguration", required = true)
     public CertificateCacheConfiguration getCertificateCacheConfiguration() {
         return certificateCacheConfiguration;
@@ -203,5 +228,13 @@ public final class DeviceManagementConfig {
     public void setRemoteSessionConfiguration(RemoteSessionConfiguration remoteSessionConfiguration) {
         this.remoteSessionConfiguration = remoteSessionConfiguration;
     }
-}
 
+    @XmlElement(name = "PayloadConfiguration")
+    public PayloadConfiguration getPayloadConfiguration() {
+        return payloadConfiguration;
+    }
+
+    public void setPayloadConfiguration(PayloadConfiguration payloadConfiguration) {
+        this.payloadConfiguration = payloadConfiguration;
+    }
+}
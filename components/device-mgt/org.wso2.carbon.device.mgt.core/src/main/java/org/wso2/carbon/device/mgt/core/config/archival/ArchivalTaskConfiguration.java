@@ -28,6 +28,10 @@ public class ArchivalTaskConfiguration {
     private String taskClazz;
     private int retentionPeriod;
     private int batchSize;
+    private boolean streamingEnabled;
+    private int chunkSize;
+    private int maxRowsPerSecond;
+    private boolean directCopy;
     private PurgingTaskConfiguration purgingTaskConfiguration;
     private final int MULTIPLIER = -1;
 
@@ -85,4 +89,40 @@ public class ArchivalTaskConfiguration {
     public void setBatchSize(int batchSize) {
         this.batchSize = batchSize;
     }
+
+    @XmlElement(name = "StreamingEnabled")
+    public boolean isStreamingEnabled() {
+        return streamingEnabled;
+    }
+
+    public void setStreamingEnabled(boolean streamingEnabled) {
+        this.streamingEnabled = streamingEnabled;
+    }
+
+    @XmlElement(name = "ChunkSize")
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    @XmlElement(name = "MaxRowsPerSecond")
+    public int getMaxRowsPerSecond() {
+        return maxRowsPerSecond;
+    }
+
+    public void setMaxRowsPerSecond(int maxRowsPerSecond) {
+        this.maxRowsPerSecond = maxRowsPerSecond;
+    }
+
+    @XmlElement(name = "DirectCopy")
+    public boolean isDirectCopy() {
+        return directCopy;
+    }
+
+    public void setDirectCopy(boolean directCopy) {
+        this.directCopy = directCopy;
+    }
 }
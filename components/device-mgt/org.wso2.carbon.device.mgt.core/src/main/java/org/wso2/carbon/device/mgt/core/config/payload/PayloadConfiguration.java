@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.config.payload;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Configuration of the format operation payloads and application properties are written in.
+ */
+@XmlRootElement(name = "PayloadConfiguration")
+public class PayloadConfiguration {
+
+    public static final String FORMAT_JAVA_SERIALIZATION = "JAVA_SERIALIZATION";
+    public static final String FORMAT_JSON = "JSON";
+
+    private String writeFormat;
+    private int compressionThreshold;
+
+    @XmlElement(name = "WriteFormat")
+    public String getWriteFormat() {
+        return writeFormat;
+    }
+
+    public void setWriteFormat(String writeFormat) {
+        this.writeFormat = writeFormat;
+    }
+
+    @XmlElement(name = "CompressionThreshold")
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+}
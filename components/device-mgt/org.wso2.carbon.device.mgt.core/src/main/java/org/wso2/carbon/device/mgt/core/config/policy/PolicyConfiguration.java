@@ -35,6 +35,9 @@ public class PolicyConfiguration {
     private List<String> platforms;
     private String policyEvaluationPoint;
     private boolean cacheEnable;
+    private int effectivePolicyCacheCapacity;
+    private int delegationThreadCount;
+    private int monitoringThreadCount;
 
     @XmlElement(name = "MonitoringClass", required = true)
     public String getMonitoringClass() {
@@ -118,4 +121,31 @@ public class PolicyConfiguration {
         this.cacheEnable = cacheEnable;
     }
 
+    @XmlElement(name = "EffectivePolicyCacheCapacity")
+    public int getEffectivePolicyCacheCapacity() {
+        return effectivePolicyCacheCapacity;
+    }
+
+    public void setEffectivePolicyCacheCapacity(int effectivePolicyCacheCapacity) {
+        this.effectivePolicyCacheCapacity = effectivePolicyCacheCapacity;
+    }
+
+    @XmlElement(name = "DelegationThreadCount")
+    public int getDelegationThreadCount() {
+        return delegationThreadCount;
+    }
+
+    public void setDelegationThreadCount(int delegationThreadCount) {
+        this.delegationThreadCount = delegationThreadCount;
+    }
+
+    @XmlElement(name = "MonitoringThreadCount")
+    public int getMonitoringThreadCount() {
+        return monitoringThreadCount;
+    }
+
+    public void setMonitoringThreadCount(int monitoringThreadCount) {
+        this.monitoringThreadCount = monitoringThreadCount;
+    }
+
 }
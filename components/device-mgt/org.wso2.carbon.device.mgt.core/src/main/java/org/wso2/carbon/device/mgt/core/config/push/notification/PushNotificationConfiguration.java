@@ -32,7 +32,10 @@ public class PushNotificationConfiguration {
     private int schedulerBatchDelayMills;
     private int schedulerTaskInitialDelay;
     private boolean schedulerTaskEnabled;
+    private int schedulerTaskWorkerCount;
+    private int schedulerTaskLeaseTimeMills;
     private List<String> pushNotificationProviders;
+    private NotificationDispatcherConfiguration notificationDispatcherConfiguration;
 
     @XmlElement(name = "SchedulerBatchSize", required = true)
     public int getSchedulerBatchSize() {
@@ -70,6 +73,24 @@ public class PushNotificationConfiguration {
         this.schedulerTaskEnabled = schedulerTaskEnabled;
     }
 
+    @XmlElement(name = "SchedulerTaskWorkerCount")
+    public int getSchedulerTaskWorkerCount() {
+        return schedulerTaskWorkerCount;
+    }
+
+    public void setSchedulerTaskWorkerCount(int schedulerTaskWorkerCount) {
+        this.schedulerTaskWorkerCount = schedulerTaskWorkerCount;
+    }
+
+    @XmlElement(name = "SchedulerTaskLeaseTimeMills")
+    public int getSchedulerTaskLeaseTimeMills() {
+        return schedulerTaskLeaseTimeMills;
+    }
+
+    public void setSchedulerTaskLeaseTimeMills(int schedulerTaskLeaseTimeMills) {
+        this.schedulerTaskLeaseTimeMills = schedulerTaskLeaseTimeMills;
+    }
+
     @XmlElementWrapper(name = "PushNotificationProviders", required = true)
     @XmlElement(name = "Provider", required = true)
     public List<String> getPushNotificationProviders() {
@@ -79,4 +100,14 @@ public class PushNotificationConfiguration {
     public void setPushNotificationProviders(List<String> pushNotificationProviders) {
         this.pushNotificationProviders = pushNotificationProviders;
     }
+
+    @XmlElement(name = "NotificationDispatcher")
+    public NotificationDispatcherConfiguration getNotificationDispatcherConfiguration() {
+        return notificationDispatcherConfiguration;
+    }
+
+    public void setNotificationDispatcherConfiguration(
+            NotificationDispatcherConfiguration notificationDispatcherConfiguration) {
+        this.notificationDispatcherConfiguration = notificationDispatcherConfiguration;
+    }
 }
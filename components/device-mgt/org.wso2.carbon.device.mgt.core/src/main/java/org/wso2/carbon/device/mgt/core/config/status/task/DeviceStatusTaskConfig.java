@@ -25,6 +25,8 @@ import javax.xml.bind.annotation.XmlRootElement;
 public class DeviceStatusTaskConfig {
 
     private boolean enabled;
+    private boolean incremental;
+    private int updateChunkSize;
 
     @XmlElement(name = "Enable", required = true)
     public boolean isEnabled() {
@@ -35,4 +37,22 @@ public class DeviceStatusTaskConfig {
         this.enabled = enabled;
     }
 
-}
\ No newline at end of file
+    @XmlElement(name = "Incremental")
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    @XmlElement(name = "UpdateChunkSize")
+    public int getUpdateChunkSize() {
+        return updateChunkSize;
+    }
+
+    public void setUpdateChunkSize(int updateChunkSize) {
+        this.updateChunkSize = updateChunkSize;
+    }
+
+}
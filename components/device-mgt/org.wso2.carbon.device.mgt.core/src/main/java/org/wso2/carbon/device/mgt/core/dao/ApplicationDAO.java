@@ -21,6 +21,7 @@ package org.wso2.carbon.device.mgt.core.dao;
 import org.wso2.carbon.device.mgt.common.app.mgt.Application;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ApplicationDAO {
 
@@ -38,4 +39,14 @@ public interface ApplicationDAO {
             throws DeviceManagementDAOException;
 
     List<Application> getInstalledApplications(int deviceId, int enrolmentId) throws DeviceManagementDAOException;
+
+    /**
+     * Returns the applications installed on each of the given enrolments.
+     *
+     * @param enrolmentIds ids of the enrolments
+     * @return map of enrolment id to the installed applications, enrolments without applications are not included
+     * @throws DeviceManagementDAOException if the applications could not be read
+     */
+    Map<Integer, List<Application>> getInstalledApplications(List<Integer> enrolmentIds)
+            throws DeviceManagementDAOException;
 }
@@ -117,6 +117,20 @@ public interface DeviceDAO {
      */
     Device getDevice(DeviceIdentifier deviceIdentifier, int tenantId) throws DeviceManagementDAOException;
 
+    /**
+     * This method is used to retrieve the devices of a given device type matching the given device identifiers
+     * using a single query. When a device carries multiple enrolments, the latest enrolment is returned as in
+     * {@link #getDevice(DeviceIdentifier, int)}. Identifiers which do not match a device are ignored.
+     *
+     * @param type              device type name.
+     * @param deviceIdentifiers list of device identifications of the given type.
+     * @param tenantId          tenant id.
+     * @return returns the list of matching devices.
+     * @throws DeviceManagementDAOException
+     */
+    List<Device> getDevices(String type, List<String> deviceIdentifiers, int tenantId)
+            throws DeviceManagementDAOException;
+
     /**
      * This method is used to retrieve a device of a given device-identifier and owner and tenant-id.
      *
@@ -214,6 +228,21 @@ public interface DeviceDAO {
      */
     List<Device> getDevices(String type, int tenantId) throws DeviceManagementDAOException;
 
+    /**
+     * This method is used to retrieve a page of the enrolments of a given device type, in the order of the
+     * enrolment ids. The next page starts after the enrolment id of the last device of the previous page, which
+     * lets the database seek to the page through the primary key instead of reading the earlier pages.
+     *
+     * @param type            device type.
+     * @param lastEnrolmentId enrolment id of the last device of the previous page, or 0 for the first page.
+     * @param limit           maximum number of devices to return.
+     * @param tenantId        tenant id.
+     * @return returns the devices of the page, with their enrolments.
+     * @throws DeviceManagementDAOException
+     */
+    List<Device> getDevices(String type, int lastEnrolmentId, int limit, int tenantId)
+            throws DeviceManagementDAOException;
+
     List<Device> getDevices(long timestamp, int tenantId) throws DeviceManagementDAOException;
 
     /**
@@ -404,6 +433,7 @@ public interface DeviceDAO {
      *
      * @param southWest the coordinates of southWest corner of the map.
      * @param northEast the coordinates of northEast corner of the map.
+     * @param geohashLength length of the geohash prefix which groups the devices into clusters.
      * @param tenantId  tenant id.
      * @return returns a list of enrolment info objects.
      */
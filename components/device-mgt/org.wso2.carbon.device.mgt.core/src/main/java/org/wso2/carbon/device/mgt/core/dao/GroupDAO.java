@@ -23,6 +23,7 @@ import org.wso2.carbon.device.mgt.common.GroupPaginationRequest;
 import org.wso2.carbon.device.mgt.common.group.mgt.DeviceGroup;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * This interface represents the key operations associated with persisting group related information.
@@ -76,6 +77,16 @@ public interface GroupDAO {
      */
     List<DeviceGroup> getGroups(int deviceId, int tenantId) throws GroupManagementDAOException;
 
+    /**
+     * Get the ids of the groups of each of the devices provided, using a single query.
+     * @param deviceIds ids of the devices.
+     * @param tenantId  of the devices.
+     * @return group ids keyed by device id, devices which do not belong to a group are not included.
+     * @throws GroupManagementDAOException
+     */
+    Map<Integer, List<Integer>> getGroupIdsOfDevices(List<Integer> deviceIds, int tenantId)
+            throws GroupManagementDAOException;
+
     /**
      * Get paginated list of Device Groups in tenant.
      *
@@ -156,6 +167,38 @@ public interface GroupDAO {
      */
     void removeDevice(int groupId, int deviceId, int tenantId) throws GroupManagementDAOException;
 
+    /**
+     * Add devices to a given Device Group, using a batch of inserts.
+     *
+     * @param groupId of Device Group.
+     * @param deviceIds of the devices, which must not be mapped to the group already.
+     * @param tenantId of user's tenant.
+     * @throws GroupManagementDAOException
+     */
+    void addDevices(int groupId, List<Integer> deviceIds, int tenantId) throws GroupManagementDAOException;
+
+    /**
+     * Remove devices from the Device Group, using a single statement.
+     *
+     * @param groupId of Device Group.
+     * @param deviceIds of the devices.
+     * @param tenantId of user's tenant.
+     * @throws GroupManagementDAOException
+     */
+    void removeDevices(int groupId, List<Integer> deviceIds, int tenantId) throws GroupManagementDAOException;
+
+    /**
+     * Get the devices among the given devices which belong to a Device Group, using a single query.
+     *
+     * @param groupId of Device Group.
+     * @param deviceIds of the devices to check.
+     * @param tenantId of user's tenant.
+     * @return ids of the given devices which are mapped to the group.
+     * @throws GroupManagementDAOException
+     */
+    List<Integer> getDeviceIdsMappedToGroup(int groupId, List<Integer> deviceIds, int tenantId)
+            throws GroupManagementDAOException;
+
     /**
      * Check device is belonging to a Device Group.
      *
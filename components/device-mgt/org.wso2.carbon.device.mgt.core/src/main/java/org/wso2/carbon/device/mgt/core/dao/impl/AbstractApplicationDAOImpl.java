@@ -25,19 +25,18 @@ import org.wso2.carbon.device.mgt.core.dao.ApplicationDAO;
 import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOException;
 import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOFactory;
 import org.wso2.carbon.device.mgt.core.dao.util.DeviceManagementDAOUtil;
+import org.wso2.carbon.device.mgt.core.dao.util.PayloadSerializer;
 
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
-import java.io.ObjectInputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 public abstract class AbstractApplicationDAOImpl implements ApplicationDAO {
@@ -49,8 +48,6 @@ public abstract class AbstractApplicationDAOImpl implements ApplicationDAO {
         Connection conn;
         PreparedStatement stmt = null;
         ResultSet rs = null;
-        ByteArrayOutputStream bao = null;
-        ObjectOutputStream oos = null;
         int applicationId = -1;
         try {
             conn = this.getConnection();
@@ -67,10 +64,7 @@ public abstract class AbstractApplicationDAOImpl implements ApplicationDAO {
             stmt.setString(7, application.getImageUrl());
             stmt.setInt(8, tenantId);
 
-            bao = new ByteArrayOutputStream();
-            oos = new ObjectOutputStream(bao);
-            oos.writeObject(application.getAppProperties());
-            stmt.setBytes(9, bao.toByteArray());
+            stmt.setBytes(9, PayloadSerializer.serialize(application.getAppProperties()));
 
             stmt.setString(10, application.getApplicationIdentifier());
             stmt.setInt(11, application.getMemoryUsage());
@@ -88,20 +82,6 @@ public abstract class AbstractApplicationDAOImpl implements ApplicationDAO {
         } catch (IOException e) {
             throw new DeviceManagementDAOException("Error occurred while serializing application properties object", e);
         } finally {
-            if (bao != null) {
-                try {
-                    bao.close();
-                } catch (IOException e) {
-                    log.error("Error occurred while closing ByteArrayOutputStream", e);
-                }
-            }
-            if (oos != null) {
-                try {
-                    oos.close();
-                } catch (IOException e) {
-                    log.error("Error occurred while closing ObjectOutputStream", e);
-                }
-            }
             DeviceManagementDAOUtil.cleanupResources(stmt, rs);
         }
     }
@@ -271,9 +251,53 @@ public abstract class AbstractApplicationDAOImpl implements ApplicationDAO {
         return applications;
     }
 
+    @Override
+    public Map<Integer, List<Application>> getInstalledApplications(List<Integer> enrolmentIds)
+            throws DeviceManagementDAOException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        Map<Integer, List<Application>> applications = new HashMap<>();
+        if (enrolmentIds == null || enrolmentIds.isEmpty()) {
+            return applications;
+        }
+        try {
+            conn = this.getConnection();
+            StringBuilder sql = new StringBuilder("SELECT ID, NAME, APP_IDENTIFIER, PLATFORM, CATEGORY, VERSION, " +
+                    "TYPE, LOCATION_URL, IMAGE_URL, APPMAP.ENROLMENT_ID, APPMAP.APP_PROPERTIES, APPMAP.MEMORY_USAGE, " +
+                    "APPMAP.IS_ACTIVE, TENANT_ID FROM DM_APPLICATION app INNER JOIN " +
+                    "(SELECT APPLICATION_ID, ENROLMENT_ID, APP_PROPERTIES, MEMORY_USAGE, IS_ACTIVE " +
+                    "FROM DM_DEVICE_APPLICATION_MAPPING WHERE ENROLMENT_ID IN (");
+            for (int i = 0; i < enrolmentIds.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")) APPMAP ON app.ID = APPMAP.APPLICATION_ID");
+            stmt = conn.prepareStatement(sql.toString());
+            int index = 1;
+            for (int enrolmentId : enrolmentIds) {
+                stmt.setInt(index++, enrolmentId);
+            }
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                int enrolmentId = rs.getInt("ENROLMENT_ID");
+                List<Application> installedApplications = applications.get(enrolmentId);
+                if (installedApplications == null) {
+                    installedApplications = new ArrayList<>();
+                    applications.put(enrolmentId, installedApplications);
+                }
+                installedApplications.add(loadApplication(rs));
+            }
+        } catch (SQLException e) {
+            throw new DeviceManagementDAOException("SQL Error occurred while retrieving the list of Applications " +
+                    "installed in the given enrolments", e);
+        } finally {
+            DeviceManagementDAOUtil.cleanupResources(stmt, rs);
+        }
+        return applications;
+    }
+
     private Application loadApplication(ResultSet rs) throws DeviceManagementDAOException {
-        ByteArrayInputStream bais;
-        ObjectInputStream ois;
         Properties properties;
 
         Application application = new Application();
@@ -284,10 +308,7 @@ public abstract class AbstractApplicationDAOImpl implements ApplicationDAO {
 
             if (rs.getBytes("APP_PROPERTIES") != null) {
                 byte[] appProperties = rs.getBytes("APP_PROPERTIES");
-                bais = new ByteArrayInputStream(appProperties);
-
-                ois = new ObjectInputStream(bais);
-                properties = (Properties) ois.readObject();
+                properties = (Properties) PayloadSerializer.deserialize(appProperties);
                 application.setAppProperties(properties);
             }
             application.setCategory(rs.getString("CATEGORY"));
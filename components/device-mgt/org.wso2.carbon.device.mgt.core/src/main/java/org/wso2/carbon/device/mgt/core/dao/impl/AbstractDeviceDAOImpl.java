@@ -30,6 +30,8 @@ import org.wso2.carbon.device.mgt.core.dao.util.DeviceManagementDAOUtil;
 import org.wso2.carbon.device.mgt.core.dto.DeviceType;
 import org.wso2.carbon.device.mgt.core.geo.GeoCluster;
 import org.wso2.carbon.device.mgt.core.geo.geoHash.GeoCoordinate;
+import org.wso2.carbon.device.mgt.core.geo.geoHash.GeoHashGenerator;
+import org.wso2.carbon.device.mgt.core.operation.mgt.dao.util.OperationDAOUtil;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -41,9 +43,12 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
 
+    private static final int GEO_CLUSTER_LOOKUP_BATCH_SIZE = 100;
+
     @Override
     public int addDevice(int typeId, Device device, int tenantId) throws DeviceManagementDAOException {
         Connection conn;
@@ -145,6 +150,55 @@ public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
         return device;
     }
 
+    @Override
+    public List<Device> getDevices(String type, List<String> deviceIdentifiers, int tenantId)
+            throws DeviceManagementDAOException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        List<Device> devices = new ArrayList<>();
+        if (deviceIdentifiers == null || deviceIdentifiers.isEmpty()) {
+            return devices;
+        }
+        try {
+            conn = this.getConnection();
+            StringBuilder sql = new StringBuilder("SELECT d1.ID AS DEVICE_ID, d1.DESCRIPTION, d1.NAME AS DEVICE_NAME, " +
+                    "d1.DEVICE_TYPE, d1.DEVICE_IDENTIFICATION, e.OWNER, e.OWNERSHIP, e.STATUS, e.DATE_OF_LAST_UPDATE, " +
+                    "e.DATE_OF_ENROLMENT, e.ID AS ENROLMENT_ID FROM DM_ENROLMENT e, (SELECT d.ID, d.DESCRIPTION, " +
+                    "d.NAME, t.NAME AS DEVICE_TYPE, d.DEVICE_IDENTIFICATION FROM DM_DEVICE d, DM_DEVICE_TYPE t " +
+                    "WHERE t.NAME = ? AND t.ID = d.DEVICE_TYPE_ID AND d.TENANT_ID = ? AND " +
+                    "d.DEVICE_IDENTIFICATION IN (");
+            sql.append(OperationDAOUtil.getInClausePlaceholders(deviceIdentifiers.size()));
+            // Ordering is the same as in the single device lookup so that the first row of each device carries the
+            // latest enrolment.
+            sql.append(")) d1 WHERE d1.ID = e.DEVICE_ID AND TENANT_ID = ? " +
+                    "ORDER BY d1.ID, e.DATE_OF_LAST_UPDATE DESC, e.STATUS ASC");
+            stmt = conn.prepareStatement(sql.toString());
+            int paramIndex = 1;
+            stmt.setString(paramIndex++, type);
+            stmt.setInt(paramIndex++, tenantId);
+            for (String deviceIdentifier : deviceIdentifiers) {
+                stmt.setString(paramIndex++, deviceIdentifier);
+            }
+            stmt.setInt(paramIndex, tenantId);
+            rs = stmt.executeQuery();
+            int lastDeviceId = -1;
+            while (rs.next()) {
+                int deviceId = rs.getInt("DEVICE_ID");
+                if (deviceId != lastDeviceId) {
+                    devices.add(DeviceManagementDAOUtil.loadDevice(rs));
+                    lastDeviceId = deviceId;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DeviceManagementDAOException("Error occurred while retrieving the list of devices of type " +
+                    "'" + type + "' for the given device identifiers", e);
+        } finally {
+            DeviceManagementDAOUtil.cleanupResources(stmt, rs);
+        }
+        return devices;
+    }
+
     @Override
     public Device getDevice(DeviceIdentifier deviceIdentifier, String owner, int tenantId)
             throws DeviceManagementDAOException {
@@ -1062,8 +1116,75 @@ public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
         return tenants;
     }
 
+    /**
+     * Reads the clusters of geohash prefixes up to the tile length from the geo tiles, which keep the aggregates of
+     * the device locations within their prefix, instead of aggregating the device locations on each request. Only
+     * the tiles whose bounding box intersects the map boundaries are read and grouped by the requested prefix. The
+     * device details are read only for the clusters of a single device, which are the only clusters shown as devices.
+     * Clusters of longer prefixes cover a small area, hence they are aggregated from the device locations.
+     */
     public List<GeoCluster> findGeoClusters(GeoCoordinate southWest, GeoCoordinate northEast,
                                             int geohashLength, int tenantId) throws DeviceManagementDAOException {
+        if (geohashLength > GeoHashGenerator.TILE_GEOHASH_LENGTH) {
+            return this.findLocationClusters(southWest, northEast, geohashLength, tenantId);
+        }
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        List<GeoCluster> geoClusters = new ArrayList<>();
+        Map<String, GeoCluster> singleDeviceClusters = new HashMap<>();
+        try {
+            conn = this.getConnection();
+            // The bounding box of a tile lies within its geohash cell, hence the minimum latitude of a tile which
+            // intersects the map is at most one cell below the map, which lets the latitude index select the tiles
+            String clusterPrefix = "SUBSTRING(GEOHASH_PREFIX, 1, " + geohashLength + ")";
+            String sql = "SELECT " + clusterPrefix + " AS CLUSTER_PREFIX, SUM(DEVICE_COUNT) AS DEVICE_COUNT, " +
+                    "SUM(SUM_LATITUDE) AS SUM_LATITUDE, SUM(SUM_LONGITUDE) AS SUM_LONGITUDE, " +
+                    "MIN(MIN_LATITUDE) AS MIN_LATITUDE, MAX(MAX_LATITUDE) AS MAX_LATITUDE, " +
+                    "MIN(MIN_LONGITUDE) AS MIN_LONGITUDE, MAX(MAX_LONGITUDE) AS MAX_LONGITUDE FROM DM_GEO_TILE " +
+                    "WHERE TENANT_ID = ? AND MIN_LATITUDE BETWEEN ? AND ? AND MAX_LATITUDE >= ? AND " +
+                    "MIN_LONGITUDE <= ? AND MAX_LONGITUDE >= ? GROUP BY " + clusterPrefix;
+            stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, tenantId);
+            stmt.setDouble(2, southWest.getLatitude() -
+                    GeoHashGenerator.getLatitudeSpan(GeoHashGenerator.TILE_GEOHASH_LENGTH));
+            stmt.setDouble(3, northEast.getLatitude());
+            stmt.setDouble(4, southWest.getLatitude());
+            stmt.setDouble(5, northEast.getLongitude());
+            stmt.setDouble(6, southWest.getLongitude());
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                long count = rs.getLong("DEVICE_COUNT");
+                String geohashPrefix = rs.getString("CLUSTER_PREFIX");
+                GeoCluster geoCluster = new GeoCluster(new GeoCoordinate(rs.getDouble("SUM_LATITUDE") / count,
+                        rs.getDouble("SUM_LONGITUDE") / count),
+                        new GeoCoordinate(rs.getDouble("MIN_LATITUDE"), rs.getDouble("MIN_LONGITUDE")),
+                        new GeoCoordinate(rs.getDouble("MAX_LATITUDE"), rs.getDouble("MAX_LONGITUDE")),
+                        count, geohashPrefix, null, null, null);
+                if (count == 1) {
+                    singleDeviceClusters.put(geohashPrefix, geoCluster);
+                } else {
+                    geoClusters.add(geoCluster);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DeviceManagementDAOException("Error occurred while retrieving information of  " +
+                    "Geo Clusters", e);
+        } finally {
+            DeviceManagementDAOUtil.cleanupResources(stmt, rs);
+        }
+        if (!singleDeviceClusters.isEmpty()) {
+            geoClusters.addAll(this.getSingleDeviceClusters(singleDeviceClusters, geohashLength, tenantId));
+        }
+        return geoClusters;
+    }
+
+    /**
+     * Aggregates the clusters from the device locations within the map boundaries.
+     */
+    private List<GeoCluster> findLocationClusters(GeoCoordinate southWest, GeoCoordinate northEast,
+                                                  int geohashLength, int tenantId)
+            throws DeviceManagementDAOException {
         Connection conn;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -1090,23 +1211,15 @@ public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
             stmt.setDouble(3, northEast.getLatitude());
             stmt.setDouble(4, southWest.getLongitude());
             stmt.setDouble(5, northEast.getLongitude());
-            stmt.setDouble(6,tenantId);
+            stmt.setInt(6, tenantId);
             rs = stmt.executeQuery();
             while (rs.next()) {
-                double latitude = rs.getDouble("LATITUDE");
-                double longitude = rs.getDouble("LONGITUDE");
-                double min_latitude = rs.getDouble("MIN_LATITUDE");
-                double max_latitude = rs.getDouble("MAX_LATITUDE");
-                double min_longitude = rs.getDouble("MIN_LONGITUDE");
-                double max_longitude = rs.getDouble("MAX_LONGITUDE");
-                String device_identification = rs.getString("DEVICE_IDENTIFICATION");
-                String device_type=rs.getString("TYPE");
-                String last_seen = rs.getString("LAST_UPDATED_TIMESTAMP");
-                long count = rs.getLong("COUNT");
-                String geohashPrefix = rs.getString("GEOHASH_PREFIX");
-                geoClusters.add(new GeoCluster(new GeoCoordinate(latitude, longitude),
-                        new GeoCoordinate(min_latitude,min_longitude), new GeoCoordinate(max_latitude,max_longitude),
-                        count, geohashPrefix,device_identification,device_type,last_seen));
+                geoClusters.add(new GeoCluster(new GeoCoordinate(rs.getDouble("LATITUDE"),
+                        rs.getDouble("LONGITUDE")),
+                        new GeoCoordinate(rs.getDouble("MIN_LATITUDE"), rs.getDouble("MIN_LONGITUDE")),
+                        new GeoCoordinate(rs.getDouble("MAX_LATITUDE"), rs.getDouble("MAX_LONGITUDE")),
+                        rs.getLong("COUNT"), rs.getString("GEOHASH_PREFIX"), rs.getString("DEVICE_IDENTIFICATION"),
+                        rs.getString("TYPE"), rs.getString("LAST_UPDATED_TIMESTAMP")));
             }
         } catch (SQLException e) {
             throw new DeviceManagementDAOException("Error occurred while retrieving information of  " +
@@ -1116,4 +1229,66 @@ public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
         }
         return geoClusters;
     }
+
+    /**
+     * Fills the device details of the clusters of a single device, looking up the devices by the geohash prefix.
+     */
+    private List<GeoCluster> getSingleDeviceClusters(Map<String, GeoCluster> clusters, int geohashLength,
+                                                     int tenantId) throws DeviceManagementDAOException {
+        List<GeoCluster> geoClusters = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>(clusters.keySet());
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = this.getConnection();
+            for (int from = 0; from < prefixes.size(); from += GEO_CLUSTER_LOOKUP_BATCH_SIZE) {
+                List<String> batch = prefixes.subList(from,
+                        Math.min(from + GEO_CLUSTER_LOOKUP_BATCH_SIZE, prefixes.size()));
+                StringBuilder sql = new StringBuilder("SELECT DEVICE_LOCATION.GEO_HASH, DEVICE_LOCATION.LATITUDE, " +
+                        "DEVICE_LOCATION.LONGITUDE, " +
+                        "DEVICE.DEVICE_IDENTIFICATION, DEVICE_TYPE.NAME AS TYPE, DEVICE.LAST_UPDATED_TIMESTAMP " +
+                        "FROM DM_DEVICE_LOCATION DEVICE_LOCATION, DM_DEVICE DEVICE, DM_DEVICE_TYPE DEVICE_TYPE " +
+                        "WHERE DEVICE.TENANT_ID = ? AND DEVICE.ID = DEVICE_LOCATION.DEVICE_ID AND " +
+                        "DEVICE.DEVICE_TYPE_ID = DEVICE_TYPE.ID AND (");
+                for (int i = 0; i < batch.size(); i++) {
+                    sql.append(i == 0 ? "" : " OR ").append("DEVICE_LOCATION.GEO_HASH LIKE ?");
+                }
+                sql.append(")");
+                stmt = conn.prepareStatement(sql.toString());
+                int index = 1;
+                stmt.setInt(index++, tenantId);
+                for (String prefix : batch) {
+                    stmt.setString(index++, prefix + "%");
+                }
+                rs = stmt.executeQuery();
+                while (rs.next()) {
+                    String geohash = rs.getString("GEO_HASH");
+                    String prefix = geohash.length() < geohashLength ? null : geohash.substring(0, geohashLength);
+                    GeoCluster cluster = clusters.get(prefix);
+                    // Other devices of the prefix may be in tiles outside the map, whereas the bounding box of the
+                    // cluster is the location of its device
+                    if (cluster != null && rs.getDouble("LATITUDE") == cluster.getSouthWestBound().getLatitude() &&
+                            rs.getDouble("LONGITUDE") == cluster.getSouthWestBound().getLongitude()) {
+                        clusters.remove(prefix);
+                        geoClusters.add(new GeoCluster(cluster.getCoordinates(), cluster.getSouthWestBound(),
+                                cluster.getNorthEastBound(), cluster.getCount(), cluster.getGeohashPrefix(),
+                                rs.getString("DEVICE_IDENTIFICATION"), rs.getString("TYPE"),
+                                rs.getString("LAST_UPDATED_TIMESTAMP")));
+                    }
+                }
+                DeviceManagementDAOUtil.cleanupResources(stmt, rs);
+                stmt = null;
+                rs = null;
+            }
+        } catch (SQLException e) {
+            throw new DeviceManagementDAOException("Error occurred while retrieving the devices of the " +
+                    "Geo Clusters", e);
+        } finally {
+            DeviceManagementDAOUtil.cleanupResources(stmt, rs);
+        }
+        // Tiles whose device is not found are returned without the device details
+        geoClusters.addAll(clusters.values());
+        return geoClusters;
+    }
 }
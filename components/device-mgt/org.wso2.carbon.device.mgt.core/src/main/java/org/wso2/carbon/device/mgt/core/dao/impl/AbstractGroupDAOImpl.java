@@ -30,7 +30,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class represents implementation of GroupDAO
@@ -177,6 +179,47 @@ public abstract class AbstractGroupDAOImpl implements GroupDAO {
         return deviceGroupBuilders;
     }
 
+    @Override
+    public Map<Integer, List<Integer>> getGroupIdsOfDevices(List<Integer> deviceIds, int tenantId)
+            throws GroupManagementDAOException {
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        Map<Integer, List<Integer>> groupIds = new HashMap<>();
+        if (deviceIds == null || deviceIds.isEmpty()) {
+            return groupIds;
+        }
+        try {
+            Connection conn = GroupManagementDAOFactory.getConnection();
+            StringBuilder sql = new StringBuilder("SELECT DEVICE_ID, GROUP_ID FROM DM_DEVICE_GROUP_MAP " +
+                    "WHERE TENANT_ID = ? AND DEVICE_ID IN (");
+            for (int i = 0; i < deviceIds.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+            stmt = conn.prepareStatement(sql.toString());
+            int paramIndex = 1;
+            stmt.setInt(paramIndex++, tenantId);
+            for (Integer deviceId : deviceIds) {
+                stmt.setInt(paramIndex++, deviceId);
+            }
+            resultSet = stmt.executeQuery();
+            while (resultSet.next()) {
+                int deviceId = resultSet.getInt("DEVICE_ID");
+                List<Integer> deviceGroupIds = groupIds.get(deviceId);
+                if (deviceGroupIds == null) {
+                    deviceGroupIds = new ArrayList<>();
+                    groupIds.put(deviceId, deviceGroupIds);
+                }
+                deviceGroupIds.add(resultSet.getInt("GROUP_ID"));
+            }
+        } catch (SQLException e) {
+            throw new GroupManagementDAOException("Error occurred while obtaining the groups of devices", e);
+        } finally {
+            GroupManagementDAOUtil.cleanupResources(stmt, resultSet);
+        }
+        return groupIds;
+    }
+
     @Override
     public List<DeviceGroup> getGroups(int tenantId) throws GroupManagementDAOException {
         PreparedStatement stmt = null;
@@ -328,6 +371,104 @@ public abstract class AbstractGroupDAOImpl implements GroupDAO {
         }
     }
 
+    @Override
+    public void addDevices(int groupId, List<Integer> deviceIds, int tenantId)
+            throws GroupManagementDAOException {
+        if (deviceIds == null || deviceIds.isEmpty()) {
+            return;
+        }
+        PreparedStatement stmt = null;
+        try {
+            Connection conn = GroupManagementDAOFactory.getConnection();
+            String sql = "INSERT INTO DM_DEVICE_GROUP_MAP(DEVICE_ID, GROUP_ID, TENANT_ID) VALUES (?, ?, ?)";
+            stmt = conn.prepareStatement(sql);
+            boolean isBatchUpdateSupported = conn.getMetaData().supportsBatchUpdates();
+            for (Integer deviceId : deviceIds) {
+                stmt.setInt(1, deviceId);
+                stmt.setInt(2, groupId);
+                stmt.setInt(3, tenantId);
+                if (isBatchUpdateSupported) {
+                    stmt.addBatch();
+                } else {
+                    stmt.executeUpdate();
+                }
+            }
+            if (isBatchUpdateSupported) {
+                stmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new GroupManagementDAOException("Error occurred while adding devices to Group.", e);
+        } finally {
+            GroupManagementDAOUtil.cleanupResources(stmt, null);
+        }
+    }
+
+    @Override
+    public void removeDevices(int groupId, List<Integer> deviceIds, int tenantId)
+            throws GroupManagementDAOException {
+        if (deviceIds == null || deviceIds.isEmpty()) {
+            return;
+        }
+        PreparedStatement stmt = null;
+        try {
+            Connection conn = GroupManagementDAOFactory.getConnection();
+            StringBuilder sql = new StringBuilder("DELETE FROM DM_DEVICE_GROUP_MAP WHERE GROUP_ID = ? AND " +
+                    "TENANT_ID = ? AND DEVICE_ID IN (");
+            for (int i = 0; i < deviceIds.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+            stmt = conn.prepareStatement(sql.toString());
+            int paramIndex = 1;
+            stmt.setInt(paramIndex++, groupId);
+            stmt.setInt(paramIndex++, tenantId);
+            for (Integer deviceId : deviceIds) {
+                stmt.setInt(paramIndex++, deviceId);
+            }
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new GroupManagementDAOException("Error occurred while removing devices from Group.", e);
+        } finally {
+            GroupManagementDAOUtil.cleanupResources(stmt, null);
+        }
+    }
+
+    @Override
+    public List<Integer> getDeviceIdsMappedToGroup(int groupId, List<Integer> deviceIds, int tenantId)
+            throws GroupManagementDAOException {
+        List<Integer> mappedDeviceIds = new ArrayList<>();
+        if (deviceIds == null || deviceIds.isEmpty()) {
+            return mappedDeviceIds;
+        }
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        try {
+            Connection conn = GroupManagementDAOFactory.getConnection();
+            StringBuilder sql = new StringBuilder("SELECT DEVICE_ID FROM DM_DEVICE_GROUP_MAP WHERE GROUP_ID = ? AND " +
+                    "TENANT_ID = ? AND DEVICE_ID IN (");
+            for (int i = 0; i < deviceIds.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+            stmt = conn.prepareStatement(sql.toString());
+            int paramIndex = 1;
+            stmt.setInt(paramIndex++, groupId);
+            stmt.setInt(paramIndex++, tenantId);
+            for (Integer deviceId : deviceIds) {
+                stmt.setInt(paramIndex++, deviceId);
+            }
+            resultSet = stmt.executeQuery();
+            while (resultSet.next()) {
+                mappedDeviceIds.add(resultSet.getInt("DEVICE_ID"));
+            }
+        } catch (SQLException e) {
+            throw new GroupManagementDAOException("Error occurred while checking device mappings with group.", e);
+        } finally {
+            GroupManagementDAOUtil.cleanupResources(stmt, resultSet);
+        }
+        return mappedDeviceIds;
+    }
+
     @Override
     public boolean isDeviceMappedToGroup(int groupId, int deviceId, int tenantId)
             throws GroupManagementDAOException {
@@ -26,6 +26,7 @@ import org.wso2.carbon.device.mgt.core.dao.ApplicationMappingDAO;
 import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOException;
 import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOFactory;
 import org.wso2.carbon.device.mgt.core.dao.util.DeviceManagementDAOUtil;
+import org.wso2.carbon.device.mgt.core.dao.util.PayloadSerializer;
 import org.wso2.carbon.device.mgt.core.dto.operation.mgt.ProfileOperation;
 
 import java.io.*;
@@ -103,8 +104,6 @@ public class ApplicationMappingDAOImpl implements ApplicationMappingDAO {
         Connection conn;
         PreparedStatement stmt = null;
         ResultSet rs = null;
-        ByteArrayOutputStream bao = null;
-        ObjectOutputStream oos = null;
 
         try {
             conn = this.getConnection();
@@ -119,10 +118,7 @@ public class ApplicationMappingDAOImpl implements ApplicationMappingDAO {
                 stmt.setInt(2, enrolmentId);
                 stmt.setInt(3, application.getId());
 
-                bao = new ByteArrayOutputStream();
-                oos = new ObjectOutputStream(bao);
-                oos.writeObject(application.getAppProperties());
-                stmt.setBytes(4, bao.toByteArray());
+                stmt.setBytes(4, PayloadSerializer.serialize(application.getAppProperties()));
 
                 stmt.setInt(5, application.getMemoryUsage());
                 stmt.setBoolean(6, application.isActive());
@@ -136,20 +132,6 @@ public class ApplicationMappingDAOImpl implements ApplicationMappingDAO {
         } catch (IOException e) {
             throw new DeviceManagementDAOException("Error occurred while serializing application properties object", e);
         } finally {
-            if (bao != null) {
-                try {
-                    bao.close();
-                } catch (IOException e) {
-                    log.error("Error occurred while closing ByteArrayOutputStream", e);
-                }
-            }
-            if (oos != null) {
-                try {
-                    oos.close();
-                } catch (IOException e) {
-                    log.error("Error occurred while closing ObjectOutputStream", e);
-                }
-            }
             DeviceManagementDAOUtil.cleanupResources(stmt, rs);
         }
 
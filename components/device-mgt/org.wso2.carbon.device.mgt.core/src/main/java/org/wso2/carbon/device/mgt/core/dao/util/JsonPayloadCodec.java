@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.dao.util;
+
+import com.google.gson.FieldNamingStrategy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.wso2.carbon.device.mgt.core.dto.operation.mgt.CommandOperation;
+import org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation;
+import org.wso2.carbon.device.mgt.core.dto.operation.mgt.PolicyOperation;
+import org.wso2.carbon.device.mgt.core.dto.operation.mgt.ProfileOperation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * {@link PayloadCodec} which writes the object as UTF-8 JSON along with the name of its class. The JSON is compressed
+ * only if it is larger than the compression threshold, since deflating a small value costs more than it saves.
+ * <p>
+ * The encoded value starts with a flag byte which tells whether the JSON that follows is compressed. Only text,
+ * properties and operations whose payloads are text are supported, since values of fields declared as {@link Object}
+ * would not be read back as the same type.
+ */
+public class JsonPayloadCodec implements PayloadCodec {
+
+    public static final byte ID = 2;
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 512;
+
+    private static final byte PLAIN = 0;
+    private static final byte DEFLATED = 1;
+    private static final String TYPE = "type";
+    private static final String VALUE = "value";
+    private static final int BUFFER_SIZE = 4096;
+
+    private final Gson gson = new GsonBuilder().setFieldNamingStrategy(new FieldNamingStrategy() {
+        @Override
+        public String translateName(Field field) {
+            // A field which hides a field of a super class, such as the properties of a config operation, is
+            // qualified with the name of its class, since the JSON names of all the fields of an object must differ
+            for (Class<?> type = field.getDeclaringClass().getSuperclass(); type != null;
+                 type = type.getSuperclass()) {
+                try {
+                    type.getDeclaredField(field.getName());
+                    String className = field.getDeclaringClass().getSimpleName();
+                    return Character.toLowerCase(className.charAt(0)) + className.substring(1) + "." +
+                            field.getName();
+                } catch (NoSuchFieldException e) {
+                    // Not hidden by this class, hence continue with its super class
+                }
+            }
+            return field.getName();
+        }
+    }).create();
+    private final int compressionThreshold;
+
+    public JsonPayloadCodec() {
+        this(DEFAULT_COMPRESSION_THRESHOLD);
+    }
+
+    /**
+     * @param compressionThreshold - Size of the JSON in bytes above which it is compressed.
+     */
+    public JsonPayloadCodec(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public boolean canEncode(Object payload) {
+        if (payload == null || payload instanceof String) {
+            return true;
+        }
+        if (payload.getClass() == Properties.class) {
+            return isText((Properties) payload);
+        }
+        if (payload instanceof PolicyOperation) {
+            List<ProfileOperation> profileOperations = ((PolicyOperation) payload).getProfileOperations();
+            if (profileOperations != null) {
+                for (ProfileOperation profileOperation : profileOperations) {
+                    if (!canEncode(profileOperation)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        if (payload.getClass() == ProfileOperation.class || payload.getClass() == PolicyOperation.class ||
+                payload.getClass() == CommandOperation.class || payload.getClass() == Operation.class) {
+            if (payload instanceof ProfileOperation && !((ProfileOperation) payload).getConfigProperties().isEmpty()) {
+                return false;
+            }
+            Operation operation = (Operation) payload;
+            return isText(operation.getPayLoad()) && isText(operation.getOperationResponse()) &&
+                    (operation.getProperties() == null || isText(operation.getProperties()));
+        }
+        return false;
+    }
+
+    @Override
+    public byte[] encode(Object payload) throws IOException {
+        if (!canEncode(payload)) {
+            throw new IOException("JSON payload codec cannot encode values of type '" + payload.getClass().getName() +
+                    "'");
+        }
+        JsonObject envelope = new JsonObject();
+        if (payload != null) {
+            envelope.addProperty(TYPE, payload.getClass().getName());
+            envelope.add(VALUE, gson.toJsonTree(payload));
+        }
+        byte[] json = gson.toJson(envelope).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream bao = new ByteArrayOutputStream(json.length + 1);
+        if (json.length > compressionThreshold) {
+            bao.write(DEFLATED);
+            final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (OutputStream out = new DeflaterOutputStream(bao, deflater)) {
+                out.write(json);
+            } finally {
+                deflater.end();
+            }
+        } else {
+            bao.write(PLAIN);
+            bao.write(json);
+        }
+        return bao.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] data, int offset, int length) throws IOException, ClassNotFoundException {
+        if (length < 1) {
+            throw new IOException("JSON payload is empty");
+        }
+        String json;
+        if (data[offset] == PLAIN) {
+            json = new String(data, offset + 1, length - 1, StandardCharsets.UTF_8);
+        } else if (data[offset] == DEFLATED) {
+            json = inflate(data, offset + 1, length - 1);
+        } else {
+            throw new IOException("Unknown JSON payload flag '" + data[offset] + "'");
+        }
+        try {
+            JsonObject envelope = new JsonParser().parse(json).getAsJsonObject();
+            JsonElement type = envelope.get(TYPE);
+            if (type == null) {
+                return null;
+            }
+            Class<?> payloadClass = Class.forName(type.getAsString(), false, JsonPayloadCodec.class.getClassLoader());
+            return gson.fromJson(envelope.get(VALUE), payloadClass);
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("Malformed JSON payload", e);
+        }
+    }
+
+    private static boolean isText(Object value) {
+        return value == null || value instanceof String;
+    }
+
+    private static boolean isText(Properties properties) {
+        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+            if (!(entry.getKey() instanceof String) || !(entry.getValue() instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String inflate(byte[] data, int offset, int length) throws IOException {
+        ByteArrayOutputStream bao = new ByteArrayOutputStream(length * 4);
+        final Inflater inflater = new Inflater();
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(data, offset, length), inflater)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                bao.write(buffer, 0, read);
+            }
+        } finally {
+            inflater.end();
+        }
+        return new String(bao.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.dao.util;
+
+import java.io.IOException;
+
+/**
+ * This defines the contract of a codec which converts the objects persisted as binary columns, such as operation
+ * payloads and application properties, to bytes and back. Each codec is identified by a unique id which
+ * {@link PayloadSerializer} writes in front of the encoded bytes, so that the codec used to write a value can be
+ * changed without migrating the existing rows.
+ */
+public interface PayloadCodec {
+
+    /**
+     * @return Unique id of the codec written in the header of the encoded values.
+     */
+    byte getId();
+
+    /**
+     * Tells whether the given object can be encoded by this codec and decoded back to an equivalent object.
+     * @param payload - Object to be encoded.
+     * @return true if the object is supported.
+     */
+    boolean canEncode(Object payload);
+
+    /**
+     * Encodes the given object.
+     * @param payload - Object to be encoded.
+     * @return Encoded bytes.
+     * @throws IOException if the object cannot be encoded.
+     */
+    byte[] encode(Object payload) throws IOException;
+
+    /**
+     * Decodes an object from the given range of bytes.
+     * @param data - Bytes to be decoded.
+     * @param offset - Start of the encoded object.
+     * @param length - Length of the encoded object.
+     * @return Decoded object.
+     * @throws IOException if the bytes cannot be decoded.
+     * @throws ClassNotFoundException if the class of the decoded object is not available.
+     */
+    Object decode(byte[] data, int offset, int length) throws IOException, ClassNotFoundException;
+}
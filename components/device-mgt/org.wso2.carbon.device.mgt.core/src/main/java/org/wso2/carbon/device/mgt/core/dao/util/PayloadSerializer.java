@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.dao.util;
+
+import java.io.IOException;
+import java.io.ObjectStreamConstants;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts the objects persisted as binary columns to bytes and back using the registered {@link PayloadCodec}s.
+ * <p>
+ * Tagged values are written as a four byte header, which consists of a magic number, the format version and the id of
+ * the codec, followed by the encoded object. Values without the header are plain serialized Java objects, which every
+ * version of the server reads. Hence values are written without the header until a codec is set with
+ * {@link #setWriteCodec(PayloadCodec)}, which must be done only once every node of the cluster reads tagged values.
+ * Values which the codec does not support are written as tagged serialized Java objects.
+ * Rows written in either format are read, so existing rows are migrated lazily whenever they are rewritten.
+ */
+public final class PayloadSerializer {
+
+    private static final byte MAGIC_1 = 'D';
+    private static final byte MAGIC_2 = 'M';
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HEADER_LENGTH = 4;
+
+    private static final Map<Byte, PayloadCodec> codecs = new ConcurrentHashMap<>();
+    private static final PayloadCodec legacyCodec = new JavaSerializationPayloadCodec();
+    private static volatile PayloadCodec writeCodec;
+
+    static {
+        registerCodec(legacyCodec);
+        registerCodec(new JsonPayloadCodec());
+    }
+
+    private PayloadSerializer() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Registers a codec, so that the values written with it can be read.
+     * @param codec - Codec to be registered.
+     */
+    public static void registerCodec(PayloadCodec codec) {
+        codecs.put(codec.getId(), codec);
+    }
+
+    /**
+     * Registers a codec and writes all subsequent values with it.
+     * @param codec - Codec to be used, or null to write plain serialized Java objects without the header.
+     */
+    public static void setWriteCodec(PayloadCodec codec) {
+        if (codec != null) {
+            registerCodec(codec);
+        }
+        writeCodec = codec;
+    }
+
+    public static byte[] serialize(Object payload) throws IOException {
+        PayloadCodec codec = writeCodec;
+        if (codec == null) {
+            return legacyCodec.encode(payload);
+        }
+        if (!codec.canEncode(payload)) {
+            // Written with Java serialization, but tagged, so that all values written by this node are tagged
+            codec = legacyCodec;
+        }
+        byte[] encoded = codec.encode(payload);
+        byte[] data = new byte[HEADER_LENGTH + encoded.length];
+        data[0] = MAGIC_1;
+        data[1] = MAGIC_2;
+        data[2] = FORMAT_VERSION;
+        data[3] = codec.getId();
+        System.arraycopy(encoded, 0, data, HEADER_LENGTH, encoded.length);
+        return data;
+    }
+
+    public static Object deserialize(byte[] data) throws IOException, ClassNotFoundException {
+        if (data == null) {
+            return null;
+        }
+        if (isLegacyFormat(data)) {
+            return legacyCodec.decode(data, 0, data.length);
+        }
+        if (data.length < HEADER_LENGTH || data[0] != MAGIC_1 || data[1] != MAGIC_2) {
+            throw new IOException("Unknown payload format");
+        }
+        if (data[2] != FORMAT_VERSION) {
+            throw new IOException("Unsupported payload format version '" + data[2] + "'");
+        }
+        PayloadCodec codec = codecs.get(data[3]);
+        if (codec == null) {
+            throw new IOException("No payload codec is registered for the id '" + data[3] + "'");
+        }
+        return codec.decode(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+    }
+
+    private static boolean isLegacyFormat(byte[] data) {
+        return data.length >= 2 && data[0] == (byte) (ObjectStreamConstants.STREAM_MAGIC >> 8) &&
+                data[1] == (byte) ObjectStreamConstants.STREAM_MAGIC;
+    }
+}
@@ -22,6 +22,7 @@ package org.wso2.carbon.device.mgt.core.device.details.mgt.dao;
 import org.wso2.carbon.device.mgt.common.device.details.DeviceInfo;
 import org.wso2.carbon.device.mgt.common.device.details.DeviceLocation;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -56,6 +57,14 @@ public interface DeviceDetailsDAO {
      */
     DeviceInfo getDeviceInformation(int deviceId, int enrolmentId) throws DeviceDetailsMgtDAOException;
 
+    /**
+     * This method will return the device information of the given enrolments.
+     * @param enrolmentIds - ids of the enrolments.
+     * @return - map of enrolment id to the device information, enrolments without information are not included.
+     * @throws DeviceDetailsMgtDAOException
+     */
+    Map<Integer, DeviceInfo> getDeviceInformation(List<Integer> enrolmentIds) throws DeviceDetailsMgtDAOException;
+
     /**
      * This method will return the device properties from database.
      * @param deviceId
@@ -93,6 +102,14 @@ public interface DeviceDetailsDAO {
      */
     DeviceLocation getDeviceLocation(int deviceId, int enrollmentId) throws DeviceDetailsMgtDAOException;
 
+    /**
+     * This method will return the device locations of the given enrolments.
+     * @param enrollmentIds - ids of the enrolments.
+     * @return - map of enrolment id to the device location, enrolments without a location are not included.
+     * @throws DeviceDetailsMgtDAOException
+     */
+    Map<Integer, DeviceLocation> getDeviceLocations(List<Integer> enrollmentIds) throws DeviceDetailsMgtDAOException;
+
     /**
      * This method will delete the device location from the database.
      * @param deviceId
@@ -100,6 +117,26 @@ public interface DeviceDetailsDAO {
      */
     void deleteDeviceLocation(int deviceId, int enrollmentId) throws DeviceDetailsMgtDAOException;
 
+    /**
+     * This method will add the device location to the geo tile of its geohash prefix, which keeps the device count,
+     * coordinate sums and bounding box of the locations of the tenant within the prefix.
+     * @param deviceLocation - Device location with latitude and longitude.
+     * @param tenantId - tenant of the device.
+     * @throws DeviceDetailsMgtDAOException
+     */
+    void addLocationToGeoTiles(DeviceLocation deviceLocation, int tenantId) throws DeviceDetailsMgtDAOException;
+
+    /**
+     * This method will remove the stored location of the given enrolment, if any, from the geo tiles of the tenant.
+     * Hence it must be called before the location is deleted. Tiles without devices are deleted, and the bounding
+     * boxes of the remaining tiles are shrunk to the locations left in them.
+     * @param deviceId - id of the device.
+     * @param enrollmentId - id of the enrolment.
+     * @param tenantId - tenant of the device.
+     * @throws DeviceDetailsMgtDAOException
+     */
+    void removeLocationFromGeoTiles(int deviceId, int enrollmentId, int tenantId) throws DeviceDetailsMgtDAOException;
+
 //    /**
 //     * This method will add device application to database.
 //     * @param deviceApplication - Device application
@@ -21,6 +21,7 @@ package org.wso2.carbon.device.mgt.core.device.details.mgt.dao.impl;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.device.mgt.common.DeviceManagementConstants;
 import org.wso2.carbon.device.mgt.common.device.details.DeviceInfo;
 import org.wso2.carbon.device.mgt.common.device.details.DeviceLocation;
 import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOFactory;
@@ -33,12 +34,23 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class DeviceDetailsDAOImpl implements DeviceDetailsDAO {
 
     private static Log log = LogFactory.getLog(DeviceDetailsDAOImpl.class);
+    private static final String INSERT_GEO_TILE = "INSERT INTO DM_GEO_TILE (TENANT_ID, GEOHASH_PREFIX, " +
+            "DEVICE_COUNT, SUM_LATITUDE, SUM_LONGITUDE, MIN_LATITUDE, MAX_LATITUDE, MIN_LONGITUDE, MAX_LONGITUDE) " +
+            "VALUES (?, ?, 1, ?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_GEO_TILE = "ON (T.TENANT_ID = S.TENANT_ID AND " +
+            "T.GEOHASH_PREFIX = S.GEOHASH_PREFIX) WHEN MATCHED THEN UPDATE SET " +
+            getGeoTileIncrement("T.", "S.LATITUDE", "S.LONGITUDE") + " WHEN NOT MATCHED THEN INSERT (TENANT_ID, " +
+            "GEOHASH_PREFIX, DEVICE_COUNT, SUM_LATITUDE, SUM_LONGITUDE, MIN_LATITUDE, MAX_LATITUDE, MIN_LONGITUDE, " +
+            "MAX_LONGITUDE) VALUES (S.TENANT_ID, S.GEOHASH_PREFIX, 1, S.LATITUDE, S.LONGITUDE, S.LATITUDE, " +
+            "S.LATITUDE, S.LONGITUDE, S.LONGITUDE)";
 
     @Override
     public void addDeviceInformation(int deviceId, int enrolmentId, DeviceInfo deviceInfo)
@@ -133,27 +145,7 @@ public class DeviceDetailsDAOImpl implements DeviceDetailsDAO {
             rs = stmt.executeQuery();
 
             if (rs.next()) {
-                deviceInfo = new DeviceInfo();
-//                deviceInfo.setIMEI(rs.getString("IMEI"));
-//                deviceInfo.setIMSI(rs.getString("IMSI"));
-                deviceInfo.setDeviceModel(rs.getString("DEVICE_MODEL"));
-                deviceInfo.setVendor(rs.getString("VENDOR"));
-                deviceInfo.setOsVersion(rs.getString("OS_VERSION"));
-                deviceInfo.setOsBuildDate(rs.getString("OS_BUILD_DATE"));
-                deviceInfo.setBatteryLevel(rs.getDouble("BATTERY_LEVEL"));
-                deviceInfo.setInternalTotalMemory(rs.getDouble("INTERNAL_TOTAL_MEMORY"));
-                deviceInfo.setInternalAvailableMemory(rs.getDouble("INTERNAL_AVAILABLE_MEMORY"));
-                deviceInfo.setExternalTotalMemory(rs.getDouble("EXTERNAL_TOTAL_MEMORY"));
-                deviceInfo.setExternalAvailableMemory(rs.getDouble("EXTERNAL_AVAILABLE_MEMORY"));
-//                deviceInfo.setOperator(rs.getString("OPERATOR"));
-                deviceInfo.setConnectionType(rs.getString("CONNECTION_TYPE"));
-//                deviceInfo.setMobileSignalStrength(rs.getDouble("MOBILE_SIGNAL_STRENGTH"));
-                deviceInfo.setSsid(rs.getString("SSID"));
-                deviceInfo.setCpuUsage(rs.getDouble("CPU_USAGE"));
-                deviceInfo.setTotalRAMMemory(rs.getDouble("TOTAL_RAM_MEMORY"));
-                deviceInfo.setAvailableRAMMemory(rs.getDouble("AVAILABLE_RAM_MEMORY"));
-                deviceInfo.setPluggedIn(rs.getBoolean("PLUGGED_IN"));
-                deviceInfo.setUpdatedTime(new java.util.Date(rs.getLong("UPDATE_TIMESTAMP")));
+                deviceInfo = this.loadDeviceInfo(rs);
             }
 
             return deviceInfo;
@@ -164,6 +156,41 @@ public class DeviceDetailsDAOImpl implements DeviceDetailsDAO {
         }
     }
 
+    @Override
+    public Map<Integer, DeviceInfo> getDeviceInformation(List<Integer> enrolmentIds)
+            throws DeviceDetailsMgtDAOException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        Map<Integer, DeviceInfo> deviceInfoMap = new HashMap<>();
+        if (enrolmentIds == null || enrolmentIds.isEmpty()) {
+            return deviceInfoMap;
+        }
+        try {
+            conn = this.getConnection();
+            String sql = "SELECT * FROM DM_DEVICE_DETAIL WHERE ENROLMENT_ID IN (" +
+                    this.getInClause(enrolmentIds.size()) + ")";
+            stmt = conn.prepareStatement(sql);
+            int index = 1;
+            for (int enrolmentId : enrolmentIds) {
+                stmt.setInt(index++, enrolmentId);
+            }
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                int enrolmentId = rs.getInt("ENROLMENT_ID");
+                if (!deviceInfoMap.containsKey(enrolmentId)) {
+                    deviceInfoMap.put(enrolmentId, this.loadDeviceInfo(rs));
+                }
+            }
+            return deviceInfoMap;
+        } catch (SQLException e) {
+            throw new DeviceDetailsMgtDAOException("Error occurred while fetching the details of the registered devices.", e);
+        } finally {
+            DeviceManagementDAOUtil.cleanupResources(stmt, rs);
+        }
+    }
+
     @Override
     public Map<String, String> getDeviceProperties(int deviceId, int enrolmentId) throws DeviceDetailsMgtDAOException {
 
@@ -276,16 +303,7 @@ public class DeviceDetailsDAOImpl implements DeviceDetailsDAO {
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                location.setDeviceId(deviceId);
-                location.setLatitude(rs.getDouble("LATITUDE"));
-                location.setLongitude(rs.getDouble("LONGITUDE"));
-                location.setStreet1(rs.getString("STREET1"));
-                location.setStreet2(rs.getString("STREET2"));
-                location.setCity(rs.getString("CITY"));
-                location.setZip(rs.getString("ZIP"));
-                location.setState(rs.getString("STATE"));
-                location.setCountry(rs.getString("COUNTRY"));
-                location.setUpdatedTime(new java.util.Date(rs.getLong("UPDATE_TIMESTAMP")));
+                this.loadDeviceLocation(rs, location);
             }
             location.setDeviceId(deviceId);
 
@@ -297,6 +315,42 @@ public class DeviceDetailsDAOImpl implements DeviceDetailsDAO {
         }
     }
 
+    @Override
+    public Map<Integer, DeviceLocation> getDeviceLocations(List<Integer> enrollmentIds)
+            throws DeviceDetailsMgtDAOException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        Map<Integer, DeviceLocation> locations = new HashMap<>();
+        if (enrollmentIds == null || enrollmentIds.isEmpty()) {
+            return locations;
+        }
+        try {
+            conn = this.getConnection();
+            String sql = "SELECT * FROM DM_DEVICE_LOCATION WHERE ENROLMENT_ID IN (" +
+                    this.getInClause(enrollmentIds.size()) + ")";
+            stmt = conn.prepareStatement(sql);
+            int index = 1;
+            for (int enrollmentId : enrollmentIds) {
+                stmt.setInt(index++, enrollmentId);
+            }
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                // As in the single device lookup, the last row of an enrolment wins
+                DeviceLocation location = new DeviceLocation();
+                this.loadDeviceLocation(rs, location);
+                location.setDeviceId(rs.getInt("DEVICE_ID"));
+                locations.put(rs.getInt("ENROLMENT_ID"), location);
+            }
+            return locations;
+        } catch (SQLException e) {
+            throw new DeviceDetailsMgtDAOException("Error occurred while fetching the location of the registered devices.", e);
+        } finally {
+            DeviceManagementDAOUtil.cleanupResources(stmt, rs);
+        }
+    }
+
     @Override
     public void deleteDeviceLocation(int deviceId, int enrollmentId) throws DeviceDetailsMgtDAOException {
 
@@ -317,6 +371,291 @@ public class DeviceDetailsDAOImpl implements DeviceDetailsDAO {
         }
     }
 
+    @Override
+    public void addLocationToGeoTiles(DeviceLocation deviceLocation, int tenantId)
+            throws DeviceDetailsMgtDAOException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        double latitude = deviceLocation.getLatitude();
+        double longitude = deviceLocation.getLongitude();
+        String tilePrefix = GeoHashGenerator.encodeGeohash(latitude, longitude)
+                .substring(0, GeoHashGenerator.TILE_GEOHASH_LENGTH);
+        try {
+            conn = this.getConnection();
+            // The tile is updated with a single statement where the database supports one, so that concurrent
+            // location updates of the same tile do not race between reading and inserting the tile
+            String databaseProductName = conn.getMetaData().getDatabaseProductName();
+            if (databaseProductName.contains(DeviceManagementConstants.DataBaseTypes.DB_TYPE_MYSQL)) {
+                stmt = conn.prepareStatement(INSERT_GEO_TILE + " ON DUPLICATE KEY UPDATE " +
+                        getGeoTileIncrement("", "VALUES(SUM_LATITUDE)", "VALUES(SUM_LONGITUDE)"));
+                this.setGeoTileValues(stmt, tenantId, tilePrefix, latitude, longitude);
+            } else if (databaseProductName.contains(DeviceManagementConstants.DataBaseTypes.DB_TYPE_POSTGRESQL)) {
+                stmt = conn.prepareStatement(INSERT_GEO_TILE + " ON CONFLICT (TENANT_ID, GEOHASH_PREFIX) DO UPDATE " +
+                        "SET " + getGeoTileIncrement("DM_GEO_TILE.", "EXCLUDED.SUM_LATITUDE",
+                        "EXCLUDED.SUM_LONGITUDE"));
+                this.setGeoTileValues(stmt, tenantId, tilePrefix, latitude, longitude);
+            } else if (databaseProductName.contains(DeviceManagementConstants.DataBaseTypes.DB_TYPE_ORACLE)) {
+                stmt = conn.prepareStatement("MERGE INTO DM_GEO_TILE T USING (SELECT ? AS TENANT_ID, " +
+                        "? AS GEOHASH_PREFIX, ? AS LATITUDE, ? AS LONGITUDE FROM DUAL) S " + MERGE_GEO_TILE);
+                this.setGeoTileSource(stmt, tenantId, tilePrefix, latitude, longitude);
+            } else if (databaseProductName.contains(DeviceManagementConstants.DataBaseTypes.DB_TYPE_MSSQL)) {
+                stmt = conn.prepareStatement("MERGE INTO DM_GEO_TILE WITH (HOLDLOCK) AS T USING (SELECT " +
+                        "? AS TENANT_ID, ? AS GEOHASH_PREFIX, ? AS LATITUDE, ? AS LONGITUDE) AS S " +
+                        MERGE_GEO_TILE + ";");
+                this.setGeoTileSource(stmt, tenantId, tilePrefix, latitude, longitude);
+            } else {
+                this.addToGeoTile(conn, tenantId, tilePrefix, latitude, longitude);
+                return;
+            }
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DeviceDetailsMgtDAOException("Error occurred while adding the device location to the geo " +
+                    "tiles.", e);
+        } finally {
+            DeviceManagementDAOUtil.cleanupResources(stmt, null);
+        }
+    }
+
+    @Override
+    public void removeLocationFromGeoTiles(int deviceId, int enrollmentId, int tenantId)
+            throws DeviceDetailsMgtDAOException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = this.getConnection();
+            stmt = conn.prepareStatement("SELECT LATITUDE, LONGITUDE, GEO_HASH FROM DM_DEVICE_LOCATION " +
+                    "WHERE DEVICE_ID = ? AND ENROLMENT_ID = ?");
+            stmt.setInt(1, deviceId);
+            stmt.setInt(2, enrollmentId);
+            rs = stmt.executeQuery();
+            List<DeviceLocation> locations = new ArrayList<>();
+            List<String> tilePrefixes = new ArrayList<>();
+            while (rs.next()) {
+                DeviceLocation location = new DeviceLocation();
+                location.setLatitude(rs.getDouble("LATITUDE"));
+                location.setLongitude(rs.getDouble("LONGITUDE"));
+                String geohash = rs.getString("GEO_HASH");
+                if (geohash == null || geohash.length() < GeoHashGenerator.TILE_GEOHASH_LENGTH) {
+                    geohash = GeoHashGenerator.encodeGeohash(location);
+                }
+                locations.add(location);
+                tilePrefixes.add(geohash.substring(0, GeoHashGenerator.TILE_GEOHASH_LENGTH));
+            }
+            DeviceManagementDAOUtil.cleanupResources(stmt, rs);
+            rs = null;
+            stmt = null;
+
+            for (int i = 0; i < locations.size(); i++) {
+                String tilePrefix = tilePrefixes.get(i);
+                stmt = conn.prepareStatement("UPDATE DM_GEO_TILE SET DEVICE_COUNT = DEVICE_COUNT - 1, " +
+                        "SUM_LATITUDE = SUM_LATITUDE - ?, SUM_LONGITUDE = SUM_LONGITUDE - ? " +
+                        "WHERE TENANT_ID = ? AND GEOHASH_PREFIX = ?");
+                stmt.setDouble(1, locations.get(i).getLatitude());
+                stmt.setDouble(2, locations.get(i).getLongitude());
+                stmt.setInt(3, tenantId);
+                stmt.setString(4, tilePrefix);
+                stmt.executeUpdate();
+                DeviceManagementDAOUtil.cleanupResources(stmt, null);
+                stmt = null;
+                this.shrinkGeoTile(conn, deviceId, enrollmentId, tenantId, tilePrefix);
+            }
+        } catch (SQLException e) {
+            throw new DeviceDetailsMgtDAOException("Error occurred while removing the device location from the geo " +
+                    "tiles.", e);
+        } finally {
+            DeviceManagementDAOUtil.cleanupResources(stmt, rs);
+        }
+    }
+
+    /**
+     * Deletes the tile when no device is left in it, otherwise sets its bounding box to the locations left in it,
+     * which are the locations of the tile other than the ones of the given enrolment.
+     */
+    private void shrinkGeoTile(Connection conn, int deviceId, int enrollmentId, int tenantId, String tilePrefix)
+            throws SQLException {
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = conn.prepareStatement("DELETE FROM DM_GEO_TILE WHERE TENANT_ID = ? AND GEOHASH_PREFIX = ? AND " +
+                    "DEVICE_COUNT <= 0");
+            stmt.setInt(1, tenantId);
+            stmt.setString(2, tilePrefix);
+            if (stmt.executeUpdate() > 0) {
+                return;
+            }
+            DeviceManagementDAOUtil.cleanupResources(stmt, null);
+
+            stmt = conn.prepareStatement("SELECT MIN(L.LATITUDE) AS MIN_LATITUDE, MAX(L.LATITUDE) AS MAX_LATITUDE, " +
+                    "MIN(L.LONGITUDE) AS MIN_LONGITUDE, MAX(L.LONGITUDE) AS MAX_LONGITUDE " +
+                    "FROM DM_DEVICE_LOCATION L, DM_DEVICE D WHERE L.GEO_HASH LIKE ? AND D.ID = L.DEVICE_ID AND " +
+                    "D.TENANT_ID = ? AND NOT (L.DEVICE_ID = ? AND L.ENROLMENT_ID = ?)");
+            stmt.setString(1, tilePrefix + "%");
+            stmt.setInt(2, tenantId);
+            stmt.setInt(3, deviceId);
+            stmt.setInt(4, enrollmentId);
+            rs = stmt.executeQuery();
+            if (!rs.next() || rs.getObject("MIN_LATITUDE") == null) {
+                return;
+            }
+            double minLatitude = rs.getDouble("MIN_LATITUDE");
+            double maxLatitude = rs.getDouble("MAX_LATITUDE");
+            double minLongitude = rs.getDouble("MIN_LONGITUDE");
+            double maxLongitude = rs.getDouble("MAX_LONGITUDE");
+            DeviceManagementDAOUtil.cleanupResources(stmt, rs);
+            rs = null;
+
+            stmt = conn.prepareStatement("UPDATE DM_GEO_TILE SET MIN_LATITUDE = ?, MAX_LATITUDE = ?, " +
+                    "MIN_LONGITUDE = ?, MAX_LONGITUDE = ? WHERE TENANT_ID = ? AND GEOHASH_PREFIX = ?");
+            stmt.setDouble(1, minLatitude);
+            stmt.setDouble(2, maxLatitude);
+            stmt.setDouble(3, minLongitude);
+            stmt.setDouble(4, maxLongitude);
+            stmt.setInt(5, tenantId);
+            stmt.setString(6, tilePrefix);
+            stmt.executeUpdate();
+        } finally {
+            DeviceManagementDAOUtil.cleanupResources(stmt, rs);
+        }
+    }
+
+    /**
+     * Adds the location to the tile on databases without a single upsert statement. The tile is inserted when no
+     * tile is updated, and updated again when a concurrent transaction has inserted it in the meantime.
+     */
+    private void addToGeoTile(Connection conn, int tenantId, String tilePrefix, double latitude, double longitude)
+            throws SQLException {
+        if (this.updateGeoTile(conn, tenantId, tilePrefix, latitude, longitude) > 0) {
+            return;
+        }
+        PreparedStatement stmt = null;
+        try {
+            stmt = conn.prepareStatement(INSERT_GEO_TILE);
+            this.setGeoTileValues(stmt, tenantId, tilePrefix, latitude, longitude);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            // Integrity constraint violations have the SQL state class 23
+            if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                throw e;
+            }
+            this.updateGeoTile(conn, tenantId, tilePrefix, latitude, longitude);
+        } finally {
+            DeviceManagementDAOUtil.cleanupResources(stmt, null);
+        }
+    }
+
+    private int updateGeoTile(Connection conn, int tenantId, String tilePrefix, double latitude, double longitude)
+            throws SQLException {
+        PreparedStatement stmt = null;
+        try {
+            stmt = conn.prepareStatement("UPDATE DM_GEO_TILE SET DEVICE_COUNT = DEVICE_COUNT + 1, " +
+                    "SUM_LATITUDE = SUM_LATITUDE + ?, SUM_LONGITUDE = SUM_LONGITUDE + ?, " +
+                    "MIN_LATITUDE = CASE WHEN MIN_LATITUDE > ? THEN ? ELSE MIN_LATITUDE END, " +
+                    "MAX_LATITUDE = CASE WHEN MAX_LATITUDE < ? THEN ? ELSE MAX_LATITUDE END, " +
+                    "MIN_LONGITUDE = CASE WHEN MIN_LONGITUDE > ? THEN ? ELSE MIN_LONGITUDE END, " +
+                    "MAX_LONGITUDE = CASE WHEN MAX_LONGITUDE < ? THEN ? ELSE MAX_LONGITUDE END " +
+                    "WHERE TENANT_ID = ? AND GEOHASH_PREFIX = ?");
+            stmt.setDouble(1, latitude);
+            stmt.setDouble(2, longitude);
+            stmt.setDouble(3, latitude);
+            stmt.setDouble(4, latitude);
+            stmt.setDouble(5, latitude);
+            stmt.setDouble(6, latitude);
+            stmt.setDouble(7, longitude);
+            stmt.setDouble(8, longitude);
+            stmt.setDouble(9, longitude);
+            stmt.setDouble(10, longitude);
+            stmt.setInt(11, tenantId);
+            stmt.setString(12, tilePrefix);
+            return stmt.executeUpdate();
+        } finally {
+            DeviceManagementDAOUtil.cleanupResources(stmt, null);
+        }
+    }
+
+    /**
+     * Returns the assignments which add a location to an existing tile, given the qualifier of the tile columns and
+     * the expressions of the latitude and longitude of the location.
+     */
+    private static String getGeoTileIncrement(String tile, String latitude, String longitude) {
+        return "DEVICE_COUNT = " + tile + "DEVICE_COUNT + 1, " +
+                "SUM_LATITUDE = " + tile + "SUM_LATITUDE + " + latitude + ", " +
+                "SUM_LONGITUDE = " + tile + "SUM_LONGITUDE + " + longitude + ", " +
+                "MIN_LATITUDE = CASE WHEN " + tile + "MIN_LATITUDE > " + latitude + " THEN " + latitude +
+                " ELSE " + tile + "MIN_LATITUDE END, " +
+                "MAX_LATITUDE = CASE WHEN " + tile + "MAX_LATITUDE < " + latitude + " THEN " + latitude +
+                " ELSE " + tile + "MAX_LATITUDE END, " +
+                "MIN_LONGITUDE = CASE WHEN " + tile + "MIN_LONGITUDE > " + longitude + " THEN " + longitude +
+                " ELSE " + tile + "MIN_LONGITUDE END, " +
+                "MAX_LONGITUDE = CASE WHEN " + tile + "MAX_LONGITUDE < " + longitude + " THEN " + longitude +
+                " ELSE " + tile + "MAX_LONGITUDE END";
+    }
+
+    private void setGeoTileValues(PreparedStatement stmt, int tenantId, String tilePrefix, double latitude,
+                                  double longitude) throws SQLException {
+        stmt.setInt(1, tenantId);
+        stmt.setString(2, tilePrefix);
+        stmt.setDouble(3, latitude);
+        stmt.setDouble(4, longitude);
+        stmt.setDouble(5, latitude);
+        stmt.setDouble(6, latitude);
+        stmt.setDouble(7, longitude);
+        stmt.setDouble(8, longitude);
+    }
+
+    private void setGeoTileSource(PreparedStatement stmt, int tenantId, String tilePrefix, double latitude,
+                                  double longitude) throws SQLException {
+        stmt.setInt(1, tenantId);
+        stmt.setString(2, tilePrefix);
+        stmt.setDouble(3, latitude);
+        stmt.setDouble(4, longitude);
+    }
+
+    private DeviceInfo loadDeviceInfo(ResultSet rs) throws SQLException {
+        DeviceInfo deviceInfo = new DeviceInfo();
+//        deviceInfo.setIMEI(rs.getString("IMEI"));
+//        deviceInfo.setIMSI(rs.getString("IMSI"));
+        deviceInfo.setDeviceModel(rs.getString("DEVICE_MODEL"));
+        deviceInfo.setVendor(rs.getString("VENDOR"));
+        deviceInfo.setOsVersion(rs.getString("OS_VERSION"));
+        deviceInfo.setOsBuildDate(rs.getString("OS_BUILD_DATE"));
+        deviceInfo.setBatteryLevel(rs.getDouble("BATTERY_LEVEL"));
+        deviceInfo.setInternalTotalMemory(rs.getDouble("INTERNAL_TOTAL_MEMORY"));
+        deviceInfo.setInternalAvailableMemory(rs.getDouble("INTERNAL_AVAILABLE_MEMORY"));
+        deviceInfo.setExternalTotalMemory(rs.getDouble("EXTERNAL_TOTAL_MEMORY"));
+        deviceInfo.setExternalAvailableMemory(rs.getDouble("EXTERNAL_AVAILABLE_MEMORY"));
+//        deviceInfo.setOperator(rs.getString("OPERATOR"));
+        deviceInfo.setConnectionType(rs.getString("CONNECTION_TYPE"));
+//        deviceInfo.setMobileSignalStrength(rs.getDouble("MOBILE_SIGNAL_STRENGTH"));
+        deviceInfo.setSsid(rs.getString("SSID"));
+        deviceInfo.setCpuUsage(rs.getDouble("CPU_USAGE"));
+        deviceInfo.setTotalRAMMemory(rs.getDouble("TOTAL_RAM_MEMORY"));
+        deviceInfo.setAvailableRAMMemory(rs.getDouble("AVAILABLE_RAM_MEMORY"));
+        deviceInfo.setPluggedIn(rs.getBoolean("PLUGGED_IN"));
+        deviceInfo.setUpdatedTime(new java.util.Date(rs.getLong("UPDATE_TIMESTAMP")));
+        return deviceInfo;
+    }
+
+    private void loadDeviceLocation(ResultSet rs, DeviceLocation location) throws SQLException {
+        location.setLatitude(rs.getDouble("LATITUDE"));
+        location.setLongitude(rs.getDouble("LONGITUDE"));
+        location.setStreet1(rs.getString("STREET1"));
+        location.setStreet2(rs.getString("STREET2"));
+        location.setCity(rs.getString("CITY"));
+        location.setZip(rs.getString("ZIP"));
+        location.setState(rs.getString("STATE"));
+        location.setCountry(rs.getString("COUNTRY"));
+        location.setUpdatedTime(new java.util.Date(rs.getLong("UPDATE_TIMESTAMP")));
+    }
+
+    private String getInClause(int size) {
+        StringBuilder inClause = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            inClause.append(i == 0 ? "?" : ", ?");
+        }
+        return inClause.toString();
+    }
+
     private Connection getConnection() throws SQLException {
         return DeviceManagementDAOFactory.getConnection();
     }
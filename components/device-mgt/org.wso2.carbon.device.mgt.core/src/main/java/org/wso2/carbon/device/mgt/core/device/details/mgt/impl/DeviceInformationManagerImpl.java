@@ -194,10 +194,14 @@ public class DeviceInformationManagerImpl implements DeviceInformationManager {
             Device device = DeviceManagementDataHolder.getInstance().
                     getDeviceManagementProvider().getDevice(deviceLocation.getDeviceIdentifier(), false);
             deviceLocation.setDeviceId(device.getId());
+            int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
             DeviceManagementDAOFactory.beginTransaction();
-            deviceDAO.updateDevice(device, CarbonContext.getThreadLocalCarbonContext().getTenantId());
+            deviceDAO.updateDevice(device, tenantId);
+            deviceDetailsDAO.removeLocationFromGeoTiles(deviceLocation.getDeviceId(), device.getEnrolmentInfo().getId(),
+                    tenantId);
             deviceDetailsDAO.deleteDeviceLocation(deviceLocation.getDeviceId(), device.getEnrolmentInfo().getId());
             deviceDetailsDAO.addDeviceLocation(deviceLocation, device.getEnrolmentInfo().getId());
+            deviceDetailsDAO.addLocationToGeoTiles(deviceLocation, tenantId);
             //TODO: This has to be fixed with enrollment id or username should include in the stream def.
             if (DeviceManagerUtil.isPublishLocationResponseEnabled()) {
                 Object[] metaData = {device.getDeviceIdentifier(), device.getType()};
@@ -7,21 +7,19 @@ import java.util.Map;
 
 public class GeoHashGenerator {
     private static final String BASE_32 = "0123456789bcdefghjkmnpqrstuvwxyz";
-    private static final int GEOHASH_LENGTH = 16;
+    public static final int GEOHASH_LENGTH = 16;
+    /**
+     * Maximum length of a geohash which fits into the bits returned by {@link #encodeGeohashBits}.
+     */
+    public static final int MAX_LONG_GEOHASH_LENGTH = 12;
+    /**
+     * Geohash length of the geo tiles which aggregate the device locations. Clusters of longer geohash prefixes
+     * are aggregated from the device locations.
+     */
+    public static final int TILE_GEOHASH_LENGTH = 7;
 
     private GeoHashGenerator(){};
 
-    private static int divideRangeByValue(double value, double[] range) {
-        double mid = middle(range);
-        if (value >= mid) {
-            range[0] = mid;
-            return 1;
-        } else {
-            range[1] = mid;
-            return 0;
-        }
-    }
-
     private static void divideRangeByBit(int bit, double[] range) {
         double mid = middle(range);
         if (bit > 0) {
@@ -36,33 +34,102 @@ public class GeoHashGenerator {
     }
 
     public static String encodeGeohash(double latitude, double longitude) {
-        int geohashLength=GEOHASH_LENGTH;
-        double[] latRange = new double[]{-90.0, 90.0};
-        double[] lonRange = new double[]{-180.0, 180.0};
-        boolean isEven = true;
-        int bit = 0;
+        char[] geohash = new char[GEOHASH_LENGTH];
+        double minLat = -90.0;
+        double maxLat = 90.0;
+        double minLon = -180.0;
+        double maxLon = 180.0;
         int base32CharIndex = 0;
-        StringBuilder geohash = new StringBuilder();
-
-        while (geohash.length() < geohashLength) {
-            if (isEven) {
-                base32CharIndex = (base32CharIndex << 1) | divideRangeByValue(longitude, lonRange);
+        for (int bit = 0; bit < GEOHASH_LENGTH * 5; bit++) {
+            base32CharIndex <<= 1;
+            // Bits alternate between longitude and latitude, starting with longitude
+            if ((bit & 1) == 0) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    base32CharIndex |= 1;
+                    minLon = mid;
+                } else {
+                    maxLon = mid;
+                }
             } else {
-                base32CharIndex = (base32CharIndex << 1) | divideRangeByValue(latitude, latRange);
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    base32CharIndex |= 1;
+                    minLat = mid;
+                } else {
+                    maxLat = mid;
+                }
             }
+            if (bit % 5 == 4) {
+                geohash[bit / 5] = BASE_32.charAt(base32CharIndex);
+                base32CharIndex = 0;
+            }
+        }
+        return new String(geohash);
+    }
 
-            isEven = !isEven;
-
-            if (bit < 4) {
-                bit++;
+    /**
+     * Encodes the given coordinates into the bits of a geohash of the given length, 5 bits per character with the
+     * first character in the most significant bits. Unlike {@link #encodeGeohash(double, double)}, this does not
+     * allocate any objects, hence it suits bulk computations such as prefix comparisons, which can be done with
+     * shifts on the returned value.
+     *
+     * @param latitude  latitude of the location.
+     * @param longitude longitude of the location.
+     * @param length    length of the geohash, between 1 and {@link #MAX_LONG_GEOHASH_LENGTH}.
+     * @return bits of the geohash, which {@link #toGeohash(long, int)} converts to the geohash string.
+     */
+    public static long encodeGeohashBits(double latitude, double longitude, int length) {
+        if (length < 1 || length > MAX_LONG_GEOHASH_LENGTH) {
+            throw new IllegalArgumentException("Geohash length must be between 1 and " + MAX_LONG_GEOHASH_LENGTH +
+                    ", but was " + length);
+        }
+        double minLat = -90.0;
+        double maxLat = 90.0;
+        double minLon = -180.0;
+        double maxLon = 180.0;
+        long bits = 0;
+        for (int bit = 0; bit < length * 5; bit++) {
+            bits <<= 1;
+            if ((bit & 1) == 0) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    bits |= 1;
+                    minLon = mid;
+                } else {
+                    maxLon = mid;
+                }
             } else {
-                geohash.append(BASE_32.charAt(base32CharIndex));
-                bit = 0;
-                base32CharIndex = 0;
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    bits |= 1;
+                    minLat = mid;
+                } else {
+                    maxLat = mid;
+                }
             }
         }
+        return bits;
+    }
+
+    /**
+     * Converts the bits returned by {@link #encodeGeohashBits(double, double, int)} to the geohash string.
+     */
+    public static String toGeohash(long bits, int length) {
+        char[] geohash = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            geohash[i] = BASE_32.charAt((int) (bits & 0x1f));
+            bits >>>= 5;
+        }
+        return new String(geohash);
+    }
 
-        return geohash.toString();
+    /**
+     * Returns the latitude span of the cells of a geohash of the given length, in degrees.
+     */
+    public static double getLatitudeSpan(int length) {
+        // Latitude takes every odd bit, hence the floor of half of the bits
+        return 180.0 / (1L << (length * 5 / 2));
     }
 
     public static String encodeGeohash(DeviceLocation deviceLocation) {
@@ -30,6 +30,7 @@ import org.wso2.carbon.device.mgt.core.config.license.LicenseConfig;
 import org.wso2.carbon.device.mgt.core.dto.DeviceType;
 import org.wso2.carbon.device.mgt.core.dto.DeviceTypeServiceIdentifier;
 import org.wso2.carbon.device.mgt.core.privacy.PrivacyComplianceProvider;
+import org.wso2.carbon.device.mgt.core.push.notification.mgt.PushNotificationDispatcher;
 import org.wso2.carbon.device.mgt.core.push.notification.mgt.PushNotificationProviderRepository;
 import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderService;
 import org.wso2.carbon.device.mgt.core.service.GroupManagementProviderService;
@@ -65,6 +66,7 @@ public class DeviceManagementDataHolder {
     private TaskService taskService;
     private EmailSenderService emailSenderService;
     private PushNotificationProviderRepository pushNotificationProviderRepository;
+    private PushNotificationDispatcher pushNotificationDispatcher;
     private DeviceTaskManagerService deviceTaskManagerService;
     private DeviceStatusTaskManagerService deviceStatusTaskManagerService;
     private DeviceTypeGeneratorService deviceTypeGeneratorService;
@@ -228,6 +230,14 @@ public class DeviceManagementDataHolder {
         return pushNotificationProviderRepository;
     }
 
+    public PushNotificationDispatcher getPushNotificationDispatcher() {
+        return pushNotificationDispatcher;
+    }
+
+    public void setPushNotificationDispatcher(PushNotificationDispatcher pushNotificationDispatcher) {
+        this.pushNotificationDispatcher = pushNotificationDispatcher;
+    }
+
     public DeviceTaskManagerService getDeviceTaskManagerService() {
         return deviceTaskManagerService;
     }
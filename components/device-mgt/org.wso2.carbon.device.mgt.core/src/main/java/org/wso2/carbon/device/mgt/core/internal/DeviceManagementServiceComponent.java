@@ -42,9 +42,13 @@ import org.wso2.carbon.device.mgt.core.authorization.DeviceAccessAuthorizationSe
 import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
 import org.wso2.carbon.device.mgt.core.config.DeviceManagementConfig;
 import org.wso2.carbon.device.mgt.core.config.datasource.DataSourceConfig;
+import org.wso2.carbon.device.mgt.core.config.payload.PayloadConfiguration;
+import org.wso2.carbon.device.mgt.core.config.push.notification.NotificationDispatcherConfiguration;
 import org.wso2.carbon.device.mgt.core.config.tenant.PlatformConfigurationManagementServiceImpl;
 import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOFactory;
 import org.wso2.carbon.device.mgt.core.dao.GroupManagementDAOFactory;
+import org.wso2.carbon.device.mgt.core.dao.util.JsonPayloadCodec;
+import org.wso2.carbon.device.mgt.core.dao.util.PayloadSerializer;
 import org.wso2.carbon.device.mgt.core.geo.service.GeoLocationProviderServiceImpl;
 import org.wso2.carbon.device.mgt.core.notification.mgt.NotificationManagementServiceImpl;
 import org.wso2.carbon.device.mgt.core.notification.mgt.dao.NotificationManagementDAOFactory;
@@ -54,6 +58,7 @@ import org.wso2.carbon.device.mgt.core.permission.mgt.PermissionManagerServiceIm
 import org.wso2.carbon.device.mgt.core.privacy.PrivacyComplianceProvider;
 import org.wso2.carbon.device.mgt.core.privacy.impl.PrivacyComplianceProviderImpl;
 import org.wso2.carbon.device.mgt.core.push.notification.mgt.PushNotificationProviderRepository;
+import org.wso2.carbon.device.mgt.core.push.notification.mgt.PushNotificationDispatcher;
 import org.wso2.carbon.device.mgt.core.push.notification.mgt.task.PushNotificationSchedulerTask;
 import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderService;
 import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderServiceImpl;
@@ -65,6 +70,8 @@ import org.wso2.carbon.device.mgt.core.util.DeviceManagerUtil;
 import org.wso2.carbon.email.sender.core.service.EmailSenderService;
 import org.wso2.carbon.ndatasource.core.DataSourceService;
 import org.wso2.carbon.registry.core.service.RegistryService;
+import org.wso2.carbon.user.core.listener.AuthorizationManagerListener;
+import org.wso2.carbon.user.core.listener.UserOperationEventListener;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.carbon.utils.Axis2ConfigurationContextObserver;
 import org.wso2.carbon.utils.ConfigurationContextService;
@@ -127,6 +134,9 @@ public class DeviceManagementServiceComponent {
     private static List<PluginInitializationListener> listeners = new ArrayList<>();
     private static List<DeviceManagementService> deviceManagers = new ArrayList<>();
     private static List<DeviceManagerStartupListener> startupListeners = new ArrayList<>();
+    private ScheduledExecutorService pushNotificationExecutor;
+    private PushNotificationSchedulerTask pushNotificationSchedulerTask;
+    private GroupCacheAuthorizationListener groupCacheAuthorizationListener;
 
     public static void registerPluginInitializationListener(PluginInitializationListener listener) {
         synchronized (LOCK) {
@@ -164,6 +174,7 @@ public class DeviceManagementServiceComponent {
             GroupManagementDAOFactory.init(dsConfig);
             NotificationManagementDAOFactory.init(dsConfig);
             OperationManagementDAOFactory.init(dsConfig);
+            this.initPayloadSerializer(config.getPayloadConfiguration());
             /*Initialize the device cache*/
             DeviceManagerUtil.initializeDeviceCache();
 
@@ -222,12 +233,20 @@ public class DeviceManagementServiceComponent {
                     config.getPushNotificationConfiguration().setSchedulerTaskInitialDelay(DeviceManagementConstants
                             .PushNotifications.DEFAULT_SCHEDULER_TASK_INITIAL_DELAY);
                 }
-                ScheduledExecutorService pushNotificationExecutor = Executors.newSingleThreadScheduledExecutor();
-                pushNotificationExecutor.scheduleWithFixedDelay(new PushNotificationSchedulerTask(), config
+                pushNotificationSchedulerTask = new PushNotificationSchedulerTask();
+                pushNotificationExecutor = Executors.newSingleThreadScheduledExecutor();
+                pushNotificationExecutor.scheduleWithFixedDelay(pushNotificationSchedulerTask, config
                         .getPushNotificationConfiguration().getSchedulerTaskInitialDelay(), config
                         .getPushNotificationConfiguration().getSchedulerBatchDelayMills(), TimeUnit.MILLISECONDS);
             }
 
+            NotificationDispatcherConfiguration dispatcherConfig = config.getPushNotificationConfiguration()
+                    .getNotificationDispatcherConfiguration();
+            if (dispatcherConfig != null && dispatcherConfig.isEnabled()) {
+                DeviceManagementDataHolder.getInstance().setPushNotificationDispatcher(
+                        new PushNotificationDispatcher(dispatcherConfig));
+            }
+
             PrivacyComplianceProvider privacyComplianceProvider = new PrivacyComplianceProviderImpl();
             DeviceManagementDataHolder.getInstance().setPrivacyComplianceProvider(privacyComplianceProvider);
             componentContext.getBundleContext().registerService(PrivacyComplianceProvider.class.getName(),
@@ -243,7 +262,37 @@ public class DeviceManagementServiceComponent {
 
     @SuppressWarnings("unused")
     protected void deactivate(ComponentContext componentContext) {
-        //do nothing
+        if (pushNotificationExecutor != null) {
+            pushNotificationExecutor.shutdownNow();
+        }
+        if (pushNotificationSchedulerTask != null) {
+            pushNotificationSchedulerTask.shutdown();
+        }
+        PushNotificationDispatcher pushNotificationDispatcher = DeviceManagementDataHolder.getInstance()
+                .getPushNotificationDispatcher();
+        if (pushNotificationDispatcher != null) {
+            pushNotificationDispatcher.shutdown();
+        }
+        if (groupCacheAuthorizationListener != null) {
+            groupCacheAuthorizationListener.shutdown();
+        }
+    }
+
+    private void initPayloadSerializer(PayloadConfiguration payloadConfig) {
+        // Payloads are written as plain serialized Java objects unless the JSON format is enabled, since the nodes
+        // of an older version in the cluster cannot read the tagged values
+        if (payloadConfig == null || payloadConfig.getWriteFormat() == null ||
+                PayloadConfiguration.FORMAT_JAVA_SERIALIZATION.equalsIgnoreCase(payloadConfig.getWriteFormat())) {
+            PayloadSerializer.setWriteCodec(null);
+        } else if (PayloadConfiguration.FORMAT_JSON.equalsIgnoreCase(payloadConfig.getWriteFormat())) {
+            int compressionThreshold = payloadConfig.getCompressionThreshold() > 0 ?
+                    payloadConfig.getCompressionThreshold() : JsonPayloadCodec.DEFAULT_COMPRESSION_THRESHOLD;
+            PayloadSerializer.setWriteCodec(new JsonPayloadCodec(compressionThreshold));
+        } else {
+            log.warn("Unknown payload write format '" + payloadConfig.getWriteFormat() + "', hence payloads are " +
+                    "written as serialized Java objects");
+            PayloadSerializer.setWriteCodec(null);
+        }
     }
 
     private void initOperationsManager() throws OperationManagementException {
@@ -285,6 +334,13 @@ public class DeviceManagementServiceComponent {
         DeviceManagementDataHolder.getInstance().setGroupManagementProviderService(groupManagementProvider);
         bundleContext.registerService(GroupManagementProviderService.class.getName(), groupManagementProvider, null);
 
+        /* Registering the listeners which keep the group cache consistent with role and permission changes */
+        bundleContext.registerService(UserOperationEventListener.class.getName(), new GroupCacheUserStoreListener(),
+                null);
+        groupCacheAuthorizationListener = new GroupCacheAuthorizationListener();
+        bundleContext.registerService(AuthorizationManagerListener.class.getName(),
+                groupCacheAuthorizationListener, null);
+
 	    /* Registering Tenant Configuration Management Service */
         PlatformConfigurationManagementService
                 tenantConfiguration = new PlatformConfigurationManagementServiceImpl();
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.device.mgt.core.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.device.mgt.core.cache.impl.GroupCacheManagerImpl;
+import org.wso2.carbon.user.core.AuthorizationManager;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.listener.AuthorizationManagerListener;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clears the groups permitted to the users of a tenant from the group cache whenever the permissions of a role
+ * change, since a group is permitted to a user when one of the roles it is shared with holds the permission.
+ * <p>
+ * The listener is notified before the permissions are stored, and there is no notification once they are stored.
+ * Hence the permitted groups are cleared right away, which keeps loads already running from caching the previous
+ * permissions, and cleared once more after {@link #POST_CHANGE_CLEAR_DELAY} seconds, which drops the groups loaded
+ * from the previous permissions while the change was being stored.
+ */
+public class GroupCacheAuthorizationListener implements AuthorizationManagerListener {
+
+    private static final Log log = LogFactory.getLog(GroupCacheAuthorizationListener.class);
+    private static final int EXECUTION_ORDER_ID = 125;
+    private static final int POST_CHANGE_CLEAR_DELAY = 5;
+
+    private final ScheduledExecutorService clearExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "group-cache-clear");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    /**
+     * Stops clearing the permitted groups after permission changes, called when the component is deactivated.
+     */
+    public void shutdown() {
+        clearExecutor.shutdownNow();
+    }
+
+    @Override
+    public int getExecutionOrderId() {
+        return EXECUTION_ORDER_ID;
+    }
+
+    @Override
+    public boolean isUserAuthorized(String userName, String resourceId, String action,
+                                    AuthorizationManager authorizationManager) throws UserStoreException {
+        return true;
+    }
+
+    @Override
+    public boolean isRoleAuthorized(String roleName, String resourceId, String action,
+                                    AuthorizationManager authorizationManager) throws UserStoreException {
+        return true;
+    }
+
+    @Override
+    public boolean authorizeUser(String userName, String resourceId, String action,
+                                 AuthorizationManager authorizationManager) throws UserStoreException {
+        return true;
+    }
+
+    @Override
+    public boolean authorizeRole(String roleName, String resourceId, String action,
+                                 AuthorizationManager authorizationManager) throws UserStoreException {
+        this.clearPermittedGroupIds();
+        return true;
+    }
+
+    @Override
+    public boolean denyUser(String userName, String resourceId, String action,
+                            AuthorizationManager authorizationManager) throws UserStoreException {
+        return true;
+    }
+
+    @Override
+    public boolean denyRole(String roleName, String resourceId, String action,
+                            AuthorizationManager authorizationManager) throws UserStoreException {
+        this.clearPermittedGroupIds();
+        return true;
+    }
+
+    @Override
+    public boolean clearUserAuthorization(String userName, String resourceId, String action,
+                                          AuthorizationManager authorizationManager) throws UserStoreException {
+        return true;
+    }
+
+    @Override
+    public boolean clearUserAuthorization(String userName, AuthorizationManager authorizationManager)
+            throws UserStoreException {
+        return true;
+    }
+
+    @Override
+    public boolean clearRoleAuthorization(String roleName, String resourceId, String action,
+                                          AuthorizationManager authorizationManager) throws UserStoreException {
+        this.clearPermittedGroupIds();
+        return true;
+    }
+
+    @Override
+    public boolean clearRoleActionOnAllResources(String roleName, String action,
+                                                 AuthorizationManager authorizationManager) throws UserStoreException {
+        this.clearPermittedGroupIds();
+        return true;
+    }
+
+    @Override
+    public boolean clearRoleAuthorization(String roleName, AuthorizationManager authorizationManager)
+            throws UserStoreException {
+        this.clearPermittedGroupIds();
+        return true;
+    }
+
+    @Override
+    public boolean clearResourceAuthorizations(String resourceId, AuthorizationManager authorizationManager)
+            throws UserStoreException {
+        this.clearPermittedGroupIds();
+        return true;
+    }
+
+    @Override
+    public boolean resetPermissionOnUpdateRole(String roleName, String newRoleName,
+                                               AuthorizationManager authorizationManager) throws UserStoreException {
+        this.clearPermittedGroupIds();
+        return true;
+    }
+
+    private void clearPermittedGroupIds() {
+        GroupCacheManagerImpl.getInstance().clearPermittedGroupIds();
+        final int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        try {
+            clearExecutor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        PrivilegedCarbonContext.startTenantFlow();
+                        PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId, true);
+                        GroupCacheManagerImpl.getInstance().clearPermittedGroupIds();
+                    } catch (RuntimeException e) {
+                        log.error("Error occurred while clearing the permitted groups of tenant " + tenantId +
+                                " after a permission change.", e);
+                    } finally {
+                        PrivilegedCarbonContext.endTenantFlow();
+                    }
+                }
+            }, POST_CHANGE_CLEAR_DELAY, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("Permitted groups of tenant " + tenantId + " are not cleared after the permission change, " +
+                    "since the listener is shut down.");
+        }
+    }
+}
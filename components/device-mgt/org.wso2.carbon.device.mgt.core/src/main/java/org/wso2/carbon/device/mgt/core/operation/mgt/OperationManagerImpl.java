@@ -45,6 +45,8 @@ import org.wso2.carbon.device.mgt.common.push.notification.PushNotificationExecu
 import org.wso2.carbon.device.mgt.common.push.notification.PushNotificationProvider;
 import org.wso2.carbon.device.mgt.common.spi.DeviceManagementService;
 import org.wso2.carbon.device.mgt.core.DeviceManagementConstants;
+import org.wso2.carbon.device.mgt.core.cache.PendingOperationCacheManager;
+import org.wso2.carbon.device.mgt.core.cache.impl.PendingOperationCacheManagerImpl;
 import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
 import org.wso2.carbon.device.mgt.core.dao.DeviceDAO;
 import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOException;
@@ -57,7 +59,7 @@ import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationManagementDAOF
 import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationMappingDAO;
 import org.wso2.carbon.device.mgt.core.operation.mgt.dao.util.OperationDAOUtil;
 import org.wso2.carbon.device.mgt.core.operation.mgt.util.DeviceIDHolder;
-import org.wso2.carbon.device.mgt.core.operation.mgt.util.OperationCreateTimeComparator;
+import org.wso2.carbon.device.mgt.core.push.notification.mgt.PushNotificationDispatcher;
 import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderService;
 import org.wso2.carbon.device.mgt.core.task.DeviceTaskManager;
 import org.wso2.carbon.device.mgt.core.task.impl.DeviceTaskManagerImpl;
@@ -69,8 +71,10 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * This class implements all the functionality exposed as part of the OperationManager. Any transaction initiated
@@ -91,6 +95,7 @@ public class OperationManagerImpl implements OperationManager {
     private OperationDAO operationDAO;
     private DeviceDAO deviceDAO;
     private EnrollmentDAO enrollmentDAO;
+    private PendingOperationCacheManager pendingOperationCacheManager;
     private String deviceType;
     private DeviceManagementService deviceManagementService;
     private Map<Integer, NotificationStrategy> notificationStrategies;
@@ -105,6 +110,7 @@ public class OperationManagerImpl implements OperationManager {
         operationDAO = OperationManagementDAOFactory.getOperationDAO();
         deviceDAO = DeviceManagementDAOFactory.getDeviceDAO();
         enrollmentDAO = DeviceManagementDAOFactory.getEnrollmentDAO();
+        pendingOperationCacheManager = PendingOperationCacheManagerImpl.getInstance();
         notificationStrategies = new HashMap<>();
         lastUpdatedTimeStamps = new HashMap<>();
     }
@@ -171,6 +177,31 @@ public class OperationManagerImpl implements OperationManager {
                     return activity;
                 }
 
+                List<Device> devices = this.getDevices(authorizedDeviceList);
+                if (devices.size() < authorizedDeviceList.size()) {
+                    // Devices removed after the identifiers were validated are reported as invalid
+                    List<DeviceIdentifier> resolvedDeviceIds = this.getResolvedDeviceIds(authorizedDeviceList,
+                            devices);
+                    Set<DeviceIdentifier> resolvedDeviceIdSet = new HashSet<>(resolvedDeviceIds);
+                    for (DeviceIdentifier deviceId : authorizedDeviceList) {
+                        if (!resolvedDeviceIdSet.contains(deviceId)) {
+                            log.warn("Operation '" + operation.getCode() + "' is not added to the " +
+                                    deviceId.getType() + " device carrying id '" + deviceId.getId() +
+                                    "', since the device could not be found.");
+                            deviceValidationResult.getErrorDeviceIdList().add(deviceId.getId());
+                        }
+                    }
+                    if (resolvedDeviceIds.isEmpty()) {
+                        throw new InvalidDeviceException("Invalid device Identifiers found.");
+                    }
+                    authorizedDeviceList = resolvedDeviceIds;
+                    deviceAuthorizationResult.setValidDeviceIDList(resolvedDeviceIds);
+                }
+                List<Integer> enrolmentIds = new ArrayList<>();
+                for (Device device : devices) {
+                    enrolmentIds.add(device.getEnrolmentInfo().getId());
+                }
+
                 OperationManagementDAOFactory.beginTransaction();
                 org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation operationDto =
                         OperationDAOUtil.convertOperation(operation);
@@ -188,38 +219,33 @@ public class OperationManagerImpl implements OperationManager {
                     isScheduled = notificationStrategy.getConfig().isScheduled();
                 }
 
-                boolean hasExistingTaskOperation;
-                int enrolmentId;
-                List<Device> devices = new ArrayList<>();
                 if (org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation.Control.NO_REPEAT == operationDto.
                         getControl()) {
                     isNotRepeated = true;
                 }
 
-                //TODO have to create a sql to load device details from deviceDAO using single query.
                 String operationCode = operationDto.getCode();
-                for (DeviceIdentifier deviceId : authorizedDeviceList) {
-                    Device device = getDevice(deviceId);
-                    devices.add(device);
-                    enrolmentId = device.getEnrolmentInfo().getId();
+                for (List<Integer> enrolmentIdBatch : partition(enrolmentIds)) {
                     //Do not repeat the task operations
                     if (isScheduledOperation) {
-                        hasExistingTaskOperation = operationDAO.updateTaskOperation(enrolmentId, operationCode);
-                        if (!hasExistingTaskOperation) {
-                            operationMappingDAO.addOperationMapping(operationId, enrolmentId, isScheduled);
-                        }
-                    } else if (isNotRepeated) {
-                        operationDAO.updateEnrollmentOperationsStatus(enrolmentId, operationCode,
-                                org.wso2.carbon.device.mgt.core.dto.operation.mgt.
-                                        Operation.Status.PENDING,
-                                org.wso2.carbon.device.mgt.core.dto.operation.mgt.
-                                        Operation.Status.REPEATED);
-                        operationMappingDAO.addOperationMapping(operationId, enrolmentId, isScheduled);
+                        List<Integer> enrolmentsToMap = new ArrayList<>(enrolmentIdBatch);
+                        enrolmentsToMap.removeAll(new HashSet<>(
+                                operationDAO.getEnrolmentsWithPendingOperation(enrolmentIdBatch, operationCode)));
+                        operationMappingDAO.addOperationMappings(operationId, enrolmentsToMap, isScheduled);
                     } else {
-                        operationMappingDAO.addOperationMapping(operationId, enrolmentId, isScheduled);
+                        if (isNotRepeated) {
+                            operationDAO.updateEnrollmentOperationsStatus(enrolmentIdBatch, operationCode,
+                                    org.wso2.carbon.device.mgt.core.dto.operation.mgt.
+                                            Operation.Status.PENDING,
+                                    org.wso2.carbon.device.mgt.core.dto.operation.mgt.
+                                            Operation.Status.REPEATED);
+                        }
+                        operationMappingDAO.addOperationMappings(operationId, enrolmentIdBatch, isScheduled);
                     }
                 }
                 OperationManagementDAOFactory.commitTransaction();
+                pendingOperationCacheManager.removePendingOperationsFromCache(enrolmentIds,
+                        CarbonContext.getThreadLocalCarbonContext().getTenantId());
 
                 /*
                  If notification strategy has not enable to send push notification using scheduler task we will send
@@ -228,15 +254,34 @@ public class OperationManagerImpl implements OperationManager {
                  Otherwise device may call pending operation while DB is locked for write and deadlock can occur.
                  */
                 if (notificationStrategy != null && !isScheduled) {
+                    operation.setId(operationId);
+                    operation.setActivityId(DeviceManagementConstants.OperationAttributes.ACTIVITY + operationId);
+                    PushNotificationDispatcher notificationDispatcher = DeviceManagementDataHolder.getInstance()
+                            .getPushNotificationDispatcher();
+                    List<OperationMapping> rejectedNotifications = new ArrayList<>();
                     for (Device device : devices) {
                         DeviceIdentifier deviceId = new DeviceIdentifier(device.getDeviceIdentifier(), device.getType());
+                        int enrolmentId = device.getEnrolmentInfo().getId();
+                        NotificationContext notificationContext = new NotificationContext(deviceId, operation);
+                        if (notificationDispatcher != null) {
+                            // Sending is handed over to the dispatcher. If its queue is full, the notification is
+                            // left to the push notification scheduler task.
+                            if (!notificationDispatcher.dispatch(notificationStrategy, notificationContext,
+                                    enrolmentId)) {
+                                OperationMapping operationMapping = new OperationMapping();
+                                operationMapping.setOperationId(operationId);
+                                operationMapping.setEnrollmentId(enrolmentId);
+                                operationMapping.setPushNotificationStatus(org.wso2.carbon.device.mgt.core.dto
+                                        .operation.mgt.Operation.PushNotificationStatus.SCHEDULED);
+                                rejectedNotifications.add(operationMapping);
+                            }
+                            continue;
+                        }
                         if (log.isDebugEnabled()) {
                             log.debug("Sending push notification to " + deviceId + " from add operation method.");
                         }
-                        operation.setId(operationId);
-                        operation.setActivityId(DeviceManagementConstants.OperationAttributes.ACTIVITY + operationId);
                         try {
-                            notificationStrategy.execute(new NotificationContext(deviceId, operation));
+                            notificationStrategy.execute(notificationContext);
                         } catch (PushNotificationExecutionFailedException e) {
                             log.error("Error occurred while sending push notifications to " + deviceId.getType() +
                                       " device carrying id '" + deviceId + "'", e);
@@ -244,7 +289,6 @@ public class OperationManagerImpl implements OperationManager {
                              Reschedule if push notification failed. Doing db transactions in atomic way to prevent
                              deadlocks.
                              */
-                            enrolmentId = device.getEnrolmentInfo().getId();
                             try {
                                 operationMappingDAO.updateOperationMapping(operationId, enrolmentId, org.wso2.carbon
                                         .device.mgt.core.dto.operation.mgt.Operation.PushNotificationStatus.SCHEDULED);
@@ -256,6 +300,17 @@ public class OperationManagerImpl implements OperationManager {
                             }
                         }
                     }
+                    if (!rejectedNotifications.isEmpty()) {
+                        log.warn(rejectedNotifications.size() + " push notifications of operation '" + operationId +
+                                "' could not be queued, hence scheduled to be sent by the scheduler task.");
+                        try {
+                            operationMappingDAO.updateOperationMapping(rejectedNotifications);
+                            OperationManagementDAOFactory.commitTransaction();
+                        } catch (OperationManagementDAOException e) {
+                            log.error("Error occurred while setting push notification status to SCHEDULED.", e);
+                            OperationManagementDAOFactory.rollbackTransaction();
+                        }
+                    }
                 }
 
                 Activity activity = new Activity();
@@ -344,6 +399,40 @@ public class OperationManagerImpl implements OperationManager {
         return deviceIDHolder;
     }
 
+    private List<Device> getDevices(List<DeviceIdentifier> deviceIds) throws OperationManagementException {
+        try {
+            return DeviceManagementDataHolder.getInstance().getDeviceManagementProvider().getDevices(deviceIds);
+        } catch (DeviceManagementException e) {
+            throw new OperationManagementException("Error occurred while retrieving device info.", e);
+        }
+    }
+
+    /**
+     * Returns the identifiers of the given list which belong to one of the given devices, in the order of the list.
+     */
+    private List<DeviceIdentifier> getResolvedDeviceIds(List<DeviceIdentifier> deviceIds, List<Device> devices) {
+        Set<String> resolvedKeys = new HashSet<>();
+        for (Device device : devices) {
+            resolvedKeys.add(device.getType() + "/" + device.getDeviceIdentifier());
+        }
+        List<DeviceIdentifier> resolvedDeviceIds = new ArrayList<>();
+        for (DeviceIdentifier deviceId : deviceIds) {
+            if (resolvedKeys.contains(deviceId.getType() + "/" + deviceId.getId())) {
+                resolvedDeviceIds.add(deviceId);
+            }
+        }
+        return resolvedDeviceIds;
+    }
+
+    private static <T> List<List<T>> partition(List<T> items) {
+        List<List<T>> batches = new ArrayList<>();
+        int batchSize = DeviceManagementConstants.OperationAttributes.DEVICE_ID_BATCH_SIZE;
+        for (int i = 0; i < items.size(); i += batchSize) {
+            batches.add(items.subList(i, Math.min(i + batchSize, items.size())));
+        }
+        return batches;
+    }
+
     private Device getDevice(DeviceIdentifier deviceId) throws OperationManagementException {
         try {
             return DeviceManagementDataHolder.getInstance().getDeviceManagementProvider().getDevice(deviceId, false);
@@ -472,22 +561,26 @@ public class OperationManagerImpl implements OperationManager {
                 break;
         }
 
+        int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+        List<Integer> cachedOperationIds = pendingOperationCacheManager.getPendingOperationsFromCache(enrolmentId,
+                tenantId);
+        if (cachedOperationIds != null && cachedOperationIds.isEmpty()) {
+            return operations;
+        }
+        long cacheGeneration = pendingOperationCacheManager.getGeneration(enrolmentId, tenantId);
         try {
             OperationManagementDAOFactory.openConnection();
-            dtoOperationList.addAll(commandOperationDAO.getOperationsByDeviceAndStatus(
-                    enrolmentId, org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation.Status.PENDING));
-            dtoOperationList.addAll(configOperationDAO.getOperationsByDeviceAndStatus(
-                    enrolmentId, org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation.Status.PENDING));
-            dtoOperationList.addAll(profileOperationDAO.getOperationsByDeviceAndStatus(
-                    enrolmentId, org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation.Status.PENDING));
-            dtoOperationList.addAll(policyOperationDAO.getOperationsByDeviceAndStatus(
+            dtoOperationList.addAll(operationDAO.getOperationsWithPayloadByDeviceAndStatus(
                     enrolmentId, org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation.Status.PENDING));
             Operation operation;
+            List<Integer> operationIds = new ArrayList<>();
             for (org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation dtoOperation : dtoOperationList) {
                 operation = OperationDAOUtil.convertOperation(dtoOperation);
                 operations.add(operation);
+                operationIds.add(operation.getId());
             }
-            Collections.sort(operations, new OperationCreateTimeComparator());
+            pendingOperationCacheManager.addPendingOperationsToCache(enrolmentId, operationIds, tenantId,
+                    cacheGeneration);
         } catch (OperationManagementDAOException e) {
             throw new OperationManagementException("Error occurred while retrieving the list of " +
                     "pending operations assigned for '" + deviceId.getType() +
@@ -529,11 +622,21 @@ public class OperationManagerImpl implements OperationManager {
                 break;
         }
 
+        int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+        List<Integer> cachedOperationIds = pendingOperationCacheManager.getPendingOperationsFromCache(enrolmentId,
+                tenantId);
+        if (cachedOperationIds != null && cachedOperationIds.isEmpty()) {
+            return null;
+        }
+        long cacheGeneration = pendingOperationCacheManager.getGeneration(enrolmentId, tenantId);
         try {
             OperationManagementDAOFactory.openConnection();
             org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation dtoOperation = operationDAO.getNextOperation(
                     enrolmentInfo.getId());
-            if (dtoOperation != null) {
+            if (dtoOperation == null) {
+                pendingOperationCacheManager.addPendingOperationsToCache(enrolmentId,
+                        Collections.<Integer>emptyList(), tenantId, cacheGeneration);
+            } else {
                 if (org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation.Type.COMMAND.equals(dtoOperation.getType()
                 )) {
                     org.wso2.carbon.device.mgt.core.dto.operation.mgt.CommandOperation commandOperation;
@@ -597,6 +700,8 @@ public class OperationManagerImpl implements OperationManager {
                 operationDAO.addOperationResponse(enrolmentId, operationId, operation.getOperationResponse());
             }
             OperationManagementDAOFactory.commitTransaction();
+            pendingOperationCacheManager.removePendingOperationsFromCache(enrolmentId,
+                    CarbonContext.getThreadLocalCarbonContext().getTenantId());
         } catch (OperationManagementDAOException e) {
             OperationManagementDAOFactory.rollbackTransaction();
             throw new OperationManagementException(
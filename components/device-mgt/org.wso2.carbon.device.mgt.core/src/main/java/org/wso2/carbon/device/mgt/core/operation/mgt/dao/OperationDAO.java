@@ -40,6 +40,18 @@ public interface OperationDAO {
     List<? extends Operation> getOperationsByDeviceAndStatus(int enrolmentId, PaginationRequest request, Operation.Status status)
             throws OperationManagementDAOException;
 
+    /**
+     * This method returns the operations of the given enrolment with the given status, along with the payloads of
+     * command, config, profile and policy operations, using a single query ordered by the created time.
+     *
+     * @param enrolmentId - Enrolment id of the device
+     * @param status - Status of the operations
+     * @return List of operations, as instances of their concrete operation types
+     * @throws OperationManagementDAOException
+     */
+    List<? extends Operation> getOperationsWithPayloadByDeviceAndStatus(int enrolmentId, Operation.Status status)
+            throws OperationManagementDAOException;
+
     List<? extends Operation> getOperationsForDevice(int enrolmentId) throws OperationManagementDAOException;
 
     int getOperationCountForDevice(int enrolmentId) throws OperationManagementDAOException;
@@ -54,8 +66,24 @@ public interface OperationDAO {
     void updateEnrollmentOperationsStatus(int enrolmentId, String operationCode, Operation.Status existingStatus,
                                           Operation.Status newStatus) throws OperationManagementDAOException;
 
+    void updateEnrollmentOperationsStatus(List<Integer> enrolmentIds, String operationCode,
+                                          Operation.Status existingStatus, Operation.Status newStatus)
+            throws OperationManagementDAOException;
+
     boolean updateTaskOperation(int enrolmentId, String operationCode) throws OperationManagementDAOException;
 
+    /**
+     * This method returns the subset of the given enrolments which already have a pending operation carrying the
+     * given operation code. This is the bulk counterpart of {@link #updateTaskOperation(int, String)}.
+     *
+     * @param enrolmentIds Enrolment ids to be checked
+     * @param operationCode Operation code
+     * @return Enrolment ids having a pending operation of the given code
+     * @throws OperationManagementDAOException
+     */
+    List<Integer> getEnrolmentsWithPendingOperation(List<Integer> enrolmentIds, String operationCode)
+            throws OperationManagementDAOException;
+
     void addOperationResponse(int enrolmentId, int operationId, Object operationResponse)
             throws OperationManagementDAOException;
 
@@ -30,6 +30,17 @@ public interface OperationMappingDAO {
 
     void addOperationMapping(int operationId, Integer deviceId, boolean isScheduled) throws OperationManagementDAOException;
 
+    /**
+     * This method adds operation mappings of the given operation for all the given enrolments as a single batch.
+     *
+     * @param operationId - Id of the operation
+     * @param enrolmentIds - Enrolment ids of the target devices
+     * @param isScheduled - Whether the push notifications are to be sent by the scheduler task
+     * @throws OperationManagementDAOException
+     */
+    void addOperationMappings(int operationId, List<Integer> enrolmentIds, boolean isScheduled)
+            throws OperationManagementDAOException;
+
     void removeOperationMapping(int operationId, Integer deviceId) throws OperationManagementDAOException;
 
     void updateOperationMapping(int operationId, Integer deviceId, Operation.PushNotificationStatus pushNotificationStatus) throws
@@ -37,6 +48,29 @@ public interface OperationMappingDAO {
     void updateOperationMapping(List<OperationMapping> operationMappingList) throws
             OperationManagementDAOException;
 
+    /**
+     * This method leases the given scheduled operation mappings to the caller until the given expiry time, so that
+     * other nodes in the cluster skip them while the lease is valid. A mapping is leased only if it is still
+     * scheduled and not leased by anyone else.
+     *
+     * @param operationMappingList - Operation mappings to be leased
+     * @param leaseExpiryTime - Lease expiry time in seconds
+     * @return List<OperationMapping> - Operation mappings which were leased successfully
+     * @throws OperationManagementDAOException
+     */
+    List<OperationMapping> leaseOperationMappings(List<OperationMapping> operationMappingList, long leaseExpiryTime)
+            throws OperationManagementDAOException;
+
+    /**
+     * This method releases the lease of the given operation mappings, so that a mapping whose push notification
+     * could not be sent is picked by the next run of any node instead of waiting for the lease to expire.
+     *
+     * @param operationMappingList - Operation mappings to be released
+     * @throws OperationManagementDAOException
+     */
+    void releaseOperationMappingLeases(List<OperationMapping> operationMappingList)
+            throws OperationManagementDAOException;
+
     /**
      * This method returns first pending/repeated operation available for each active enrolment of given device-type
      * where the operation was created after the given timestamp.
@@ -63,4 +97,36 @@ public interface OperationMappingDAO {
     Map<Integer, Long> getLastConnectedTimeForActiveEnrolments(long timeStamp, int deviceTypeId)
             throws OperationManagementDAOException;
 
+    /**
+     * This method returns first pending/repeated operation available for each active enrolment of given device-type,
+     * considering only the enrolments which have a pending/repeated operation created within one of the given
+     * intervals. The intervals are the creation times whose idle time crossed the unreachable or the inactive
+     * threshold since the previous status check, hence other enrolments cannot have changed their status.
+     *
+     * @param minDuration - Upper limit of Operation created time
+     * @param maxDuration - Lower limit of Operation created time
+     * @param deviceTypeId - Device Type Id of required devices
+     * @param unreachableFrom - Exclusive lower limit of the created time crossing the unreachable threshold
+     * @param unreachableTo - Inclusive upper limit of the created time crossing the unreachable threshold
+     * @param inactiveFrom - Exclusive lower limit of the created time crossing the inactive threshold
+     * @param inactiveTo - Inclusive upper limit of the created time crossing the inactive threshold
+     * @return List<OperationEnrolmentMapping> - List of OperationEnrolmentMapping objects containing required data
+     * @throws OperationManagementDAOException
+     */
+    List<OperationEnrolmentMapping> getFirstPendingOperationMappingsForActiveEnrolments(long minDuration,
+            long maxDuration, int deviceTypeId, long unreachableFrom, long unreachableTo, long inactiveFrom,
+            long inactiveTo) throws OperationManagementDAOException;
+
+    /**
+     * This method returns the timestamp of last completed Operation for each of the given enrolments where the
+     * operation was completed after the given timestamp.
+     *
+     * @param timeStamp - Timestamp of considered time-interval
+     * @param enrolmentIds - Ids of the required enrolments
+     * @return Map of enrolment id to the last connected time, enrolments without any activity are not included
+     * @throws OperationManagementDAOException
+     */
+    Map<Integer, Long> getLastConnectedTimeForEnrolments(long timeStamp, List<Integer> enrolmentIds)
+            throws OperationManagementDAOException;
+
 }
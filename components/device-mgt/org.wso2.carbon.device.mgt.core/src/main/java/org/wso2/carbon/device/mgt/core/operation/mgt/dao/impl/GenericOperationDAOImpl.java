@@ -25,6 +25,8 @@ import org.wso2.carbon.device.mgt.common.PaginationRequest;
 import org.wso2.carbon.device.mgt.common.operation.mgt.Activity;
 import org.wso2.carbon.device.mgt.common.operation.mgt.ActivityStatus;
 import org.wso2.carbon.device.mgt.common.operation.mgt.OperationResponse;
+import org.wso2.carbon.device.mgt.core.dao.util.PayloadSerializer;
+import org.wso2.carbon.device.mgt.core.dto.operation.mgt.CommandOperation;
 import org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation;
 import org.wso2.carbon.device.mgt.core.operation.mgt.OperationMapping;
 import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationDAO;
@@ -33,11 +35,7 @@ import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationManagementDAOF
 import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationManagementDAOUtil;
 import org.wso2.carbon.device.mgt.core.operation.mgt.dao.util.OperationDAOUtil;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -148,6 +146,38 @@ public class GenericOperationDAOImpl implements OperationDAO {
         }
     }
 
+    @Override
+    public void updateEnrollmentOperationsStatus(List<Integer> enrolmentIds, String operationCode,
+                                                 Operation.Status existingStatus, Operation.Status newStatus)
+            throws OperationManagementDAOException {
+        PreparedStatement stmt = null;
+        if (enrolmentIds == null || enrolmentIds.isEmpty()) {
+            return;
+        }
+        try {
+            Connection connection = OperationManagementDAOFactory.getConnection();
+            String sql = "UPDATE DM_ENROLMENT_OP_MAPPING SET STATUS = ?, UPDATED_TIMESTAMP = ? WHERE STATUS = ? " +
+                    "AND OPERATION_ID IN (SELECT ID FROM DM_OPERATION WHERE OPERATION_CODE = ?) AND ENROLMENT_ID IN (" +
+                    OperationDAOUtil.getInClausePlaceholders(enrolmentIds.size()) + ")";
+            stmt = connection.prepareStatement(sql);
+            int paramIndex = 1;
+            stmt.setString(paramIndex++, newStatus.toString());
+            stmt.setLong(paramIndex++, System.currentTimeMillis() / 1000);
+            stmt.setString(paramIndex++, existingStatus.toString());
+            stmt.setString(paramIndex++, operationCode);
+            for (Integer enrolmentId : enrolmentIds) {
+                stmt.setInt(paramIndex++, enrolmentId);
+            }
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new OperationManagementDAOException(
+                    "Error occurred while updating operation status of the enrolments for operation code '" +
+                            operationCode + "'", e);
+        } finally {
+            OperationManagementDAOUtil.cleanupResources(stmt);
+        }
+    }
+
     @Override
     public boolean updateTaskOperation(int enrolmentId, String operationCode)
             throws OperationManagementDAOException {
@@ -177,12 +207,44 @@ public class GenericOperationDAOImpl implements OperationDAO {
         return result;
     }
 
+    @Override
+    public List<Integer> getEnrolmentsWithPendingOperation(List<Integer> enrolmentIds, String operationCode)
+            throws OperationManagementDAOException {
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        List<Integer> result = new ArrayList<>();
+        if (enrolmentIds == null || enrolmentIds.isEmpty()) {
+            return result;
+        }
+        try {
+            Connection connection = OperationManagementDAOFactory.getConnection();
+            String sql = "SELECT DISTINCT EOM.ENROLMENT_ID FROM DM_ENROLMENT_OP_MAPPING EOM INNER JOIN DM_OPERATION DM "
+                    + "ON DM.ID = EOM.OPERATION_ID WHERE DM.OPERATION_CODE = ? AND EOM.STATUS = ? AND "
+                    + "EOM.ENROLMENT_ID IN (" + OperationDAOUtil.getInClausePlaceholders(enrolmentIds.size()) + ")";
+            stmt = connection.prepareStatement(sql);
+            int paramIndex = 1;
+            stmt.setString(paramIndex++, operationCode);
+            stmt.setString(paramIndex++, Operation.Status.PENDING.toString());
+            for (Integer enrolmentId : enrolmentIds) {
+                stmt.setInt(paramIndex++, enrolmentId);
+            }
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                result.add(rs.getInt("ENROLMENT_ID"));
+            }
+        } catch (SQLException e) {
+            throw new OperationManagementDAOException("Error occurred while retrieving the enrolments having " +
+                    "pending operations for operation code '" + operationCode + "'", e);
+        } finally {
+            OperationManagementDAOUtil.cleanupResources(stmt, rs);
+        }
+        return result;
+    }
+
     @Override
     public void addOperationResponse(int enrolmentId, int operationId, Object operationResponse)
             throws OperationManagementDAOException {
         PreparedStatement stmt = null;
-        ByteArrayOutputStream bao = null;
-        ObjectOutputStream oos = null;
         ResultSet rs = null;
         try {
             Connection connection = OperationManagementDAOFactory.getConnection();
@@ -199,35 +261,17 @@ public class GenericOperationDAOImpl implements OperationDAO {
             }
             stmt = connection.prepareStatement("INSERT INTO DM_DEVICE_OPERATION_RESPONSE(OPERATION_ID, ENROLMENT_ID, " +
                     "EN_OP_MAP_ID, OPERATION_RESPONSE, RECEIVED_TIMESTAMP) VALUES(?, ?, ?, ?, ?)");
-            bao = new ByteArrayOutputStream();
-            oos = new ObjectOutputStream(bao);
-            oos.writeObject(operationResponse);
-
             stmt.setInt(1, operationId);
             stmt.setInt(2, enrolmentId);
             stmt.setInt(3, enPrimaryId);
-            stmt.setBytes(4, bao.toByteArray());
+            stmt.setBytes(4, PayloadSerializer.serialize(operationResponse));
             stmt.setTimestamp(5, new Timestamp(new Date().getTime()));
             stmt.executeUpdate();
         } catch (SQLException e) {
             throw new OperationManagementDAOException("Error occurred while inserting operation response", e);
         } catch (IOException e) {
-            throw new OperationManagementDAOException("Error occurred while serializing policy operation object", e);
+            throw new OperationManagementDAOException("Error occurred while serializing operation response", e);
         } finally {
-            if (bao != null) {
-                try {
-                    bao.close();
-                } catch (IOException e) {
-                    log.warn("Error occurred while closing ByteArrayOutputStream", e);
-                }
-            }
-            if (oos != null) {
-                try {
-                    oos.close();
-                } catch (IOException e) {
-                    log.warn("Error occurred while closing ObjectOutputStream", e);
-                }
-            }
             OperationManagementDAOUtil.cleanupResources(stmt, rs);
         }
     }
@@ -1002,6 +1046,73 @@ public class GenericOperationDAOImpl implements OperationDAO {
         return operations;
     }
 
+    @Override
+    public List<? extends Operation> getOperationsWithPayloadByDeviceAndStatus(int enrolmentId,
+                                                                               Operation.Status status)
+            throws OperationManagementDAOException {
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        Operation operation;
+        List<Operation> operations = new ArrayList<>();
+        try {
+            Connection conn = OperationManagementDAOFactory.getConnection();
+            String sql = "SELECT o.ID, o.TYPE, o.CREATED_TIMESTAMP, o.RECEIVED_TIMESTAMP, o.OPERATION_CODE, " +
+                    "co.OPERATION_ID AS COMMAND_OPERATION_ID, co.ENABLED AS COMMAND_ENABLED, " +
+                    "cfg.OPERATION_CONFIG, pro.OPERATION_DETAILS AS PROFILE_DETAILS, " +
+                    "po.OPERATION_DETAILS AS POLICY_DETAILS FROM DM_ENROLMENT_OP_MAPPING om " +
+                    "INNER JOIN DM_OPERATION o ON om.OPERATION_ID = o.ID " +
+                    "LEFT JOIN DM_COMMAND_OPERATION co ON co.OPERATION_ID = o.ID " +
+                    "LEFT JOIN DM_CONFIG_OPERATION cfg ON cfg.OPERATION_ID = o.ID " +
+                    "LEFT JOIN DM_PROFILE_OPERATION pro ON pro.OPERATION_ID = o.ID " +
+                    "LEFT JOIN DM_POLICY_OPERATION po ON po.OPERATION_ID = o.ID " +
+                    "WHERE om.ENROLMENT_ID = ? AND om.STATUS = ? ORDER BY o.CREATED_TIMESTAMP ASC, o.ID ASC";
+            stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, enrolmentId);
+            stmt.setString(2, status.toString());
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                byte[] payload;
+                if ((payload = rs.getBytes("POLICY_DETAILS")) != null ||
+                        (payload = rs.getBytes("PROFILE_DETAILS")) != null ||
+                        (payload = rs.getBytes("OPERATION_CONFIG")) != null) {
+                    operation = this.deserializeOperation(payload);
+                } else if (rs.getObject("COMMAND_OPERATION_ID") != null) {
+                    CommandOperation commandOperation = new CommandOperation();
+                    commandOperation.setEnabled(rs.getBoolean("COMMAND_ENABLED"));
+                    commandOperation.setType(Operation.Type.valueOf(rs.getString("TYPE")));
+                    commandOperation.setCreatedTimeStamp(rs.getString("CREATED_TIMESTAMP"));
+                    commandOperation.setReceivedTimeStamp(rs.getString("RECEIVED_TIMESTAMP"));
+                    commandOperation.setCode(rs.getString("OPERATION_CODE"));
+                    operation = commandOperation;
+                } else {
+                    // Operations without a type specific payload are not delivered to devices
+                    continue;
+                }
+                operation.setId(rs.getInt("ID"));
+                operation.setStatus(status);
+                operations.add(operation);
+            }
+        } catch (SQLException e) {
+            throw new OperationManagementDAOException("SQL error occurred while retrieving the operations " +
+                    "available for the device'" + enrolmentId + "' with status '" + status.toString(), e);
+        } finally {
+            OperationManagementDAOUtil.cleanupResources(stmt, rs);
+        }
+        return operations;
+    }
+
+    private Operation deserializeOperation(byte[] payload) throws OperationManagementDAOException {
+        try {
+            return (Operation) PayloadSerializer.deserialize(payload);
+        } catch (IOException e) {
+            throw new OperationManagementDAOException("IO Error occurred while de serialize the operation object", e);
+        } catch (ClassNotFoundException e) {
+            throw new OperationManagementDAOException("Class not found error occurred while de serialize the " +
+                    "operation object", e);
+        }
+    }
+
     @Override
     public List<? extends Operation> getOperationsByDeviceAndStatus(int enrolmentId, PaginationRequest request,
                                                                     Operation.Status status)
@@ -1269,12 +1380,14 @@ public class GenericOperationDAOImpl implements OperationDAO {
             conn = OperationManagementDAOFactory.getConnection();
             String sql = "SELECT op.ENROLMENT_ID, op.OPERATION_ID, d.DEVICE_IDENTIFICATION, dt.NAME as DEVICE_TYPE, " +
                     "d.TENANT_ID FROM DM_DEVICE d, DM_ENROLMENT_OP_MAPPING op, DM_DEVICE_TYPE dt  WHERE op.STATUS = ?" +
-                    " AND op.PUSH_NOTIFICATION_STATUS = ? AND d.DEVICE_TYPE_ID = dt.ID AND d.ID=op.ENROLMENT_ID ORDER" +
+                    " AND op.PUSH_NOTIFICATION_STATUS = ? AND (op.LEASE_EXPIRY_TIMESTAMP IS NULL OR " +
+                    "op.LEASE_EXPIRY_TIMESTAMP < ?) AND d.DEVICE_TYPE_ID = dt.ID AND d.ID=op.ENROLMENT_ID ORDER" +
                     " BY op.OPERATION_ID LIMIT ?";
             stmt = conn.prepareStatement(sql);
             stmt.setString(1, opStatus.toString());
             stmt.setString(2, pushNotificationStatus.toString());
-            stmt.setInt(3, limit);
+            stmt.setLong(3, System.currentTimeMillis() / 1000);
+            stmt.setInt(4, limit);
             rs = stmt.executeQuery();
             while (rs.next()) {
                 int tenantID = rs.getInt("TENANT_ID");
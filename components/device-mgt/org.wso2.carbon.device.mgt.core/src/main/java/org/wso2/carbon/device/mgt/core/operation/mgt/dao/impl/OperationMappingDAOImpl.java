@@ -66,6 +66,43 @@ public class OperationMappingDAOImpl implements OperationMappingDAO {
         }
     }
 
+    @Override
+    public void addOperationMappings(int operationId, List<Integer> enrolmentIds, boolean isScheduled)
+            throws OperationManagementDAOException {
+        PreparedStatement stmt = null;
+        try {
+            long time = System.currentTimeMillis() / 1000;
+            Connection conn = OperationManagementDAOFactory.getConnection();
+            String sql = "INSERT INTO DM_ENROLMENT_OP_MAPPING(ENROLMENT_ID, OPERATION_ID, STATUS, " +
+                    "PUSH_NOTIFICATION_STATUS, CREATED_TIMESTAMP, UPDATED_TIMESTAMP) VALUES (?, ?, ?, ?, ?, ?)";
+            stmt = conn.prepareStatement(sql);
+            String pushNotificationStatus = isScheduled ? Operation.PushNotificationStatus.SCHEDULED.toString() :
+                    Operation.PushNotificationStatus.COMPLETED.toString();
+            boolean isBatchUpdateSupported = conn.getMetaData().supportsBatchUpdates();
+            for (Integer enrolmentId : enrolmentIds) {
+                stmt.setInt(1, enrolmentId);
+                stmt.setInt(2, operationId);
+                stmt.setString(3, Operation.Status.PENDING.toString());
+                stmt.setString(4, pushNotificationStatus);
+                stmt.setLong(5, time);
+                stmt.setLong(6, time);
+                if (isBatchUpdateSupported) {
+                    stmt.addBatch();
+                } else {
+                    stmt.executeUpdate();
+                }
+            }
+            if (isBatchUpdateSupported) {
+                stmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new OperationManagementDAOException("Error occurred while persisting device operation mappings " +
+                    "as batch", e);
+        } finally {
+            OperationManagementDAOUtil.cleanupResources(stmt, null);
+        }
+    }
+
     @Override
     public void removeOperationMapping(int operationId,
                                        Integer deviceId) throws OperationManagementDAOException {
@@ -136,6 +173,71 @@ public class OperationMappingDAOImpl implements OperationMappingDAO {
         }
     }
 
+    @Override
+    public List<OperationMapping> leaseOperationMappings(List<OperationMapping> operationMappingList,
+                                                         long leaseExpiryTime) throws OperationManagementDAOException {
+        PreparedStatement stmt = null;
+        List<OperationMapping> leasedOperationMappings = new ArrayList<>();
+        try {
+            Connection conn = OperationManagementDAOFactory.getConnection();
+            String sql = "UPDATE DM_ENROLMENT_OP_MAPPING SET LEASE_EXPIRY_TIMESTAMP = ? WHERE ENROLMENT_ID = ? AND " +
+                    "OPERATION_ID = ? AND PUSH_NOTIFICATION_STATUS = ? AND (LEASE_EXPIRY_TIMESTAMP IS NULL OR " +
+                    "LEASE_EXPIRY_TIMESTAMP < ?)";
+            stmt = conn.prepareStatement(sql);
+            long time = System.currentTimeMillis() / 1000;
+            // Executed row by row, since the update count tells whether this node won the lease and batch update
+            // counts are not reported reliably by all drivers.
+            for (OperationMapping operationMapping : operationMappingList) {
+                stmt.setLong(1, leaseExpiryTime);
+                stmt.setInt(2, operationMapping.getEnrollmentId());
+                stmt.setInt(3, operationMapping.getOperationId());
+                stmt.setString(4, Operation.PushNotificationStatus.SCHEDULED.toString());
+                stmt.setLong(5, time);
+                if (stmt.executeUpdate() > 0) {
+                    leasedOperationMappings.add(operationMapping);
+                }
+            }
+        } catch (SQLException e) {
+            throw new OperationManagementDAOException("Error occurred while leasing device operation mappings", e);
+        } finally {
+            OperationManagementDAOUtil.cleanupResources(stmt, null);
+        }
+        return leasedOperationMappings;
+    }
+
+    @Override
+    public void releaseOperationMappingLeases(List<OperationMapping> operationMappingList)
+            throws OperationManagementDAOException {
+        PreparedStatement stmt = null;
+        try {
+            Connection conn = OperationManagementDAOFactory.getConnection();
+            String sql = "UPDATE DM_ENROLMENT_OP_MAPPING SET LEASE_EXPIRY_TIMESTAMP = NULL WHERE ENROLMENT_ID = ? " +
+                    "AND OPERATION_ID = ? AND PUSH_NOTIFICATION_STATUS = ?";
+            stmt = conn.prepareStatement(sql);
+            if (conn.getMetaData().supportsBatchUpdates()) {
+                for (OperationMapping operationMapping : operationMappingList) {
+                    stmt.setInt(1, operationMapping.getEnrollmentId());
+                    stmt.setInt(2, operationMapping.getOperationId());
+                    stmt.setString(3, Operation.PushNotificationStatus.SCHEDULED.toString());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            } else {
+                for (OperationMapping operationMapping : operationMappingList) {
+                    stmt.setInt(1, operationMapping.getEnrollmentId());
+                    stmt.setInt(2, operationMapping.getOperationId());
+                    stmt.setString(3, Operation.PushNotificationStatus.SCHEDULED.toString());
+                    stmt.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            throw new OperationManagementDAOException("Error occurred while releasing the lease of device operation " +
+                    "mappings", e);
+        } finally {
+            OperationManagementDAOUtil.cleanupResources(stmt, null);
+        }
+    }
+
     @Override
     public List<OperationEnrolmentMapping> getFirstPendingOperationMappingsForActiveEnrolments(long minDuration,
                                    long maxDuration, int deviceTypeId) throws OperationManagementDAOException {
@@ -205,6 +307,85 @@ public class OperationMappingDAOImpl implements OperationMappingDAO {
         return lastConnectedTimeMap;
     }
 
+    @Override
+    public List<OperationEnrolmentMapping> getFirstPendingOperationMappingsForActiveEnrolments(long minDuration,
+            long maxDuration, int deviceTypeId, long unreachableFrom, long unreachableTo, long inactiveFrom,
+            long inactiveTo) throws OperationManagementDAOException {
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        List<OperationEnrolmentMapping> enrolmentOperationMappingList = new ArrayList<>();
+        try {
+            Connection conn = OperationManagementDAOFactory.getConnection();
+            String pendingStatuses = "('" + Operation.Status.PENDING.name() + "','" + Operation.Status.REPEATED.name() +
+                    "')";
+            String sql = "SELECT ENROLMENT_ID, D.DEVICE_IDENTIFICATION AS DEVICE_IDENTIFIER, MIN(CREATED_TIMESTAMP) " +
+                    "AS CREATED_TIMESTAMP, E.STATUS AS ENROLMENT_STATUS, E.TENANT_ID FROM " +
+                    "DM_ENROLMENT_OP_MAPPING OP INNER JOIN DM_ENROLMENT E ON OP.ENROLMENT_ID = E.ID INNER JOIN " +
+                    "DM_DEVICE D ON E.DEVICE_ID = D.ID WHERE OP.STATUS IN " + pendingStatuses + " " +
+                    "AND OP.CREATED_TIMESTAMP BETWEEN ? AND ? AND E.STATUS IN ('" + EnrolmentInfo.Status.ACTIVE.name() +
+                    "','" + EnrolmentInfo.Status.UNREACHABLE.name() + "') AND D.DEVICE_TYPE_ID = ? " +
+                    "AND OP.ENROLMENT_ID IN (SELECT C.ENROLMENT_ID FROM DM_ENROLMENT_OP_MAPPING C WHERE C.STATUS IN " +
+                    pendingStatuses + " AND ((C.CREATED_TIMESTAMP > ? AND C.CREATED_TIMESTAMP <= ?) OR " +
+                    "(C.CREATED_TIMESTAMP > ? AND C.CREATED_TIMESTAMP <= ?))) GROUP BY ENROLMENT_ID, " +
+                    "D.DEVICE_IDENTIFICATION, E.STATUS, E.TENANT_ID";
+            stmt = conn.prepareStatement(sql);
+            stmt.setLong(1, maxDuration);
+            stmt.setLong(2, minDuration);
+            stmt.setInt(3, deviceTypeId);
+            stmt.setLong(4, unreachableFrom);
+            stmt.setLong(5, unreachableTo);
+            stmt.setLong(6, inactiveFrom);
+            stmt.setLong(7, inactiveTo);
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                enrolmentOperationMappingList.add(this.getEnrolmentOpMapping(rs));
+            }
+        } catch (SQLException e) {
+            throw new OperationManagementDAOException("Error occurred while fetching pending operation mappings of " +
+                    "idle enrolments of type '" + deviceTypeId + "'", e);
+        } finally {
+            OperationManagementDAOUtil.cleanupResources(stmt, rs);
+        }
+        return enrolmentOperationMappingList;
+    }
+
+    @Override
+    public Map<Integer, Long> getLastConnectedTimeForEnrolments(long timeStamp, List<Integer> enrolmentIds)
+            throws OperationManagementDAOException {
+        Map<Integer, Long> lastConnectedTimeMap = new HashMap<>();
+        if (enrolmentIds.isEmpty()) {
+            return lastConnectedTimeMap;
+        }
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            Connection conn = OperationManagementDAOFactory.getConnection();
+            StringBuilder sql = new StringBuilder("SELECT ENROLMENT_ID AS EID, MAX(UPDATED_TIMESTAMP) AS " +
+                    "LAST_CONNECTED_TIME FROM DM_ENROLMENT_OP_MAPPING WHERE STATUS = '" +
+                    Operation.Status.COMPLETED.name() + "' AND UPDATED_TIMESTAMP >= ? AND ENROLMENT_ID IN (");
+            for (int i = 0; i < enrolmentIds.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(") GROUP BY ENROLMENT_ID");
+            stmt = conn.prepareStatement(sql.toString());
+            int index = 1;
+            stmt.setLong(index++, timeStamp);
+            for (Integer enrolmentId : enrolmentIds) {
+                stmt.setInt(index++, enrolmentId);
+            }
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                lastConnectedTimeMap.put(rs.getInt("EID"), rs.getLong("LAST_CONNECTED_TIME"));
+            }
+        } catch (SQLException e) {
+            throw new OperationManagementDAOException("Error occurred while fetching last connected time of " +
+                    enrolmentIds.size() + " enrolments", e);
+        } finally {
+            OperationManagementDAOUtil.cleanupResources(stmt, rs);
+        }
+        return lastConnectedTimeMap;
+    }
+
     private OperationEnrolmentMapping getEnrolmentOpMapping(ResultSet rs) throws SQLException {
         OperationEnrolmentMapping enrolmentOperationMapping = new OperationEnrolmentMapping();
         enrolmentOperationMapping.setEnrolmentId(rs.getInt("ENROLMENT_ID"));
@@ -329,13 +329,15 @@ public class SQLServerOperationDAOImpl extends GenericOperationDAOImpl {
             Connection conn = OperationManagementDAOFactory.getConnection();
             String sql = "SELECT op.ENROLMENT_ID, op.OPERATION_ID, d.DEVICE_IDENTIFICATION, dt.NAME as DEVICE_TYPE, d" +
                     ".TENANT_ID FROM DM_DEVICE d, DM_ENROLMENT_OP_MAPPING op, DM_DEVICE_TYPE dt  WHERE op.STATUS = ? " +
-                    "AND op.PUSH_NOTIFICATION_STATUS = ? AND d.DEVICE_TYPE_ID = dt.ID " +
+                    "AND op.PUSH_NOTIFICATION_STATUS = ? AND (op.LEASE_EXPIRY_TIMESTAMP IS NULL OR " +
+                    "op.LEASE_EXPIRY_TIMESTAMP < ?) AND d.DEVICE_TYPE_ID = dt.ID " +
                     "AND d.ID=op.ENROLMENT_ID ORDER BY op.OPERATION_ID OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
             stmt = conn.prepareStatement(sql);
             stmt.setString(1, opStatus.toString());
             stmt.setString(2, pushNotificationStatus.toString());
-            stmt.setInt(3, 0);
-            stmt.setInt(4, limit);
+            stmt.setLong(3, System.currentTimeMillis() / 1000);
+            stmt.setInt(4, 0);
+            stmt.setInt(5, limit);
             rs = stmt.executeQuery();
             while (rs.next()) {
                 int tenantID = rs.getInt("TENANT_ID");
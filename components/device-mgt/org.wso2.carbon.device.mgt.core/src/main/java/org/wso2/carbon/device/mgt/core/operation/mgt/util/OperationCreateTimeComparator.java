@@ -1,35 +0,0 @@
-/*
- *   Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
- *
- *   WSO2 Inc. licenses this file to you under the Apache License,
- *   Version 2.0 (the "License"); you may not use this file except
- *   in compliance with the License.
- *   You may obtain a copy of the License at
- *
- *   http://www.apache.org/licenses/LICENSE-2.0
- *
- *   Unless required by applicable law or agreed to in writing,
- *   software distributed under the License is distributed on an
- *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
- *   KIND, either express or implied.  See the License for the
- *   specific language governing permissions and limitations
- *   under the License.
- *
- */
-package org.wso2.carbon.device.mgt.core.operation.mgt.util;
-
-import org.wso2.carbon.device.mgt.common.operation.mgt.Operation;
-
-import java.io.Serializable;
-import java.util.Comparator;
-
-public class OperationCreateTimeComparator implements Comparator<Operation>, Serializable {
-
-    @Override
-    public int compare(Operation o1, Operation o2) {
-        long createdTime1 = java.sql.Timestamp.valueOf(o1.getCreatedTimeStamp()).getTime();
-        long createdTime2 = java.sql.Timestamp.valueOf(o1.getCreatedTimeStamp()).getTime();
-        return (int) (createdTime1 - createdTime2);
-    }
-
-}
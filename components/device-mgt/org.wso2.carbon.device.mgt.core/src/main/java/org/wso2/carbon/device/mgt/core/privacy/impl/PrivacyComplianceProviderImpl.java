@@ -28,6 +28,8 @@ import org.wso2.carbon.device.mgt.common.DeviceManagementException;
 import org.wso2.carbon.device.mgt.common.PrivacyComplianceException;
 import org.wso2.carbon.device.mgt.common.TransactionManagementException;
 import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOFactory;
+import org.wso2.carbon.device.mgt.core.device.details.mgt.dao.DeviceDetailsDAO;
+import org.wso2.carbon.device.mgt.core.device.details.mgt.dao.DeviceDetailsMgtDAOException;
 import org.wso2.carbon.device.mgt.core.internal.DeviceManagementDataHolder;
 import org.wso2.carbon.device.mgt.core.privacy.PrivacyComplianceProvider;
 import org.wso2.carbon.device.mgt.core.privacy.dao.PrivacyComplianceDAO;
@@ -43,9 +45,11 @@ public class PrivacyComplianceProviderImpl implements PrivacyComplianceProvider
     private static final Log log = LogFactory.getLog(PrivacyComplianceProviderImpl.class);
 
     PrivacyComplianceDAO complianceDAO;
+    DeviceDetailsDAO deviceDetailsDAO;
 
     public PrivacyComplianceProviderImpl() {
         complianceDAO = DeviceManagementDAOFactory.getPrivacyComplianceDAO();
+        deviceDetailsDAO = DeviceManagementDAOFactory.getDeviceDetailsDAO();
     }
 
     @Override
@@ -82,6 +86,7 @@ public class PrivacyComplianceProviderImpl implements PrivacyComplianceProvider
                     complianceDAO.deleteDeviceApplications(deviceId, enrolmentId, tenantId);
                     complianceDAO.deleteDeviceDetails(deviceId, enrolmentId);
                     complianceDAO.deleteDeviceProperties(deviceId, enrolmentId, tenantId);
+                    deviceDetailsDAO.removeLocationFromGeoTiles(deviceId, enrolmentId, tenantId);
                     complianceDAO.deleteDeviceLocation(deviceId, enrolmentId);
                     complianceDAO.deleteDeviceEnrollments(deviceId, tenantId);
                 }
@@ -98,6 +103,11 @@ public class PrivacyComplianceProviderImpl implements PrivacyComplianceProvider
             String msg = "Database error occurred while deleting the devices and details of the given user";
             log.error(msg, e);
             throw new PrivacyComplianceException(msg, e);
+        } catch (DeviceDetailsMgtDAOException e) {
+            DeviceManagementDAOFactory.rollbackTransaction();
+            String msg = "Error occurred while removing the device locations of the given user from the geo tiles";
+            log.error(msg, e);
+            throw new PrivacyComplianceException(msg, e);
         } finally {
             DeviceManagementDAOFactory.closeConnection();
         }
@@ -119,6 +129,7 @@ public class PrivacyComplianceProviderImpl implements PrivacyComplianceProvider
             complianceDAO.deleteDeviceApplications(device.getId(), device.getEnrolmentInfo().getId(), tenantId);
             complianceDAO.deleteDeviceDetails(device.getId(), device.getEnrolmentInfo().getId());
             complianceDAO.deleteDeviceProperties(device.getId(), device.getEnrolmentInfo().getId(), tenantId);
+            deviceDetailsDAO.removeLocationFromGeoTiles(device.getId(), device.getEnrolmentInfo().getId(), tenantId);
             complianceDAO.deleteDeviceLocation(device.getId(), device.getEnrolmentInfo().getId());
             complianceDAO.deleteDeviceEnrollments(device.getId(), tenantId);
             complianceDAO.deleteDevice(device.getId(), tenantId);
@@ -133,6 +144,11 @@ public class PrivacyComplianceProviderImpl implements PrivacyComplianceProvider
             String msg = "Error occurred while deleting the device details.";
             log.error(msg, e);
             throw new PrivacyComplianceException(msg, e);
+        } catch (DeviceDetailsMgtDAOException e) {
+            DeviceManagementDAOFactory.rollbackTransaction();
+            String msg = "Error occurred while removing the device location from the geo tiles.";
+            log.error(msg, e);
+            throw new PrivacyComplianceException(msg, e);
         } finally {
             DeviceManagementDAOFactory.closeConnection();
         }
@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.push.notification.mgt;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.device.mgt.common.TransactionManagementException;
+import org.wso2.carbon.device.mgt.common.push.notification.NotificationContext;
+import org.wso2.carbon.device.mgt.common.push.notification.NotificationStrategy;
+import org.wso2.carbon.device.mgt.common.push.notification.PushNotificationExecutionFailedException;
+import org.wso2.carbon.device.mgt.core.DeviceManagementConstants;
+import org.wso2.carbon.device.mgt.core.config.push.notification.NotificationDispatcherConfiguration;
+import org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation;
+import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationManagementDAOException;
+import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationManagementDAOFactory;
+import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationMappingDAO;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends push notifications of newly added operations on bounded, per device type worker pools so that a slow push
+ * notification provider does not hold the thread which added the operation. Failed sends are retried with an
+ * exponential backoff. When the queue of a device type is full, or all retries are exhausted, the operation mapping
+ * is marked as {@link Operation.PushNotificationStatus#SCHEDULED} so that the PushNotificationSchedulerTask picks it
+ * up later. On shutdown, queued notifications and pending retries are handed over to the scheduler task the same
+ * way so that none of them is lost.
+ */
+public class PushNotificationDispatcher {
+
+    private static final Log log = LogFactory.getLog(PushNotificationDispatcher.class);
+
+    private final Map<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService retryScheduler;
+    private final OperationMappingDAO operationMappingDAO = OperationManagementDAOFactory.getOperationMappingDAO();
+    private final int threadCount;
+    private final int queueCapacity;
+    private final int maxRetries;
+    private final long retryBackoffMills;
+    private final Set<DispatchTask> pendingRetries =
+            Collections.newSetFromMap(new ConcurrentHashMap<DispatchTask, Boolean>());
+    private volatile boolean shuttingDown;
+
+    private final AtomicLong dispatchedCount = new AtomicLong();
+    private final AtomicLong retriedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong totalDispatchLatency = new AtomicLong();
+    private final AtomicLong maxDispatchLatency = new AtomicLong();
+
+    public PushNotificationDispatcher(NotificationDispatcherConfiguration config) {
+        this.threadCount = config.getThreadCount() > 0 ? config.getThreadCount() :
+                DeviceManagementConstants.PushNotifications.DEFAULT_DISPATCHER_THREAD_COUNT;
+        this.queueCapacity = config.getQueueCapacity() > 0 ? config.getQueueCapacity() :
+                DeviceManagementConstants.PushNotifications.DEFAULT_DISPATCHER_QUEUE_CAPACITY;
+        this.maxRetries = config.getMaxRetries() != null && config.getMaxRetries() >= 0 ? config.getMaxRetries() :
+                DeviceManagementConstants.PushNotifications.DEFAULT_DISPATCHER_MAX_RETRIES;
+        this.retryBackoffMills = config.getRetryBackoffMills() > 0 ? config.getRetryBackoffMills() :
+                DeviceManagementConstants.PushNotifications.DEFAULT_DISPATCHER_RETRY_BACKOFF_MILLS;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                new DispatcherThreadFactory("push-notification-retry"));
+    }
+
+    /**
+     * Queues the push notification of the given context for the device type of the target device.
+     *
+     * @param notificationStrategy strategy to be used to send the notification.
+     * @param ctx                  notification context carrying the target device and the operation.
+     * @param enrolmentId          enrolment id of the target device.
+     * @return false if the dispatch queue of the device type is full, in which case the caller is expected to fall
+     * back to the scheduler task.
+     */
+    public boolean dispatch(NotificationStrategy notificationStrategy, NotificationContext ctx, int enrolmentId) {
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        DispatchTask task = new DispatchTask(notificationStrategy, ctx, enrolmentId, carbonContext.getTenantId(),
+                carbonContext.getTenantDomain());
+        return this.submit(task);
+    }
+
+    /**
+     * Stops the dispatcher. Notifications which are still waiting for a retry, or which are still queued after the
+     * running ones have completed, are marked as {@link Operation.PushNotificationStatus#SCHEDULED} so that the
+     * scheduler task sends them instead.
+     */
+    public void shutdown() {
+        // Taken under the lock which creates executors, so that no executor is created after the ones closed below
+        synchronized (executors) {
+            shuttingDown = true;
+        }
+        retryScheduler.shutdownNow();
+        for (DispatchTask task : pendingRetries) {
+            if (pendingRetries.remove(task)) {
+                markAsScheduled(task);
+            }
+        }
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.shutdown();
+        }
+        for (ThreadPoolExecutor executor : executors.values()) {
+            try {
+                executor.awaitTermination(DeviceManagementConstants.PushNotifications.DISPATCHER_SHUTDOWN_TIMEOUT,
+                        TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<Runnable> queuedTasks = executor.shutdownNow();
+            for (Runnable queuedTask : queuedTasks) {
+                markAsScheduled((DispatchTask) queuedTask);
+            }
+        }
+    }
+
+    /**
+     * @return counters, latencies and queue depths of the dispatcher since the node was started.
+     */
+    public PushNotificationDispatcherStatistics getStatistics() {
+        PushNotificationDispatcherStatistics statistics = new PushNotificationDispatcherStatistics();
+        statistics.setDispatchedCount(this.getDispatchedCount());
+        statistics.setRetriedCount(this.getRetriedCount());
+        statistics.setFailedCount(this.getFailedCount());
+        statistics.setRejectedCount(this.getRejectedCount());
+        statistics.setPendingRetryCount(pendingRetries.size());
+        statistics.setAverageDispatchLatency(this.getAverageDispatchLatency());
+        statistics.setMaxDispatchLatency(this.getMaxDispatchLatency());
+        statistics.setQueueDepths(this.getQueueDepths());
+        return statistics;
+    }
+
+    /**
+     * @return number of notifications waiting in the queue of the given device type.
+     */
+    public int getQueueDepth(String deviceType) {
+        ThreadPoolExecutor executor = executors.get(deviceType);
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    /**
+     * @return number of notifications waiting in the queue of each device type.
+     */
+    public Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> queueDepths = new HashMap<>();
+        for (Map.Entry<String, ThreadPoolExecutor> entry : executors.entrySet()) {
+            queueDepths.put(entry.getKey(), entry.getValue().getQueue().size());
+        }
+        return queueDepths;
+    }
+
+    public long getDispatchedCount() {
+        return dispatchedCount.get();
+    }
+
+    public long getRetriedCount() {
+        return retriedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * @return average time in milliseconds from queueing a notification until it is successfully sent.
+     */
+    public long getAverageDispatchLatency() {
+        long dispatched = dispatchedCount.get();
+        return dispatched == 0 ? 0 : totalDispatchLatency.get() / dispatched;
+    }
+
+    /**
+     * @return maximum time in milliseconds taken from queueing a notification until it is successfully sent.
+     */
+    public long getMaxDispatchLatency() {
+        return maxDispatchLatency.get();
+    }
+
+    private boolean submit(DispatchTask task) {
+        try {
+            this.getExecutor(task.ctx.getDeviceId().getType()).execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug("Push notification queue of device type '" + task.ctx.getDeviceId().getType() +
+                        "' is full. Notification to " + task.ctx.getDeviceId() + " is rejected.");
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @throws RejectedExecutionException if the dispatcher is shutting down and the device type has no executor yet.
+     */
+    private ThreadPoolExecutor getExecutor(String deviceType) {
+        ThreadPoolExecutor executor = executors.get(deviceType);
+        if (executor == null) {
+            synchronized (executors) {
+                executor = executors.get(deviceType);
+                if (executor == null) {
+                    if (shuttingDown) {
+                        throw new RejectedExecutionException("Push notification dispatcher is shutting down");
+                    }
+                    executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                            new ArrayBlockingQueue<Runnable>(queueCapacity),
+                            new DispatcherThreadFactory("push-notification-" + deviceType),
+                            new ThreadPoolExecutor.AbortPolicy());
+                    executors.put(deviceType, executor);
+                }
+            }
+        }
+        return executor;
+    }
+
+    private void recordLatency(long latency) {
+        totalDispatchLatency.addAndGet(latency);
+        long max = maxDispatchLatency.get();
+        while (latency > max && !maxDispatchLatency.compareAndSet(max, latency)) {
+            max = maxDispatchLatency.get();
+        }
+    }
+
+    private void markAsScheduled(DispatchTask task) {
+        int operationId = task.ctx.getOperation().getId();
+        try {
+            OperationManagementDAOFactory.beginTransaction();
+            operationMappingDAO.updateOperationMapping(operationId, task.enrolmentId,
+                    Operation.PushNotificationStatus.SCHEDULED);
+            OperationManagementDAOFactory.commitTransaction();
+        } catch (OperationManagementDAOException e) {
+            OperationManagementDAOFactory.rollbackTransaction();
+            log.error("Error occurred while setting push notification status of operation '" + operationId +
+                    "' to SCHEDULED.", e);
+        } catch (TransactionManagementException e) {
+            log.error("Error occurred while initiating a transaction to reschedule the push notification of " +
+                    "operation '" + operationId + "'", e);
+        } finally {
+            OperationManagementDAOFactory.closeConnection();
+        }
+    }
+
+    private class DispatchTask implements Runnable {
+
+        private final NotificationStrategy notificationStrategy;
+        private final NotificationContext ctx;
+        private final int enrolmentId;
+        private final int tenantId;
+        private final String tenantDomain;
+        private final long queuedTime;
+        private int attempt;
+
+        DispatchTask(NotificationStrategy notificationStrategy, NotificationContext ctx, int enrolmentId,
+                     int tenantId, String tenantDomain) {
+            this.notificationStrategy = notificationStrategy;
+            this.ctx = ctx;
+            this.enrolmentId = enrolmentId;
+            this.tenantId = tenantId;
+            this.tenantDomain = tenantDomain;
+            this.queuedTime = System.currentTimeMillis();
+        }
+
+        @Override
+        public void run() {
+            try {
+                PrivilegedCarbonContext.startTenantFlow();
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId);
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain);
+                if (log.isDebugEnabled()) {
+                    log.debug("Sending push notification to " + ctx.getDeviceId() + " for operation '" +
+                            ctx.getOperation().getId() + "', attempt " + (attempt + 1));
+                }
+                notificationStrategy.execute(ctx);
+                dispatchedCount.incrementAndGet();
+                recordLatency(System.currentTimeMillis() - queuedTime);
+            } catch (PushNotificationExecutionFailedException e) {
+                if (attempt < maxRetries) {
+                    log.warn("Error occurred while sending push notification to " + ctx.getDeviceId() +
+                            ". Retrying attempt " + (attempt + 1) + " of " + maxRetries + ".", e);
+                    this.scheduleRetry();
+                } else {
+                    failedCount.incrementAndGet();
+                    log.error("Error occurred while sending push notifications to " + ctx.getDeviceId().getType() +
+                            " device carrying id '" + ctx.getDeviceId() + "'", e);
+                    markAsScheduled(this);
+                }
+            } catch (Throwable t) {
+                failedCount.incrementAndGet();
+                log.error("Unexpected error occurred while sending push notification to " + ctx.getDeviceId(), t);
+                markAsScheduled(this);
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+        }
+
+        private void scheduleRetry() {
+            if (shuttingDown) {
+                markAsScheduled(this);
+                return;
+            }
+            long delay = retryBackoffMills << attempt;
+            attempt++;
+            retriedCount.incrementAndGet();
+            pendingRetries.add(this);
+            try {
+                retryScheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        // The shutdown hands over the retries it removes, so only a retry still pending is resubmitted
+                        if (pendingRetries.remove(DispatchTask.this) && !submit(DispatchTask.this)) {
+                            markAsScheduled(DispatchTask.this);
+                        }
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                if (pendingRetries.remove(this)) {
+                    markAsScheduled(this);
+                }
+            }
+        }
+    }
+
+    private static class DispatcherThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        DispatcherThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.push.notification.mgt;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.Map;
+
+/**
+ * This represents the statistics of the push notification dispatcher of a node, since the node was started.
+ */
+@ApiModel(value = "PushNotificationDispatcherStatistics",
+        description = "Statistics of the push notification dispatcher of a node.")
+public class PushNotificationDispatcherStatistics {
+
+    @ApiModelProperty(name = "dispatchedCount", value = "Notifications sent successfully.")
+    private long dispatchedCount;
+
+    @ApiModelProperty(name = "retriedCount", value = "Retries scheduled after a failed send.")
+    private long retriedCount;
+
+    @ApiModelProperty(name = "failedCount", value = "Notifications handed over to the scheduler task after all " +
+            "retries failed.")
+    private long failedCount;
+
+    @ApiModelProperty(name = "rejectedCount", value = "Notifications rejected because the queue of the device type " +
+            "was full.")
+    private long rejectedCount;
+
+    @ApiModelProperty(name = "pendingRetryCount", value = "Notifications currently waiting for a retry.")
+    private int pendingRetryCount;
+
+    @ApiModelProperty(name = "averageDispatchLatency", value = "Average time in milliseconds from queueing a " +
+            "notification until it was sent.")
+    private long averageDispatchLatency;
+
+    @ApiModelProperty(name = "maxDispatchLatency", value = "Maximum time in milliseconds from queueing a " +
+            "notification until it was sent.")
+    private long maxDispatchLatency;
+
+    @ApiModelProperty(name = "queueDepths", value = "Notifications waiting in the queue of each device type.")
+    private Map<String, Integer> queueDepths;
+
+    public long getDispatchedCount() {
+        return dispatchedCount;
+    }
+
+    public void setDispatchedCount(long dispatchedCount) {
+        this.dispatchedCount = dispatchedCount;
+    }
+
+    public long getRetriedCount() {
+        return retriedCount;
+    }
+
+    public void setRetriedCount(long retriedCount) {
+        this.retriedCount = retriedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public void setRejectedCount(long rejectedCount) {
+        this.rejectedCount = rejectedCount;
+    }
+
+    public int getPendingRetryCount() {
+        return pendingRetryCount;
+    }
+
+    public void setPendingRetryCount(int pendingRetryCount) {
+        this.pendingRetryCount = pendingRetryCount;
+    }
+
+    public long getAverageDispatchLatency() {
+        return averageDispatchLatency;
+    }
+
+    public void setAverageDispatchLatency(long averageDispatchLatency) {
+        this.averageDispatchLatency = averageDispatchLatency;
+    }
+
+    public long getMaxDispatchLatency() {
+        return maxDispatchLatency;
+    }
+
+    public void setMaxDispatchLatency(long maxDispatchLatency) {
+        this.maxDispatchLatency = maxDispatchLatency;
+    }
+
+    public Map<String, Integer> getQueueDepths() {
+        return queueDepths;
+    }
+
+    public void setQueueDepths(Map<String, Integer> queueDepths) {
+        this.queueDepths = queueDepths;
+    }
+}
@@ -26,7 +26,9 @@ import org.wso2.carbon.device.mgt.common.operation.mgt.OperationManagementExcept
 import org.wso2.carbon.device.mgt.common.push.notification.NotificationContext;
 import org.wso2.carbon.device.mgt.common.push.notification.NotificationStrategy;
 import org.wso2.carbon.device.mgt.common.push.notification.PushNotificationExecutionFailedException;
+import org.wso2.carbon.device.mgt.core.DeviceManagementConstants;
 import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.config.push.notification.PushNotificationConfiguration;
 import org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation;
 import org.wso2.carbon.device.mgt.core.internal.DeviceManagementDataHolder;
 import org.wso2.carbon.device.mgt.core.operation.mgt.OperationMapping;
@@ -36,13 +38,30 @@ import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationManagementDAOF
 import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationMappingDAO;
 import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderService;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ${{@link PushNotificationSchedulerTask}} is for sending push notifications for given device batch.
+ * The scheduled operation mappings of the batch are leased first, so that several nodes running the task do not send
+ * the same notification, and are then split into chunks of a single tenant which are sent by a pool of workers. The
+ * workers of a run share the notification strategies and operations they look up.
  */
 public class PushNotificationSchedulerTask implements Runnable {
 
@@ -51,12 +70,34 @@ public class PushNotificationSchedulerTask implements Runnable {
     private final OperationMappingDAO operationMappingDAO = OperationManagementDAOFactory.getOperationMappingDAO();
     private final DeviceManagementProviderService provider = DeviceManagementDataHolder.getInstance()
             .getDeviceManagementProvider();
+    private final ExecutorService workers;
+    private final int workerCount;
+
+    public PushNotificationSchedulerTask() {
+        int workerCount = DeviceConfigurationManager.getInstance().getDeviceManagementConfig()
+                .getPushNotificationConfiguration().getSchedulerTaskWorkerCount();
+        if (workerCount <= 0) {
+            workerCount = DeviceManagementConstants.PushNotifications.DEFAULT_SCHEDULER_TASK_WORKER_COUNT;
+        }
+        this.workerCount = workerCount;
+        this.workers = Executors.newFixedThreadPool(workerCount, new WorkerThreadFactory());
+    }
+
+    /**
+     * Stops the workers of the task. Mappings leased by a run which is interrupted are picked again once their lease
+     * expires, while the ones whose notification failed are released at the end of the run.
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
 
     @Override
     public void run() {
         try {
             Map<Integer, List<OperationMapping>> operationMappingsTenantMap = new HashMap<>();
             List<OperationMapping> operationsCompletedList = new LinkedList<>();
+            PushNotificationConfiguration pushNotificationConfig = DeviceConfigurationManager.getInstance()
+                    .getDeviceManagementConfig().getPushNotificationConfiguration();
             if (log.isDebugEnabled()) {
                 log.debug("Push notification job started");
             }
@@ -64,44 +105,56 @@ public class PushNotificationSchedulerTask implements Runnable {
                 //Get next available operation list per device batch
                 OperationManagementDAOFactory.openConnection();
                 operationMappingsTenantMap = operationDAO.getOperationMappingsByStatus(Operation.Status
-                        .PENDING, Operation.PushNotificationStatus.SCHEDULED, DeviceConfigurationManager.getInstance()
-                        .getDeviceManagementConfig().getPushNotificationConfiguration().getSchedulerBatchSize());
-            } catch (OperationManagementDAOException e) {
+                        .PENDING, Operation.PushNotificationStatus.SCHEDULED, pushNotificationConfig
+                        .getSchedulerBatchSize());
+            } catch (SQLException | OperationManagementDAOException e) {
                 log.error("Unable to retrieve scheduled pending operations for task.", e);
             } finally {
                 OperationManagementDAOFactory.closeConnection();
             }
-            // Sending push notification to each device
-            for (List<OperationMapping> operationMappings : operationMappingsTenantMap.values()) {
-                for (OperationMapping operationMapping : operationMappings) {
-                    try {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Sending push notification for operationId :" + operationMapping.getOperationId() +
-                                    " to deviceId : " + operationMapping.getDeviceIdentifier().getId());
+            if (operationMappingsTenantMap.isEmpty()) {
+                return;
+            }
+            operationMappingsTenantMap = leaseOperationMappings(operationMappingsTenantMap,
+                    pushNotificationConfig.getSchedulerTaskLeaseTimeMills());
+            // Sending push notifications of each chunk in a separate worker, so that a large tenant is also sent in
+            // parallel
+            Map<String, NotificationStrategy> notificationStrategies = new ConcurrentHashMap<>();
+            Map<Integer, org.wso2.carbon.device.mgt.common.operation.mgt.Operation> operations =
+                    new ConcurrentHashMap<>();
+            List<List<OperationMapping>> chunks = new ArrayList<>();
+            List<Future<List<OperationMapping>>> results = new ArrayList<>();
+            for (Map.Entry<Integer, List<OperationMapping>> entry : operationMappingsTenantMap.entrySet()) {
+                List<OperationMapping> tenantMappings = entry.getValue();
+                int chunkSize = (tenantMappings.size() + workerCount - 1) / workerCount;
+                for (int i = 0; i < tenantMappings.size(); i += chunkSize) {
+                    List<OperationMapping> chunk = tenantMappings.subList(i, Math.min(i + chunkSize,
+                            tenantMappings.size()));
+                    chunks.add(chunk);
+                    results.add(workers.submit(new TenantNotificationSender(entry.getKey(), chunk,
+                            notificationStrategies, operations)));
+                }
+            }
+            List<OperationMapping> operationsFailedList = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                List<OperationMapping> chunk = chunks.get(i);
+                try {
+                    List<OperationMapping> sent = results.get(i).get();
+                    operationsCompletedList.addAll(sent);
+                    // Mappings are compared by reference, since the workers return the mappings they were given
+                    Set<OperationMapping> sentSet = Collections.newSetFromMap(
+                            new IdentityHashMap<OperationMapping, Boolean>());
+                    sentSet.addAll(sent);
+                    for (OperationMapping operationMapping : chunk) {
+                        if (!sentSet.contains(operationMapping)) {
+                            operationsFailedList.add(operationMapping);
                         }
-                        // Set tenant id and domain
-                        PrivilegedCarbonContext.startTenantFlow();
-                        PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(operationMapping.getTenantId(), true);
-                        // Get notification strategy for given device type
-                        NotificationStrategy notificationStrategy = provider.getNotificationStrategyByDeviceType
-                                (operationMapping.getDeviceIdentifier().getType());
-                        // Send the push notification on given strategy
-                        notificationStrategy.execute(new NotificationContext(operationMapping.getDeviceIdentifier(),
-                                provider.getOperation(operationMapping.getDeviceIdentifier().getType(), operationMapping
-                                        .getOperationId())));
-                        operationMapping.setPushNotificationStatus(Operation.PushNotificationStatus.COMPLETED);
-                        operationsCompletedList.add(operationMapping);
-                    } catch (DeviceManagementException e) {
-                        log.error("Error occurred while getting notification strategy for operation mapping " +
-                                operationMapping.getDeviceIdentifier().getType(), e);
-                    } catch (OperationManagementException e) {
-                        log.error("Unable to get the operation for operation " + operationMapping.getOperationId(), e);
-                    } catch (PushNotificationExecutionFailedException e) {
-                        log.error("Error occurred while sending push notification to operation:  " + operationMapping
-                                .getOperationId(), e);
-                    } finally {
-                        PrivilegedCarbonContext.endTenantFlow();
                     }
+                } catch (ExecutionException e) {
+                    log.error("Error occurred while sending push notifications of a tenant", e.getCause());
+                    operationsFailedList.addAll(chunk);
+                } catch (CancellationException e) {
+                    log.warn("Sending push notifications of a tenant was cancelled as the task is shutting down");
                 }
             }
             // Update push notification status to competed for operations which already sent
@@ -117,6 +170,11 @@ public class PushNotificationSchedulerTask implements Runnable {
                     OperationManagementDAOFactory.closeConnection();
                 }
             }
+            // Release the lease of the mappings which could not be sent, so that the next run retries them
+            // right away instead of waiting for the lease to expire
+            if (!operationsFailedList.isEmpty()) {
+                releaseOperationMappingLeases(operationsFailedList);
+            }
             if (log.isDebugEnabled()) {
                 log.debug("Push notification job running completed.");
             }
@@ -124,4 +182,149 @@ public class PushNotificationSchedulerTask implements Runnable {
             log.error("PushNotificationSchedulerTask failed due to " + cause);
         }
     }
+
+    /**
+     * Claims the given operation mappings for this node until the lease expires. Mappings which are already leased by
+     * another node are dropped, and the ones claimed here are picked again by any node if they are not marked as
+     * completed before the lease expires.
+     *
+     * @param operationMappingsTenantMap scheduled operation mappings grouped by tenant.
+     * @param leaseTimeMills             lease time in milliseconds.
+     * @return leased operation mappings grouped by tenant.
+     */
+    private Map<Integer, List<OperationMapping>> leaseOperationMappings(
+            Map<Integer, List<OperationMapping>> operationMappingsTenantMap, int leaseTimeMills) {
+        Map<Integer, List<OperationMapping>> leasedOperationMappings = new HashMap<>();
+        if (leaseTimeMills <= 0) {
+            leaseTimeMills = DeviceManagementConstants.PushNotifications.DEFAULT_SCHEDULER_TASK_LEASE_TIME_MILLS;
+        }
+        long leaseExpiryTime = (System.currentTimeMillis() + leaseTimeMills) / 1000;
+        try {
+            OperationManagementDAOFactory.beginTransaction();
+            for (Map.Entry<Integer, List<OperationMapping>> entry : operationMappingsTenantMap.entrySet()) {
+                List<OperationMapping> leased = operationMappingDAO.leaseOperationMappings(entry.getValue(),
+                        leaseExpiryTime);
+                if (!leased.isEmpty()) {
+                    leasedOperationMappings.put(entry.getKey(), leased);
+                }
+            }
+            OperationManagementDAOFactory.commitTransaction();
+        } catch (TransactionManagementException | OperationManagementDAOException e) {
+            OperationManagementDAOFactory.rollbackTransaction();
+            log.error("Error occurred while leasing scheduled operation mappings", e);
+            leasedOperationMappings.clear();
+        } finally {
+            OperationManagementDAOFactory.closeConnection();
+        }
+        return leasedOperationMappings;
+    }
+
+    /**
+     * Releases the lease of the given operation mappings. A mapping whose lease could not be released is picked again
+     * once its lease expires.
+     *
+     * @param operationMappings operation mappings whose push notifications were not sent.
+     */
+    private void releaseOperationMappingLeases(List<OperationMapping> operationMappings) {
+        try {
+            OperationManagementDAOFactory.beginTransaction();
+            operationMappingDAO.releaseOperationMappingLeases(operationMappings);
+            OperationManagementDAOFactory.commitTransaction();
+        } catch (TransactionManagementException | OperationManagementDAOException e) {
+            OperationManagementDAOFactory.rollbackTransaction();
+            log.error("Error occurred while releasing the lease of operation mappings of failed notifications", e);
+        } finally {
+            OperationManagementDAOFactory.closeConnection();
+        }
+    }
+
+    /**
+     * Sends the push notifications of a chunk of mappings of a single tenant. The notification strategy of each
+     * device type of a tenant and each operation are looked up only once per run, since the lookups are shared by all
+     * the workers of the run.
+     */
+    private class TenantNotificationSender implements Callable<List<OperationMapping>> {
+
+        private final int tenantId;
+        private final List<OperationMapping> operationMappings;
+        private final Map<String, NotificationStrategy> notificationStrategies;
+        private final Map<Integer, org.wso2.carbon.device.mgt.common.operation.mgt.Operation> operations;
+
+        TenantNotificationSender(int tenantId, List<OperationMapping> operationMappings,
+                                 Map<String, NotificationStrategy> notificationStrategies,
+                                 Map<Integer, org.wso2.carbon.device.mgt.common.operation.mgt.Operation> operations) {
+            this.tenantId = tenantId;
+            this.operationMappings = operationMappings;
+            this.notificationStrategies = notificationStrategies;
+            this.operations = operations;
+        }
+
+        @Override
+        public List<OperationMapping> call() {
+            List<OperationMapping> operationsCompletedList = new ArrayList<>();
+            try {
+                // Set tenant id and domain
+                PrivilegedCarbonContext.startTenantFlow();
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId, true);
+                for (OperationMapping operationMapping : operationMappings) {
+                    String deviceType = operationMapping.getDeviceIdentifier().getType();
+                    try {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Sending push notification for operationId :" + operationMapping
+                                    .getOperationId() + " to deviceId : " + operationMapping.getDeviceIdentifier()
+                                    .getId());
+                        }
+                        // Get notification strategy for given device type of the tenant
+                        String strategyKey = tenantId + ":" + deviceType;
+                        NotificationStrategy notificationStrategy = notificationStrategies.get(strategyKey);
+                        if (notificationStrategy == null) {
+                            notificationStrategy = provider.getNotificationStrategyByDeviceType(deviceType);
+                            if (notificationStrategy == null) {
+                                log.error("No notification strategy found for device type '" + deviceType + "'");
+                                continue;
+                            }
+                            notificationStrategies.put(strategyKey, notificationStrategy);
+                        }
+                        org.wso2.carbon.device.mgt.common.operation.mgt.Operation operation =
+                                operations.get(operationMapping.getOperationId());
+                        if (operation == null) {
+                            operation = provider.getOperation(deviceType, operationMapping.getOperationId());
+                            if (operation != null) {
+                                operations.put(operationMapping.getOperationId(), operation);
+                            }
+                        }
+                        // Send the push notification on given strategy
+                        notificationStrategy.execute(new NotificationContext(operationMapping.getDeviceIdentifier(),
+                                operation));
+                        operationMapping.setPushNotificationStatus(Operation.PushNotificationStatus.COMPLETED);
+                        operationsCompletedList.add(operationMapping);
+                    } catch (DeviceManagementException e) {
+                        log.error("Error occurred while getting notification strategy for operation mapping " +
+                                deviceType, e);
+                    } catch (OperationManagementException e) {
+                        log.error("Unable to get the operation for operation " + operationMapping.getOperationId(),
+                                e);
+                    } catch (PushNotificationExecutionFailedException e) {
+                        log.error("Error occurred while sending push notification to operation:  " +
+                                operationMapping.getOperationId(), e);
+                    }
+                }
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+            return operationsCompletedList;
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "push-notification-scheduler-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
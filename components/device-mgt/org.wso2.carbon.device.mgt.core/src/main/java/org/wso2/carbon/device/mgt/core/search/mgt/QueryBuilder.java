@@ -40,4 +40,18 @@ public interface QueryBuilder {
 
     QueryHolder processUpdatedDevices(long epochTime) throws InvalidOperatorException;
 
+    /**
+     * Builds a single query which returns the devices matching the given conditions. Devices matching all the
+     * device detail conditions and all the AND property conditions, matching any OR property condition or matching
+     * the location are returned, ordered by the device id.
+     *
+     * @param conditions    search conditions.
+     * @param owner         if not null, only the devices enrolled by this user are returned.
+     * @param afterDeviceId if positive, only the devices with a greater id are returned.
+     * @return query holder, or null if none of the conditions can match a device.
+     * @throws InvalidOperatorException if a condition has an invalid state.
+     */
+    QueryHolder buildSearchQuery(List<Condition> conditions, String owner, int afterDeviceId)
+            throws InvalidOperatorException;
+
 }
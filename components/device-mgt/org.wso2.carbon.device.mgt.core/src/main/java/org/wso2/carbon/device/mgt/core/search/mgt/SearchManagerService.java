@@ -28,6 +28,16 @@ public interface SearchManagerService {
 
     List<Device> search(SearchContext searchContext) throws SearchMgtException;
 
+    /**
+     * Returns a page of the devices matching the search context, ordered by the device id. The next page is read by
+     * passing the id of the last device of the page.
+     *
+     * @param searchContext search conditions.
+     * @param afterDeviceId id of the last device of the previous page, or 0 for the first page.
+     * @param limit         maximum number of devices to return, all the matching devices are returned if not positive.
+     */
+    List<Device> search(SearchContext searchContext, int afterDeviceId, int limit) throws SearchMgtException;
+
     List<Device> getUpdated(long epochTime) throws SearchMgtException;
 }
 
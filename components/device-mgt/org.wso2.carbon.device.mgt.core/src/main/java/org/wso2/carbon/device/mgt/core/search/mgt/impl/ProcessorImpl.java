@@ -21,10 +21,11 @@ package org.wso2.carbon.device.mgt.core.search.mgt.impl;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.CarbonContext;
 import org.wso2.carbon.device.mgt.common.Device;
-import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
 import org.wso2.carbon.device.mgt.common.DeviceManagementConstants;
 import org.wso2.carbon.device.mgt.common.EnrolmentInfo;
+import org.wso2.carbon.device.mgt.common.app.mgt.Application;
 import org.wso2.carbon.device.mgt.common.authorization.DeviceAccessAuthorizationException;
 import org.wso2.carbon.device.mgt.common.authorization.DeviceAccessAuthorizationService;
 import org.wso2.carbon.device.mgt.common.device.details.DeviceInfo;
@@ -41,12 +42,16 @@ import org.wso2.carbon.device.mgt.core.search.mgt.dao.SearchDAOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class ProcessorImpl implements Processor {
     private ApplicationDAO applicationDAO;
     private static final Log log = LogFactory.getLog(ProcessorImpl.class);
+    private static final int FETCH_SIZE = 1000;
+    private static final int BATCH_SIZE = 500;
     private DeviceAccessAuthorizationService deviceAccessAuthorizationService;
 
     public ProcessorImpl() {
@@ -62,39 +67,48 @@ public class ProcessorImpl implements Processor {
 
     @Override
     public List<Device> execute(SearchContext searchContext) throws SearchMgtException {
+        return this.execute(searchContext, 0, 0);
+    }
+
+    /**
+     * Runs the search as a single query, which intersects and unites the conditions and filters the devices of the
+     * users who are not device administrators by ownership. Pages start after the last device of the previous page,
+     * and the result set is read as a stream until the page is filled.
+     */
+    @Override
+    public List<Device> execute(SearchContext searchContext, int afterDeviceId, int limit)
+            throws SearchMgtException {
 
         if (!Utils.validateOperators(searchContext.getConditions())) {
             throw new SearchMgtException("Invalid validator is provided.");
         }
+        if (deviceAccessAuthorizationService == null) {
+            return new ArrayList<>();
+        }
+
+        // Users who are not device administrators are authorized to the devices they own
+        String username = this.getUserName();
+        String owner = null;
+        try {
+            if (username != null && !deviceAccessAuthorizationService.isDeviceAdminUser()) {
+                owner = username;
+            }
+        } catch (DeviceAccessAuthorizationException e) {
+            log.error("Error getting authorized search results for logged in user");
+            throw new SearchMgtException(e);
+        }
 
         QueryBuilder queryBuilder = new QueryBuilderImpl();
-        List<Device> generalDevices = new ArrayList<>();
-        List<List<Device>> allANDDevices = new ArrayList<>();
-        List<List<Device>> allORDevices = new ArrayList<>();
-        List<Device> locationDevices = new ArrayList<>();
+        List<Device> devices;
         try {
             DeviceManagementDAOFactory.openConnection();
-            Map<String, List<QueryHolder>> queries = queryBuilder.buildQueries(searchContext.getConditions());
-
-
-            if (queries.containsKey(Constants.GENERAL)) {
-                generalDevices = searchDeviceDetailsTable(queries.get(Constants.GENERAL).get(0));
-            }
-            if (queries.containsKey(Constants.PROP_AND)) {
-                for (QueryHolder queryHolder : queries.get(Constants.PROP_AND)) {
-                    List<Device> andDevices = searchDeviceDetailsTable(queryHolder);
-                    allANDDevices.add(andDevices);
-                }
-            }
-            if (queries.containsKey(Constants.PROP_OR)) {
-                for (QueryHolder queryHolder : queries.get(Constants.PROP_OR)) {
-                    List<Device> orDevices = searchDeviceDetailsTable(queryHolder);
-                    allORDevices.add(orDevices);
-                }
-            }
-            if (queries.containsKey(Constants.LOCATION)) {
-                locationDevices = searchDeviceDetailsTable(queries.get(Constants.LOCATION).get(0));
+            QueryHolder queryHolder = queryBuilder.buildSearchQuery(searchContext.getConditions(), owner,
+                    afterDeviceId);
+            if (queryHolder == null) {
+                return new ArrayList<>();
             }
+            devices = this.searchDeviceDetailsTable(queryHolder, limit, username == null);
+            this.setApplicationListOfDevices(devices);
         } catch (InvalidOperatorException e) {
             throw new SearchMgtException("Invalid operator was provided, so cannot execute the search.", e);
         } catch (SQLException e) {
@@ -104,44 +118,7 @@ public class ProcessorImpl implements Processor {
         } finally {
             DeviceManagementDAOFactory.closeConnection();
         }
-
-        ResultSetAggregator aggregator = new ResultSetAggregatorImpl();
-
-        Map<String, List<Device>> devices = new HashMap<>();
-
-        devices.put(Constants.GENERAL, generalDevices);
-        devices.put(Constants.PROP_AND, this.processANDSearch(allANDDevices));
-        devices.put(Constants.PROP_OR, this.processORSearch(allORDevices));
-        devices.put(Constants.LOCATION, locationDevices);
-
-        List<Device> finalDevices = aggregator.aggregate(devices);
-        finalDevices = authorizedDevices(finalDevices);
-        this.setApplicationListOfDevices(finalDevices);
-        return finalDevices;
-    }
-
-    /**
-     * To get the authorized devices for a particular user
-     *
-     * @param devices Devices that satisfy search results
-     * @return Devices that satisfy search results and authorized to be viewed by particular user
-     */
-    private List<Device> authorizedDevices(List<Device> devices) throws SearchMgtException {
-        List<Device> filteredList = new ArrayList<>();
-        try {
-            for (Device device : devices) {
-                DeviceIdentifier deviceIdentifier = new DeviceIdentifier(device.getDeviceIdentifier(),
-                        device.getType());
-                if (deviceAccessAuthorizationService != null && deviceAccessAuthorizationService
-                        .isUserAuthorized(deviceIdentifier)) {
-                    filteredList.add(device);
-                }
-            }
-            return filteredList;
-        } catch (DeviceAccessAuthorizationException e) {
-            log.error("Error getting authorized search results for logged in user");
-            throw new SearchMgtException(e);
-        }
+        return devices;
     }
 
     @Override
@@ -167,99 +144,57 @@ public class ProcessorImpl implements Processor {
     }
 
 
-    private List<Device> processANDSearch(List<List<Device>> deLists) {
-        List<Device> deviceList = new ArrayList<>();
-        List<Device> smallestDeviceList = this.findListWithLowestItems(deLists);
-        List<Map<Integer, Device>> maps = this.convertDeviceListToMap(deLists);
-        boolean valueExist = false;
-        for (Device device : smallestDeviceList) {
-            for (Map<Integer, Device> devices : maps) {
-                if (devices.containsKey(device.getId())) {
-                    valueExist = true;
-                } else {
-                    valueExist = false;
-                    break;
-                }
-            }
-            if (valueExist) {
-                deviceList.add(device);
-            }
-        }
-        return deviceList;
-    }
-
-    private List<Device> processORSearch(List<List<Device>> deLists) {
-        List<Device> devices = new ArrayList<>();
-        Map<Integer, Device> map = new HashMap<>();
-
-        for (List<Device> list : deLists) {
-            for (Device device : list) {
-                if (!map.containsKey(device.getId())) {
-                    map.put(device.getId(), device);
-                    devices.add(device);
-                }
-            }
-        }
-        return devices;
-    }
-
-    private List<Device> findListWithLowestItems(List<List<Device>> deLists) {
-        int size = 0;
-        List<Device> devices = new ArrayList<>();
-        for (List<Device> list : deLists) {
-            if (size == 0) {
-                size = list.size();
-                devices = list;
-            } else {
-                if (list.size() < size) {
-                    devices = list;
-                }
-            }
-        }
-        return devices;
-    }
-
-    private List<Map<Integer, Device>> convertDeviceListToMap(List<List<Device>> deLists) {
-        List<Map<Integer, Device>> maps = new ArrayList<>();
-        for (List<Device> devices : deLists) {
-            Map<Integer, Device> deviceMap = new HashMap<>();
-
-            for (Device device : devices) {
-                deviceMap.put(device.getId(), device);
-            }
-            maps.add(deviceMap);
-        }
-        return maps;
-    }
-
+    /**
+     * Sets the installed applications of the devices, reading them in batches of enrolments. Expects an open
+     * connection.
+     */
     private void setApplicationListOfDevices(List<Device> devices) throws SearchMgtException {
         try {
-            DeviceManagementDAOFactory.openConnection();
-            for (Device device : devices) {
-                device.setApplications(applicationDAO.getInstalledApplications(device.getId(),
-                        device.getEnrolmentInfo().getId()));
+            for (int from = 0; from < devices.size(); from += BATCH_SIZE) {
+                List<Device> batch = devices.subList(from, Math.min(from + BATCH_SIZE, devices.size()));
+                List<Integer> enrolmentIds = new ArrayList<>(batch.size());
+                for (Device device : batch) {
+                    enrolmentIds.add(device.getEnrolmentInfo().getId());
+                }
+                Map<Integer, List<Application>> applications = applicationDAO.getInstalledApplications(enrolmentIds);
+                for (Device device : batch) {
+                    List<Application> deviceApplications = applications.get(device.getEnrolmentInfo().getId());
+                    device.setApplications(deviceApplications != null ? deviceApplications :
+                            new ArrayList<Application>());
+                }
             }
         } catch (DeviceManagementDAOException e) {
             throw new SearchMgtException("Error occurred while fetching the Application List of devices ", e);
-        } catch (SQLException e) {
-            throw new SearchMgtException("Error occurred while opening a connection to the data source", e);
-        } finally {
-            DeviceManagementDAOFactory.closeConnection();
         }
     }
 
     private List<Device> searchDeviceDetailsTable(QueryHolder queryHolder) throws SearchDAOException {
+        return this.searchDeviceDetailsTable(queryHolder, 0, false);
+    }
+
+    /**
+     * Reads the devices returned by the given query from a forward only cursor, skipping the rows of devices which
+     * were already read. Reading stops once the page is filled.
+     *
+     * @param limit                 maximum number of devices to return, all the devices are returned if not positive.
+     * @param checkDeviceTypeAccess whether to skip the devices of types which require device authorization.
+     */
+    private List<Device> searchDeviceDetailsTable(QueryHolder queryHolder, int limit, boolean checkDeviceTypeAccess)
+            throws SearchDAOException {
         if (log.isDebugEnabled()) {
             log.debug("Query : " + queryHolder.getQuery());
         }
-        Connection conn = null;
+        Connection conn;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         List<Device> devices = new ArrayList<>();
-        Map<Integer, Integer> devs = new HashMap<>();
+        Set<Integer> readDeviceIds = new HashSet<>();
+        Map<String, Boolean> accessibleDeviceTypes = new HashMap<>();
         try {
             conn = this.getConnection();
-            stmt = conn.prepareStatement(queryHolder.getQuery());
+            stmt = conn.prepareStatement(queryHolder.getQuery(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(FETCH_SIZE);
 
             int x = 1;
             ValueType[] types = queryHolder.getTypes();
@@ -281,58 +216,16 @@ public class ProcessorImpl implements Processor {
 
             rs = stmt.executeQuery();
             while (rs.next()) {
-                if (!devs.containsKey(rs.getInt("ID"))) {
-                    Device device = new Device();
-                    device.setId(rs.getInt("ID"));
-                    device.setDescription(rs.getString("DESCRIPTION"));
-                    device.setName(rs.getString("NAME"));
-                    device.setType(rs.getString("DEVICE_TYPE_NAME"));
-                    device.setDeviceIdentifier(rs.getString("DEVICE_IDENTIFICATION"));
-
-                    EnrolmentInfo enrolmentInfo = new EnrolmentInfo();
-                    enrolmentInfo.setStatus(EnrolmentInfo.Status.valueOf(rs.getString("DE_STATUS")));
-                    enrolmentInfo.setOwner(rs.getString("OWNER"));
-                    enrolmentInfo.setOwnership(EnrolmentInfo.OwnerShip.valueOf(rs.getString("OWNERSHIP")));
-                    device.setEnrolmentInfo(enrolmentInfo);
-
-                    DeviceIdentifier identifier = new DeviceIdentifier();
-                    identifier.setType(rs.getString("DEVICE_TYPE_NAME"));
-                    identifier.setId(rs.getString("DEVICE_IDENTIFICATION"));
-
-                    DeviceInfo deviceInfo = new DeviceInfo();
-                    deviceInfo.setAvailableRAMMemory(rs.getDouble("AVAILABLE_RAM_MEMORY"));
-                    deviceInfo.setBatteryLevel(rs.getDouble("BATTERY_LEVEL"));
-                    deviceInfo.setConnectionType(rs.getString("CONNECTION_TYPE"));
-                    deviceInfo.setCpuUsage(rs.getDouble("CPU_USAGE"));
-                    deviceInfo.setDeviceModel(rs.getString("DEVICE_MODEL"));
-                    deviceInfo.setExternalAvailableMemory(rs.getDouble("EXTERNAL_AVAILABLE_MEMORY"));
-                    deviceInfo.setExternalTotalMemory(rs.getDouble("EXTERNAL_TOTAL_MEMORY"));
-                    deviceInfo.setInternalAvailableMemory(rs.getDouble("INTERNAL_AVAILABLE_MEMORY"));
-                    deviceInfo.setInternalTotalMemory(rs.getDouble("EXTERNAL_TOTAL_MEMORY"));
-                    deviceInfo.setOsVersion(rs.getString("OS_VERSION"));
-                    deviceInfo.setOsBuildDate(rs.getString("OS_BUILD_DATE"));
-                    deviceInfo.setPluggedIn(rs.getBoolean("PLUGGED_IN"));
-                    deviceInfo.setSsid(rs.getString("SSID"));
-                    deviceInfo.setTotalRAMMemory(rs.getDouble("TOTAL_RAM_MEMORY"));
-                    deviceInfo.setVendor(rs.getString("VENDOR"));
-                    deviceInfo.setUpdatedTime(new java.util.Date(rs.getLong("UPDATE_TIMESTAMP")));
-
-                    DeviceLocation deviceLocation = new DeviceLocation();
-                    deviceLocation.setLatitude(rs.getDouble("LATITUDE"));
-                    deviceLocation.setLongitude(rs.getDouble("LONGITUDE"));
-                    deviceLocation.setStreet1(rs.getString("STREET1"));
-                    deviceLocation.setStreet2(rs.getString("STREET2"));
-                    deviceLocation.setCity(rs.getString("CITY"));
-                    deviceLocation.setState(rs.getString("STATE"));
-                    deviceLocation.setZip(rs.getString("ZIP"));
-                    deviceLocation.setCountry(rs.getString("COUNTRY"));
-                    deviceLocation.setDeviceId(rs.getInt("ID"));
-                    deviceLocation.setUpdatedTime(new java.util.Date(rs.getLong("DL_UPDATED_TIMESTAMP")));
-
-                    deviceInfo.setLocation(deviceLocation);
-                    device.setDeviceInfo(deviceInfo);
-                    devices.add(device);
-                    devs.put(device.getId(), device.getId());
+                if (!readDeviceIds.add(rs.getInt("ID"))) {
+                    continue;
+                }
+                if (checkDeviceTypeAccess && !this.isDeviceTypeAccessible(rs.getString("DEVICE_TYPE_NAME"),
+                        accessibleDeviceTypes)) {
+                    continue;
+                }
+                devices.add(this.loadDevice(rs));
+                if (limit > 0 && devices.size() == limit) {
+                    break;
                 }
             }
         } catch (SQLException e) {
@@ -347,11 +240,84 @@ public class ProcessorImpl implements Processor {
         return devices;
     }
 
+    private boolean isDeviceTypeAccessible(String deviceType, Map<String, Boolean> accessibleDeviceTypes) {
+        Boolean accessible = accessibleDeviceTypes.get(deviceType);
+        if (accessible == null) {
+            accessible = !DeviceManagementDataHolder.getInstance().requireDeviceAuthorization(deviceType);
+            accessibleDeviceTypes.put(deviceType, accessible);
+        }
+        return accessible;
+    }
+
+    private Device loadDevice(ResultSet rs) throws SQLException {
+        Device device = new Device();
+        device.setId(rs.getInt("ID"));
+        device.setDescription(rs.getString("DESCRIPTION"));
+        device.setName(rs.getString("NAME"));
+        device.setType(rs.getString("DEVICE_TYPE_NAME"));
+        device.setDeviceIdentifier(rs.getString("DEVICE_IDENTIFICATION"));
+
+        EnrolmentInfo enrolmentInfo = new EnrolmentInfo();
+        enrolmentInfo.setId(rs.getInt("ENROLMENT_ID"));
+        enrolmentInfo.setStatus(EnrolmentInfo.Status.valueOf(rs.getString("DE_STATUS")));
+        enrolmentInfo.setOwner(rs.getString("OWNER"));
+        enrolmentInfo.setOwnership(EnrolmentInfo.OwnerShip.valueOf(rs.getString("OWNERSHIP")));
+        device.setEnrolmentInfo(enrolmentInfo);
+
+        DeviceInfo deviceInfo = new DeviceInfo();
+        deviceInfo.setAvailableRAMMemory(rs.getDouble("AVAILABLE_RAM_MEMORY"));
+        deviceInfo.setBatteryLevel(rs.getDouble("BATTERY_LEVEL"));
+        deviceInfo.setConnectionType(rs.getString("CONNECTION_TYPE"));
+        deviceInfo.setCpuUsage(rs.getDouble("CPU_USAGE"));
+        deviceInfo.setDeviceModel(rs.getString("DEVICE_MODEL"));
+        deviceInfo.setExternalAvailableMemory(rs.getDouble("EXTERNAL_AVAILABLE_MEMORY"));
+        deviceInfo.setExternalTotalMemory(rs.getDouble("EXTERNAL_TOTAL_MEMORY"));
+        deviceInfo.setInternalAvailableMemory(rs.getDouble("INTERNAL_AVAILABLE_MEMORY"));
+        deviceInfo.setInternalTotalMemory(rs.getDouble("EXTERNAL_TOTAL_MEMORY"));
+        deviceInfo.setOsVersion(rs.getString("OS_VERSION"));
+        deviceInfo.setOsBuildDate(rs.getString("OS_BUILD_DATE"));
+        deviceInfo.setPluggedIn(rs.getBoolean("PLUGGED_IN"));
+        deviceInfo.setSsid(rs.getString("SSID"));
+        deviceInfo.setTotalRAMMemory(rs.getDouble("TOTAL_RAM_MEMORY"));
+        deviceInfo.setVendor(rs.getString("VENDOR"));
+        deviceInfo.setUpdatedTime(new java.util.Date(rs.getLong("UPDATE_TIMESTAMP")));
+
+        DeviceLocation deviceLocation = new DeviceLocation();
+        deviceLocation.setLatitude(rs.getDouble("LATITUDE"));
+        deviceLocation.setLongitude(rs.getDouble("LONGITUDE"));
+        deviceLocation.setStreet1(rs.getString("STREET1"));
+        deviceLocation.setStreet2(rs.getString("STREET2"));
+        deviceLocation.setCity(rs.getString("CITY"));
+        deviceLocation.setState(rs.getString("STATE"));
+        deviceLocation.setZip(rs.getString("ZIP"));
+        deviceLocation.setCountry(rs.getString("COUNTRY"));
+        deviceLocation.setDeviceId(rs.getInt("ID"));
+        deviceLocation.setUpdatedTime(new java.util.Date(rs.getLong("DL_UPDATED_TIMESTAMP")));
+
+        deviceInfo.setLocation(deviceLocation);
+        device.setDeviceInfo(deviceInfo);
+        return device;
+    }
+
+    private String getUserName() {
+        String username = CarbonContext.getThreadLocalCarbonContext().getUsername();
+        if (username == null || username.isEmpty()) {
+            return null;
+        }
+        String tenantDomain = CarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+        if (tenantDomain != null && username.endsWith(tenantDomain) && username.lastIndexOf("@") > 0) {
+            return username.substring(0, username.lastIndexOf("@"));
+        }
+        return username;
+    }
 
     private Connection getConnection() throws SQLException {
         return DeviceManagementDAOFactory.getConnection();
     }
 
+    /**
+     * Reads the key value properties of the devices from DM_DEVICE_INFO, in batches of devices.
+     */
     private List<Device> fillPropertiesOfDevices(List<Device> devices) throws SearchDAOException {
         if (devices.isEmpty()) {
             return null;
@@ -359,34 +325,50 @@ public class ProcessorImpl implements Processor {
         Connection conn;
         PreparedStatement stmt = null;
         ResultSet rs = null;
+        Map<Integer, Device> deviceMap = new HashMap<>();
+        for (Device device : devices) {
+            deviceMap.put(device.getId(), device);
+        }
         try {
             conn = this.getConnection();
-            String query = "SELECT * FROM DM_DEVICE_INFO WHERE DEVICE_ID IN (";
-            if (conn.getMetaData().getDatabaseProductName().contains(DeviceManagementConstants.DataBaseTypes.DB_TYPE_H2) || conn.getMetaData()
-                    .getDatabaseProductName().contains(DeviceManagementConstants.DataBaseTypes.DB_TYPE_MYSQL) ||
-                    conn.getMetaData().getDatabaseProductName().contains(DeviceManagementConstants.DataBaseTypes.DB_TYPE_ORACLE) ||
-                    conn.getMetaData().getDatabaseProductName().contains(DeviceManagementConstants.DataBaseTypes.DB_TYPE_MSSQL)) {
-                StringBuilder builder = new StringBuilder();
-                for (int i = 0; i < devices.size(); i++) {
-                    builder.append("?,");
+            String databaseProductName = conn.getMetaData().getDatabaseProductName();
+            boolean isInClauseSupported =
+                    databaseProductName.contains(DeviceManagementConstants.DataBaseTypes.DB_TYPE_H2) ||
+                    databaseProductName.contains(DeviceManagementConstants.DataBaseTypes.DB_TYPE_MYSQL) ||
+                    databaseProductName.contains(DeviceManagementConstants.DataBaseTypes.DB_TYPE_ORACLE) ||
+                    databaseProductName.contains(DeviceManagementConstants.DataBaseTypes.DB_TYPE_MSSQL);
+            for (int from = 0; from < devices.size(); from += BATCH_SIZE) {
+                List<Device> batch = devices.subList(from, Math.min(from + BATCH_SIZE, devices.size()));
+                String query = "SELECT * FROM DM_DEVICE_INFO WHERE DEVICE_ID IN (";
+                if (isInClauseSupported) {
+                    StringBuilder builder = new StringBuilder();
+                    for (int i = 0; i < batch.size(); i++) {
+                        builder.append("?,");
+                    }
+                    query += builder.deleteCharAt(builder.length() - 1).toString() + ") ORDER BY DEVICE_ID";
+                    stmt = conn.prepareStatement(query);
+                    for (int i = 0; i < batch.size(); i++) {
+                        stmt.setInt(i + 1, batch.get(i).getId());
+                    }
+                } else {
+                    query += "?) ORDER BY DEVICE_ID";
+                    stmt = conn.prepareStatement(query);
+                    Array array = conn.createArrayOf("INT", Utils.getArrayOfDeviceIds(batch));
+                    stmt.setArray(1, array);
                 }
-                query += builder.deleteCharAt(builder.length() - 1).toString() + ") ORDER BY DEVICE_ID";
-                stmt = conn.prepareStatement(query);
-                for (int i = 0; i < devices.size(); i++) {
-                    stmt.setInt(i + 1, devices.get(i).getId());
+                rs = stmt.executeQuery();
+
+                while (rs.next()) {
+                    Device device = deviceMap.get(rs.getInt("DEVICE_ID"));
+                    if (device.getDeviceInfo() == null) {
+                        device.setDeviceInfo(new DeviceInfo());
+                    }
+                    device.getDeviceInfo().getDeviceDetailsMap().put(rs.getString("KEY_FIELD"),
+                            rs.getString("VALUE_FIELD"));
                 }
-            } else {
-                query += "?) ORDER BY DEVICE_ID";
-                stmt = conn.prepareStatement(query);
-                Array array = conn.createArrayOf("INT", Utils.getArrayOfDeviceIds(devices));
-                stmt.setArray(1, array);
-            }
-            rs = stmt.executeQuery();
-
-            DeviceInfo dInfo;
-            while (rs.next()) {
-                dInfo = this.getDeviceInfo(devices, rs.getInt("DEVICE_ID"));
-                dInfo.getDeviceDetailsMap().put(rs.getString("KEY_FIELD"), rs.getString("VALUE_FIELD"));
+                DeviceManagementDAOUtil.cleanupResources(stmt, rs);
+                stmt = null;
+                rs = null;
             }
         } catch (SQLException e) {
             throw new SearchDAOException("Error occurred while retrieving the device properties.", e);
@@ -395,16 +377,4 @@ public class ProcessorImpl implements Processor {
         }
         return devices;
     }
-
-    private DeviceInfo getDeviceInfo(List<Device> devices, int deviceId) {
-        for (Device device : devices) {
-            if (device.getId() == deviceId) {
-                if (device.getDeviceInfo() == null) {
-                    device.setDeviceInfo(new DeviceInfo());
-                }
-                return device.getDeviceInfo();
-            }
-        }
-        return null;
-    }
 }
\ No newline at end of file
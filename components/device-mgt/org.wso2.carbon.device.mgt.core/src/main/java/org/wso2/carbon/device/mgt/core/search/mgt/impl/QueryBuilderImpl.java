@@ -49,41 +49,8 @@ public class QueryBuilderImpl implements QueryBuilder {
         List<Condition> orColumns = new ArrayList<>();
         List<Condition> otherANDColumns = new ArrayList<>();
         List<Condition> otherORColumns = new ArrayList<>();
-        Condition locCondition = new Condition();
-
-        if (conditions.size() == 1) {
-            if (Constants.LOCATION.equalsIgnoreCase(conditions.get(0).getKey())) {
-                locCondition = conditions.get(0);
-            } else if (Utils.checkDeviceDetailsColumns(conditions.get(0).getKey()) ||
-                    Utils.checkDeviceLocationColumns(conditions.get(0).getKey())) {
-                andColumns.add(conditions.get(0));
-            } else {
-                otherANDColumns.add(conditions.get(0));
-            }
-        } else {
-            for (Condition con : conditions) {
-                if (Constants.LOCATION.equalsIgnoreCase(con.getKey())) {
-                    locCondition = con;
-                } else if (Utils.checkDeviceDetailsColumns(con.getKey()) ||
-                        Utils.checkDeviceLocationColumns(con.getKey())) {
-                    if (con.getState().equals(Condition.State.AND)) {
-                        andColumns.add(con);
-                    } else if (con.getState().equals(Condition.State.OR)) {
-                        orColumns.add(con);
-                    } else {
-                        throw new InvalidOperatorException(con.getState() + " is not a valid operator.");
-                    }
-                } else {
-                    if (con.getState().equals(Condition.State.AND)) {
-                        otherANDColumns.add(con);
-                    } else if (con.getState().equals(Condition.State.OR)) {
-                        otherORColumns.add(con);
-                    } else {
-                        throw new InvalidOperatorException(con.getState() + " is not a valid operator.");
-                    }
-                }
-            }
-        }
+        Condition locCondition = this.classifyConditions(conditions, andColumns, orColumns, otherANDColumns,
+                otherORColumns);
 
         Map<String, List<QueryHolder>> queries = new HashMap<>();
         if ((!andColumns.isEmpty()) || (!orColumns.isEmpty())) {
@@ -258,6 +225,186 @@ public class QueryBuilderImpl implements QueryBuilder {
         }
     }
 
+    @Override
+    public QueryHolder buildSearchQuery(List<Condition> conditions, String owner, int afterDeviceId)
+            throws InvalidOperatorException {
+        List<Condition> andColumns = new ArrayList<>();
+        List<Condition> orColumns = new ArrayList<>();
+        List<Condition> otherANDColumns = new ArrayList<>();
+        List<Condition> otherORColumns = new ArrayList<>();
+        Condition locCondition = this.classifyConditions(conditions, andColumns, orColumns, otherANDColumns,
+                otherORColumns);
+
+        ValueType[] tenantType = new ValueType[1];
+        StringBuilder query = new StringBuilder(this.getGenericQueryPart(tenantType));
+        List<ValueType> types = new ArrayList<>();
+        types.add(tenantType[0]);
+
+        // Device detail conditions and AND property conditions are intersected, the other conditions are united
+        List<String> intersection = new ArrayList<>();
+        for (Condition con : andColumns) {
+            intersection.add(this.getColumnCondition(con, types));
+        }
+        if (!orColumns.isEmpty()) {
+            List<String> union = new ArrayList<>();
+            for (Condition con : orColumns) {
+                union.add(this.getColumnCondition(con, types));
+            }
+            intersection.add("(" + this.join(union, " OR ") + ")");
+        }
+        for (Condition con : otherANDColumns) {
+            intersection.add(this.getPropertyCondition(con, types));
+        }
+        List<String> union = new ArrayList<>();
+        if (!intersection.isEmpty()) {
+            union.add("(" + this.join(intersection, " AND ") + ")");
+        }
+        for (Condition con : otherORColumns) {
+            union.add(this.getPropertyCondition(con, types));
+        }
+        if (locCondition != null && locCondition.getValue() != null) {
+            ValueType value = new ValueType();
+            value.setColumnType(ValueType.columnType.STRING);
+            value.setStringValue("%" + locCondition.getValue() + "%");
+            for (int i = 0; i < 6; i++) {
+                types.add(value);
+            }
+            union.add("(DL.STREET1 LIKE ? OR DL.STREET2 LIKE ? OR DL.CITY LIKE ? OR DL.STATE LIKE ? OR " +
+                    "DL.COUNTRY LIKE ? OR DL.ZIP LIKE ?)");
+        }
+        if (union.isEmpty()) {
+            return null;
+        }
+        query.append(" AND (").append(this.join(union, " OR ")).append(")");
+        if (owner != null) {
+            query.append(" AND DE.OWNER = ?");
+            ValueType ownerType = new ValueType();
+            ownerType.setColumnType(ValueType.columnType.STRING);
+            ownerType.setStringValue(owner);
+            types.add(ownerType);
+        }
+        // Pages are read by the last device id of the previous page, which the index on the id seeks to
+        if (afterDeviceId > 0) {
+            query.append(" AND D.ID > ?");
+            ValueType idType = new ValueType();
+            idType.setColumnType(ValueType.columnType.INTEGER);
+            idType.setIntValue(afterDeviceId);
+            types.add(idType);
+        }
+        query.append(" ORDER BY D.ID");
+
+        QueryHolder queryHolder = new QueryHolder();
+        queryHolder.setQuery(query.toString());
+        queryHolder.setTypes(types.toArray(new ValueType[types.size()]));
+        if (log.isDebugEnabled()) {
+            log.debug("Search Query : " + queryHolder.getQuery());
+        }
+        return queryHolder;
+    }
+
+    private String getColumnCondition(Condition con, List<ValueType> types) throws InvalidOperatorException {
+        try {
+            if (Utils.checkDeviceDetailsColumns(con.getKey())) {
+                String column = "DD." + Utils.getDeviceDetailsColumnNames().get(con.getKey());
+                if (con.operator.equals(WILDCARD_OPERATOR)) {
+                    ValueType type = new ValueType();
+                    type.setColumnType(ValueType.columnType.STRING);
+                    type.setStringValue("%" + con.getValue() + "%");
+                    types.add(type);
+                    return column + " LIKE ?";
+                }
+                types.add(this.getValueType(con));
+                return column + " " + con.getOperator() + " ?";
+            }
+            ValueType type = new ValueType();
+            type.setColumnType(ValueType.columnType.STRING);
+            type.setStringValue(con.getValue());
+            types.add(type);
+            return "DL." + Utils.getDeviceLocationColumnNames().get(con.getKey().toLowerCase()) + " " +
+                    con.getOperator() + " ?";
+        } catch (Exception e) {
+            throw new InvalidOperatorException("Error occurred while building the sql", e);
+        }
+    }
+
+    private String getPropertyCondition(Condition con, List<ValueType> types) {
+        ValueType key = new ValueType();
+        key.setColumnType(ValueType.columnType.STRING);
+        key.setStringValue(con.getKey());
+        types.add(key);
+
+        ValueType value = new ValueType();
+        value.setColumnType(ValueType.columnType.STRING);
+        String operator;
+        if (WILDCARD_OPERATOR.equals(con.getOperator())) {
+            operator = "LIKE";
+            value.setStringValue("%" + con.getValue() + "%");
+        } else {
+            operator = con.getOperator();
+            value.setStringValue(con.getValue());
+        }
+        types.add(value);
+        return "EXISTS (SELECT 1 FROM DM_DEVICE_INFO DI WHERE DI.DEVICE_ID = D.ID AND DI.KEY_FIELD = ? AND " +
+                "DI.VALUE_FIELD " + operator + " ?)";
+    }
+
+    private String join(List<String> parts, String separator) {
+        StringBuilder joined = new StringBuilder();
+        for (String part : parts) {
+            if (joined.length() > 0) {
+                joined.append(separator);
+            }
+            joined.append(part);
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Splits the conditions into device detail and property conditions of each state. A single condition is always
+     * treated as an AND condition.
+     *
+     * @return location condition, or an empty condition if there is none.
+     */
+    private Condition classifyConditions(List<Condition> conditions, List<Condition> andColumns,
+                                         List<Condition> orColumns, List<Condition> otherANDColumns,
+                                         List<Condition> otherORColumns) throws InvalidOperatorException {
+        Condition locCondition = new Condition();
+        if (conditions.size() == 1) {
+            if (Constants.LOCATION.equalsIgnoreCase(conditions.get(0).getKey())) {
+                locCondition = conditions.get(0);
+            } else if (Utils.checkDeviceDetailsColumns(conditions.get(0).getKey()) ||
+                    Utils.checkDeviceLocationColumns(conditions.get(0).getKey())) {
+                andColumns.add(conditions.get(0));
+            } else {
+                otherANDColumns.add(conditions.get(0));
+            }
+        } else {
+            for (Condition con : conditions) {
+                if (Constants.LOCATION.equalsIgnoreCase(con.getKey())) {
+                    locCondition = con;
+                } else if (Utils.checkDeviceDetailsColumns(con.getKey()) ||
+                        Utils.checkDeviceLocationColumns(con.getKey())) {
+                    if (con.getState().equals(Condition.State.AND)) {
+                        andColumns.add(con);
+                    } else if (con.getState().equals(Condition.State.OR)) {
+                        orColumns.add(con);
+                    } else {
+                        throw new InvalidOperatorException(con.getState() + " is not a valid operator.");
+                    }
+                } else {
+                    if (con.getState().equals(Condition.State.AND)) {
+                        otherANDColumns.add(con);
+                    } else if (con.getState().equals(Condition.State.OR)) {
+                        otherORColumns.add(con);
+                    } else {
+                        throw new InvalidOperatorException(con.getState() + " is not a valid operator.");
+                    }
+                }
+            }
+        }
+        return locCondition;
+    }
+
     private List<QueryHolder> getQueryList(List<Condition> conditions) throws InvalidOperatorException {
         try {
             List<QueryHolder> queryHolders = new ArrayList<>();
@@ -331,8 +478,8 @@ public class QueryBuilderImpl implements QueryBuilder {
                     "DD.EXTERNAL_TOTAL_MEMORY, DD.EXTERNAL_AVAILABLE_MEMORY, DD.CONNECTION_TYPE, \n" +
                     "DD.SSID, DD.CPU_USAGE, DD.TOTAL_RAM_MEMORY, DD.AVAILABLE_RAM_MEMORY, \n" +
                     "DD.PLUGGED_IN, DD.UPDATE_TIMESTAMP, DL.LATITUDE, DL.LONGITUDE, DL.STREET1, DL.STREET2, DL.CITY, DL.ZIP, \n" +
-                    "DL.STATE, DL.COUNTRY, DL.UPDATE_TIMESTAMP AS DL_UPDATED_TIMESTAMP, DE.OWNER, DE.OWNERSHIP, DE.STATUS " +
-                    "AS DE_STATUS FROM DM_DEVICE_DETAIL DD INNER JOIN DM_DEVICE D ON D.ID=DD.DEVICE_ID\n" +
+                    "DL.STATE, DL.COUNTRY, DL.UPDATE_TIMESTAMP AS DL_UPDATED_TIMESTAMP, DE.ID AS ENROLMENT_ID, DE.OWNER, " +
+                    "DE.OWNERSHIP, DE.STATUS AS DE_STATUS FROM DM_DEVICE_DETAIL DD INNER JOIN DM_DEVICE D ON D.ID=DD.DEVICE_ID\n" +
                     "LEFT JOIN DM_DEVICE_LOCATION DL ON DL.DEVICE_ID=D.ID \n" +
                     "INNER JOIN DM_DEVICE_TYPE DT ON DT.ID=D.DEVICE_TYPE_ID\n" +
                     "INNER JOIN DM_ENROLMENT DE ON D.ID=DE.DEVICE_ID\n" +
@@ -359,7 +506,7 @@ public class QueryBuilderImpl implements QueryBuilder {
                     "DD.SSID, DD.CPU_USAGE, DD.TOTAL_RAM_MEMORY, DD.AVAILABLE_RAM_MEMORY, \n" +
                     "DD.PLUGGED_IN, DD.UPDATE_TIMESTAMP, DL.LATITUDE, DL.LONGITUDE, DL.STREET1, DL.STREET2, DL.CITY, DL.ZIP, \n" +
                     "DL.STATE, DL.COUNTRY, DL.UPDATE_TIMESTAMP AS DL_UPDATED_TIMESTAMP, DI.KEY_FIELD, DI.VALUE_FIELD, \n" +
-                    "DE.OWNER, DE.OWNERSHIP, DE.STATUS AS DE_STATUS " +
+                    "DE.ID AS ENROLMENT_ID, DE.OWNER, DE.OWNERSHIP, DE.STATUS AS DE_STATUS " +
                     "FROM DM_DEVICE_DETAIL DD INNER JOIN DM_DEVICE D ON  D.ID=DD.DEVICE_ID\n" +
                     "LEFT JOIN DM_DEVICE_LOCATION DL ON DL.DEVICE_ID=D.ID  \n" +
                     "INNER JOIN DM_DEVICE_TYPE DT ON DT.ID=D.DEVICE_TYPE_ID\n" +
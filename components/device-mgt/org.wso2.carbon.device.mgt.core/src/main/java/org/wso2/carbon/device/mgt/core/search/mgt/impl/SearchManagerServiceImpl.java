@@ -40,6 +40,12 @@ public class SearchManagerServiceImpl implements SearchManagerService {
         return processor.execute(searchContext);
     }
 
+    @Override
+    public List<Device> search(SearchContext searchContext, int afterDeviceId, int limit)
+            throws SearchMgtException {
+        return processor.execute(searchContext, afterDeviceId, limit);
+    }
+
     @Override
     public List<Device> getUpdated(long epochTime) throws SearchMgtException {
         return processor.getUpdatedDevices(epochTime);
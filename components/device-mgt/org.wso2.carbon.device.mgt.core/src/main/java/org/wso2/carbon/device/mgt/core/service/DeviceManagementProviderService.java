@@ -36,9 +36,11 @@ import org.wso2.carbon.device.mgt.common.policy.mgt.PolicyMonitoringManager;
 import org.wso2.carbon.device.mgt.common.pull.notification.PullNotificationExecutionFailedException;
 import org.wso2.carbon.device.mgt.common.push.notification.NotificationStrategy;
 import org.wso2.carbon.device.mgt.common.spi.DeviceManagementService;
+import org.wso2.carbon.device.mgt.core.cache.DeviceCacheStatistics;
 import org.wso2.carbon.device.mgt.core.dto.DeviceType;
 import org.wso2.carbon.device.mgt.core.geo.GeoCluster;
 import org.wso2.carbon.device.mgt.core.geo.geoHash.GeoCoordinate;
+import org.wso2.carbon.device.mgt.core.push.notification.mgt.PushNotificationDispatcherStatistics;
 
 import java.util.Date;
 import java.util.HashMap;
@@ -72,6 +74,19 @@ public interface DeviceManagementProviderService {
      */
     List<Device> getAllDevices(String deviceType, boolean requireDeviceInfo) throws DeviceManagementException;
 
+    /**
+     * Method to retrieve a page of the devices of a given device type, in the order of their enrolment ids. The next
+     * page starts after the enrolment id of the last device of the previous page.
+     *
+     * @param deviceType      Device-type of the required devices
+     * @param lastEnrolmentId Enrolment id of the last device of the previous page, or 0 for the first page
+     * @param limit           Maximum number of devices to return
+     * @return List of devices of the page, without the device-info.
+     * @throws DeviceManagementException If some unusual behaviour is observed while fetching the
+     *                                   devices.
+     */
+    List<Device> getDevices(String deviceType, int lastEnrolmentId, int limit) throws DeviceManagementException;
+
     /**
      * Method to retrieve all the devices registered in the system.
      *
@@ -186,6 +201,15 @@ public interface DeviceManagementProviderService {
      */
     Device getDevice(DeviceIdentifier deviceId, boolean requireDeviceInfo) throws DeviceManagementException;
 
+    /**
+     * Returns the devices of the given identifiers, reading the devices which are not cached in bulk.
+     *
+     * @param deviceIds identifiers of the devices.
+     * @return devices of the identifiers which belong to an enrolled device, in no particular order.
+     * @throws DeviceManagementException If some unusual behaviour is observed while fetching the devices
+     */
+    List<Device> getDevices(List<DeviceIdentifier> deviceIds) throws DeviceManagementException;
+
     /**
      * Returns the device of specified id owned by user with given username.
      *
@@ -627,4 +651,17 @@ public interface DeviceManagementProviderService {
 
     List<GeoCluster> findGeoClusters(GeoCoordinate southWest, GeoCoordinate northEast,
                                             int geohashLength) throws DeviceManagementException;
+
+    /**
+     * This retrieves the statistics of the device cache of this node.
+     * @return hit, miss and eviction counts of the device cache since the node was started.
+     */
+    DeviceCacheStatistics getDeviceCacheStatistics();
+
+    /**
+     * This retrieves the statistics of the push notification dispatcher of this node.
+     * @return sent, retried, failed and rejected counts, latencies and queue depths of the dispatcher since the node
+     * was started, or null if the dispatcher is disabled.
+     */
+    PushNotificationDispatcherStatistics getPushNotificationDispatcherStatistics();
 }
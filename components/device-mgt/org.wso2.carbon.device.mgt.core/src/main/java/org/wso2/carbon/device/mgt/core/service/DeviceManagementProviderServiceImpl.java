@@ -60,6 +60,9 @@ import org.wso2.carbon.device.mgt.common.push.notification.NotificationStrategy;
 import org.wso2.carbon.device.mgt.common.spi.DeviceManagementService;
 import org.wso2.carbon.device.mgt.core.DeviceManagementConstants;
 import org.wso2.carbon.device.mgt.core.DeviceManagementPluginRepository;
+import org.wso2.carbon.device.mgt.core.cache.DeviceCacheKey;
+import org.wso2.carbon.device.mgt.core.cache.DeviceCacheManager;
+import org.wso2.carbon.device.mgt.core.cache.DeviceCacheStatistics;
 import org.wso2.carbon.device.mgt.core.cache.impl.DeviceCacheManagerImpl;
 import org.wso2.carbon.device.mgt.core.dao.ApplicationDAO;
 import org.wso2.carbon.device.mgt.core.dao.DeviceDAO;
@@ -77,6 +80,8 @@ import org.wso2.carbon.device.mgt.core.internal.DeviceManagementDataHolder;
 import org.wso2.carbon.device.mgt.core.internal.DeviceManagementServiceComponent;
 import org.wso2.carbon.device.mgt.core.internal.PluginInitializationListener;
 import org.wso2.carbon.device.mgt.core.operation.mgt.CommandOperation;
+import org.wso2.carbon.device.mgt.core.push.notification.mgt.PushNotificationDispatcher;
+import org.wso2.carbon.device.mgt.core.push.notification.mgt.PushNotificationDispatcherStatistics;
 import org.wso2.carbon.device.mgt.core.util.DeviceManagerUtil;
 import org.wso2.carbon.email.sender.core.ContentProviderInfo;
 import org.wso2.carbon.email.sender.core.EmailContext;
@@ -103,6 +108,8 @@ public class DeviceManagementProviderServiceImpl implements DeviceManagementProv
 
     private static Log log = LogFactory.getLog(DeviceManagementProviderServiceImpl.class);
     private static final String OPERATION_RESPONSE_EVENT_STREAM_DEFINITION = "org.wso2.iot.OperationResponseStream";
+    // Upper bound of the IN-list of the bulk device info queries, kept below the limits of the supported databases
+    private static final int DEVICE_INFO_BATCH_SIZE = 500;
     private DeviceDAO deviceDAO;
     private DeviceDetailsDAO deviceInfoDAO;
     private DeviceTypeDAO deviceTypeDAO;
@@ -260,6 +267,7 @@ public class DeviceManagementProviderServiceImpl implements DeviceManagementProv
                     int deviceId = deviceDAO.addDevice(type.getId(), device, tenantId);
                     enrolmentId = enrollmentDAO.addEnrollment(deviceId, device.getEnrolmentInfo(), tenantId);
                     DeviceManagementDAOFactory.commitTransaction();
+                    this.removeDeviceFromCache(deviceIdentifier);
                 } else {
                     DeviceManagementDAOFactory.rollbackTransaction();
                     throw new DeviceManagementException("No device type registered with name - " + device.getType()
@@ -531,6 +539,35 @@ public class DeviceManagementProviderServiceImpl implements DeviceManagementProv
         return allDevices;
     }
 
+    @Override
+    public List<Device> getDevices(String deviceType, int lastEnrolmentId, int limit)
+            throws DeviceManagementException {
+        if (deviceType == null) {
+            String msg = "Device type is empty for method getDevices";
+            log.error(msg);
+            throw new DeviceManagementException(msg);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Getting " + limit + " devices of type '" + deviceType + "' after the enrolment " +
+                    lastEnrolmentId);
+        }
+        try {
+            DeviceManagementDAOFactory.openConnection();
+            return deviceDAO.getDevices(deviceType, lastEnrolmentId, limit, this.getTenantId());
+        } catch (DeviceManagementDAOException e) {
+            String msg = "Error occurred while retrieving the devices of type '" + deviceType +
+                    "' enrolled after the enrolment " + lastEnrolmentId;
+            log.error(msg);
+            throw new DeviceManagementException(msg, e);
+        } catch (SQLException e) {
+            String msg = "Error occurred while opening a connection to the data source";
+            log.error(msg, e);
+            throw new DeviceManagementException(msg, e);
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+    }
+
     @Override
     public List<Device> getAllDevices() throws DeviceManagementException {
         return this.getAllDevices(true);
@@ -737,6 +774,9 @@ public class DeviceManagementProviderServiceImpl implements DeviceManagementProv
         int tenantId = this.getTenantId();
         Device device = this.getDeviceFromCache(deviceId);
         if (device == null) {
+            if (DeviceCacheManagerImpl.getInstance().isUnknownDevice(deviceId, tenantId)) {
+                return null;
+            }
             try {
                 DeviceManagementDAOFactory.openConnection();
                 device = deviceDAO.getDevice(deviceId, tenantId);
@@ -746,6 +786,7 @@ public class DeviceManagementProviderServiceImpl implements DeviceManagementProv
                     if (log.isDebugEnabled()) {
                         log.debug(msg);
                     }
+                    DeviceCacheManagerImpl.getInstance().addUnknownDeviceToCache(deviceId, tenantId);
                     return null;
                 }
                 this.addDeviceToCache(deviceId, device);
@@ -771,6 +812,68 @@ public class DeviceManagementProviderServiceImpl implements DeviceManagementProv
         return device;
     }
 
+    @Override
+    public List<Device> getDevices(List<DeviceIdentifier> deviceIds) throws DeviceManagementException {
+        if (deviceIds == null) {
+            String msg = "Received null device identifier list for method getDevices";
+            log.error(msg);
+            throw new DeviceManagementException(msg);
+        }
+        int tenantId = this.getTenantId();
+        List<DeviceCacheKey> cacheKeys = new ArrayList<>(deviceIds.size());
+        for (DeviceIdentifier deviceId : deviceIds) {
+            cacheKeys.add(new DeviceCacheKey(deviceId.getId(), deviceId.getType(), tenantId));
+        }
+        DeviceCacheManager deviceCacheManager = DeviceCacheManagerImpl.getInstance();
+        Map<DeviceCacheKey, Device> cachedDevices = deviceCacheManager.getDevicesFromCache(cacheKeys);
+        List<Device> devices = new ArrayList<>(cachedDevices.values());
+
+        Map<String, List<String>> deviceIdsByType = new HashMap<>();
+        for (DeviceCacheKey cacheKey : cacheKeys) {
+            if (cachedDevices.containsKey(cacheKey)) {
+                continue;
+            }
+            List<String> ids = deviceIdsByType.get(cacheKey.getDeviceType());
+            if (ids == null) {
+                ids = new ArrayList<>();
+                deviceIdsByType.put(cacheKey.getDeviceType(), ids);
+            }
+            ids.add(cacheKey.getDeviceId());
+        }
+        if (deviceIdsByType.isEmpty()) {
+            return devices;
+        }
+        List<Device> loadedDevices = new ArrayList<>();
+        int batchSize = DeviceManagementConstants.OperationAttributes.DEVICE_ID_BATCH_SIZE;
+        try {
+            DeviceManagementDAOFactory.openConnection();
+            for (Map.Entry<String, List<String>> entry : deviceIdsByType.entrySet()) {
+                List<String> ids = entry.getValue();
+                for (int i = 0; i < ids.size(); i += batchSize) {
+                    loadedDevices.addAll(deviceDAO.getDevices(entry.getKey(),
+                            ids.subList(i, Math.min(i + batchSize, ids.size())), tenantId));
+                }
+            }
+        } catch (DeviceManagementDAOException e) {
+            String msg = "Error occurred while obtaining the devices of the given identifiers";
+            log.error(msg, e);
+            throw new DeviceManagementException(msg, e);
+        } catch (SQLException e) {
+            String msg = "Error occurred while opening a connection to the data source";
+            log.error(msg, e);
+            throw new DeviceManagementException(msg, e);
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+        deviceCacheManager.addDevicesToCache(loadedDevices, tenantId);
+        devices.addAll(loadedDevices);
+        if (devices.size() < deviceIds.size() && log.isDebugEnabled()) {
+            log.debug((deviceIds.size() - devices.size()) + " of the given device identifiers did not resolve " +
+                    "to an enrolled device.");
+        }
+        return devices;
+    }
+
     @Override
     public Device getDevice(DeviceIdentifier deviceId, String owner, boolean requireDeviceInfo)
             throws DeviceManagementException {
@@ -2538,34 +2641,107 @@ public class DeviceManagementProviderServiceImpl implements DeviceManagementProv
 
     /**
      * Returns all the available information (device-info, location, applications and plugin-db data)
-     * of the given device list.
+     * of the given device list. The information is read in bulk, a few queries per batch of devices rather than
+     * a few queries per device.
      */
     private List<Device> getAllDeviceInfo(List<Device> allDevices) throws DeviceManagementException {
         if (log.isDebugEnabled()) {
             log.debug("Get all device info of devices, num of devices: " + allDevices.size());
         }
-        List<Device> devices = new ArrayList<>();
+        for (int from = 0; from < allDevices.size(); from += DEVICE_INFO_BATCH_SIZE) {
+            List<Device> batch = allDevices.subList(from, Math.min(from + DEVICE_INFO_BATCH_SIZE, allDevices.size()));
+            this.populateDeviceInfo(batch);
+        }
+
+        Map<String, List<Device>> devicesOfType = new HashMap<>();
         for (Device device : allDevices) {
-            device.setDeviceInfo(this.getDeviceInfo(device));
-            device.setApplications(this.getInstalledApplications(device));
-            DeviceManager deviceManager = this.getDeviceManager(device.getType());
+            List<Device> devices = devicesOfType.get(device.getType());
+            if (devices == null) {
+                devices = new ArrayList<>();
+                devicesOfType.put(device.getType(), devices);
+            }
+            devices.add(device);
+        }
+        for (Map.Entry<String, List<Device>> entry : devicesOfType.entrySet()) {
+            DeviceManager deviceManager = this.getDeviceManager(entry.getKey());
             if (deviceManager == null) {
                 if (log.isDebugEnabled()) {
-                    log.debug("Device Manager associated with the device type '" + device.getType() + "' is null. " +
-                            "Therefore, not attempting method 'isEnrolled'");
+                    log.debug("Device Manager associated with the device type '" + entry.getKey() + "' is null. " +
+                            "Therefore, not attempting method 'getDevices'");
                 }
-                devices.add(device);
                 continue;
             }
-            Device dmsDevice =
-                    deviceManager.getDevice(new DeviceIdentifier(device.getDeviceIdentifier(), device.getType()));
-            if (dmsDevice != null) {
-                device.setFeatures(dmsDevice.getFeatures());
-                device.setProperties(dmsDevice.getProperties());
+            List<DeviceIdentifier> deviceIdentifiers = new ArrayList<>();
+            for (Device device : entry.getValue()) {
+                deviceIdentifiers.add(new DeviceIdentifier(device.getDeviceIdentifier(), device.getType()));
+            }
+            Map<String, Device> dmsDevices = new HashMap<>();
+            for (Device dmsDevice : deviceManager.getDevices(deviceIdentifiers)) {
+                dmsDevices.put(dmsDevice.getDeviceIdentifier(), dmsDevice);
+            }
+            for (Device device : entry.getValue()) {
+                Device dmsDevice = dmsDevices.get(device.getDeviceIdentifier());
+                if (dmsDevice != null) {
+                    device.setFeatures(dmsDevice.getFeatures());
+                    device.setProperties(dmsDevice.getProperties());
+                }
             }
-            devices.add(device);
         }
-        return devices;
+        return new ArrayList<>(allDevices);
+    }
+
+    /**
+     * Sets the device-info, location and installed applications of the given devices, reading each of them for
+     * all the devices with a single query.
+     */
+    private void populateDeviceInfo(List<Device> devices) throws DeviceManagementException {
+        List<Integer> enrolmentIds = new ArrayList<>();
+        for (Device device : devices) {
+            enrolmentIds.add(device.getEnrolmentInfo().getId());
+        }
+        Map<Integer, DeviceInfo> deviceInfoMap;
+        Map<Integer, DeviceLocation> locations;
+        Map<Integer, List<Application>> applications;
+        try {
+            DeviceManagementDAOFactory.openConnection();
+            deviceInfoMap = deviceInfoDAO.getDeviceInformation(enrolmentIds);
+            locations = deviceInfoDAO.getDeviceLocations(enrolmentIds);
+            applications = applicationDAO.getInstalledApplications(enrolmentIds);
+        } catch (DeviceDetailsMgtDAOException e) {
+            String msg = "Error occurred while retrieving advance info of " + devices.size() + " devices";
+            log.error(msg, e);
+            throw new DeviceManagementException(msg, e);
+        } catch (DeviceManagementDAOException e) {
+            String msg = "Error occurred while retrieving the application lists of " + devices.size() + " devices";
+            log.error(msg, e);
+            throw new DeviceManagementException(msg, e);
+        } catch (SQLException e) {
+            String msg = "Error occurred while opening a connection to the data source";
+            log.error(msg, e);
+            throw new DeviceManagementException(msg, e);
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+
+        for (Device device : devices) {
+            int enrolmentId = device.getEnrolmentInfo().getId();
+            // Same as getDeviceInfo, a device without a stored location still gets an empty location.
+            DeviceLocation location = locations.get(enrolmentId);
+            if (location == null) {
+                location = new DeviceLocation();
+            }
+            location.setDeviceId(device.getId());
+            DeviceInfo info = deviceInfoMap.get(enrolmentId);
+            if (info == null) {
+                info = new DeviceInfo();
+            }
+            info.setLocation(location);
+            device.setDeviceInfo(info);
+
+            List<Application> installedApplications = applications.get(enrolmentId);
+            device.setApplications(installedApplications != null ? installedApplications :
+                    new ArrayList<Application>());
+        }
     }
 
     /**
@@ -2601,6 +2777,18 @@ public class DeviceManagementProviderServiceImpl implements DeviceManagementProv
         return device;
     }
 
+    @Override
+    public DeviceCacheStatistics getDeviceCacheStatistics() {
+        return DeviceCacheManagerImpl.getInstance().getStatistics();
+    }
+
+    @Override
+    public PushNotificationDispatcherStatistics getPushNotificationDispatcherStatistics() {
+        PushNotificationDispatcher dispatcher = DeviceManagementDataHolder.getInstance()
+                .getPushNotificationDispatcher();
+        return dispatcher == null ? null : dispatcher.getStatistics();
+    }
+
     private Device getDeviceFromCache(DeviceIdentifier deviceIdentifier) {
         return DeviceCacheManagerImpl.getInstance().getDeviceFromCache(deviceIdentifier, this.getTenantId());
     }
@@ -28,8 +28,10 @@ import org.wso2.carbon.device.mgt.common.group.mgt.GroupAlreadyExistException;
 import org.wso2.carbon.device.mgt.common.group.mgt.GroupManagementException;
 import org.wso2.carbon.device.mgt.common.group.mgt.GroupNotExistException;
 import org.wso2.carbon.device.mgt.common.group.mgt.RoleDoesNotExistException;
+import org.wso2.carbon.device.mgt.core.cache.GroupCacheStatistics;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface for Group Management Services
@@ -176,7 +178,8 @@ public interface GroupManagementProviderService {
     int getDeviceCount(int groupId) throws GroupManagementException;
 
     /**
-     * Add device to device group.
+     * Add device to device group. Devices are added in batches, each committed in a transaction of its own, hence
+     * the batches added before a failure remain in the group.
      *
      * @param groupId   of the group.
      * @param deviceIdentifiers of devices.
@@ -186,7 +189,8 @@ public interface GroupManagementProviderService {
             throws GroupManagementException, DeviceNotFoundException;
 
     /**
-     * Remove device from device group.
+     * Remove device from device group. Devices are removed in batches, each committed in a transaction of its own,
+     * hence the batches removed before a failure remain removed.
      *
      * @param groupId   of the group.
      * @param deviceIdentifiers of devices.
@@ -204,6 +208,16 @@ public interface GroupManagementProviderService {
      */
     List<DeviceGroup> getGroups(String username, String permission) throws GroupManagementException;
 
+    /**
+     * Get ids of the device groups of user with permission.
+     *
+     * @param username   of the user.
+     * @param permission to filter.
+     * @return ids of the groups with specified permissions.
+     * @throws GroupManagementException
+     */
+    List<Integer> getGroupIds(String username, String permission) throws GroupManagementException;
+
     /**
      * Get groups which contains particular device.
      *
@@ -213,6 +227,15 @@ public interface GroupManagementProviderService {
      */
     List<DeviceGroup> getGroups(DeviceIdentifier deviceIdentifier) throws GroupManagementException;
 
+    /**
+     * Get the ids of the groups which contain each of the given devices.
+     *
+     * @param deviceIds ids of the devices.
+     * @return group ids keyed by device id, devices which do not belong to a group are not included.
+     * @throws GroupManagementException
+     */
+    Map<Integer, List<Integer>> getGroupIdsOfDevices(List<Integer> deviceIds) throws GroupManagementException;
+
     /**
      * Checks for the default group existence and create group based on device ownership.
      * @param groupName of the group
@@ -230,4 +253,10 @@ public interface GroupManagementProviderService {
      */
     boolean isDeviceMappedToGroup(int groupId, DeviceIdentifier deviceIdentifier) throws GroupManagementException;
 
+    /**
+     * This retrieves the statistics of the group cache of this node.
+     * @return hit, miss and invalidation counts of the group cache since the node was started.
+     */
+    GroupCacheStatistics getGroupCacheStatistics();
+
 }
@@ -36,6 +36,10 @@ import org.wso2.carbon.device.mgt.common.group.mgt.GroupAlreadyExistException;
 import org.wso2.carbon.device.mgt.common.group.mgt.GroupManagementException;
 import org.wso2.carbon.device.mgt.common.group.mgt.GroupNotExistException;
 import org.wso2.carbon.device.mgt.common.group.mgt.RoleDoesNotExistException;
+import org.wso2.carbon.device.mgt.core.DeviceManagementConstants;
+import org.wso2.carbon.device.mgt.core.cache.GroupCacheManager;
+import org.wso2.carbon.device.mgt.core.cache.GroupCacheStatistics;
+import org.wso2.carbon.device.mgt.core.cache.impl.GroupCacheManagerImpl;
 import org.wso2.carbon.device.mgt.core.dao.GroupDAO;
 import org.wso2.carbon.device.mgt.core.dao.GroupManagementDAOException;
 import org.wso2.carbon.device.mgt.core.dao.GroupManagementDAOFactory;
@@ -48,20 +52,25 @@ import org.wso2.carbon.user.api.UserStoreManager;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class GroupManagementProviderServiceImpl implements GroupManagementProviderService {
 
     private static Log log = LogFactory.getLog(GroupManagementProviderServiceImpl.class);
 
     private GroupDAO groupDAO;
+    private GroupCacheManager groupCacheManager;
 
     /**
      * Set groupDAO from GroupManagementDAOFactory when class instantiate.
      */
     public GroupManagementProviderServiceImpl() {
         this.groupDAO = GroupManagementDAOFactory.getGroupDAO();
+        this.groupCacheManager = GroupCacheManagerImpl.getInstance();
     }
 
     /**
@@ -85,6 +94,7 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
             if (existingGroup == null) {
                 this.groupDAO.addGroup(deviceGroup, tenantId);
                 GroupManagementDAOFactory.commitTransaction();
+                groupCacheManager.clearPermittedGroupIds();
             } else {
                 throw new GroupAlreadyExistException("Group exist with name " + deviceGroup.getName());
             }
@@ -133,6 +143,8 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
             if (existingGroup != null) {
                 this.groupDAO.updateGroup(deviceGroup, groupId, tenantId);
                 GroupManagementDAOFactory.commitTransaction();
+                // The owner may have changed, and the groups of a user include the groups the user owns
+                groupCacheManager.clearPermittedGroupIds();
             } else {
                 throw new GroupNotExistException("Group with ID - '" + groupId + "' doesn't exists!");
             }
@@ -168,10 +180,13 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
         if (deviceGroup == null) {
             return false;
         }
+        int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
         try {
             GroupManagementDAOFactory.beginTransaction();
-            this.groupDAO.deleteGroup(groupId, CarbonContext.getThreadLocalCarbonContext().getTenantId());
+            this.groupDAO.deleteGroup(groupId, tenantId);
             GroupManagementDAOFactory.commitTransaction();
+            groupCacheManager.removeGroupRolesFromCache(groupId, tenantId);
+            groupCacheManager.clearPermittedGroupIds();
             if (log.isDebugEnabled()) {
                 log.debug("DeviceGroup " + deviceGroup.getName() + " removed.");
             }
@@ -549,6 +564,8 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
                 groupDAO.removeRole(groupId, role, tenantId);
             }
             GroupManagementDAOFactory.commitTransaction();
+            groupCacheManager.removeGroupRolesFromCache(groupId, tenantId);
+            groupCacheManager.clearPermittedGroupIds();
         } catch (GroupManagementDAOException e) {
             GroupManagementDAOFactory.rollbackTransaction();
             log.error(e);
@@ -573,10 +590,15 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
         if (log.isDebugEnabled()) {
             log.debug("Group roles for group: " + groupId);
         }
+        int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+        long generation = groupCacheManager.getGeneration(tenantId);
+        List<String> roles = groupCacheManager.getGroupRolesFromCache(groupId, tenantId);
+        if (roles != null) {
+            return roles;
+        }
         try {
-            int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
             GroupManagementDAOFactory.openConnection();
-            return groupDAO.getRoles(groupId, tenantId);
+            roles = groupDAO.getRoles(groupId, tenantId);
         } catch (GroupManagementDAOException | SQLException e) {
             String msg = "Error occurred while retrieving all groups in tenant";
             log.error(msg, e);
@@ -588,6 +610,8 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
         } finally {
             GroupManagementDAOFactory.closeConnection();
         }
+        groupCacheManager.addGroupRolesToCache(groupId, roles, tenantId, generation);
+        return roles;
     }
 
     /**
@@ -652,27 +676,15 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
         if (log.isDebugEnabled()) {
             log.debug("Group devices to the group: " + groupId);
         }
-        Device device;
         try {
             int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
-            GroupManagementDAOFactory.beginTransaction();
-            for (DeviceIdentifier deviceIdentifier : deviceIdentifiers) {
-                device = DeviceManagementDataHolder.getInstance().getDeviceManagementProvider().
-                        getDevice(deviceIdentifier, false);
-                if (device == null) {
-                    throw new DeviceNotFoundException("Device not found for id '" + deviceIdentifier.getId() + "'");
-                }
-                if (!this.groupDAO.isDeviceMappedToGroup(groupId, device.getId(), tenantId)) {
-                    this.groupDAO.addDevice(groupId, device.getId(), tenantId);
-                }
-            }
-            GroupManagementDAOFactory.commitTransaction();
+            List<Integer> deviceIds = this.getDeviceIds(deviceIdentifiers);
+            this.addDevicesInBatches(groupId, deviceIds, tenantId);
         } catch (DeviceManagementException e) {
             String msg = "Error occurred while retrieving device.";
             log.error(msg, e);
             throw new GroupManagementException(msg, e);
         } catch (GroupManagementDAOException e) {
-            GroupManagementDAOFactory.rollbackTransaction();
             String msg = "Error occurred while adding device to group.";
             log.error(msg, e);
             throw new GroupManagementException(msg, e);
@@ -684,6 +696,29 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
             String msg = "Error occurred in addDevices for groupId " + groupId;
             log.error(msg, e);
             throw new GroupManagementException(msg, e);
+        }
+    }
+
+    /**
+     * Maps the devices which are not already mapped to the group. The devices are read and mapped in batches, all in
+     * a single transaction, hence either all the devices are added to the group or none of them.
+     */
+    private void addDevicesInBatches(int groupId, List<Integer> deviceIds, int tenantId)
+            throws GroupManagementDAOException, TransactionManagementException {
+        int batchSize = DeviceManagementConstants.OperationAttributes.DEVICE_ID_BATCH_SIZE;
+        try {
+            GroupManagementDAOFactory.beginTransaction();
+            for (int i = 0; i < deviceIds.size(); i += batchSize) {
+                List<Integer> batch = deviceIds.subList(i, Math.min(i + batchSize, deviceIds.size()));
+                List<Integer> unmappedDeviceIds = new ArrayList<>(batch);
+                unmappedDeviceIds.removeAll(new HashSet<>(this.groupDAO.getDeviceIdsMappedToGroup(groupId, batch,
+                        tenantId)));
+                this.groupDAO.addDevices(groupId, unmappedDeviceIds, tenantId);
+            }
+            GroupManagementDAOFactory.commitTransaction();
+        } catch (GroupManagementDAOException e) {
+            GroupManagementDAOFactory.rollbackTransaction();
+            throw e;
         } finally {
             GroupManagementDAOFactory.closeConnection();
         }
@@ -698,19 +733,10 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
         if (log.isDebugEnabled()) {
             log.debug("Remove devices from the group: " + groupId);
         }
-        Device device;
         try {
             int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
-            GroupManagementDAOFactory.beginTransaction();
-            for (DeviceIdentifier deviceIdentifier : deviceIdentifiers) {
-                device = DeviceManagementDataHolder.getInstance().getDeviceManagementProvider().
-                        getDevice(deviceIdentifier, false);
-                if (device == null) {
-                    throw new DeviceNotFoundException("Device not found for id '" + deviceIdentifier.getId() + "'");
-                }
-                this.groupDAO.removeDevice(groupId, device.getId(), tenantId);
-            }
-            GroupManagementDAOFactory.commitTransaction();
+            List<Integer> deviceIds = this.getDeviceIds(deviceIdentifiers);
+            this.removeDevicesInBatches(groupId, deviceIds, tenantId);
         } catch (DeviceManagementException e) {
             String msg = "Error occurred while retrieving device.";
             log.error(msg, e);
@@ -720,7 +746,6 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
             log.error(msg, e);
             throw new GroupManagementException(msg, e);
         } catch (GroupManagementDAOException e) {
-            GroupManagementDAOFactory.rollbackTransaction();
             String msg = "Error occurred while adding device to group.";
             log.error(msg, e);
             throw new GroupManagementException(msg, e);
@@ -728,11 +753,56 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
             String msg = "Error occurred in removeDevice for groupId: " + groupId;
             log.error(msg, e);
             throw new GroupManagementException(msg, e);
+        }
+    }
+
+    /**
+     * Removes the devices from the group in batches, all in a single transaction, hence either all the devices are
+     * removed from the group or none of them.
+     */
+    private void removeDevicesInBatches(int groupId, List<Integer> deviceIds, int tenantId)
+            throws GroupManagementDAOException, TransactionManagementException {
+        int batchSize = DeviceManagementConstants.OperationAttributes.DEVICE_ID_BATCH_SIZE;
+        try {
+            GroupManagementDAOFactory.beginTransaction();
+            for (int i = 0; i < deviceIds.size(); i += batchSize) {
+                this.groupDAO.removeDevices(groupId, deviceIds.subList(i, Math.min(i + batchSize, deviceIds.size())),
+                        tenantId);
+            }
+            GroupManagementDAOFactory.commitTransaction();
+        } catch (GroupManagementDAOException e) {
+            GroupManagementDAOFactory.rollbackTransaction();
+            throw e;
         } finally {
             GroupManagementDAOFactory.closeConnection();
         }
     }
 
+    /**
+     * Resolves the identifiers to the ids of the devices, reading the devices in bulk.
+     *
+     * @return distinct ids of the devices, in the order of the identifiers.
+     * @throws DeviceNotFoundException if an identifier does not belong to a device.
+     */
+    private List<Integer> getDeviceIds(List<DeviceIdentifier> deviceIdentifiers)
+            throws DeviceManagementException, DeviceNotFoundException {
+        List<Device> devices = DeviceManagementDataHolder.getInstance().getDeviceManagementProvider()
+                .getDevices(deviceIdentifiers);
+        Map<String, Integer> deviceIdsByIdentifier = new HashMap<>();
+        for (Device device : devices) {
+            deviceIdsByIdentifier.put(device.getType() + "/" + device.getDeviceIdentifier(), device.getId());
+        }
+        Set<Integer> deviceIds = new LinkedHashSet<>();
+        for (DeviceIdentifier deviceIdentifier : deviceIdentifiers) {
+            Integer deviceId = deviceIdsByIdentifier.get(deviceIdentifier.getType() + "/" + deviceIdentifier.getId());
+            if (deviceId == null) {
+                throw new DeviceNotFoundException("Device not found for id '" + deviceIdentifier.getId() + "'");
+            }
+            deviceIds.add(deviceId);
+        }
+        return new ArrayList<>(deviceIds);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -742,17 +812,56 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
             log.debug("Get groups of user '" + username + "'");
         }
         List<DeviceGroup> deviceGroups = getGroups(username);
-        Map<Integer, DeviceGroup> permittedDeviceGroups = new HashMap<>();
-        UserRealm userRealm;
+        List<Integer> permittedGroupIds = getPermittedGroupIds(username, permission, deviceGroups);
+        List<DeviceGroup> permittedDeviceGroups = new ArrayList<>();
+        for (DeviceGroup deviceGroup : deviceGroups) {
+            if (permittedGroupIds.contains(deviceGroup.getGroupId())) {
+                permittedDeviceGroups.add(deviceGroup);
+            }
+        }
+        return permittedDeviceGroups;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Integer> getGroupIds(String username, String permission) throws GroupManagementException {
+        if (log.isDebugEnabled()) {
+            log.debug("Get ids of the groups of user '" + username + "' permitted for '" + permission + "'");
+        }
+        return getPermittedGroupIds(username, permission, null);
+    }
+
+    /**
+     * Returns the ids of the groups of the user, which are shared with a role authorized for the permission. The ids
+     * are served from the group cache if present, otherwise they are derived from the given groups of the user, or
+     * from the groups read from the database if none are given, and added to the cache.
+     */
+    private List<Integer> getPermittedGroupIds(String username, String permission, List<DeviceGroup> deviceGroups)
+            throws GroupManagementException {
         int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+        // Taken before the groups are loaded, so that groups loaded before a concurrent change are not cached
+        long generation = groupCacheManager.getGeneration(tenantId);
+        List<Integer> permittedGroupIds = groupCacheManager.getPermittedGroupIdsFromCache(username, permission,
+                tenantId);
+        if (permittedGroupIds != null) {
+            return permittedGroupIds;
+        }
+        if (deviceGroups == null) {
+            deviceGroups = getGroups(username);
+        }
+        permittedGroupIds = new ArrayList<>();
         try {
-            userRealm = DeviceManagementDataHolder.getInstance().getRealmService().getTenantUserRealm(tenantId);
+            UserRealm userRealm = DeviceManagementDataHolder.getInstance().getRealmService()
+                    .getTenantUserRealm(tenantId);
             for (DeviceGroup deviceGroup : deviceGroups) {
                 List<String> roles = getRoles(deviceGroup.getGroupId());
                 for (String roleName : roles) {
                     if (userRealm.getAuthorizationManager().
                             isRoleAuthorized(roleName, permission, CarbonConstants.UI_PERMISSION_ACTION)) {
-                        permittedDeviceGroups.put(deviceGroup.getGroupId(), deviceGroup);
+                        permittedGroupIds.add(deviceGroup.getGroupId());
+                        break;
                     }
                 }
             }
@@ -760,12 +869,15 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
             String msg = "Error occurred while getting user realm.";
             log.error(msg, e);
             throw new GroupManagementException(msg, e);
+        } catch (GroupManagementException e) {
+            throw e;
         } catch (Exception e) {
             String msg = "Error occurred in getGroups for username '" + username + "'";
             log.error(msg, e);
             throw new GroupManagementException(msg, e);
         }
-        return new ArrayList<>(permittedDeviceGroups.values());
+        groupCacheManager.addPermittedGroupIdsToCache(username, permission, permittedGroupIds, tenantId, generation);
+        return permittedGroupIds;
     }
 
     @Override
@@ -797,6 +909,38 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Integer, List<Integer>> getGroupIdsOfDevices(List<Integer> deviceIds) throws GroupManagementException {
+        if (deviceIds == null) {
+            String msg = "Received empty device id list for getGroupIdsOfDevices";
+            log.error(msg);
+            throw new GroupManagementException(msg);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Get groups of " + deviceIds.size() + " devices");
+        }
+        Map<Integer, List<Integer>> groupIds = new HashMap<>();
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        int batchSize = DeviceManagementConstants.OperationAttributes.DEVICE_ID_BATCH_SIZE;
+        try {
+            GroupManagementDAOFactory.openConnection();
+            for (int i = 0; i < deviceIds.size(); i += batchSize) {
+                groupIds.putAll(groupDAO.getGroupIdsOfDevices(
+                        deviceIds.subList(i, Math.min(i + batchSize, deviceIds.size())), tenantId));
+            }
+            return groupIds;
+        } catch (GroupManagementDAOException | SQLException e) {
+            String msg = "Error occurred while retrieving the groups of devices.";
+            log.error(msg, e);
+            throw new GroupManagementException(msg, e);
+        } finally {
+            GroupManagementDAOFactory.closeConnection();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -863,4 +1007,12 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
             GroupManagementDAOFactory.closeConnection();
         }
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GroupCacheStatistics getGroupCacheStatistics() {
+        return groupCacheManager.getStatistics();
+    }
 }
@@ -21,10 +21,14 @@ package org.wso2.carbon.device.mgt.core.status.task.impl;
 import com.google.gson.Gson;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.device.mgt.common.DeviceStatusTaskPluginConfig;
 import org.wso2.carbon.device.mgt.common.EnrolmentInfo;
 import org.wso2.carbon.device.mgt.common.TransactionManagementException;
+import org.wso2.carbon.device.mgt.core.cache.DeviceCacheKey;
+import org.wso2.carbon.device.mgt.core.cache.impl.DeviceCacheManagerImpl;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.config.status.task.DeviceStatusTaskConfig;
 import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOException;
 import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOFactory;
 import org.wso2.carbon.device.mgt.core.operation.mgt.OperationEnrolmentMapping;
@@ -35,8 +39,10 @@ import org.wso2.carbon.ntask.core.Task;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This implements the Task service which monitors the device activity periodically & update the device-status if
@@ -45,6 +51,10 @@ import java.util.Map;
 public class DeviceStatusMonitoringTask implements Task {
 
     private static final Log log = LogFactory.getLog(DeviceStatusMonitoringTask.class);
+    private static final int DEFAULT_UPDATE_CHUNK_SIZE = 500;
+    //Time of the last completed status check of each device-type on this node. Task instances are not reused
+    //between executions, hence this is kept statically.
+    private static final Map<Integer, Long> lastCheckedTimes = new ConcurrentHashMap<>();
     private String deviceType;
     private DeviceStatusTaskPluginConfig deviceStatusTaskPluginConfig;
     private int deviceTypeId = -1;
@@ -65,52 +75,83 @@ public class DeviceStatusMonitoringTask implements Task {
 
     @Override
     public void execute() {
-        List<OperationEnrolmentMapping> operationEnrolmentMappings = null;
-        List<EnrolmentInfo> enrolmentInfoTobeUpdated = new ArrayList<>();
-        List<DeviceIdentifier> identifiers = new ArrayList<>();
-        Map<Integer, Long> lastActivities = null;
-        EnrolmentInfo enrolmentInfo;
-        DeviceIdentifier deviceIdentifier;
+        DeviceStatusTaskConfig taskConfig = DeviceConfigurationManager.getInstance().getDeviceManagementConfig()
+                .getDeviceStatusTaskConfig();
+        long checkedTime = System.currentTimeMillis() / 1000;
+        Long lastCheckedTime = taskConfig.isIncremental() ? lastCheckedTimes.get(deviceTypeId) : null;
+        List<OperationEnrolmentMapping> operationEnrolmentMappings;
         try {
-            operationEnrolmentMappings = this.getOperationEnrolmentMappings();
-            if (operationEnrolmentMappings != null && operationEnrolmentMappings.size() > 0) {
-                lastActivities = this.getLastDeviceActivities();
-            }
+            operationEnrolmentMappings = this.getOperationEnrolmentMappings(checkedTime, lastCheckedTime);
         } catch (DeviceStatusTaskException e) {
             log.error("Error occurred while fetching OperationEnrolment mappings of deviceType '" + deviceType + "'", e);
+            return;
+        }
+        int chunkSize = taskConfig.getUpdateChunkSize() > 0 ? taskConfig.getUpdateChunkSize() :
+                DEFAULT_UPDATE_CHUNK_SIZE;
+        boolean completed = true;
+        for (int from = 0; from < operationEnrolmentMappings.size(); from += chunkSize) {
+            List<OperationEnrolmentMapping> chunk = operationEnrolmentMappings.subList(from,
+                    Math.min(from + chunkSize, operationEnrolmentMappings.size()));
+            try {
+                this.checkDeviceStatus(chunk, checkedTime);
+            } catch (DeviceStatusTaskException e) {
+                completed = false;
+                log.error("Error occurred while updating non-responsive device-status of devices of type '" +
+                        deviceType + "'", e);
+            }
+        }
+        if (completed) {
+            //A failed chunk is checked again in the next run, as the high-water mark is not moved.
+            lastCheckedTimes.put(deviceTypeId, checkedTime);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Checked the status of " + operationEnrolmentMappings.size() + " enrolments of deviceType '" +
+                    deviceType + "'" + (lastCheckedTime != null ? " changed since " + lastCheckedTime : ""));
+        }
+    }
+
+    private void checkDeviceStatus(List<OperationEnrolmentMapping> operationEnrolmentMappings, long checkedTime)
+            throws DeviceStatusTaskException {
+        List<Integer> enrolmentIds = new ArrayList<>();
+        for (OperationEnrolmentMapping mapping : operationEnrolmentMappings) {
+            enrolmentIds.add(mapping.getEnrolmentId());
         }
-        for (OperationEnrolmentMapping mapping:operationEnrolmentMappings) {
+        Map<Integer, Long> lastActivities = this.getLastDeviceActivities(enrolmentIds, checkedTime);
+        List<EnrolmentInfo> enrolmentInfoTobeUpdated = new ArrayList<>();
+        Map<Integer, List<DeviceCacheKey>> updatedDevices = new HashMap<>();
+        for (OperationEnrolmentMapping mapping : operationEnrolmentMappings) {
             long lastActivity = -1;
-            if (lastActivities != null && lastActivities.containsKey(mapping.getEnrolmentId())) {
+            if (lastActivities.containsKey(mapping.getEnrolmentId())) {
                 lastActivity = lastActivities.get(mapping.getEnrolmentId());
             }
-            EnrolmentInfo.Status newStatus = this.determineDeviceStatus(mapping, lastActivity);
-            if (newStatus != mapping.getDeviceStatus()) {
-                enrolmentInfo = new EnrolmentInfo();
+            EnrolmentInfo.Status newStatus = this.determineDeviceStatus(mapping, lastActivity, checkedTime);
+            if (newStatus != null && newStatus != mapping.getDeviceStatus()) {
+                EnrolmentInfo enrolmentInfo = new EnrolmentInfo();
                 enrolmentInfo.setId(mapping.getEnrolmentId());
                 enrolmentInfo.setStatus(newStatus);
                 enrolmentInfoTobeUpdated.add(enrolmentInfo);
 
-                deviceIdentifier = new DeviceIdentifier();
-                deviceIdentifier.setId(mapping.getDeviceId());
-                deviceIdentifier.setId(mapping.getDeviceType());
-                identifiers.add(deviceIdentifier);
+                DeviceCacheKey cacheKey = new DeviceCacheKey();
+                cacheKey.setDeviceId(mapping.getDeviceId());
+                cacheKey.setDeviceType(deviceType);
+                cacheKey.setTenantId(mapping.getTenantId());
+                List<DeviceCacheKey> cacheKeys = updatedDevices.get(mapping.getTenantId());
+                if (cacheKeys == null) {
+                    cacheKeys = new ArrayList<>();
+                    updatedDevices.put(mapping.getTenantId(), cacheKeys);
+                }
+                cacheKeys.add(cacheKey);
             }
         }
-
         if (enrolmentInfoTobeUpdated.size() > 0) {
-            try {
-                this.updateDeviceStatus(enrolmentInfoTobeUpdated);
-                //Remove updated entries from cache
-                //DeviceCacheManagerImpl.getInstance().removeDevicesFromCache(identifiers);
-            } catch (DeviceStatusTaskException e) {
-                log.error("Error occurred while updating non-responsive device-status of devices of type '" + deviceType + "'",e);
-            }
+            this.updateDeviceStatus(enrolmentInfoTobeUpdated);
+            this.removeDevicesFromCache(updatedDevices);
         }
     }
 
-    private EnrolmentInfo.Status determineDeviceStatus(OperationEnrolmentMapping opMapping, long lastActivityTime) {
-        long lastPendingOpBefore = (System.currentTimeMillis()/1000) - opMapping.getCreatedTime();
+    private EnrolmentInfo.Status determineDeviceStatus(OperationEnrolmentMapping opMapping, long lastActivityTime,
+                                                       long checkedTime) {
+        long lastPendingOpBefore = checkedTime - opMapping.getCreatedTime();
         EnrolmentInfo.Status newStatus = null;
         if (lastPendingOpBefore >= this.deviceStatusTaskPluginConfig.getIdleTimeToMarkInactive()) {
             newStatus = EnrolmentInfo.Status.INACTIVE;
@@ -118,7 +159,7 @@ public class DeviceStatusMonitoringTask implements Task {
             newStatus = EnrolmentInfo.Status.UNREACHABLE;
         }
         if (lastActivityTime != -1) {
-            long lastActivityBefore = (System.currentTimeMillis()/1000) - lastActivityTime;
+            long lastActivityBefore = checkedTime - lastActivityTime;
             if (lastActivityBefore < lastPendingOpBefore) {
                 return opMapping.getDeviceStatus();
             }
@@ -126,13 +167,13 @@ public class DeviceStatusMonitoringTask implements Task {
         return newStatus;
     }
 
-    private long getMinTimeWindow() {
-        return (System.currentTimeMillis()/1000) - this.deviceStatusTaskPluginConfig.getIdleTimeToMarkUnreachable();
+    private long getMinTimeWindow(long checkedTime) {
+        return checkedTime - this.deviceStatusTaskPluginConfig.getIdleTimeToMarkUnreachable();
     }
 
-    private long getMaxTimeWindow() {
+    private long getMaxTimeWindow(long checkedTime) {
         //Need to consider the frequency of the task as well
-        return (System.currentTimeMillis()/1000) - this.deviceStatusTaskPluginConfig.getIdleTimeToMarkInactive() -
+        return checkedTime - this.deviceStatusTaskPluginConfig.getIdleTimeToMarkInactive() -
                 this.deviceStatusTaskPluginConfig.getFrequency();
     }
 
@@ -156,13 +197,44 @@ public class DeviceStatusMonitoringTask implements Task {
         return updateStatus;
     }
 
-    private List<OperationEnrolmentMapping> getOperationEnrolmentMappings() throws DeviceStatusTaskException {
-        List<OperationEnrolmentMapping> operationEnrolmentMappings = null;
+    /**
+     * Removes the devices whose status got updated from the device cache. The cache is tenant scoped, hence the
+     * devices are removed within the tenant flow of each tenant.
+     */
+    private void removeDevicesFromCache(Map<Integer, List<DeviceCacheKey>> updatedDevices) {
+        for (Map.Entry<Integer, List<DeviceCacheKey>> entry : updatedDevices.entrySet()) {
+            try {
+                PrivilegedCarbonContext.startTenantFlow();
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(entry.getKey(), true);
+                DeviceCacheManagerImpl.getInstance().removeDevicesFromCache(entry.getValue());
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+        }
+    }
+
+    /**
+     * Returns the first pending operation of the active enrolments. In incremental mode only the enrolments whose
+     * first pending operation crossed the unreachable or the inactive threshold since the last check are returned,
+     * as the status of the other enrolments cannot have changed in between.
+     */
+    private List<OperationEnrolmentMapping> getOperationEnrolmentMappings(long checkedTime, Long lastCheckedTime)
+            throws DeviceStatusTaskException {
+        List<OperationEnrolmentMapping> operationEnrolmentMappings;
         try {
             OperationManagementDAOFactory.openConnection();
-            operationEnrolmentMappings = OperationManagementDAOFactory.
-                    getOperationMappingDAO().getFirstPendingOperationMappingsForActiveEnrolments(this.getMinTimeWindow(),
-                    this.getMaxTimeWindow(), this.deviceTypeId);
+            if (lastCheckedTime == null) {
+                operationEnrolmentMappings = OperationManagementDAOFactory.getOperationMappingDAO()
+                        .getFirstPendingOperationMappingsForActiveEnrolments(this.getMinTimeWindow(checkedTime),
+                                this.getMaxTimeWindow(checkedTime), this.deviceTypeId);
+            } else {
+                long inactiveTime = this.deviceStatusTaskPluginConfig.getIdleTimeToMarkInactive();
+                operationEnrolmentMappings = OperationManagementDAOFactory.getOperationMappingDAO()
+                        .getFirstPendingOperationMappingsForActiveEnrolments(this.getMinTimeWindow(checkedTime),
+                                this.getMaxTimeWindow(checkedTime), this.deviceTypeId,
+                                this.getMinTimeWindow(lastCheckedTime), this.getMinTimeWindow(checkedTime),
+                                lastCheckedTime - inactiveTime, checkedTime - inactiveTime);
+            }
         } catch (SQLException e) {
             throw new DeviceStatusTaskException("Error occurred while getting Enrolment operation mappings for " +
                     "determining device status of deviceType '" + deviceType + "'", e);
@@ -175,13 +247,13 @@ public class DeviceStatusMonitoringTask implements Task {
         return operationEnrolmentMappings;
     }
 
-    private Map<Integer, Long> getLastDeviceActivities() throws DeviceStatusTaskException {
-        Map<Integer, Long> lastActivities = null;
+    private Map<Integer, Long> getLastDeviceActivities(List<Integer> enrolmentIds, long checkedTime)
+            throws DeviceStatusTaskException {
+        Map<Integer, Long> lastActivities;
         try {
             OperationManagementDAOFactory.openConnection();
-            lastActivities = OperationManagementDAOFactory.
-                    getOperationMappingDAO().getLastConnectedTimeForActiveEnrolments(this.getMaxTimeWindow(),
-                    this.deviceTypeId);
+            lastActivities = OperationManagementDAOFactory.getOperationMappingDAO()
+                    .getLastConnectedTimeForEnrolments(this.getMaxTimeWindow(checkedTime), enrolmentIds);
         } catch (SQLException e) {
             throw new DeviceStatusTaskException("Error occurred while getting last activities for " +
                     "determining device status of deviceType '" + deviceType + "'", e);
@@ -193,4 +265,4 @@ public class DeviceStatusMonitoringTask implements Task {
         }
         return lastActivities;
     }
-}
\ No newline at end of file
+}
@@ -37,8 +37,13 @@ import org.wso2.carbon.device.mgt.common.operation.mgt.OperationManagementExcept
 import org.wso2.carbon.device.mgt.common.type.mgt.DeviceTypeMetaDefinition;
 import org.wso2.carbon.device.mgt.core.DeviceManagementConstants;
 import org.wso2.carbon.device.mgt.core.cache.DeviceCacheKey;
+import org.wso2.carbon.device.mgt.core.cache.GroupPermissionCacheKey;
+import org.wso2.carbon.device.mgt.core.cache.GroupRoleCacheKey;
+import org.wso2.carbon.device.mgt.core.cache.PendingOperationCacheKey;
 import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
 import org.wso2.carbon.device.mgt.core.config.DeviceManagementConfig;
+import org.wso2.carbon.device.mgt.core.config.cache.GroupCacheConfiguration;
+import org.wso2.carbon.device.mgt.core.config.cache.PendingOperationCacheConfiguration;
 import org.wso2.carbon.device.mgt.core.config.datasource.DataSourceConfig;
 import org.wso2.carbon.device.mgt.core.config.datasource.JNDILookupDefinition;
 import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOException;
@@ -78,6 +83,8 @@ public final class DeviceManagerUtil {
     private static final Log log = LogFactory.getLog(DeviceManagerUtil.class);
 
     private  static boolean isDeviceCacheInitialized = false;
+    private static boolean isPendingOperationCacheInitialized = false;
+    private static boolean isGroupCacheInitialized = false;
 
     public static Document convertToDocument(File file) throws DeviceManagementException {
         DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
@@ -588,4 +595,102 @@ public final class DeviceManagerUtil {
         }
         return deviceCache;
     }
+
+    private static synchronized void initializePendingOperationCache(PendingOperationCacheConfiguration config) {
+        if (isPendingOperationCacheInitialized) {
+            return;
+        }
+        isPendingOperationCacheInitialized = true;
+        CacheManager manager = getCacheManager();
+        if (manager == null) {
+            manager = Caching.getCacheManager(DeviceManagementConstants.DM_CACHE_MANAGER);
+        }
+        if (config.getExpiryTime() > 0) {
+            manager.<PendingOperationCacheKey, ArrayList<Integer>>createCacheBuilder(
+                    DeviceManagementConstants.PENDING_OPERATION_CACHE).setExpiry(CacheConfiguration.ExpiryType.MODIFIED,
+                    new CacheConfiguration.Duration(TimeUnit.SECONDS, config.getExpiryTime())).
+                    setStoreByValue(true).build();
+        }
+        if (config.getCapacity() > 0) {
+            ((CacheImpl) (manager.<PendingOperationCacheKey, ArrayList<Integer>>getCache(
+                    DeviceManagementConstants.PENDING_OPERATION_CACHE))).setCapacity(config.getCapacity());
+        }
+    }
+
+    public static Cache<PendingOperationCacheKey, ArrayList<Integer>> getPendingOperationCache() {
+        PendingOperationCacheConfiguration config = DeviceConfigurationManager.getInstance()
+                .getDeviceManagementConfig().getPendingOperationCacheConfiguration();
+        if (config == null || !config.isEnabled()) {
+            return null;
+        }
+        if (!isPendingOperationCacheInitialized) {
+            initializePendingOperationCache(config);
+        }
+        CacheManager manager = getCacheManager();
+        if (manager == null) {
+            manager = Caching.getCacheManager(DeviceManagementConstants.DM_CACHE_MANAGER);
+        }
+        return manager.<PendingOperationCacheKey, ArrayList<Integer>>getCache(
+                DeviceManagementConstants.PENDING_OPERATION_CACHE);
+    }
+
+    private static synchronized void initializeGroupCache(GroupCacheConfiguration config) {
+        if (isGroupCacheInitialized) {
+            return;
+        }
+        isGroupCacheInitialized = true;
+        CacheManager manager = getCacheManager();
+        if (manager == null) {
+            manager = Caching.getCacheManager(DeviceManagementConstants.DM_CACHE_MANAGER);
+        }
+        if (config.getExpiryTime() > 0) {
+            manager.<GroupPermissionCacheKey, ArrayList<Integer>>createCacheBuilder(
+                    DeviceManagementConstants.GROUP_PERMISSION_CACHE).setExpiry(CacheConfiguration.ExpiryType.MODIFIED,
+                    new CacheConfiguration.Duration(TimeUnit.SECONDS, config.getExpiryTime())).
+                    setStoreByValue(true).build();
+            manager.<GroupRoleCacheKey, ArrayList<String>>createCacheBuilder(
+                    DeviceManagementConstants.GROUP_ROLE_CACHE).setExpiry(CacheConfiguration.ExpiryType.MODIFIED,
+                    new CacheConfiguration.Duration(TimeUnit.SECONDS, config.getExpiryTime())).
+                    setStoreByValue(true).build();
+        }
+        if (config.getCapacity() > 0) {
+            ((CacheImpl) (manager.<GroupPermissionCacheKey, ArrayList<Integer>>getCache(
+                    DeviceManagementConstants.GROUP_PERMISSION_CACHE))).setCapacity(config.getCapacity());
+            ((CacheImpl) (manager.<GroupRoleCacheKey, ArrayList<String>>getCache(
+                    DeviceManagementConstants.GROUP_ROLE_CACHE))).setCapacity(config.getCapacity());
+        }
+    }
+
+    private static CacheManager getGroupCacheManager() {
+        GroupCacheConfiguration config = DeviceConfigurationManager.getInstance()
+                .getDeviceManagementConfig().getGroupCacheConfiguration();
+        if (config == null || !config.isEnabled()) {
+            return null;
+        }
+        if (!isGroupCacheInitialized) {
+            initializeGroupCache(config);
+        }
+        CacheManager manager = getCacheManager();
+        if (manager == null) {
+            manager = Caching.getCacheManager(DeviceManagementConstants.DM_CACHE_MANAGER);
+        }
+        return manager;
+    }
+
+    public static Cache<GroupPermissionCacheKey, ArrayList<Integer>> getGroupPermissionCache() {
+        CacheManager manager = getGroupCacheManager();
+        if (manager == null) {
+            return null;
+        }
+        return manager.<GroupPermissionCacheKey, ArrayList<Integer>>getCache(
+                DeviceManagementConstants.GROUP_PERMISSION_CACHE);
+    }
+
+    public static Cache<GroupRoleCacheKey, ArrayList<String>> getGroupRoleCache() {
+        CacheManager manager = getGroupCacheManager();
+        if (manager == null) {
+            return null;
+        }
+        return manager.<GroupRoleCacheKey, ArrayList<String>>getCache(DeviceManagementConstants.GROUP_ROLE_CACHE);
+    }
 }
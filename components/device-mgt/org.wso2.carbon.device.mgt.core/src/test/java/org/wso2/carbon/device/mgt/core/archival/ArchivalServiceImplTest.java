@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * you may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.device.mgt.core.archival;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.core.archival.dao.ArchivalDAO;
+import org.wso2.carbon.device.mgt.core.archival.dao.ArchivalDestinationDAOFactory;
+import org.wso2.carbon.device.mgt.core.archival.dao.ArchivalSourceDAOFactory;
+import org.wso2.carbon.device.mgt.core.archival.dao.impl.ArchivalDAOImpl;
+import org.wso2.carbon.device.mgt.core.common.BaseDeviceManagementTest;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.config.archival.ArchivalTaskConfiguration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class contains unit tests to test the streaming archival of {@link ArchivalServiceImpl} and the chunk lookups
+ * of {@link ArchivalDAOImpl}.
+ */
+public class ArchivalServiceImplTest extends BaseDeviceManagementTest {
+
+    private static final int RETENTION_PERIOD = 30;
+
+    private int oldCompletedOperationId;
+    private int oldPendingOperationId;
+    private int recentCompletedOperationId;
+
+    @BeforeClass
+    @Override
+    public void init() throws Exception {
+        DeviceConfigurationManager.getInstance().initConfig();
+        try (Connection conn = getDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("RUNSCRIPT FROM './src/test/resources/sql/archival-h2.sql'");
+        }
+        ArchivalSourceDAOFactory.init(getDataSource());
+        ArchivalDestinationDAOFactory.init(getDataSource());
+
+        int enrolmentId = getEnrolmentId();
+        long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        long old = now - TimeUnit.DAYS.toSeconds(RETENTION_PERIOD * 2);
+        oldCompletedOperationId = addOperation(old);
+        addOperationMapping(oldCompletedOperationId, enrolmentId, "COMPLETED", old);
+        oldPendingOperationId = addOperation(old);
+        addOperationMapping(oldPendingOperationId, enrolmentId, "COMPLETED", old);
+        addOperationMapping(oldPendingOperationId, enrolmentId, "PENDING", old);
+        recentCompletedOperationId = addOperation(now);
+        addOperationMapping(recentCompletedOperationId, enrolmentId, "COMPLETED", now);
+    }
+
+    @Test(description = "Tests that only finished operations older than the retention period are picked for archival")
+    public void testGetOperationIdsForArchival() throws Exception {
+        ArchivalDAO archivalDAO = new ArchivalDAOImpl(RETENTION_PERIOD, ArchivalDAO.DEFAULT_BATCH_SIZE, true);
+        long createdBefore = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) -
+                TimeUnit.DAYS.toSeconds(RETENTION_PERIOD);
+        try {
+            ArchivalSourceDAOFactory.openConnection();
+            List<Integer> operationIds = archivalDAO.getOperationIdsForArchival(0, createdBefore, 100);
+            Assert.assertTrue(operationIds.contains(oldCompletedOperationId));
+            Assert.assertFalse(operationIds.contains(oldPendingOperationId), "Pending operation is archived.");
+            Assert.assertFalse(operationIds.contains(recentCompletedOperationId),
+                    "Operation of the retention period is archived.");
+            Assert.assertTrue(archivalDAO.getOperationIdsForArchival(operationIds.get(operationIds.size() - 1),
+                    createdBefore, 100).isEmpty(), "Next chunk is not empty.");
+        } finally {
+            ArchivalSourceDAOFactory.closeConnection();
+        }
+    }
+
+    @Test(description = "Tests that the copies left by a failed chunk are removed before the chunk is archived again")
+    public void testDeleteArchivedCopies() throws Exception {
+        int operationId = Integer.MAX_VALUE;
+        try (Connection conn = getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("INSERT INTO DM_OPERATION_ARCH (ID, TYPE, " +
+                     "CREATED_TIMESTAMP, OPERATION_CODE) VALUES (?, 'COMMAND', ?, 'ARCHIVAL-TEST')")) {
+            stmt.setInt(1, operationId);
+            stmt.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+            stmt.executeUpdate();
+        }
+        ArchivalDAO archivalDAO = new ArchivalDAOImpl(RETENTION_PERIOD, ArchivalDAO.DEFAULT_BATCH_SIZE, false);
+        try {
+            ArchivalDestinationDAOFactory.beginTransaction();
+            archivalDAO.deleteArchivedCopies(Collections.singletonList(operationId));
+            ArchivalDestinationDAOFactory.commitTransaction();
+        } finally {
+            ArchivalDestinationDAOFactory.closeConnection();
+        }
+        Assert.assertEquals(count("DM_OPERATION_ARCH", "ID", operationId), 0);
+    }
+
+    @Test(description = "Tests that the streaming archival moves the expired operations chunk by chunk",
+            dependsOnMethods = "testGetOperationIdsForArchival")
+    public void testArchiveInChunks() throws Exception {
+        ArchivalTaskConfiguration configuration = DeviceConfigurationManager.getInstance()
+                .getDeviceManagementConfig().getArchivalConfiguration().getArchivalTaskConfiguration();
+        boolean streamingEnabled = configuration.isStreamingEnabled();
+        boolean directCopy = configuration.isDirectCopy();
+        int chunkSize = configuration.getChunkSize();
+        try {
+            configuration.setStreamingEnabled(true);
+            configuration.setDirectCopy(true);
+            configuration.setChunkSize(1);
+            new ArchivalServiceImpl().archiveTransactionalRecords();
+        } finally {
+            configuration.setStreamingEnabled(streamingEnabled);
+            configuration.setDirectCopy(directCopy);
+            configuration.setChunkSize(chunkSize);
+        }
+
+        Assert.assertEquals(count("DM_OPERATION", "ID", oldCompletedOperationId), 0);
+        Assert.assertEquals(count("DM_COMMAND_OPERATION", "OPERATION_ID", oldCompletedOperationId), 0);
+        Assert.assertEquals(count("DM_ENROLMENT_OP_MAPPING", "OPERATION_ID", oldCompletedOperationId), 0);
+        Assert.assertEquals(count("DM_OPERATION_ARCH", "ID", oldCompletedOperationId), 1);
+        Assert.assertEquals(count("DM_COMMAND_OPERATION_ARCH", "OPERATION_ID", oldCompletedOperationId), 1);
+        Assert.assertEquals(count("DM_ENROLMENT_OP_MAPPING_ARCH", "OPERATION_ID", oldCompletedOperationId), 1);
+
+        Assert.assertEquals(count("DM_OPERATION", "ID", oldPendingOperationId), 1);
+        Assert.assertEquals(count("DM_ENROLMENT_OP_MAPPING", "OPERATION_ID", oldPendingOperationId), 2);
+        Assert.assertEquals(count("DM_OPERATION", "ID", recentCompletedOperationId), 1);
+        Assert.assertEquals(count("DM_OPERATION_ARCH", "ID", recentCompletedOperationId), 0);
+    }
+
+    private int getEnrolmentId() throws SQLException {
+        try (Connection conn = getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT ID FROM DM_ENROLMENT");
+             ResultSet rs = stmt.executeQuery()) {
+            Assert.assertTrue(rs.next(), "No enrolment found to add the operation mappings.");
+            return rs.getInt("ID");
+        }
+    }
+
+    private int addOperation(long createdTimestamp) throws SQLException {
+        int operationId;
+        try (Connection conn = getDataSource().getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO DM_OPERATION (TYPE, CREATED_TIMESTAMP, " +
+                    "RECEIVED_TIMESTAMP, OPERATION_CODE) VALUES ('COMMAND', ?, NULL, 'ARCHIVAL-TEST')",
+                    new String[]{"id"})) {
+                stmt.setTimestamp(1, new Timestamp(TimeUnit.SECONDS.toMillis(createdTimestamp)));
+                stmt.executeUpdate();
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    Assert.assertTrue(rs.next(), "Operation id is not generated.");
+                    operationId = rs.getInt(1);
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO DM_COMMAND_OPERATION (OPERATION_ID, " +
+                    "ENABLED) VALUES (?, TRUE)")) {
+                stmt.setInt(1, operationId);
+                stmt.executeUpdate();
+            }
+        }
+        return operationId;
+    }
+
+    private void addOperationMapping(int operationId, int enrolmentId, String status, long createdTimestamp)
+            throws SQLException {
+        try (Connection conn = getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("INSERT INTO DM_ENROLMENT_OP_MAPPING (ENROLMENT_ID, " +
+                     "OPERATION_ID, STATUS, PUSH_NOTIFICATION_STATUS, CREATED_TIMESTAMP, UPDATED_TIMESTAMP) " +
+                     "VALUES (?, ?, ?, 'COMPLETED', ?, ?)")) {
+            stmt.setInt(1, enrolmentId);
+            stmt.setInt(2, operationId);
+            stmt.setString(3, status);
+            stmt.setInt(4, (int) createdTimestamp);
+            stmt.setInt(5, (int) createdTimestamp);
+            stmt.executeUpdate();
+        }
+    }
+
+    private int count(String table, String column, int operationId) throws SQLException {
+        try (Connection conn = getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM " + table + " WHERE " + column +
+                     " = ?")) {
+            stmt.setInt(1, operationId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+}
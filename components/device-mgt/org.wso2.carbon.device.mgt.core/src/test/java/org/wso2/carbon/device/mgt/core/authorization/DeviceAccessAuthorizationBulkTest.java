@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.authorization;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.CarbonConstants;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.device.mgt.common.Device;
+import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
+import org.wso2.carbon.device.mgt.common.authorization.DeviceAuthorizationResult;
+import org.wso2.carbon.device.mgt.common.group.mgt.DeviceGroup;
+import org.wso2.carbon.device.mgt.core.TestDeviceManagementService;
+import org.wso2.carbon.device.mgt.core.common.BaseDeviceManagementTest;
+import org.wso2.carbon.device.mgt.core.common.TestDataHolder;
+import org.wso2.carbon.device.mgt.core.internal.DeviceManagementDataHolder;
+import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderService;
+import org.wso2.carbon.device.mgt.core.service.GroupManagementProviderService;
+import org.wso2.carbon.user.api.Permission;
+import org.wso2.carbon.user.api.UserStoreManager;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Verifies that authorizing a list of devices gives the same decisions as authorizing each device on its own, for
+ * owned devices, devices shared through a group, other devices and identifiers which are not enrolled.
+ */
+public class DeviceAccessAuthorizationBulkTest extends BaseDeviceManagementTest {
+
+    private static final String DEVICE_TYPE = "AUTH_BULK_TEST_TYPE";
+    private static final String USER = "authBulkUser";
+    private static final String ROLE = "authBulkRole";
+    private static final String GROUP = "authBulkGroup";
+    private static final String PERMISSION = "/permission/admin/manage/device-mgt/devices/owning-device/view";
+    private static final String OTHER_PERMISSION = "/permission/admin/manage/device-mgt/devices/owning-device/manage";
+    private static final int DEVICE_COUNT = 12;
+
+    private DeviceAccessAuthorizationServiceImpl deviceAccessAuthorizationService;
+    private List<DeviceIdentifier> deviceIds = new ArrayList<>();
+
+    @BeforeClass
+    public void init() throws Exception {
+        deviceAccessAuthorizationService = new DeviceAccessAuthorizationServiceImpl();
+        DeviceManagementProviderService deviceMgtService = DeviceManagementDataHolder.getInstance()
+                .getDeviceManagementProvider();
+        deviceMgtService.registerDeviceType(new TestDeviceManagementService(DEVICE_TYPE,
+                MultitenantConstants.SUPER_TENANT_DOMAIN_NAME));
+        if (isMock()) {
+            return;
+        }
+        UserStoreManager userStoreManager = DeviceManagementDataHolder.getInstance().getRealmService()
+                .getTenantUserRealm(MultitenantConstants.SUPER_TENANT_ID).getUserStoreManager();
+        userStoreManager.addUser(USER, "password", null, null, null);
+        userStoreManager.addRole(ROLE, new String[]{USER},
+                new Permission[]{new Permission(PERMISSION, CarbonConstants.UI_PERMISSION_ACTION)});
+
+        // Devices are owned by the user, shared with the user through the group, or neither, in turn
+        List<DeviceIdentifier> groupDeviceIds = new ArrayList<>();
+        for (int i = 0; i < DEVICE_COUNT; i++) {
+            DeviceIdentifier deviceId = new DeviceIdentifier("auth-bulk-" + i, DEVICE_TYPE);
+            Device device = TestDataHolder.generateDummyDeviceData(deviceId);
+            if (i % 3 == 0) {
+                device.getEnrolmentInfo().setOwner(USER);
+            } else if (i % 3 == 1) {
+                groupDeviceIds.add(deviceId);
+            }
+            deviceMgtService.enrollDevice(device);
+            deviceIds.add(deviceId);
+        }
+        GroupManagementProviderService groupManagementProviderService = DeviceManagementDataHolder.getInstance()
+                .getGroupManagementProviderService();
+        DeviceGroup deviceGroup = new DeviceGroup(GROUP);
+        deviceGroup.setOwner(TestDataHolder.OWNER);
+        groupManagementProviderService.createGroup(deviceGroup, null, null);
+        int groupId = groupManagementProviderService.getGroup(GROUP).getGroupId();
+        groupManagementProviderService.manageGroupSharing(groupId, Collections.singletonList(ROLE));
+        groupManagementProviderService.addDevices(groupId, groupDeviceIds);
+        PrivilegedCarbonContext.getThreadLocalCarbonContext().setUsername(USER);
+    }
+
+    @Test(description = "Tests that devices authorized in bulk match the devices authorized one by one")
+    public void testBulkMatchesDeviceByDevice() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        String[] permissions = new String[]{PERMISSION};
+        List<DeviceIdentifier> expected = new ArrayList<>();
+        for (int i = 0; i < DEVICE_COUNT; i++) {
+            DeviceIdentifier deviceId = deviceIds.get(i);
+            boolean isAuthorized = deviceAccessAuthorizationService.isUserAuthorized(deviceId, USER, permissions);
+            Assert.assertEquals(isAuthorized, i % 3 != 2, "Unexpected authorization of " + deviceId.getId());
+            if (isAuthorized) {
+                expected.add(deviceId);
+            }
+        }
+        DeviceIdentifier unknownDeviceId = new DeviceIdentifier("auth-bulk-unknown", DEVICE_TYPE);
+        List<DeviceIdentifier> requested = new ArrayList<>(deviceIds);
+        requested.add(1, unknownDeviceId);
+
+        DeviceAuthorizationResult result = deviceAccessAuthorizationService.isUserAuthorized(requested, USER,
+                permissions);
+        Assert.assertEquals(result.getAuthorizedDevices(), expected,
+                "Devices authorized in bulk do not match the devices authorized one by one.");
+        Assert.assertEquals(result.getUnauthorizedDevices().size(), requested.size() - expected.size());
+        Assert.assertEquals(result.getUnauthorizedDevices().get(0), unknownDeviceId,
+                "Identifier which is not enrolled is not reported as unauthorized.");
+    }
+
+    @Test(description = "Tests that only owned devices are authorized when no group permission is requested")
+    public void testOwnedDevicesWithoutPermissions() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        assertOnlyOwnedDevicesAuthorized(deviceAccessAuthorizationService.isUserAuthorized(deviceIds, USER, null));
+        assertOnlyOwnedDevicesAuthorized(deviceAccessAuthorizationService.isUserAuthorized(deviceIds, USER,
+                new String[0]));
+    }
+
+    @Test(description = "Tests that group devices are not authorized unless every permission is granted")
+    public void testPermissionNotGrantedThroughGroup() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        String[] permissions = new String[]{PERMISSION, OTHER_PERMISSION};
+        assertOnlyOwnedDevicesAuthorized(deviceAccessAuthorizationService.isUserAuthorized(deviceIds, USER,
+                permissions));
+        for (int i = 1; i < DEVICE_COUNT; i += 3) {
+            Assert.assertFalse(deviceAccessAuthorizationService.isUserAuthorized(deviceIds.get(i), USER,
+                    permissions), "Group device is authorized without every permission.");
+        }
+    }
+
+    private void assertOnlyOwnedDevicesAuthorized(DeviceAuthorizationResult result) {
+        List<DeviceIdentifier> ownedDeviceIds = new ArrayList<>();
+        List<DeviceIdentifier> otherDeviceIds = new ArrayList<>();
+        for (int i = 0; i < DEVICE_COUNT; i++) {
+            if (i % 3 == 0) {
+                ownedDeviceIds.add(deviceIds.get(i));
+            } else {
+                otherDeviceIds.add(deviceIds.get(i));
+            }
+        }
+        Assert.assertEquals(result.getAuthorizedDevices(), ownedDeviceIds);
+        Assert.assertEquals(result.getUnauthorizedDevices(), otherDeviceIds);
+    }
+}
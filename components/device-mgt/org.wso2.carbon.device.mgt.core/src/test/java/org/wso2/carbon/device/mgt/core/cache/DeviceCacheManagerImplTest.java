@@ -18,7 +18,6 @@
 
 package org.wso2.carbon.device.mgt.core.cache;
 
-import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -46,6 +45,7 @@ public class DeviceCacheManagerImplTest extends BaseDeviceManagementTest {
     private static final String UPDATE_NAME = "updatedName";
     private static final String DEVICE_TYPE = "TEST_TYPE";
     private static final String DEVICE_ID_PREFIX = "TEST-DEVICE-ID-";
+    private static final String UNKNOWN_DEVICE_ID = "TEST-UNKNOWN-DEVICE-ID";
     private DeviceCacheManagerImpl deviceCacheManager;
     private List<DeviceIdentifier> deviceIds = new ArrayList<>();
     private List<Device> devices = new ArrayList<>();
@@ -58,7 +58,7 @@ public class DeviceCacheManagerImplTest extends BaseDeviceManagementTest {
             deviceIds.add(new DeviceIdentifier(DEVICE_ID_PREFIX + i, DEVICE_TYPE));
         }
         devices = TestDataHolder.generateDummyDeviceData(this.deviceIds);
-        deviceCacheManager = Mockito.mock(DeviceCacheManagerImpl.class, Mockito.CALLS_REAL_METHODS);
+        deviceCacheManager = DeviceCacheManagerImpl.getInstance();
         DeviceCacheConfiguration configuration = new DeviceCacheConfiguration();
         configuration.setEnabled(true);
         DeviceManagementConfig config = DeviceConfigurationManager.getInstance().getDeviceManagementConfig();
@@ -126,4 +126,31 @@ public class DeviceCacheManagerImplTest extends BaseDeviceManagementTest {
         }
         deviceCacheManager.removeDevicesFromCache(deviceCacheKeyList);
     }
+
+    @Test(description = "test that an unknown device is remembered until the device is enrolled",
+            dependsOnMethods = {"testRemoveDevicesFromCache"})
+    public void testUnknownDevice() {
+        DeviceIdentifier unknownDeviceId = new DeviceIdentifier(UNKNOWN_DEVICE_ID, DEVICE_TYPE);
+        long negativeHitCount = deviceCacheManager.getStatistics().getNegativeHitCount();
+        deviceCacheManager.addUnknownDeviceToCache(unknownDeviceId, MultitenantConstants.SUPER_TENANT_ID);
+        Assert.assertTrue(deviceCacheManager.isUnknownDevice(unknownDeviceId, MultitenantConstants.SUPER_TENANT_ID),
+                "Unknown device is not remembered");
+        Assert.assertNull(deviceCacheManager.getDeviceFromCache(unknownDeviceId,
+                MultitenantConstants.SUPER_TENANT_ID), "Unknown device is returned as a device");
+        Assert.assertEquals(deviceCacheManager.getStatistics().getNegativeHitCount(), negativeHitCount + 1);
+
+        // Enrolling a device removes it from the device cache, which is invalidated on all the nodes of the cluster
+        deviceCacheManager.removeDeviceFromCache(unknownDeviceId, MultitenantConstants.SUPER_TENANT_ID);
+        Assert.assertFalse(deviceCacheManager.isUnknownDevice(unknownDeviceId,
+                MultitenantConstants.SUPER_TENANT_ID), "Enrolled device is still unknown");
+
+        deviceCacheManager.addUnknownDeviceToCache(unknownDeviceId, MultitenantConstants.SUPER_TENANT_ID);
+        Device device = TestDataHolder.generateDummyDeviceData(unknownDeviceId);
+        deviceCacheManager.addDeviceToCache(unknownDeviceId, device, MultitenantConstants.SUPER_TENANT_ID);
+        Assert.assertFalse(deviceCacheManager.isUnknownDevice(unknownDeviceId,
+                MultitenantConstants.SUPER_TENANT_ID), "Cached device is still unknown");
+        Assert.assertEquals(deviceCacheManager.getDeviceFromCache(unknownDeviceId,
+                MultitenantConstants.SUPER_TENANT_ID), device);
+        deviceCacheManager.removeDeviceFromCache(unknownDeviceId, MultitenantConstants.SUPER_TENANT_ID);
+    }
 }
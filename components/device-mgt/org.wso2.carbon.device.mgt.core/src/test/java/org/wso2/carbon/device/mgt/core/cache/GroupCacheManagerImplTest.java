@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.device.mgt.core.cache;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.device.mgt.common.DeviceManagementException;
+import org.wso2.carbon.device.mgt.core.cache.impl.GroupCacheManagerImpl;
+import org.wso2.carbon.device.mgt.core.common.BaseDeviceManagementTest;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.config.DeviceManagementConfig;
+import org.wso2.carbon.device.mgt.core.config.cache.GroupCacheConfiguration;
+import org.wso2.carbon.device.mgt.core.internal.GroupCacheAuthorizationListener;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/*
+    Unit tests for GroupCacheManagerImpl
+ */
+public class GroupCacheManagerImplTest extends BaseDeviceManagementTest {
+    private static final String USERNAME = "groupCacheUser";
+    private static final String PERMISSION = "/permission/admin/device-mgt/groups/view";
+    private static final int GROUP_ID = 1;
+    private GroupCacheManager groupCacheManager;
+    private GroupCacheConfiguration previousConfiguration;
+
+    @BeforeClass
+    public void init() throws DeviceManagementException {
+        DeviceConfigurationManager.getInstance().initConfig();
+        GroupCacheConfiguration configuration = new GroupCacheConfiguration();
+        configuration.setEnabled(true);
+        configuration.setCapacity(1000);
+        DeviceManagementConfig config = DeviceConfigurationManager.getInstance().getDeviceManagementConfig();
+        previousConfiguration = config.getGroupCacheConfiguration();
+        config.setGroupCacheConfiguration(configuration);
+        groupCacheManager = GroupCacheManagerImpl.getInstance();
+        initializeCarbonContext();
+    }
+
+    @AfterClass
+    public void cleanup() {
+        groupCacheManager.clearPermittedGroupIds();
+        groupCacheManager.removeGroupRolesFromCache(GROUP_ID, MultitenantConstants.SUPER_TENANT_ID);
+        DeviceConfigurationManager.getInstance().getDeviceManagementConfig()
+                .setGroupCacheConfiguration(previousConfiguration);
+    }
+
+    private void initializeCarbonContext() {
+        if (System.getProperty("carbon.home") == null) {
+            File file = new File("src/test/resources");
+            if (file.exists()) {
+                System.setProperty("carbon.home", file.getAbsolutePath());
+            }
+        }
+        PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(
+                org.wso2.carbon.base.MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+        PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(
+                org.wso2.carbon.base.MultitenantConstants.SUPER_TENANT_ID);
+    }
+
+    @Test(description = "Adding the groups permitted to a user to the cache")
+    public void testAddPermittedGroupIdsToCache() {
+        List<Integer> groupIds = Arrays.asList(1, 2, 3);
+        long missCount = groupCacheManager.getMissCount();
+        Assert.assertNull(groupCacheManager.getPermittedGroupIdsFromCache(USERNAME, PERMISSION,
+                MultitenantConstants.SUPER_TENANT_ID));
+        Assert.assertEquals(groupCacheManager.getMissCount(), missCount + 1);
+
+        groupCacheManager.addPermittedGroupIdsToCache(USERNAME, PERMISSION, groupIds,
+                MultitenantConstants.SUPER_TENANT_ID, getGeneration());
+        long hitCount = groupCacheManager.getHitCount();
+        Assert.assertEquals(groupCacheManager.getPermittedGroupIdsFromCache(USERNAME, PERMISSION,
+                MultitenantConstants.SUPER_TENANT_ID), groupIds, "Cached group ids are not matching with the added " +
+                "group ids");
+        Assert.assertEquals(groupCacheManager.getHitCount(), hitCount + 1);
+        Assert.assertNull(groupCacheManager.getPermittedGroupIdsFromCache(USERNAME, PERMISSION + "/other",
+                MultitenantConstants.SUPER_TENANT_ID), "Group ids are cached per permission");
+    }
+
+    @Test(description = "Users without permitted groups are cached as well",
+            dependsOnMethods = {"testAddPermittedGroupIdsToCache"})
+    public void testAddEmptyPermittedGroupIdsToCache() {
+        groupCacheManager.addPermittedGroupIdsToCache(USERNAME + "2", PERMISSION, Collections.<Integer>emptyList(),
+                MultitenantConstants.SUPER_TENANT_ID, getGeneration());
+        List<Integer> groupIds = groupCacheManager.getPermittedGroupIdsFromCache(USERNAME + "2", PERMISSION,
+                MultitenantConstants.SUPER_TENANT_ID);
+        Assert.assertNotNull(groupIds, "An empty list of group ids should be cached");
+        Assert.assertTrue(groupIds.isEmpty());
+    }
+
+    @Test(description = "Clearing the permitted groups of the users of the tenant",
+            dependsOnMethods = {"testAddEmptyPermittedGroupIdsToCache"})
+    public void testClearPermittedGroupIds() {
+        long invalidationCount = groupCacheManager.getInvalidationCount();
+        groupCacheManager.clearPermittedGroupIds();
+        Assert.assertEquals(groupCacheManager.getInvalidationCount(), invalidationCount + 1);
+        Assert.assertNull(groupCacheManager.getPermittedGroupIdsFromCache(USERNAME, PERMISSION,
+                MultitenantConstants.SUPER_TENANT_ID), "Permitted groups are not cleared from the cache");
+        Assert.assertNull(groupCacheManager.getPermittedGroupIdsFromCache(USERNAME + "2", PERMISSION,
+                MultitenantConstants.SUPER_TENANT_ID), "Permitted groups are not cleared from the cache");
+    }
+
+    @Test(description = "Clearing the permitted groups when the permissions of a role change",
+            dependsOnMethods = {"testClearPermittedGroupIds"})
+    public void testClearPermittedGroupIdsOnPermissionChange() throws Exception {
+        GroupCacheAuthorizationListener listener = new GroupCacheAuthorizationListener();
+        groupCacheManager.addPermittedGroupIdsToCache(USERNAME, PERMISSION, Arrays.asList(1, 2),
+                MultitenantConstants.SUPER_TENANT_ID, getGeneration());
+        Assert.assertTrue(listener.authorizeRole("role1", PERMISSION, "ui.execute", null));
+        Assert.assertNull(groupCacheManager.getPermittedGroupIdsFromCache(USERNAME, PERMISSION,
+                MultitenantConstants.SUPER_TENANT_ID), "Permitted groups are not cleared when a role is authorized");
+
+        groupCacheManager.addPermittedGroupIdsToCache(USERNAME, PERMISSION, Arrays.asList(1, 2),
+                MultitenantConstants.SUPER_TENANT_ID, getGeneration());
+        Assert.assertTrue(listener.denyRole("role1", PERMISSION, "ui.execute", null));
+        Assert.assertNull(groupCacheManager.getPermittedGroupIdsFromCache(USERNAME, PERMISSION,
+                MultitenantConstants.SUPER_TENANT_ID), "Permitted groups are not cleared when a role is denied");
+
+        groupCacheManager.addPermittedGroupIdsToCache(USERNAME, PERMISSION, Arrays.asList(1, 2),
+                MultitenantConstants.SUPER_TENANT_ID, getGeneration());
+        Assert.assertTrue(listener.clearRoleAuthorization("role1", PERMISSION, "ui.execute", null));
+        Assert.assertNull(groupCacheManager.getPermittedGroupIdsFromCache(USERNAME, PERMISSION,
+                MultitenantConstants.SUPER_TENANT_ID),
+                "Permitted groups are not cleared when the authorization of a role is cleared");
+        listener.shutdown();
+    }
+
+    @Test(description = "Groups loaded before the permitted groups were cleared are not cached",
+            dependsOnMethods = {"testClearPermittedGroupIdsOnPermissionChange"})
+    public void testLoadRacingClearIsNotCached() {
+        long generation = getGeneration();
+        groupCacheManager.clearPermittedGroupIds();
+        Assert.assertFalse(groupCacheManager.addPermittedGroupIdsToCache(USERNAME, PERMISSION, Arrays.asList(1, 2),
+                MultitenantConstants.SUPER_TENANT_ID, generation));
+        Assert.assertNull(groupCacheManager.getPermittedGroupIdsFromCache(USERNAME, PERMISSION,
+                MultitenantConstants.SUPER_TENANT_ID), "Permitted groups loaded before the clear are cached");
+
+        generation = getGeneration();
+        groupCacheManager.removeGroupRolesFromCache(GROUP_ID, MultitenantConstants.SUPER_TENANT_ID);
+        Assert.assertFalse(groupCacheManager.addGroupRolesToCache(GROUP_ID, Arrays.asList("role1"),
+                MultitenantConstants.SUPER_TENANT_ID, generation));
+        Assert.assertNull(groupCacheManager.getGroupRolesFromCache(GROUP_ID, MultitenantConstants.SUPER_TENANT_ID),
+                "Roles loaded before the removal are cached");
+    }
+
+    @Test(description = "Statistics of the group cache",
+            dependsOnMethods = {"testLoadRacingClearIsNotCached"})
+    public void testStatistics() {
+        GroupCacheStatistics statistics = groupCacheManager.getStatistics();
+        Assert.assertTrue(statistics.isEnabled());
+        Assert.assertEquals(statistics.getHitCount(), groupCacheManager.getHitCount());
+        Assert.assertEquals(statistics.getMissCount(), groupCacheManager.getMissCount());
+        Assert.assertEquals(statistics.getInvalidationCount(), groupCacheManager.getInvalidationCount());
+        Assert.assertTrue(statistics.getInvalidationCount() >= 4);
+    }
+
+    @Test(description = "Adding and removing the roles of a group")
+    public void testGroupRoles() {
+        List<String> roles = Arrays.asList("role1", "role2");
+        groupCacheManager.addGroupRolesToCache(GROUP_ID, roles, MultitenantConstants.SUPER_TENANT_ID, getGeneration());
+        List<String> cachedRoles = groupCacheManager.getGroupRolesFromCache(GROUP_ID,
+                MultitenantConstants.SUPER_TENANT_ID);
+        Assert.assertEquals(cachedRoles, roles, "Cached roles are not matching with the added roles");
+        cachedRoles.remove("role1");
+        Assert.assertEquals(groupCacheManager.getGroupRolesFromCache(GROUP_ID, MultitenantConstants.SUPER_TENANT_ID),
+                roles, "Modifying the returned roles should not modify the cache");
+
+        groupCacheManager.removeGroupRolesFromCache(GROUP_ID, MultitenantConstants.SUPER_TENANT_ID);
+        Assert.assertNull(groupCacheManager.getGroupRolesFromCache(GROUP_ID, MultitenantConstants.SUPER_TENANT_ID),
+                "Roles are not removed from the cache");
+    }
+
+    private long getGeneration() {
+        return groupCacheManager.getGeneration(MultitenantConstants.SUPER_TENANT_ID);
+    }
+}
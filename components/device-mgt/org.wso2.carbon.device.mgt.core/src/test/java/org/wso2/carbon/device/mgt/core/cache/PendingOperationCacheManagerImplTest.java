@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.device.mgt.core.cache;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.device.mgt.common.DeviceManagementException;
+import org.wso2.carbon.device.mgt.core.cache.impl.PendingOperationCacheManagerImpl;
+import org.wso2.carbon.device.mgt.core.common.BaseDeviceManagementTest;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.config.DeviceManagementConfig;
+import org.wso2.carbon.device.mgt.core.config.cache.PendingOperationCacheConfiguration;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+    Unit tests for PendingOperationCacheManagerImpl
+ */
+public class PendingOperationCacheManagerImplTest extends BaseDeviceManagementTest {
+    private static final int ENROLMENT_ID = 1;
+    private static final int NO_OF_POLLING_DEVICES = 100000;
+    private PendingOperationCacheManager pendingOperationCacheManager;
+    private PendingOperationCacheConfiguration previousConfiguration;
+
+    @BeforeClass
+    public void init() throws DeviceManagementException {
+        DeviceConfigurationManager.getInstance().initConfig();
+        PendingOperationCacheConfiguration configuration = new PendingOperationCacheConfiguration();
+        configuration.setEnabled(true);
+        configuration.setCapacity(NO_OF_POLLING_DEVICES * 2);
+        DeviceManagementConfig config = DeviceConfigurationManager.getInstance().getDeviceManagementConfig();
+        previousConfiguration = config.getPendingOperationCacheConfiguration();
+        config.setPendingOperationCacheConfiguration(configuration);
+        pendingOperationCacheManager = PendingOperationCacheManagerImpl.getInstance();
+        initializeCarbonContext();
+    }
+
+    @AfterClass
+    public void cleanup() {
+        DeviceConfigurationManager.getInstance().getDeviceManagementConfig()
+                .setPendingOperationCacheConfiguration(previousConfiguration);
+    }
+
+    private void initializeCarbonContext() {
+        if (System.getProperty("carbon.home") == null) {
+            File file = new File("src/test/resources");
+            if (file.exists()) {
+                System.setProperty("carbon.home", file.getAbsolutePath());
+            }
+        }
+        PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(
+                org.wso2.carbon.base.MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+        PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(
+                org.wso2.carbon.base.MultitenantConstants.SUPER_TENANT_ID);
+    }
+
+    @Test(description = "Adding pending operations of an enrolment to the cache")
+    public void testAddPendingOperationsToCache() {
+        List<Integer> operationIds = new ArrayList<>();
+        operationIds.add(1);
+        operationIds.add(2);
+        Assert.assertTrue(pendingOperationCacheManager.addPendingOperationsToCache(ENROLMENT_ID, operationIds,
+                MultitenantConstants.SUPER_TENANT_ID, pendingOperationCacheManager.getGeneration(ENROLMENT_ID,
+                        MultitenantConstants.SUPER_TENANT_ID)), "Pending operations are not added to the cache");
+        long hitCount = pendingOperationCacheManager.getHitCount();
+        Assert.assertEquals(pendingOperationCacheManager.getPendingOperationsFromCache(ENROLMENT_ID,
+                MultitenantConstants.SUPER_TENANT_ID), operationIds, "Cached pending operations are not matching " +
+                "with the added operations");
+        Assert.assertEquals(pendingOperationCacheManager.getHitCount(), hitCount + 1);
+    }
+
+    @Test(description = "Removing pending operations of an enrolment from the cache",
+            dependsOnMethods = {"testAddPendingOperationsToCache"})
+    public void testRemovePendingOperationsFromCache() {
+        pendingOperationCacheManager.removePendingOperationsFromCache(ENROLMENT_ID,
+                MultitenantConstants.SUPER_TENANT_ID);
+        long missCount = pendingOperationCacheManager.getMissCount();
+        Assert.assertNull(pendingOperationCacheManager.getPendingOperationsFromCache(ENROLMENT_ID,
+                MultitenantConstants.SUPER_TENANT_ID), "Pending operations are not removed from the cache");
+        Assert.assertEquals(pendingOperationCacheManager.getMissCount(), missCount + 1);
+    }
+
+    @Test(description = "Polling devices without pending operations",
+            dependsOnMethods = {"testRemovePendingOperationsFromCache"})
+    public void testPollingDevicesWithoutPendingOperations() {
+        long hitCount = pendingOperationCacheManager.getHitCount();
+        long missCount = pendingOperationCacheManager.getMissCount();
+        for (int i = 0; i < 2; i++) {
+            for (int enrolmentId = 1; enrolmentId <= NO_OF_POLLING_DEVICES; enrolmentId++) {
+                if (pendingOperationCacheManager.getPendingOperationsFromCache(enrolmentId,
+                        MultitenantConstants.SUPER_TENANT_ID) == null) {
+                    pendingOperationCacheManager.addPendingOperationsToCache(enrolmentId,
+                            Collections.<Integer>emptyList(), MultitenantConstants.SUPER_TENANT_ID,
+                            pendingOperationCacheManager.getGeneration(enrolmentId,
+                                    MultitenantConstants.SUPER_TENANT_ID));
+                }
+            }
+        }
+        long hits = pendingOperationCacheManager.getHitCount() - hitCount;
+        long misses = pendingOperationCacheManager.getMissCount() - missCount;
+        Assert.assertEquals(hits + misses, 2L * NO_OF_POLLING_DEVICES, "Every poll should be counted");
+        Assert.assertTrue(hits > 0, "Repeated polls of devices without pending operations should hit the cache");
+        pendingOperationCacheManager.removePendingOperationsFromCache(Collections.singletonList(ENROLMENT_ID),
+                MultitenantConstants.SUPER_TENANT_ID);
+        Assert.assertNull(pendingOperationCacheManager.getPendingOperationsFromCache(ENROLMENT_ID,
+                MultitenantConstants.SUPER_TENANT_ID), "Pending operations are not invalidated");
+    }
+
+    @Test(description = "A load which raced an invalidation is not added to the cache",
+            dependsOnMethods = {"testPollingDevicesWithoutPendingOperations"})
+    public void testLoadRacingInvalidationIsNotCached() {
+        long generation = pendingOperationCacheManager.getGeneration(ENROLMENT_ID,
+                MultitenantConstants.SUPER_TENANT_ID);
+        // An operation is added to the enrolment while its pending operations are being loaded
+        pendingOperationCacheManager.removePendingOperationsFromCache(ENROLMENT_ID,
+                MultitenantConstants.SUPER_TENANT_ID);
+        Assert.assertFalse(pendingOperationCacheManager.addPendingOperationsToCache(ENROLMENT_ID,
+                Collections.<Integer>emptyList(), MultitenantConstants.SUPER_TENANT_ID, generation),
+                "Load started before the invalidation is added to the cache");
+        Assert.assertNull(pendingOperationCacheManager.getPendingOperationsFromCache(ENROLMENT_ID,
+                MultitenantConstants.SUPER_TENANT_ID), "Stale pending operations are cached");
+        Assert.assertTrue(pendingOperationCacheManager.addPendingOperationsToCache(ENROLMENT_ID,
+                Collections.singletonList(1), MultitenantConstants.SUPER_TENANT_ID,
+                pendingOperationCacheManager.getGeneration(ENROLMENT_ID, MultitenantConstants.SUPER_TENANT_ID)),
+                "Load started after the invalidation is not added to the cache");
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.cache.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.common.Device;
+import org.wso2.carbon.device.mgt.common.EnrolmentInfo;
+import org.wso2.carbon.device.mgt.common.Feature;
+import org.wso2.carbon.device.mgt.common.app.mgt.Application;
+import org.wso2.carbon.device.mgt.common.device.details.DeviceInfo;
+import org.wso2.carbon.device.mgt.core.cache.DeviceCacheKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Unit tests for {@link DeviceNearCache}.
+ */
+public class DeviceNearCacheTest {
+
+    private static final String DEVICE_TYPE = "TEST_TYPE";
+    private static final int TENANT_ID = -1234;
+
+    @Test(description = "Checks that the least recently used entry is evicted when the cache is full")
+    public void testEviction() {
+        DeviceNearCache nearCache = new DeviceNearCache(2, 60);
+        nearCache.put(getKey("1"), createDevice("1"));
+        nearCache.put(getKey("2"), createDevice("2"));
+        Assert.assertNotNull(nearCache.get(getKey("1")));
+        nearCache.put(getKey("3"), createDevice("3"));
+
+        Assert.assertEquals(nearCache.size(), 2);
+        Assert.assertEquals(nearCache.getEvictionCount(), 1);
+        Assert.assertNull(nearCache.get(getKey("2")));
+        Assert.assertNotNull(nearCache.get(getKey("1")));
+        Assert.assertNotNull(nearCache.get(getKey("3")));
+    }
+
+    @Test(description = "Checks that cached devices are not affected by changes to stored or returned devices")
+    public void testCopyOnReadAndWrite() {
+        DeviceNearCache nearCache = new DeviceNearCache(10, 60);
+        Device device = createDevice("1");
+        nearCache.put(getKey("1"), device);
+        device.setName("changed");
+        device.getEnrolmentInfo().setStatus(EnrolmentInfo.Status.REMOVED);
+
+        Device cached = nearCache.get(getKey("1"));
+        Assert.assertEquals(cached.getName(), "device-1");
+        Assert.assertEquals(cached.getEnrolmentInfo().getStatus(), EnrolmentInfo.Status.ACTIVE);
+        cached.setName("changed");
+        Assert.assertEquals(nearCache.get(getKey("1")).getName(), "device-1");
+    }
+
+    @Test(description = "Checks that the features, properties, device info and applications of cached devices are " +
+            "not shared")
+    public void testDeepCopy() {
+        DeviceNearCache nearCache = new DeviceNearCache(10, 60);
+        Device device = createDevice("1");
+        Feature feature = new Feature();
+        feature.setCode("CAMERA");
+        device.setFeatures(new ArrayList<>(Collections.singletonList(feature)));
+        Device.Property property = new Device.Property();
+        property.setName("IMEI");
+        property.setValue("1");
+        device.setProperties(new ArrayList<>(Collections.singletonList(property)));
+        DeviceInfo deviceInfo = new DeviceInfo();
+        deviceInfo.setDeviceModel("model-1");
+        device.setDeviceInfo(deviceInfo);
+        Application application = new Application();
+        application.setName("app-1");
+        device.setApplications(new ArrayList<>(Collections.singletonList(application)));
+        nearCache.put(getKey("1"), device);
+
+        feature.setCode("changed");
+        property.setValue("changed");
+        deviceInfo.setDeviceModel("changed");
+        application.setName("changed");
+        device.getApplications().add(new Application());
+
+        Device cached = nearCache.get(getKey("1"));
+        Assert.assertEquals(cached.getFeatures().get(0).getCode(), "CAMERA");
+        Assert.assertEquals(cached.getProperties().get(0).getValue(), "1");
+        Assert.assertEquals(cached.getDeviceInfo().getDeviceModel(), "model-1");
+        Assert.assertEquals(cached.getApplications().size(), 1);
+        Assert.assertEquals(cached.getApplications().get(0).getName(), "app-1");
+
+        cached.getFeatures().get(0).setCode("changed");
+        cached.getProperties().get(0).setValue("changed");
+        cached.getDeviceInfo().setDeviceModel("changed");
+        cached.getApplications().get(0).setName("changed");
+        Device cachedAgain = nearCache.get(getKey("1"));
+        Assert.assertEquals(cachedAgain.getFeatures().get(0).getCode(), "CAMERA");
+        Assert.assertEquals(cachedAgain.getProperties().get(0).getValue(), "1");
+        Assert.assertEquals(cachedAgain.getDeviceInfo().getDeviceModel(), "model-1");
+        Assert.assertEquals(cachedAgain.getApplications().get(0).getName(), "app-1");
+    }
+
+    @Test(description = "Checks that removed entries are not returned, and that nothing is cached without an expiry")
+    public void testRemove() {
+        DeviceNearCache nearCache = new DeviceNearCache(10, 60);
+        nearCache.put(getKey("1"), createDevice("1"));
+        nearCache.remove(getKey("1"));
+        Assert.assertNull(nearCache.get(getKey("1")));
+
+        DeviceNearCache disabled = new DeviceNearCache(10, 0);
+        disabled.put(getKey("1"), createDevice("1"));
+        Assert.assertNull(disabled.get(getKey("1")));
+    }
+
+    private static DeviceCacheKey getKey(String deviceId) {
+        return new DeviceCacheKey(deviceId, DEVICE_TYPE, TENANT_ID);
+    }
+
+    private static Device createDevice(String deviceId) {
+        Device device = new Device();
+        device.setDeviceIdentifier(deviceId);
+        device.setType(DEVICE_TYPE);
+        device.setName("device-" + deviceId);
+        device.setEnrolmentInfo(new EnrolmentInfo("admin", EnrolmentInfo.OwnerShip.BYOD,
+                EnrolmentInfo.Status.ACTIVE));
+        return device;
+    }
+}
@@ -25,6 +25,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import org.wso2.carbon.device.mgt.common.Device;
 import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
+import org.wso2.carbon.device.mgt.common.EnrolmentInfo;
 import org.wso2.carbon.device.mgt.common.EnrolmentInfo.Status;
 import org.wso2.carbon.device.mgt.common.TransactionManagementException;
 import org.wso2.carbon.device.mgt.core.TestUtils;
@@ -33,6 +34,11 @@ import org.wso2.carbon.device.mgt.core.common.TestDataHolder;
 import org.wso2.carbon.device.mgt.core.dto.DeviceType;
 
 import java.sql.*;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class DevicePersistTests extends BaseDeviceManagementTest {
 
@@ -209,6 +215,51 @@ public class DevicePersistTests extends BaseDeviceManagementTest {
         }
     }
 
+    @Test(dependsOnMethods = "testAddDeviceTest")
+    public void testGetDevicesOfIdentifiers() throws DeviceManagementDAOException, TransactionManagementException,
+            SQLException {
+        int tenantId = TestDataHolder.SUPER_TENANT_ID;
+        Device device = TestDataHolder.generateDummyDeviceData("bulk-lookup-device", TestDataHolder.TEST_DEVICE_TYPE,
+                TestDataHolder.generateEnrollmentInfo(new Date().getTime(), new Date().getTime(),
+                        TestDataHolder.OWNER, EnrolmentInfo.OwnerShip.BYOD, Status.CREATED));
+        int latestEnrolmentId;
+        try {
+            DeviceManagementDAOFactory.beginTransaction();
+            device.setId(deviceDAO.addDevice(TestDataHolder.initialTestDeviceType.getId(), device, tenantId));
+            deviceDAO.addEnrollment(device, tenantId);
+            // A later enrolment of the same device, which has to be the one returned
+            device.setEnrolmentInfo(TestDataHolder.generateEnrollmentInfo(new Date().getTime(),
+                    new Date().getTime() + 60000, TestDataHolder.OWNER, EnrolmentInfo.OwnerShip.BYOD, Status.ACTIVE));
+            latestEnrolmentId = deviceDAO.addEnrollment(device, tenantId);
+            DeviceManagementDAOFactory.commitTransaction();
+        } catch (DeviceManagementDAOException e) {
+            DeviceManagementDAOFactory.rollbackTransaction();
+            throw e;
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+
+        List<Device> devices;
+        try {
+            DeviceManagementDAOFactory.openConnection();
+            devices = deviceDAO.getDevices(TestDataHolder.TEST_DEVICE_TYPE, Arrays.asList(
+                    TestDataHolder.initialTestDevice.getDeviceIdentifier(), device.getDeviceIdentifier(),
+                    "unknown-device"), tenantId);
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+        if (!isMock()) {
+            Assert.assertEquals(devices.size(), 2, "Unknown identifiers must not resolve to a device");
+            Map<String, Device> devicesByIdentifier = new HashMap<>();
+            for (Device resolvedDevice : devices) {
+                devicesByIdentifier.put(resolvedDevice.getDeviceIdentifier(), resolvedDevice);
+            }
+            Assert.assertTrue(devicesByIdentifier.containsKey(TestDataHolder.initialTestDevice.getDeviceIdentifier()));
+            Assert.assertEquals(devicesByIdentifier.get(device.getDeviceIdentifier()).getEnrolmentInfo().getId(),
+                    latestEnrolmentId, "The latest enrolment of the device is not returned");
+        }
+    }
+
     private Status getEnrolmentStatus(String identifier, String deviceType, int tenantId)
             throws DeviceManagementDAOException {
 
@@ -33,6 +33,7 @@ import org.wso2.carbon.device.mgt.core.common.TestDataHolder;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class GroupPersistTests extends BaseDeviceManagementTest {
@@ -260,7 +261,39 @@ public class GroupPersistTests extends BaseDeviceManagementTest {
         }
     }
 
-    @Test(dependsOnMethods = {"removeDeviceFromGroupTest", "unshareGroupTest"})
+    @Test(dependsOnMethods = {"removeDeviceFromGroupTest"})
+    public void addAndRemoveDevicesInBulkTest() {
+        Device initialTestDevice = TestDataHolder.initialTestDevice;
+        List<Integer> deviceIds = Collections.singletonList(initialTestDevice.getId());
+        try {
+            GroupManagementDAOFactory.beginTransaction();
+            Assert.assertTrue(groupDAO.getDeviceIdsMappedToGroup(groupId, deviceIds, TestDataHolder.SUPER_TENANT_ID)
+                    .isEmpty(), "Device is mapped to the group before adding");
+            groupDAO.addDevices(groupId, deviceIds, TestDataHolder.SUPER_TENANT_ID);
+            if (!isMock()) {
+                Assert.assertEquals(groupDAO.getDeviceIdsMappedToGroup(groupId, deviceIds,
+                        TestDataHolder.SUPER_TENANT_ID), deviceIds, "Device is not mapped to the group");
+            }
+            groupDAO.removeDevices(groupId, deviceIds, TestDataHolder.SUPER_TENANT_ID);
+            Assert.assertTrue(groupDAO.getDeviceIdsMappedToGroup(groupId, deviceIds, TestDataHolder.SUPER_TENANT_ID)
+                    .isEmpty(), "Device is not removed from the group");
+            GroupManagementDAOFactory.commitTransaction();
+            GroupManagementDAOFactory.closeConnection();
+        } catch (GroupManagementDAOException e) {
+            GroupManagementDAOFactory.rollbackTransaction();
+            GroupManagementDAOFactory.closeConnection();
+            String msg = "Error occurred while adding devices to the group in bulk.";
+            log.error(msg, e);
+            Assert.fail(msg, e);
+        } catch (TransactionManagementException e) {
+            GroupManagementDAOFactory.closeConnection();
+            String msg = "Error occurred while initiating transaction.";
+            log.error(msg, e);
+            Assert.fail(msg, e);
+        }
+    }
+
+    @Test(dependsOnMethods = {"removeDeviceFromGroupTest", "unshareGroupTest", "addAndRemoveDevicesInBulkTest"})
     public void updateGroupTest() {
         String name = "Test Updated";
         String desc = "Desc updated";
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.dao.util;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.core.dto.operation.mgt.PolicyOperation;
+import org.wso2.carbon.device.mgt.core.dto.operation.mgt.ProfileOperation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Unit tests for {@link PayloadSerializer}.
+ */
+public class PayloadSerializerTest {
+
+    private static final int NO_OF_PROFILE_FEATURES = 20;
+
+    @AfterMethod
+    public void resetWriteCodec() {
+        PayloadSerializer.setWriteCodec(null);
+    }
+
+    @Test(description = "Values are written as plain serialized Java objects unless a codec is set")
+    public void testDefaultFormat() throws IOException, ClassNotFoundException {
+        Properties properties = new Properties();
+        properties.setProperty("packageName", "org.wso2.iot.agent");
+        byte[] data = PayloadSerializer.serialize(properties);
+        Assert.assertEquals(data, serializeLegacy(properties), "Default format is not readable by older nodes");
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            Assert.assertEquals(ois.readObject(), properties);
+        }
+    }
+
+    @Test(description = "Serializing and de-serializing a policy operation as JSON")
+    public void testJsonRoundTrip() throws IOException, ClassNotFoundException {
+        PayloadSerializer.setWriteCodec(new JsonPayloadCodec());
+        PolicyOperation policyOperation = createPolicyOperation();
+        byte[] data = PayloadSerializer.serialize(policyOperation);
+        Assert.assertEquals(data[3], JsonPayloadCodec.ID);
+        PolicyOperation decoded = (PolicyOperation) PayloadSerializer.deserialize(data);
+        Assert.assertEquals(decoded.getCode(), policyOperation.getCode());
+        Assert.assertEquals(decoded.getProfileOperations().size(), NO_OF_PROFILE_FEATURES);
+        Assert.assertEquals(decoded.getProfileOperations().get(0).getPayLoad(),
+                policyOperation.getProfileOperations().get(0).getPayLoad());
+    }
+
+    @Test(description = "Serializing and de-serializing application properties and operation responses as JSON")
+    public void testJsonRoundTripOfPropertiesAndText() throws IOException, ClassNotFoundException {
+        PayloadSerializer.setWriteCodec(new JsonPayloadCodec());
+        Properties properties = new Properties();
+        properties.setProperty("packageName", "org.wso2.iot.agent");
+        Assert.assertEquals(PayloadSerializer.deserialize(PayloadSerializer.serialize(properties)), properties);
+        String response = createOperationResponse();
+        Assert.assertEquals(PayloadSerializer.deserialize(PayloadSerializer.serialize(response)), response);
+        Assert.assertEquals(PayloadSerializer.deserialize(PayloadSerializer.serialize("")), "");
+        Assert.assertNull(PayloadSerializer.deserialize(PayloadSerializer.serialize(null)));
+    }
+
+    @Test(description = "Only payloads larger than the threshold are compressed")
+    public void testCompressionThreshold() throws IOException, ClassNotFoundException {
+        PayloadSerializer.setWriteCodec(new JsonPayloadCodec());
+        byte[] small = PayloadSerializer.serialize("ok");
+        Assert.assertEquals(small[4], 0, "Small payload is compressed");
+        Assert.assertEquals(PayloadSerializer.deserialize(small), "ok");
+        byte[] large = PayloadSerializer.serialize(createOperationResponse());
+        Assert.assertEquals(large[4], 1, "Large payload is not compressed");
+        Assert.assertEquals(PayloadSerializer.deserialize(large), createOperationResponse());
+    }
+
+    @Test(description = "Reading values written with plain Java serialization once the JSON codec is used")
+    public void testLegacyFormat() throws IOException, ClassNotFoundException {
+        PayloadSerializer.setWriteCodec(new JsonPayloadCodec());
+        Properties properties = new Properties();
+        properties.setProperty("packageName", "org.wso2.iot.agent");
+        Assert.assertEquals(PayloadSerializer.deserialize(serializeLegacy(properties)), properties);
+        String response = createOperationResponse();
+        Assert.assertEquals(PayloadSerializer.deserialize(serializeLegacy(response)), response);
+    }
+
+    @Test(description = "Comparing the size of JSON payloads with plain Java serialization")
+    public void testSerializedSize() throws IOException {
+        PayloadSerializer.setWriteCodec(new JsonPayloadCodec());
+        PolicyOperation policyOperation = createPolicyOperation();
+        int legacySize = serializeLegacy(policyOperation).length;
+        int size = PayloadSerializer.serialize(policyOperation).length;
+        Assert.assertTrue(size < legacySize, "Serialized policy operation of " + size + " bytes is not smaller " +
+                "than the " + legacySize + " bytes written with plain Java serialization");
+        String response = createOperationResponse();
+        legacySize = serializeLegacy(response).length;
+        size = PayloadSerializer.serialize(response).length;
+        Assert.assertTrue(size < legacySize, "Serialized operation response of " + size + " bytes is not smaller " +
+                "than the " + legacySize + " bytes written with plain Java serialization");
+    }
+
+    @Test(description = "Values the JSON codec does not support are written as tagged serialized Java objects")
+    public void testUnsupportedJsonPayload() throws IOException, ClassNotFoundException {
+        PayloadSerializer.setWriteCodec(new JsonPayloadCodec());
+        ProfileOperation profileOperation = new ProfileOperation();
+        profileOperation.setCode("PASSCODE_POLICY");
+        profileOperation.setPayLoad(6);
+        byte[] data = PayloadSerializer.serialize(profileOperation);
+        Assert.assertEquals(data[3], JavaSerializationPayloadCodec.ID);
+        ProfileOperation decoded = (ProfileOperation) PayloadSerializer.deserialize(data);
+        Assert.assertEquals(decoded.getPayLoad(), 6);
+    }
+
+    @Test(description = "Reading a value of an unknown codec", expectedExceptions = IOException.class)
+    public void testUnknownCodec() throws IOException, ClassNotFoundException {
+        PayloadSerializer.setWriteCodec(new JsonPayloadCodec());
+        byte[] data = PayloadSerializer.serialize("payload");
+        data[3] = Byte.MAX_VALUE;
+        PayloadSerializer.deserialize(data);
+    }
+
+    private PolicyOperation createPolicyOperation() {
+        PolicyOperation policyOperation = new PolicyOperation();
+        policyOperation.setCode("POLICY_BUNDLE");
+        List<ProfileOperation> profileOperations = new ArrayList<>();
+        for (int i = 0; i < NO_OF_PROFILE_FEATURES; i++) {
+            ProfileOperation profileOperation = new ProfileOperation();
+            profileOperation.setCode("FEATURE_" + i);
+            profileOperation.setPayLoad("{\"enabled\":true,\"passcodePolicyMinLength\":\"" + i + "\"," +
+                    "\"passcodePolicyAllowSimple\":false,\"passcodePolicyRequireAlphanumeric\":true}");
+            profileOperations.add(profileOperation);
+        }
+        policyOperation.setProfileOperations(profileOperations);
+        return policyOperation;
+    }
+
+    private String createOperationResponse() {
+        StringBuilder response = new StringBuilder("[");
+        for (int i = 0; i < NO_OF_PROFILE_FEATURES; i++) {
+            if (i > 0) {
+                response.append(",");
+            }
+            response.append("{\"name\":\"org.wso2.iot.app").append(i).append("\",\"version\":\"1.0.").append(i)
+                    .append("\",\"isActive\":true,\"type\":\"public\",\"platform\":\"android\"}");
+        }
+        return response.append("]").toString();
+    }
+
+    private byte[] serializeLegacy(Object payload) throws IOException {
+        ByteArrayOutputStream bao = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bao)) {
+            oos.writeObject(payload);
+        }
+        return bao.toByteArray();
+    }
+}
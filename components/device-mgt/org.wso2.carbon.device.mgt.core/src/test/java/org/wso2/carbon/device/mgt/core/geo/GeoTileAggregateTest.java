@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.geo;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.common.Device;
+import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
+import org.wso2.carbon.device.mgt.common.device.details.DeviceLocation;
+import org.wso2.carbon.device.mgt.core.TestDeviceManagementService;
+import org.wso2.carbon.device.mgt.core.common.BaseDeviceManagementTest;
+import org.wso2.carbon.device.mgt.core.common.TestDataHolder;
+import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOFactory;
+import org.wso2.carbon.device.mgt.core.device.details.mgt.dao.DeviceDetailsDAO;
+import org.wso2.carbon.device.mgt.core.geo.geoHash.GeoCoordinate;
+import org.wso2.carbon.device.mgt.core.geo.geoHash.GeoHashGenerator;
+import org.wso2.carbon.device.mgt.core.internal.DeviceManagementDataHolder;
+import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderService;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Verifies that the geo clusters, read from the geo tiles up to the tile geohash length and from the device locations
+ * beyond it, match the clusters aggregated from the locations of the devices, after locations are added, moved and
+ * removed.
+ */
+public class GeoTileAggregateTest extends BaseDeviceManagementTest {
+
+    private static final String DEVICE_TYPE = "GEO_TILE_TEST_TYPE";
+    private static final int DEVICE_COUNT = 50;
+    private static final double DELTA = 1e-9;
+    // The devices are placed in an area which no other test uses
+    private static final GeoCoordinate SOUTH_WEST = new GeoCoordinate(-60, -60);
+    private static final GeoCoordinate NORTH_EAST = new GeoCoordinate(-5, -5);
+
+    private final Random random = new Random(42);
+    private DeviceDetailsDAO deviceDetailsDAO;
+    private List<Device> devices;
+    private final Map<Integer, DeviceLocation> locations = new HashMap<>();
+
+    @BeforeClass
+    public void init() throws Exception {
+        DeviceManagementProviderService deviceMgtService = DeviceManagementDataHolder.getInstance()
+                .getDeviceManagementProvider();
+        deviceMgtService.registerDeviceType(new TestDeviceManagementService(DEVICE_TYPE,
+                MultitenantConstants.SUPER_TENANT_DOMAIN_NAME));
+        if (isMock()) {
+            return;
+        }
+        deviceDetailsDAO = DeviceManagementDAOFactory.getDeviceDetailsDAO();
+        for (int i = 0; i < DEVICE_COUNT; i++) {
+            deviceMgtService.enrollDevice(TestDataHolder.generateDummyDeviceData(
+                    new DeviceIdentifier("geo-tile-" + i, DEVICE_TYPE)));
+        }
+        devices = deviceMgtService.getAllDevices(DEVICE_TYPE, false);
+    }
+
+    @Test(description = "Checks the clusters after adding the locations of the devices")
+    public void testAddLocations() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        for (Device device : devices) {
+            // Devices share a few areas, hence the clusters of the shorter prefixes hold several devices
+            double latitude = -10 - random.nextInt(3) * 15 - random.nextDouble();
+            double longitude = -10 - random.nextInt(3) * 15 - random.nextDouble();
+            updateLocation(device, latitude, longitude);
+        }
+        assertClusters(SOUTH_WEST, NORTH_EAST);
+    }
+
+    @Test(description = "Checks the clusters after moving and removing device locations",
+            dependsOnMethods = "testAddLocations")
+    public void testMoveAndRemoveLocations() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        // A few devices share a tile, and moving the device at its corner must shrink the bounding box of the tile
+        GeoCoordinate tileCenter = GeoHashGenerator.decodeGeohash(GeoHashGenerator.encodeGeohash(-50.2, -50.2)
+                .substring(0, GeoHashGenerator.TILE_GEOHASH_LENGTH));
+        for (int i = 0; i < 5; i++) {
+            updateLocation(devices.get(i), tileCenter.getLatitude() + (i - 2) * 1e-4,
+                    tileCenter.getLongitude() + (i - 2) * 1e-4);
+        }
+        updateLocation(devices.get(4), tileCenter.getLatitude(), tileCenter.getLongitude());
+        for (int i = 5; i < DEVICE_COUNT / 2; i++) {
+            updateLocation(devices.get(i), -45 - random.nextDouble() * 10, -45 - random.nextDouble() * 10);
+        }
+        DeviceManagementDAOFactory.beginTransaction();
+        try {
+            for (int i = DEVICE_COUNT / 2; i < DEVICE_COUNT / 2 + 5; i++) {
+                Device device = devices.get(i);
+                deviceDetailsDAO.removeLocationFromGeoTiles(device.getId(), device.getEnrolmentInfo().getId(),
+                        TestDataHolder.SUPER_TENANT_ID);
+                deviceDetailsDAO.deleteDeviceLocation(device.getId(), device.getEnrolmentInfo().getId());
+                locations.remove(device.getId());
+            }
+            DeviceManagementDAOFactory.commitTransaction();
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+        assertClusters(SOUTH_WEST, NORTH_EAST);
+    }
+
+    @Test(description = "Checks that only the clusters within the map boundaries are read",
+            dependsOnMethods = "testMoveAndRemoveLocations")
+    public void testMapBoundaries() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        assertClusters(new GeoCoordinate(-56, -56), new GeoCoordinate(-44, -44));
+    }
+
+    private void updateLocation(Device device, double latitude, double longitude) throws Exception {
+        DeviceLocation location = new DeviceLocation();
+        location.setDeviceId(device.getId());
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        int enrolmentId = device.getEnrolmentInfo().getId();
+        DeviceManagementDAOFactory.beginTransaction();
+        try {
+            deviceDetailsDAO.removeLocationFromGeoTiles(device.getId(), enrolmentId, TestDataHolder.SUPER_TENANT_ID);
+            deviceDetailsDAO.deleteDeviceLocation(device.getId(), enrolmentId);
+            deviceDetailsDAO.addDeviceLocation(location, enrolmentId);
+            deviceDetailsDAO.addLocationToGeoTiles(location, TestDataHolder.SUPER_TENANT_ID);
+            DeviceManagementDAOFactory.commitTransaction();
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+        locations.put(device.getId(), location);
+    }
+
+    private void assertClusters(GeoCoordinate southWest, GeoCoordinate northEast) throws Exception {
+        Map<Integer, String> deviceIdentifiers = new HashMap<>();
+        for (Device device : devices) {
+            deviceIdentifiers.put(device.getId(), device.getDeviceIdentifier());
+        }
+        for (int length = 1; length <= GeoHashGenerator.GEOHASH_LENGTH; length++) {
+            Map<String, List<DeviceLocation>> expectedClusters = new HashMap<>();
+            for (DeviceLocation location : locations.values()) {
+                if (location.getLatitude() < southWest.getLatitude() ||
+                        location.getLatitude() > northEast.getLatitude() ||
+                        location.getLongitude() < southWest.getLongitude() ||
+                        location.getLongitude() > northEast.getLongitude()) {
+                    continue;
+                }
+                String prefix = GeoHashGenerator.encodeGeohash(location).substring(0, length);
+                List<DeviceLocation> clusterLocations = expectedClusters.get(prefix);
+                if (clusterLocations == null) {
+                    clusterLocations = new ArrayList<>();
+                    expectedClusters.put(prefix, clusterLocations);
+                }
+                clusterLocations.add(location);
+            }
+
+            List<GeoCluster> clusters;
+            DeviceManagementDAOFactory.openConnection();
+            try {
+                clusters = DeviceManagementDAOFactory.getDeviceDAO().findGeoClusters(southWest, northEast, length,
+                        TestDataHolder.SUPER_TENANT_ID);
+            } finally {
+                DeviceManagementDAOFactory.closeConnection();
+            }
+            Set<String> actualPrefixes = new HashSet<>();
+            for (GeoCluster cluster : clusters) {
+                String message = "Cluster " + cluster.getGeohashPrefix() + " of prefix length " + length;
+                List<DeviceLocation> clusterLocations = expectedClusters.get(cluster.getGeohashPrefix());
+                Assert.assertNotNull(clusterLocations, message + " is not expected.");
+                actualPrefixes.add(cluster.getGeohashPrefix());
+                Assert.assertEquals(cluster.getCount(), clusterLocations.size(), message + " differs.");
+                double minLatitude = Double.MAX_VALUE;
+                double maxLatitude = -Double.MAX_VALUE;
+                double minLongitude = Double.MAX_VALUE;
+                double maxLongitude = -Double.MAX_VALUE;
+                double sumLatitude = 0;
+                double sumLongitude = 0;
+                for (DeviceLocation location : clusterLocations) {
+                    minLatitude = Math.min(minLatitude, location.getLatitude());
+                    maxLatitude = Math.max(maxLatitude, location.getLatitude());
+                    minLongitude = Math.min(minLongitude, location.getLongitude());
+                    maxLongitude = Math.max(maxLongitude, location.getLongitude());
+                    sumLatitude += location.getLatitude();
+                    sumLongitude += location.getLongitude();
+                }
+                Assert.assertEquals(cluster.getSouthWestBound().getLatitude(), minLatitude, DELTA, message);
+                Assert.assertEquals(cluster.getNorthEastBound().getLatitude(), maxLatitude, DELTA, message);
+                Assert.assertEquals(cluster.getSouthWestBound().getLongitude(), minLongitude, DELTA, message);
+                Assert.assertEquals(cluster.getNorthEastBound().getLongitude(), maxLongitude, DELTA, message);
+                Assert.assertEquals(cluster.getCoordinates().getLatitude(), sumLatitude / clusterLocations.size(),
+                        DELTA, message);
+                Assert.assertEquals(cluster.getCoordinates().getLongitude(), sumLongitude / clusterLocations.size(),
+                        DELTA, message);
+                if (cluster.getCount() == 1) {
+                    Assert.assertEquals(cluster.getDeviceIdentification(),
+                            deviceIdentifiers.get(clusterLocations.get(0).getDeviceId()), message);
+                }
+            }
+            Assert.assertEquals(actualPrefixes, expectedClusters.keySet(), "Clusters of prefix length " + length +
+                    " differ.");
+        }
+    }
+}
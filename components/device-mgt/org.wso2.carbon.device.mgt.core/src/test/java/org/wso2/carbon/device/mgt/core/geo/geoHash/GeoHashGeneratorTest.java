@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.geo.geoHash;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * Verifies the geohash encoders against the bit by bit encoder which was used before, and logs the time taken by
+ * each of them.
+ */
+public class GeoHashGeneratorTest {
+
+    private static final Log log = LogFactory.getLog(GeoHashGeneratorTest.class);
+    private static final String BASE_32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final int LOCATION_COUNT = 100000;
+
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @BeforeClass
+    public void init() {
+        double[][] edgeCases = {{-90, -180}, {90, 180}, {0, 0}, {-0.0, -0.0}, {1e-20, -1e-20}, {-1e-20, 1e-20},
+                {45, 90}, {-45, -90}, {6.9271, 79.8612}, {89.999999, 179.999999}};
+        latitudes = new double[LOCATION_COUNT];
+        longitudes = new double[LOCATION_COUNT];
+        Random random = new Random(42);
+        for (int i = 0; i < LOCATION_COUNT; i++) {
+            if (i < edgeCases.length) {
+                latitudes[i] = edgeCases[i][0];
+                longitudes[i] = edgeCases[i][1];
+            } else {
+                latitudes[i] = random.nextDouble() * 180 - 90;
+                longitudes[i] = random.nextDouble() * 360 - 180;
+            }
+        }
+    }
+
+    @Test(description = "Checks that the geohash strings match the ones of the bit by bit encoder")
+    public void testEncodeGeohash() {
+        for (int i = 0; i < LOCATION_COUNT; i++) {
+            Assert.assertEquals(GeoHashGenerator.encodeGeohash(latitudes[i], longitudes[i]),
+                    encodeBitByBit(latitudes[i], longitudes[i]), "Geohash of " + latitudes[i] + ", " +
+                            longitudes[i] + " differs.");
+        }
+    }
+
+    @Test(description = "Checks that the geohash bits are converted to prefixes of the geohash string")
+    public void testEncodeGeohashBits() {
+        for (int i = 0; i < LOCATION_COUNT; i++) {
+            String geohash = GeoHashGenerator.encodeGeohash(latitudes[i], longitudes[i]);
+            for (int length = 1; length <= GeoHashGenerator.MAX_LONG_GEOHASH_LENGTH; length++) {
+                long bits = GeoHashGenerator.encodeGeohashBits(latitudes[i], longitudes[i], length);
+                Assert.assertEquals(GeoHashGenerator.toGeohash(bits, length), geohash.substring(0, length));
+            }
+        }
+    }
+
+    @Test(description = "Checks the geohash lengths accepted by the bit encoder",
+            expectedExceptions = IllegalArgumentException.class)
+    public void testEncodeGeohashBitsWithInvalidLength() {
+        GeoHashGenerator.encodeGeohashBits(0, 0, GeoHashGenerator.MAX_LONG_GEOHASH_LENGTH + 1);
+    }
+
+    @Test(description = "Logs the encoding time of the encoders for comparison",
+            dependsOnMethods = {"testEncodeGeohash", "testEncodeGeohashBits"})
+    public void testEncodingTime() {
+        // Warms up the encoders, hence the compiled code is measured
+        long checksum = encodeAll(true) + encodeAll(false) + encodeAllBits();
+
+        long start = System.nanoTime();
+        checksum += encodeAll(true);
+        long bitByBitTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        checksum += encodeAll(false);
+        long stringTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        checksum += encodeAllBits();
+        long bitsTime = System.nanoTime() - start;
+
+        log.info("Encoded " + LOCATION_COUNT + " locations. Bit by bit: " + bitByBitTime / 1000000 +
+                " ms, string: " + stringTime / 1000000 + " ms, " + GeoHashGenerator.MAX_LONG_GEOHASH_LENGTH +
+                " character bits: " + bitsTime / 1000000 + " ms (checksum " + checksum + ").");
+    }
+
+    private long encodeAll(boolean bitByBit) {
+        long checksum = 0;
+        for (int i = 0; i < LOCATION_COUNT; i++) {
+            String geohash = bitByBit ? encodeBitByBit(latitudes[i], longitudes[i]) :
+                    GeoHashGenerator.encodeGeohash(latitudes[i], longitudes[i]);
+            checksum += geohash.charAt(geohash.length() - 1);
+        }
+        return checksum;
+    }
+
+    private long encodeAllBits() {
+        long checksum = 0;
+        for (int i = 0; i < LOCATION_COUNT; i++) {
+            checksum += GeoHashGenerator.encodeGeohashBits(latitudes[i], longitudes[i],
+                    GeoHashGenerator.MAX_LONG_GEOHASH_LENGTH) & 0x1f;
+        }
+        return checksum;
+    }
+
+    /**
+     * The encoder used by {@link GeoHashGenerator} before, kept as the reference.
+     */
+    private static String encodeBitByBit(double latitude, double longitude) {
+        double[] latRange = new double[]{-90.0, 90.0};
+        double[] lonRange = new double[]{-180.0, 180.0};
+        boolean isEven = true;
+        int bit = 0;
+        int base32CharIndex = 0;
+        StringBuilder geohash = new StringBuilder();
+
+        while (geohash.length() < GeoHashGenerator.GEOHASH_LENGTH) {
+            if (isEven) {
+                base32CharIndex = (base32CharIndex << 1) | divideRangeByValue(longitude, lonRange);
+            } else {
+                base32CharIndex = (base32CharIndex << 1) | divideRangeByValue(latitude, latRange);
+            }
+            isEven = !isEven;
+            if (bit < 4) {
+                bit++;
+            } else {
+                geohash.append(BASE_32.charAt(base32CharIndex));
+                bit = 0;
+                base32CharIndex = 0;
+            }
+        }
+        return geohash.toString();
+    }
+
+    private static int divideRangeByValue(double value, double[] range) {
+        double mid = (range[0] + range[1]) / 2;
+        if (value >= mid) {
+            range[0] = mid;
+            return 1;
+        } else {
+            range[1] = mid;
+            return 0;
+        }
+    }
+}
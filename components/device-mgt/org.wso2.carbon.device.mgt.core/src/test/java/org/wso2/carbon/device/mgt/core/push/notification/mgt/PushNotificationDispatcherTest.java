@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * you may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.device.mgt.core.push.notification.mgt;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
+import org.wso2.carbon.device.mgt.common.TransactionManagementException;
+import org.wso2.carbon.device.mgt.common.operation.mgt.Operation;
+import org.wso2.carbon.device.mgt.common.push.notification.NotificationContext;
+import org.wso2.carbon.device.mgt.common.push.notification.NotificationStrategy;
+import org.wso2.carbon.device.mgt.common.push.notification.PushNotificationConfig;
+import org.wso2.carbon.device.mgt.common.push.notification.PushNotificationExecutionFailedException;
+import org.wso2.carbon.device.mgt.core.DeviceManagementConstants;
+import org.wso2.carbon.device.mgt.core.common.BaseDeviceManagementTest;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.config.push.notification.NotificationDispatcherConfiguration;
+import org.wso2.carbon.device.mgt.core.dto.operation.mgt.CommandOperation;
+import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationManagementDAOException;
+import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationManagementDAOFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class contains unit tests to test {@link PushNotificationDispatcher} class.
+ */
+public class PushNotificationDispatcherTest extends BaseDeviceManagementTest {
+
+    private static final String DEVICE_TYPE = "DISPATCHER_TEST_TYPE";
+    private static final long WAIT_TIMEOUT = 10000;
+
+    @BeforeClass
+    @Override
+    public void init() throws Exception {
+        DeviceConfigurationManager.getInstance().initConfig();
+    }
+
+    @Test(description = "Tests that a queued notification is sent by the worker of the device type")
+    public void testDispatch() throws Exception {
+        PushNotificationDispatcher dispatcher = new PushNotificationDispatcher(getConfiguration(10, 3, 10));
+        FailingNotificationStrategy strategy = new FailingNotificationStrategy(0);
+        try {
+            Assert.assertTrue(dispatcher.dispatch(strategy, getContext(1), 1));
+            waitUntilDispatched(dispatcher, 1);
+            PushNotificationDispatcherStatistics statistics = dispatcher.getStatistics();
+            Assert.assertEquals(strategy.getAttempts(), 1);
+            Assert.assertEquals(statistics.getRetriedCount(), 0);
+            Assert.assertEquals(statistics.getFailedCount(), 0);
+            Assert.assertEquals(statistics.getQueueDepths().get(DEVICE_TYPE), Integer.valueOf(0));
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test(description = "Tests that a failed notification is retried until it is sent")
+    public void testRetry() throws Exception {
+        PushNotificationDispatcher dispatcher = new PushNotificationDispatcher(getConfiguration(10, 3, 10));
+        FailingNotificationStrategy strategy = new FailingNotificationStrategy(2);
+        try {
+            Assert.assertTrue(dispatcher.dispatch(strategy, getContext(1), 1));
+            waitUntilDispatched(dispatcher, 1);
+            PushNotificationDispatcherStatistics statistics = dispatcher.getStatistics();
+            Assert.assertEquals(strategy.getAttempts(), 3);
+            Assert.assertEquals(statistics.getRetriedCount(), 2);
+            Assert.assertEquals(statistics.getFailedCount(), 0);
+            Assert.assertEquals(statistics.getPendingRetryCount(), 0);
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test(description = "Tests that the default number of retries is used when MaxRetries is not configured")
+    public void testDefaultMaxRetries() throws Exception {
+        PushNotificationDispatcher dispatcher = new PushNotificationDispatcher(getConfiguration(10, null, 1));
+        FailingNotificationStrategy strategy = new FailingNotificationStrategy(Integer.MAX_VALUE);
+        try {
+            Assert.assertTrue(dispatcher.dispatch(strategy, getContext(1), 1));
+            long deadline = System.currentTimeMillis() + WAIT_TIMEOUT;
+            while (dispatcher.getFailedCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(dispatcher.getFailedCount(), 1);
+            Assert.assertEquals(dispatcher.getRetriedCount(),
+                    DeviceManagementConstants.PushNotifications.DEFAULT_DISPATCHER_MAX_RETRIES);
+            Assert.assertEquals(strategy.getAttempts(),
+                    DeviceManagementConstants.PushNotifications.DEFAULT_DISPATCHER_MAX_RETRIES + 1);
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test(description = "Tests that notifications are rejected once the queue of the device type is full")
+    public void testRejectWhenQueueIsFull() throws Exception {
+        NotificationDispatcherConfiguration config = getConfiguration(1, 0, 10);
+        config.setThreadCount(1);
+        PushNotificationDispatcher dispatcher = new PushNotificationDispatcher(config);
+        BlockingNotificationStrategy strategy = new BlockingNotificationStrategy();
+        try {
+            Assert.assertTrue(dispatcher.dispatch(strategy, getContext(1), 1));
+            Assert.assertTrue(strategy.started.await(WAIT_TIMEOUT, TimeUnit.MILLISECONDS));
+            Assert.assertTrue(dispatcher.dispatch(strategy, getContext(2), 2));
+            Assert.assertFalse(dispatcher.dispatch(strategy, getContext(3), 3));
+            Assert.assertEquals(dispatcher.getRejectedCount(), 1);
+            Assert.assertEquals(dispatcher.getQueueDepth(DEVICE_TYPE), 1);
+            strategy.release.countDown();
+            waitUntilDispatched(dispatcher, 2);
+        } finally {
+            strategy.release.countDown();
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test(description = "Tests that no executor is created once the dispatcher is shut down")
+    public void testRejectAfterShutdown() throws Exception {
+        PushNotificationDispatcher dispatcher = new PushNotificationDispatcher(getConfiguration(10, 3, 10));
+        FailingNotificationStrategy strategy = new FailingNotificationStrategy(0);
+        dispatcher.shutdown();
+        Assert.assertFalse(dispatcher.dispatch(strategy, getContext(1), 1),
+                "Notification is accepted after the dispatcher is shut down");
+        Assert.assertEquals(dispatcher.getRejectedCount(), 1);
+        Assert.assertTrue(dispatcher.getQueueDepths().isEmpty(), "Executor is created after shutdown");
+        Assert.assertEquals(strategy.getAttempts(), 0);
+    }
+
+    @Test(description = "Tests that a retry pending at shutdown is handed over to the scheduler task")
+    public void testShutdownHandsOverPendingRetries() throws Exception {
+        int enrolmentId = 1;
+        int operationId = 1;
+        if (!isMock()) {
+            enrolmentId = getEnrolmentId();
+            operationId = addOperationMapping(enrolmentId);
+        }
+        PushNotificationDispatcher dispatcher = new PushNotificationDispatcher(getConfiguration(10, 3, 60000));
+        FailingNotificationStrategy strategy = new FailingNotificationStrategy(Integer.MAX_VALUE);
+        Assert.assertTrue(dispatcher.dispatch(strategy, getContext(operationId), enrolmentId));
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT;
+        while (dispatcher.getStatistics().getPendingRetryCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(dispatcher.getStatistics().getPendingRetryCount(), 1);
+
+        dispatcher.shutdown();
+        Assert.assertEquals(dispatcher.getStatistics().getPendingRetryCount(), 0);
+        Assert.assertEquals(strategy.getAttempts(), 1);
+        if (!isMock()) {
+            Assert.assertEquals(getPushNotificationStatus(operationId, enrolmentId),
+                    org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation.PushNotificationStatus.SCHEDULED
+                            .toString());
+        }
+    }
+
+    private NotificationDispatcherConfiguration getConfiguration(int queueCapacity, Integer maxRetries,
+                                                                 int retryBackoffMills) {
+        NotificationDispatcherConfiguration config = new NotificationDispatcherConfiguration();
+        config.setEnabled(true);
+        config.setThreadCount(2);
+        config.setQueueCapacity(queueCapacity);
+        config.setMaxRetries(maxRetries);
+        config.setRetryBackoffMills(retryBackoffMills);
+        return config;
+    }
+
+    private NotificationContext getContext(int operationId) {
+        Operation operation = new Operation();
+        operation.setId(operationId);
+        return new NotificationContext(new DeviceIdentifier("dispatcher-test-device", DEVICE_TYPE), operation);
+    }
+
+    private void waitUntilDispatched(PushNotificationDispatcher dispatcher, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT;
+        while (dispatcher.getDispatchedCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(dispatcher.getDispatchedCount(), count);
+    }
+
+    private int getEnrolmentId() throws SQLException {
+        try (Connection conn = getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT ID FROM DM_ENROLMENT");
+             ResultSet rs = stmt.executeQuery()) {
+            Assert.assertTrue(rs.next(), "No enrolment found to add the operation mapping.");
+            return rs.getInt("ID");
+        }
+    }
+
+    private int addOperationMapping(int enrolmentId) throws TransactionManagementException,
+            OperationManagementDAOException {
+        CommandOperation operation = new CommandOperation();
+        operation.setType(org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation.Type.COMMAND);
+        operation.setCode("DISPATCHER-TEST");
+        try {
+            OperationManagementDAOFactory.beginTransaction();
+            int operationId = OperationManagementDAOFactory.getOperationDAO().addOperation(operation);
+            OperationManagementDAOFactory.getOperationMappingDAO().addOperationMapping(operationId, enrolmentId,
+                    false);
+            OperationManagementDAOFactory.commitTransaction();
+            return operationId;
+        } finally {
+            OperationManagementDAOFactory.closeConnection();
+        }
+    }
+
+    private String getPushNotificationStatus(int operationId, int enrolmentId) throws SQLException {
+        try (Connection conn = getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT PUSH_NOTIFICATION_STATUS FROM " +
+                     "DM_ENROLMENT_OP_MAPPING WHERE OPERATION_ID = ? AND ENROLMENT_ID = ?")) {
+            stmt.setInt(1, operationId);
+            stmt.setInt(2, enrolmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                Assert.assertTrue(rs.next(), "Operation mapping '" + operationId + "' is not found.");
+                return rs.getString("PUSH_NOTIFICATION_STATUS");
+            }
+        }
+    }
+
+    private static class FailingNotificationStrategy implements NotificationStrategy {
+
+        private final int failures;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final PushNotificationConfig config = new PushNotificationConfig("TEST", true,
+                new HashMap<String, String>());
+
+        FailingNotificationStrategy(int failures) {
+            this.failures = failures;
+        }
+
+        int getAttempts() {
+            return attempts.get();
+        }
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void execute(NotificationContext ctx) throws PushNotificationExecutionFailedException {
+            if (attempts.incrementAndGet() <= failures) {
+                throw new PushNotificationExecutionFailedException("Generated exception");
+            }
+        }
+
+        @Override
+        public NotificationContext buildContext() {
+            return null;
+        }
+
+        @Override
+        public void undeploy() {
+        }
+
+        @Override
+        public PushNotificationConfig getConfig() {
+            return config;
+        }
+    }
+
+    private static class BlockingNotificationStrategy extends FailingNotificationStrategy {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingNotificationStrategy() {
+            super(0);
+        }
+
+        @Override
+        public void execute(NotificationContext ctx) throws PushNotificationExecutionFailedException {
+            started.countDown();
+            try {
+                release.await(WAIT_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.execute(ctx);
+        }
+    }
+}
@@ -24,9 +24,11 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import org.wso2.carbon.device.mgt.common.DeviceManagementException;
+import org.wso2.carbon.device.mgt.common.TransactionManagementException;
 import org.wso2.carbon.device.mgt.common.operation.mgt.OperationManagementException;
 import org.wso2.carbon.device.mgt.core.common.BaseDeviceManagementTest;
 import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.dto.operation.mgt.CommandOperation;
 import org.wso2.carbon.device.mgt.core.dto.operation.mgt.Operation;
 import org.wso2.carbon.device.mgt.core.internal.DeviceManagementDataHolder;
 import org.wso2.carbon.device.mgt.core.internal.DeviceManagementServiceComponent;
@@ -35,11 +37,16 @@ import org.wso2.carbon.device.mgt.core.operation.mgt.OperationMapping;
 import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationDAO;
 import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationManagementDAOException;
 import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationManagementDAOFactory;
+import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationMappingDAO;
 import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderService;
 import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderServiceImpl;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -51,6 +58,8 @@ public class PushNotificationSchedulerTaskTest extends BaseDeviceManagementTest
     private DeviceManagementProviderService deviceMgtProviderService;
     private PushNotificationSchedulerTask pushNotificationSchedulerTask;
     private OperationDAO operationDAO;
+    private OperationMappingDAO operationMappingDAO;
+    private OperationMapping leasedOperationMapping;
 
     @BeforeClass
     public void init() throws DeviceManagementException, RegistryException {
@@ -60,6 +69,7 @@ public class PushNotificationSchedulerTaskTest extends BaseDeviceManagementTest
         this.deviceMgtProviderService = Mockito.mock(DeviceManagementProviderServiceImpl.class, Mockito.CALLS_REAL_METHODS);
         DeviceManagementDataHolder.getInstance().setDeviceManagementProvider(this.deviceMgtProviderService);
         this.operationDAO = OperationManagementDAOFactory.getOperationDAO();
+        this.operationMappingDAO = OperationManagementDAOFactory.getOperationMappingDAO();
         this.pushNotificationSchedulerTask = new PushNotificationSchedulerTask();
     }
 
@@ -85,4 +95,117 @@ public class PushNotificationSchedulerTaskTest extends BaseDeviceManagementTest
             OperationManagementDAOFactory.closeConnection();
         }
     }
+
+    @Test(description = "Tests that a scheduled operation mapping is leased by only one node",
+            dependsOnMethods = "testPushNotificationScheduler")
+    public void testLeaseOperationMapping() throws Exception {
+        leasedOperationMapping = addScheduledOperationMapping();
+        long leaseExpiryTime = System.currentTimeMillis() / 1000 + 300;
+        Assert.assertEquals(leaseOperationMapping(leasedOperationMapping, leaseExpiryTime).size(), 1,
+                "Scheduled operation mapping is not leased.");
+        Assert.assertEquals(getLeaseExpiryTime(leasedOperationMapping), leaseExpiryTime);
+        Assert.assertTrue(leaseOperationMapping(leasedOperationMapping, leaseExpiryTime + 300).isEmpty(),
+                "Operation mapping leased by another node is leased again.");
+        Assert.assertEquals(getLeaseExpiryTime(leasedOperationMapping), leaseExpiryTime);
+        try {
+            OperationManagementDAOFactory.openConnection();
+            Map<Integer, List<OperationMapping>> operationMappingsTenantMap = operationDAO
+                    .getOperationMappingsByStatus(Operation.Status.PENDING, Operation.PushNotificationStatus.SCHEDULED,
+                            Integer.MAX_VALUE);
+            for (List<OperationMapping> operationMappings : operationMappingsTenantMap.values()) {
+                for (OperationMapping operationMapping : operationMappings) {
+                    Assert.assertNotEquals(operationMapping.getOperationId(),
+                            leasedOperationMapping.getOperationId(), "Leased operation mapping is retrieved.");
+                }
+            }
+        } finally {
+            OperationManagementDAOFactory.closeConnection();
+        }
+    }
+
+    @Test(description = "Tests that an operation mapping with an expired lease is leased again",
+            dependsOnMethods = "testLeaseOperationMapping")
+    public void testLeaseExpiredOperationMapping() throws Exception {
+        long expiredLeaseTime = System.currentTimeMillis() / 1000 - 1;
+        try (Connection conn = getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE DM_ENROLMENT_OP_MAPPING SET " +
+                     "LEASE_EXPIRY_TIMESTAMP = ? WHERE OPERATION_ID = ? AND ENROLMENT_ID = ?")) {
+            stmt.setLong(1, expiredLeaseTime);
+            stmt.setInt(2, leasedOperationMapping.getOperationId());
+            stmt.setInt(3, leasedOperationMapping.getEnrollmentId());
+            stmt.executeUpdate();
+        }
+        long leaseExpiryTime = System.currentTimeMillis() / 1000 + 300;
+        Assert.assertEquals(leaseOperationMapping(leasedOperationMapping, leaseExpiryTime).size(), 1,
+                "Operation mapping with an expired lease is not leased again.");
+        Assert.assertEquals(getLeaseExpiryTime(leasedOperationMapping), leaseExpiryTime);
+    }
+
+    @Test(description = "Tests that a released operation mapping is leased again before its lease expires",
+            dependsOnMethods = "testLeaseExpiredOperationMapping")
+    public void testReleaseOperationMappingLease() throws Exception {
+        try {
+            OperationManagementDAOFactory.beginTransaction();
+            operationMappingDAO.releaseOperationMappingLeases(Collections.singletonList(leasedOperationMapping));
+            OperationManagementDAOFactory.commitTransaction();
+        } finally {
+            OperationManagementDAOFactory.closeConnection();
+        }
+        Assert.assertEquals(getLeaseExpiryTime(leasedOperationMapping), 0, "Lease is not released.");
+        long leaseExpiryTime = System.currentTimeMillis() / 1000 + 300;
+        Assert.assertEquals(leaseOperationMapping(leasedOperationMapping, leaseExpiryTime).size(), 1,
+                "Released operation mapping is not leased again.");
+    }
+
+    private OperationMapping addScheduledOperationMapping() throws SQLException, TransactionManagementException,
+            OperationManagementDAOException {
+        int enrolmentId;
+        try (Connection conn = getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT ID FROM DM_ENROLMENT");
+             ResultSet rs = stmt.executeQuery()) {
+            Assert.assertTrue(rs.next(), "No enrolment found to add the operation mapping.");
+            enrolmentId = rs.getInt("ID");
+        }
+        CommandOperation operation = new CommandOperation();
+        operation.setType(Operation.Type.COMMAND);
+        operation.setCode("LEASE-TEST");
+        OperationMapping operationMapping = new OperationMapping();
+        operationMapping.setEnrollmentId(enrolmentId);
+        try {
+            OperationManagementDAOFactory.beginTransaction();
+            int operationId = operationDAO.addOperation(operation);
+            operationMappingDAO.addOperationMapping(operationId, enrolmentId, true);
+            OperationManagementDAOFactory.commitTransaction();
+            operationMapping.setOperationId(operationId);
+        } finally {
+            OperationManagementDAOFactory.closeConnection();
+        }
+        return operationMapping;
+    }
+
+    private List<OperationMapping> leaseOperationMapping(OperationMapping operationMapping, long leaseExpiryTime)
+            throws TransactionManagementException, OperationManagementDAOException {
+        try {
+            OperationManagementDAOFactory.beginTransaction();
+            List<OperationMapping> leased = operationMappingDAO.leaseOperationMappings(
+                    Collections.singletonList(operationMapping), leaseExpiryTime);
+            OperationManagementDAOFactory.commitTransaction();
+            return leased;
+        } finally {
+            OperationManagementDAOFactory.closeConnection();
+        }
+    }
+
+    private long getLeaseExpiryTime(OperationMapping operationMapping) throws SQLException {
+        try (Connection conn = getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT LEASE_EXPIRY_TIMESTAMP FROM " +
+                     "DM_ENROLMENT_OP_MAPPING WHERE OPERATION_ID = ? AND ENROLMENT_ID = ?")) {
+            stmt.setInt(1, operationMapping.getOperationId());
+            stmt.setInt(2, operationMapping.getEnrollmentId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                Assert.assertTrue(rs.next(), "Operation mapping is not found.");
+                return rs.getLong("LEASE_EXPIRY_TIMESTAMP");
+            }
+        }
+    }
 }
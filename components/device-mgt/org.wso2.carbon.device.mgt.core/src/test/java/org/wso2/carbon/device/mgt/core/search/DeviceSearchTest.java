@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.search;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.common.Device;
+import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
+import org.wso2.carbon.device.mgt.common.device.details.DeviceInfo;
+import org.wso2.carbon.device.mgt.common.search.Condition;
+import org.wso2.carbon.device.mgt.common.search.SearchContext;
+import org.wso2.carbon.device.mgt.core.TestDeviceManagementService;
+import org.wso2.carbon.device.mgt.core.common.BaseDeviceManagementTest;
+import org.wso2.carbon.device.mgt.core.common.TestDataHolder;
+import org.wso2.carbon.device.mgt.core.device.details.mgt.DeviceInformationManager;
+import org.wso2.carbon.device.mgt.core.device.details.mgt.impl.DeviceInformationManagerImpl;
+import org.wso2.carbon.device.mgt.core.internal.DeviceManagementDataHolder;
+import org.wso2.carbon.device.mgt.core.search.mgt.SearchManagerService;
+import org.wso2.carbon.device.mgt.core.search.mgt.impl.SearchManagerServiceImpl;
+import org.wso2.carbon.device.mgt.core.search.util.Utils;
+import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderService;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Verifies the device search results, and the pages of the results, against the expected sets of devices.
+ */
+public class DeviceSearchTest extends BaseDeviceManagementTest {
+
+    private static final String DEVICE_TYPE = "SEARCH_TEST_TYPE";
+    private static final String DEVICE_ID_PREFIX = "SEARCH-TEST-";
+    private static final String MODEL_PREFIX = "SEARCH-MODEL-";
+    private static final String TIER_PROPERTY = "SEARCH_TIER";
+    private static final String TIER_PREFIX = "tier-";
+    private static final int DEVICE_COUNT = 100;
+    private static final int PAGE_SIZE = 7;
+
+    private SearchManagerService searchManagerService;
+
+    @BeforeClass
+    public void init() throws Exception {
+        searchManagerService = new SearchManagerServiceImpl();
+        if (isMock()) {
+            return;
+        }
+        DeviceManagementProviderService deviceMgtService =
+                DeviceManagementDataHolder.getInstance().getDeviceManagementProvider();
+        deviceMgtService.registerDeviceType(new TestDeviceManagementService(DEVICE_TYPE,
+                MultitenantConstants.SUPER_TENANT_DOMAIN_NAME));
+        DeviceInformationManager deviceInformationManager = new DeviceInformationManagerImpl();
+        for (int i = 0; i < DEVICE_COUNT; i++) {
+            DeviceIdentifier deviceIdentifier = new DeviceIdentifier(DEVICE_ID_PREFIX + i, DEVICE_TYPE);
+            deviceMgtService.enrollDevice(TestDataHolder.generateDummyDeviceData(deviceIdentifier));
+
+            DeviceInfo deviceInfo = Utils.getDeviceInfo();
+            deviceInfo.setDeviceModel(MODEL_PREFIX + (i % 4));
+            Map<String, String> properties = new HashMap<>();
+            properties.put(TIER_PROPERTY, TIER_PREFIX + (i % 5));
+            deviceInfo.setDeviceDetailsMap(properties);
+            deviceInformationManager.addDeviceInfo(deviceIdentifier, deviceInfo);
+        }
+    }
+
+    @Test(description = "Searches devices matching a device detail and a property, which must be intersected")
+    public void testIntersection() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        SearchContext context = new SearchContext();
+        List<Condition> conditions = new ArrayList<>();
+        conditions.add(createCondition("deviceModel", MODEL_PREFIX + 1, Condition.State.AND));
+        conditions.add(createCondition(TIER_PROPERTY, TIER_PREFIX + 0, Condition.State.AND));
+        context.setConditions(conditions);
+
+        List<Device> devices = searchManagerService.search(context);
+
+        Set<String> expected = new TreeSet<>();
+        for (int i = 0; i < DEVICE_COUNT; i++) {
+            if (i % 4 == 1 && i % 5 == 0) {
+                expected.add(DEVICE_ID_PREFIX + i);
+            }
+        }
+        Assert.assertEquals(getDeviceIdentifiers(devices), expected);
+    }
+
+    @Test(description = "Searches devices matching a device detail or a property, which must be united")
+    public void testUnion() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        SearchContext context = new SearchContext();
+        List<Condition> conditions = new ArrayList<>();
+        conditions.add(createCondition("deviceModel", MODEL_PREFIX + 2, Condition.State.AND));
+        conditions.add(createCondition(TIER_PROPERTY, TIER_PREFIX + 4, Condition.State.OR));
+        context.setConditions(conditions);
+
+        List<Device> devices = searchManagerService.search(context);
+
+        Set<String> expected = new TreeSet<>();
+        for (int i = 0; i < DEVICE_COUNT; i++) {
+            if (i % 4 == 2 || i % 5 == 4) {
+                expected.add(DEVICE_ID_PREFIX + i);
+            }
+        }
+        Assert.assertEquals(getDeviceIdentifiers(devices), expected);
+    }
+
+    @Test(description = "Reads the search result page by page and checks that the pages make up the complete "
+            + "result in the order of the device ids", dependsOnMethods = "testUnion")
+    public void testPagination() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        SearchContext context = new SearchContext();
+        List<Condition> conditions = new ArrayList<>();
+        conditions.add(createCondition(TIER_PROPERTY, TIER_PREFIX + 3, Condition.State.OR));
+        context.setConditions(conditions);
+        List<Integer> expected = getDeviceIds(searchManagerService.search(context));
+        Assert.assertEquals(expected.size(), DEVICE_COUNT / 5);
+
+        List<Integer> actual = new ArrayList<>();
+        int lastDeviceId = 0;
+        while (true) {
+            List<Integer> page = getDeviceIds(searchManagerService.search(context, lastDeviceId, PAGE_SIZE));
+            Assert.assertTrue(page.size() <= PAGE_SIZE, "Page of " + page.size() + " devices exceeds the limit.");
+            if (page.isEmpty()) {
+                break;
+            }
+            for (int deviceId : page) {
+                Assert.assertTrue(deviceId > lastDeviceId, "Device " + deviceId + " is not after the previous one.");
+                lastDeviceId = deviceId;
+            }
+            actual.addAll(page);
+            if (page.size() < PAGE_SIZE) {
+                Assert.assertTrue(searchManagerService.search(context, lastDeviceId, PAGE_SIZE).isEmpty());
+                break;
+            }
+        }
+        Assert.assertEquals(actual, expected);
+    }
+
+    @Test(description = "Checks the page after a device which is not in the search result",
+            dependsOnMethods = "testPagination")
+    public void testPageAfterUnmatchedDevice() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        SearchContext context = new SearchContext();
+        List<Condition> conditions = new ArrayList<>();
+        conditions.add(createCondition(TIER_PROPERTY, TIER_PREFIX + 1, Condition.State.OR));
+        context.setConditions(conditions);
+        List<Integer> all = getDeviceIds(searchManagerService.search(context));
+        Assert.assertTrue(all.size() > 2);
+        // A device between the first two matching devices does not have the property, so the page must start at the
+        // second matching device
+        int afterDeviceId = all.get(0) + 1;
+        Assert.assertEquals(getDeviceIds(searchManagerService.search(context, afterDeviceId, 2)),
+                all.subList(1, 3));
+    }
+
+    private Condition createCondition(String key, String value, Condition.State state) {
+        Condition condition = new Condition();
+        condition.setKey(key);
+        condition.setOperator("=");
+        condition.setValue(value);
+        condition.setState(state);
+        return condition;
+    }
+
+    private List<Integer> getDeviceIds(List<Device> devices) {
+        List<Integer> deviceIds = new ArrayList<>();
+        for (Device device : devices) {
+            deviceIds.add(device.getId());
+        }
+        return deviceIds;
+    }
+
+    private Set<String> getDeviceIdentifiers(List<Device> devices) {
+        Set<String> identifiers = new TreeSet<>();
+        for (Device device : devices) {
+            if (device.getDeviceIdentifier().startsWith(DEVICE_ID_PREFIX)) {
+                identifiers.add(device.getDeviceIdentifier());
+            }
+        }
+        return identifiers;
+    }
+}
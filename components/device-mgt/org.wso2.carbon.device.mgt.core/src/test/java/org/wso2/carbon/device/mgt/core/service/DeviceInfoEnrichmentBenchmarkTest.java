@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.common.Device;
+import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
+import org.wso2.carbon.device.mgt.common.PaginationRequest;
+import org.wso2.carbon.device.mgt.common.PaginationResult;
+import org.wso2.carbon.device.mgt.core.TestDeviceManagementService;
+import org.wso2.carbon.device.mgt.core.common.BaseDeviceManagementTest;
+import org.wso2.carbon.device.mgt.core.common.TestDataHolder;
+import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOFactory;
+import org.wso2.carbon.device.mgt.core.device.details.mgt.dao.DeviceDetailsDAO;
+import org.wso2.carbon.device.mgt.core.internal.DeviceManagementDataHolder;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.List;
+
+/**
+ * Measures the latency of device listings which require the device info, for page sizes of 10, 100 and 1000
+ * devices, and compares it with enriching the same devices one by one. It is not a part of the default suites, since
+ * it enrols a thousand devices, and is run with the benchmark profile, i.e. mvn test -P benchmark.
+ */
+public class DeviceInfoEnrichmentBenchmarkTest extends BaseDeviceManagementTest {
+
+    private static final Log log = LogFactory.getLog(DeviceInfoEnrichmentBenchmarkTest.class);
+    private static final String DEVICE_TYPE = "DEVICE_INFO_BENCHMARK_TYPE";
+    private static final int[] PAGE_SIZES = {10, 100, 1000};
+
+    private DeviceManagementProviderService deviceMgtService;
+
+    @BeforeClass
+    public void init() throws Exception {
+        deviceMgtService = DeviceManagementDataHolder.getInstance().getDeviceManagementProvider();
+        deviceMgtService.registerDeviceType(new TestDeviceManagementService(DEVICE_TYPE,
+                MultitenantConstants.SUPER_TENANT_DOMAIN_NAME));
+        if (isMock()) {
+            return;
+        }
+        DeviceDetailsDAO deviceDetailsDAO = DeviceManagementDAOFactory.getDeviceDetailsDAO();
+        int deviceCount = PAGE_SIZES[PAGE_SIZES.length - 1];
+        for (int i = 0; i < deviceCount; i++) {
+            deviceMgtService.enrollDevice(TestDataHolder.generateDummyDeviceData(
+                    new DeviceIdentifier("benchmark-" + i, DEVICE_TYPE)));
+        }
+        List<Device> devices = deviceMgtService.getAllDevices(DEVICE_TYPE, false);
+        DeviceManagementDAOFactory.beginTransaction();
+        try {
+            for (Device device : devices) {
+                deviceDetailsDAO.addDeviceInformation(device.getId(), device.getEnrolmentInfo().getId(),
+                        TestDataHolder.generateDummyDeviceInfo());
+            }
+            DeviceManagementDAOFactory.commitTransaction();
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+    }
+
+    @Test(groups = "benchmark",
+            description = "Logs the latency of device pages with device info, read in bulk and device by device")
+    public void testDeviceInfoPageLatency() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        for (int pageSize : PAGE_SIZES) {
+            PaginationRequest request = new PaginationRequest(0, pageSize);
+            request.setDeviceType(DEVICE_TYPE);
+            long start = System.nanoTime();
+            PaginationResult result = deviceMgtService.getAllDevices(request, true);
+            long bulkTime = System.nanoTime() - start;
+
+            List<?> devices = result.getData();
+            Assert.assertEquals(devices.size(), pageSize);
+            start = System.nanoTime();
+            for (Object data : devices) {
+                Device device = (Device) data;
+                Assert.assertNotNull(device.getDeviceInfo());
+                Assert.assertEquals(device.getDeviceInfo().getDeviceModel(), "DUMMY_MODEL");
+                Assert.assertNotNull(device.getProperties());
+                Assert.assertNotNull(device.getApplications());
+                deviceMgtService.getDevice(new DeviceIdentifier(device.getDeviceIdentifier(), DEVICE_TYPE), true);
+            }
+            long singleTime = System.nanoTime() - start;
+
+            log.info("Device info of a page of " + pageSize + " devices. Bulk: " + bulkTime / 1000000 +
+                    " ms, device by device: " + singleTime / 1000000 + " ms.");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.device.mgt.core.service;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.common.Device;
+import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
+import org.wso2.carbon.device.mgt.common.PaginationRequest;
+import org.wso2.carbon.device.mgt.common.PaginationResult;
+import org.wso2.carbon.device.mgt.common.app.mgt.Application;
+import org.wso2.carbon.device.mgt.common.device.details.DeviceInfo;
+import org.wso2.carbon.device.mgt.common.device.details.DeviceLocation;
+import org.wso2.carbon.device.mgt.core.TestDeviceManagementService;
+import org.wso2.carbon.device.mgt.core.common.BaseDeviceManagementTest;
+import org.wso2.carbon.device.mgt.core.common.TestDataHolder;
+import org.wso2.carbon.device.mgt.core.dao.DeviceManagementDAOFactory;
+import org.wso2.carbon.device.mgt.core.device.details.mgt.dao.DeviceDetailsDAO;
+import org.wso2.carbon.device.mgt.core.internal.DeviceManagementDataHolder;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Verifies that device listings which require the device info are enriched in bulk with the same device info,
+ * location and applications as returned for each device on its own.
+ */
+public class DeviceInfoEnrichmentTest extends BaseDeviceManagementTest {
+
+    private static final String DEVICE_TYPE = "DEVICE_INFO_ENRICHMENT_TYPE";
+    private static final int DEVICE_COUNT = 12;
+
+    private DeviceManagementProviderService deviceMgtService;
+
+    @BeforeClass
+    public void init() throws Exception {
+        deviceMgtService = DeviceManagementDataHolder.getInstance().getDeviceManagementProvider();
+        deviceMgtService.registerDeviceType(new TestDeviceManagementService(DEVICE_TYPE,
+                MultitenantConstants.SUPER_TENANT_DOMAIN_NAME));
+        if (isMock()) {
+            return;
+        }
+        for (int i = 0; i < DEVICE_COUNT; i++) {
+            deviceMgtService.enrollDevice(TestDataHolder.generateDummyDeviceData(
+                    new DeviceIdentifier("enrichment-" + i, DEVICE_TYPE)));
+        }
+        List<Device> devices = deviceMgtService.getAllDevices(DEVICE_TYPE, false);
+        DeviceDetailsDAO deviceDetailsDAO = DeviceManagementDAOFactory.getDeviceDetailsDAO();
+        DeviceManagementDAOFactory.beginTransaction();
+        try {
+            // Only some of the devices get each kind of data, so that devices without them are covered as well
+            for (int i = 0; i < devices.size(); i++) {
+                Device device = devices.get(i);
+                int enrolmentId = device.getEnrolmentInfo().getId();
+                if (i % 2 == 0) {
+                    DeviceInfo deviceInfo = TestDataHolder.generateDummyDeviceInfo();
+                    deviceInfo.setDeviceModel("MODEL-" + device.getDeviceIdentifier());
+                    deviceDetailsDAO.addDeviceInformation(device.getId(), enrolmentId, deviceInfo);
+                }
+                if (i % 3 == 0) {
+                    DeviceLocation location = new DeviceLocation();
+                    location.setDeviceId(device.getId());
+                    location.setLatitude(6.9 + i);
+                    location.setLongitude(79.8 + i);
+                    location.setCity("CITY-" + device.getDeviceIdentifier());
+                    deviceDetailsDAO.addDeviceLocation(location, enrolmentId);
+                }
+                if (i % 4 == 0) {
+                    Application application = TestDataHolder.generateApplicationDummyData(
+                            "enrichment-app-" + device.getDeviceIdentifier());
+                    List<Integer> applicationIds = DeviceManagementDAOFactory.getApplicationDAO().addApplications(
+                            Collections.singletonList(application), MultitenantConstants.SUPER_TENANT_ID);
+                    application.setId(applicationIds.get(0));
+                    DeviceManagementDAOFactory.getApplicationMappingDAO().addApplicationMappingsWithApps(
+                            device.getId(), enrolmentId, Collections.singletonList(application),
+                            MultitenantConstants.SUPER_TENANT_ID);
+                }
+            }
+            DeviceManagementDAOFactory.commitTransaction();
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+    }
+
+    @Test(description = "Tests that a page enriched in bulk matches the devices enriched one by one")
+    public void testEnrichedPageMatchesDevices() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        PaginationRequest request = new PaginationRequest(0, DEVICE_COUNT);
+        request.setDeviceType(DEVICE_TYPE);
+        PaginationResult result = deviceMgtService.getAllDevices(request, true);
+        Assert.assertEquals(result.getData().size(), DEVICE_COUNT);
+        for (Object data : result.getData()) {
+            Device device = (Device) data;
+            Device expected = deviceMgtService.getDevice(new DeviceIdentifier(device.getDeviceIdentifier(),
+                    DEVICE_TYPE), true);
+            assertEnriched(device, expected);
+        }
+    }
+
+    @Test(description = "Tests that the devices of a partial page are enriched with their own data")
+    public void testEnrichedPartialPage() throws Exception {
+        if (isMock()) {
+            return;
+        }
+        PaginationRequest request = new PaginationRequest(5, 5);
+        request.setDeviceType(DEVICE_TYPE);
+        PaginationResult result = deviceMgtService.getAllDevices(request, true);
+        Assert.assertEquals(result.getData().size(), 5);
+        for (Object data : result.getData()) {
+            Device device = (Device) data;
+            Device expected = deviceMgtService.getDevice(new DeviceIdentifier(device.getDeviceIdentifier(),
+                    DEVICE_TYPE), true);
+            assertEnriched(device, expected);
+        }
+    }
+
+    private void assertEnriched(Device device, Device expected) {
+        String message = "Device '" + device.getDeviceIdentifier() + "' ";
+        Assert.assertNotNull(device.getDeviceInfo(), message + "has no device info.");
+        DeviceInfo info = device.getDeviceInfo();
+        DeviceInfo expectedInfo = expected.getDeviceInfo();
+        Assert.assertEquals(info.getDeviceModel(), expectedInfo.getDeviceModel(), message + "model differs.");
+        Assert.assertEquals(info.getVendor(), expectedInfo.getVendor(), message + "vendor differs.");
+        Assert.assertEquals(info.getOsVersion(), expectedInfo.getOsVersion(), message + "OS version differs.");
+        Assert.assertEquals(info.getBatteryLevel(), expectedInfo.getBatteryLevel(), message + "battery differs.");
+
+        Assert.assertNotNull(info.getLocation(), message + "has no location.");
+        DeviceLocation location = info.getLocation();
+        DeviceLocation expectedLocation = expectedInfo.getLocation();
+        Assert.assertEquals(location.getDeviceId(), expectedLocation.getDeviceId(), message + "location differs.");
+        Assert.assertEquals(location.getLatitude(), expectedLocation.getLatitude(), message + "latitude differs.");
+        Assert.assertEquals(location.getLongitude(), expectedLocation.getLongitude(),
+                message + "longitude differs.");
+        Assert.assertEquals(location.getCity(), expectedLocation.getCity(), message + "city differs.");
+
+        Assert.assertEquals(getApplicationIdentifiers(device), getApplicationIdentifiers(expected),
+                message + "applications differ.");
+        Assert.assertEquals(device.getProperties(), expected.getProperties(), message + "properties differ.");
+        Assert.assertEquals(device.getFeatures(), expected.getFeatures(), message + "features differ.");
+    }
+
+    private List<String> getApplicationIdentifiers(Device device) {
+        List<String> identifiers = new ArrayList<>();
+        if (device.getApplications() != null) {
+            for (Application application : device.getApplications()) {
+                identifiers.add(application.getApplicationIdentifier());
+            }
+        }
+        Collections.sort(identifiers);
+        return identifiers;
+    }
+}
@@ -58,7 +58,9 @@ import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -662,6 +664,34 @@ public class DeviceManagementProviderServiceTest extends BaseDeviceManagementTes
         Assert.assertTrue(result.getRecordsTotal() > 0);
     }
 
+    @Test(dependsOnMethods = {"testSuccessfulDeviceEnrollment"})
+    public void testGetDevicesByEnrolmentPages() throws DeviceManagementException {
+        if (!isMock()) {
+            List<Integer> enrolmentIds = new ArrayList<>();
+            for (Device device : deviceMgtService.getAllDevices(DEVICE_TYPE, false)) {
+                enrolmentIds.add(device.getEnrolmentInfo().getId());
+            }
+            Collections.sort(enrolmentIds);
+
+            List<Integer> pagedEnrolmentIds = new ArrayList<>();
+            int lastEnrolmentId = 0;
+            List<Device> page;
+            do {
+                page = deviceMgtService.getDevices(DEVICE_TYPE, lastEnrolmentId, 1);
+                Assert.assertTrue(page.size() <= 1, "The page exceeds the limit.");
+                for (Device device : page) {
+                    Assert.assertEquals(device.getType(), DEVICE_TYPE);
+                    Assert.assertTrue(device.getEnrolmentInfo().getId() > lastEnrolmentId,
+                            "The page does not follow the previous page.");
+                    lastEnrolmentId = device.getEnrolmentInfo().getId();
+                    pagedEnrolmentIds.add(lastEnrolmentId);
+                }
+            } while (!page.isEmpty());
+            Assert.assertFalse(pagedEnrolmentIds.isEmpty());
+            Assert.assertEquals(pagedEnrolmentIds, enrolmentIds, "The pages do not add up to all the enrolments.");
+        }
+    }
+
     @Test(dependsOnMethods = {"testSuccessfulDeviceEnrollment"})
     public void testGetTenantedDevice() throws DeviceManagementException {
         HashMap<Integer, Device> deviceMap = deviceMgtService.getTenantedDevice(new
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * you may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.device.mgt.core.status.task.impl;
+
+import com.google.gson.Gson;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.common.DeviceStatusTaskPluginConfig;
+import org.wso2.carbon.device.mgt.common.EnrolmentInfo;
+import org.wso2.carbon.device.mgt.core.common.BaseDeviceManagementTest;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.config.status.task.DeviceStatusTaskConfig;
+import org.wso2.carbon.device.mgt.core.operation.mgt.OperationEnrolmentMapping;
+import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationManagementDAOFactory;
+import org.wso2.carbon.device.mgt.core.operation.mgt.dao.OperationMappingDAO;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class contains unit tests to test the interval lookups of {@link OperationMappingDAO} and the incremental
+ * mode of {@link DeviceStatusMonitoringTask}.
+ */
+public class DeviceStatusMonitoringTaskTest extends BaseDeviceManagementTest {
+
+    private static final String DEVICE_TYPE = "STATUS_MONITORING_TEST_TYPE";
+    private static final int UNREACHABLE_TIME = 600;
+    private static final int INACTIVE_TIME = 3600;
+    private static final int FREQUENCY = 300;
+
+    private int deviceTypeId;
+    private long now;
+    private int unreachableEnrolmentId;
+    private int activeEnrolmentId;
+    private int connectedEnrolmentId;
+    private int idleEnrolmentId;
+
+    @BeforeClass
+    @Override
+    public void init() throws Exception {
+        DeviceConfigurationManager.getInstance().initConfig();
+        deviceTypeId = addDeviceType();
+        now = System.currentTimeMillis() / 1000;
+        unreachableEnrolmentId = addEnrolment("unreachable");
+        addOperationMapping(unreachableEnrolmentId, "PENDING", now - 700);
+        activeEnrolmentId = addEnrolment("active");
+        addOperationMapping(activeEnrolmentId, "PENDING", now - 100);
+        connectedEnrolmentId = addEnrolment("connected");
+        addOperationMapping(connectedEnrolmentId, "PENDING", now - 3700);
+        addOperationMapping(connectedEnrolmentId, "COMPLETED", now - 50);
+        idleEnrolmentId = addEnrolment("idle");
+        addOperationMapping(idleEnrolmentId, "PENDING", now - 1000);
+    }
+
+    @AfterClass
+    public void cleanup() throws SQLException {
+        try (Connection conn = getDataSource().getConnection()) {
+            String[] statements = {
+                    "DELETE FROM DM_ENROLMENT_OP_MAPPING WHERE ENROLMENT_ID IN (SELECT E.ID FROM DM_ENROLMENT E " +
+                            "INNER JOIN DM_DEVICE D ON E.DEVICE_ID = D.ID WHERE D.DEVICE_TYPE_ID = ?)",
+                    "DELETE FROM DM_ENROLMENT WHERE DEVICE_ID IN (SELECT ID FROM DM_DEVICE WHERE DEVICE_TYPE_ID = ?)",
+                    "DELETE FROM DM_DEVICE WHERE DEVICE_TYPE_ID = ?",
+                    "DELETE FROM DM_DEVICE_TYPE WHERE ID = ?"};
+            for (String sql : statements) {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, deviceTypeId);
+                    stmt.executeUpdate();
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM DM_OPERATION WHERE OPERATION_CODE = " +
+                    "'STATUS-MONITORING-TEST'")) {
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    @Test(description = "Tests that the full lookup returns the enrolments idle for longer than the unreachable time")
+    public void testGetFirstPendingOperationMappings() throws Exception {
+        List<OperationEnrolmentMapping> mappings;
+        try {
+            OperationManagementDAOFactory.openConnection();
+            mappings = OperationManagementDAOFactory.getOperationMappingDAO()
+                    .getFirstPendingOperationMappingsForActiveEnrolments(now - UNREACHABLE_TIME,
+                            now - INACTIVE_TIME - FREQUENCY, deviceTypeId);
+        } finally {
+            OperationManagementDAOFactory.closeConnection();
+        }
+        Assert.assertEquals(getEnrolmentIds(mappings), new HashSet<>(Arrays.asList(unreachableEnrolmentId,
+                connectedEnrolmentId, idleEnrolmentId)));
+    }
+
+    @Test(description = "Tests that the interval lookup returns only the enrolments which crossed a threshold since " +
+            "the last check")
+    public void testGetFirstPendingOperationMappingsInIntervals() throws Exception {
+        long lastCheckedTime = now - 200;
+        List<OperationEnrolmentMapping> mappings;
+        try {
+            OperationManagementDAOFactory.openConnection();
+            mappings = OperationManagementDAOFactory.getOperationMappingDAO()
+                    .getFirstPendingOperationMappingsForActiveEnrolments(now - UNREACHABLE_TIME,
+                            now - INACTIVE_TIME - FREQUENCY, deviceTypeId, lastCheckedTime - UNREACHABLE_TIME,
+                            now - UNREACHABLE_TIME, lastCheckedTime - INACTIVE_TIME, now - INACTIVE_TIME);
+        } finally {
+            OperationManagementDAOFactory.closeConnection();
+        }
+        Assert.assertEquals(getEnrolmentIds(mappings), new HashSet<>(Arrays.asList(unreachableEnrolmentId,
+                connectedEnrolmentId)));
+        for (OperationEnrolmentMapping mapping : mappings) {
+            if (mapping.getEnrolmentId() == connectedEnrolmentId) {
+                Assert.assertEquals(mapping.getCreatedTime(), now - 3700, "First pending operation is not returned.");
+            }
+        }
+    }
+
+    @Test(description = "Tests that the last activity is returned only for the requested enrolments which connected")
+    public void testGetLastConnectedTimeForEnrolments() throws Exception {
+        Map<Integer, Long> lastConnectedTimes;
+        Map<Integer, Long> noEnrolments;
+        try {
+            OperationManagementDAOFactory.openConnection();
+            OperationMappingDAO operationMappingDAO = OperationManagementDAOFactory.getOperationMappingDAO();
+            lastConnectedTimes = operationMappingDAO.getLastConnectedTimeForEnrolments(
+                    now - INACTIVE_TIME - FREQUENCY, Arrays.asList(unreachableEnrolmentId, activeEnrolmentId,
+                            connectedEnrolmentId));
+            noEnrolments = operationMappingDAO.getLastConnectedTimeForEnrolments(now - INACTIVE_TIME,
+                    Collections.<Integer>emptyList());
+        } finally {
+            OperationManagementDAOFactory.closeConnection();
+        }
+        Assert.assertEquals(lastConnectedTimes.size(), 1);
+        Assert.assertEquals(lastConnectedTimes.get(connectedEnrolmentId), Long.valueOf(now - 50));
+        Assert.assertTrue(noEnrolments.isEmpty());
+    }
+
+    @Test(description = "Tests that the first run scans all enrolments and later runs only the crossed intervals",
+            dependsOnMethods = {"testGetFirstPendingOperationMappings",
+                    "testGetFirstPendingOperationMappingsInIntervals", "testGetLastConnectedTimeForEnrolments"})
+    public void testIncrementalExecution() throws Exception {
+        DeviceStatusTaskConfig taskConfig = DeviceConfigurationManager.getInstance().getDeviceManagementConfig()
+                .getDeviceStatusTaskConfig();
+        boolean incremental = taskConfig.isIncremental();
+        try {
+            taskConfig.setIncremental(true);
+            DeviceStatusMonitoringTask task = getTask();
+            task.execute();
+            Assert.assertEquals(getEnrolmentStatus(unreachableEnrolmentId), EnrolmentInfo.Status.UNREACHABLE.name());
+            Assert.assertEquals(getEnrolmentStatus(idleEnrolmentId), EnrolmentInfo.Status.UNREACHABLE.name());
+            Assert.assertEquals(getEnrolmentStatus(activeEnrolmentId), EnrolmentInfo.Status.ACTIVE.name());
+            Assert.assertEquals(getEnrolmentStatus(connectedEnrolmentId), EnrolmentInfo.Status.ACTIVE.name());
+
+            long addedTime = System.currentTimeMillis() / 1000;
+            int crossingEnrolmentId = addEnrolment("crossing");
+            addOperationMapping(crossingEnrolmentId, "PENDING", addedTime - UNREACHABLE_TIME + 1);
+            int skippedEnrolmentId = addEnrolment("skipped");
+            addOperationMapping(skippedEnrolmentId, "PENDING", addedTime - 700);
+            Thread.sleep(1500);
+
+            getTask().execute();
+            Assert.assertEquals(getEnrolmentStatus(crossingEnrolmentId), EnrolmentInfo.Status.UNREACHABLE.name(),
+                    "Enrolment which crossed the unreachable time since the last run is not updated.");
+            Assert.assertEquals(getEnrolmentStatus(skippedEnrolmentId), EnrolmentInfo.Status.ACTIVE.name(),
+                    "Enrolment outside the crossed intervals is checked.");
+        } finally {
+            taskConfig.setIncremental(incremental);
+        }
+    }
+
+    private DeviceStatusMonitoringTask getTask() {
+        DeviceStatusTaskPluginConfig pluginConfig = new DeviceStatusTaskPluginConfig();
+        pluginConfig.setRequireStatusMonitoring(true);
+        pluginConfig.setFrequency(FREQUENCY);
+        pluginConfig.setIdleTimeToMarkUnreachable(UNREACHABLE_TIME);
+        pluginConfig.setIdleTimeToMarkInactive(INACTIVE_TIME);
+        Map<String, String> properties = new HashMap<>();
+        properties.put(DeviceStatusTaskManagerServiceImpl.DEVICE_TYPE, DEVICE_TYPE);
+        properties.put(DeviceStatusTaskManagerServiceImpl.DEVICE_TYPE_ID, String.valueOf(deviceTypeId));
+        properties.put(DeviceStatusTaskManagerServiceImpl.DEVICE_STATUS_TASK_CONFIG,
+                new Gson().toJson(pluginConfig));
+        DeviceStatusMonitoringTask task = new DeviceStatusMonitoringTask();
+        task.setProperties(properties);
+        return task;
+    }
+
+    private Set<Integer> getEnrolmentIds(List<OperationEnrolmentMapping> mappings) {
+        Set<Integer> enrolmentIds = new HashSet<>();
+        for (OperationEnrolmentMapping mapping : mappings) {
+            enrolmentIds.add(mapping.getEnrolmentId());
+        }
+        return enrolmentIds;
+    }
+
+    private int addDeviceType() throws SQLException {
+        try (Connection conn = getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("INSERT INTO DM_DEVICE_TYPE (NAME, " +
+                     "LAST_UPDATED_TIMESTAMP, PROVIDER_TENANT_ID) VALUES (?, ?, -1234)", new String[]{"id"})) {
+            stmt.setString(1, DEVICE_TYPE);
+            stmt.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+            stmt.executeUpdate();
+            return getGeneratedId(stmt);
+        }
+    }
+
+    private int addEnrolment(String deviceIdentifier) throws SQLException {
+        try (Connection conn = getDataSource().getConnection()) {
+            int deviceId;
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO DM_DEVICE (NAME, DEVICE_TYPE_ID, " +
+                    "DEVICE_IDENTIFICATION, LAST_UPDATED_TIMESTAMP, TENANT_ID) VALUES (?, ?, ?, ?, -1234)",
+                    new String[]{"id"})) {
+                stmt.setString(1, deviceIdentifier);
+                stmt.setInt(2, deviceTypeId);
+                stmt.setString(3, deviceIdentifier);
+                stmt.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+                stmt.executeUpdate();
+                deviceId = getGeneratedId(stmt);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO DM_ENROLMENT (DEVICE_ID, OWNER, " +
+                    "OWNERSHIP, STATUS, TENANT_ID) VALUES (?, 'admin', 'BYOD', ?, -1234)", new String[]{"id"})) {
+                stmt.setInt(1, deviceId);
+                stmt.setString(2, EnrolmentInfo.Status.ACTIVE.name());
+                stmt.executeUpdate();
+                return getGeneratedId(stmt);
+            }
+        }
+    }
+
+    private void addOperationMapping(int enrolmentId, String status, long timestamp) throws SQLException {
+        try (Connection conn = getDataSource().getConnection()) {
+            int operationId;
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO DM_OPERATION (TYPE, CREATED_TIMESTAMP, " +
+                    "OPERATION_CODE) VALUES ('COMMAND', ?, 'STATUS-MONITORING-TEST')", new String[]{"id"})) {
+                stmt.setTimestamp(1, new Timestamp(timestamp * 1000));
+                stmt.executeUpdate();
+                operationId = getGeneratedId(stmt);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO DM_ENROLMENT_OP_MAPPING (ENROLMENT_ID, " +
+                    "OPERATION_ID, STATUS, PUSH_NOTIFICATION_STATUS, CREATED_TIMESTAMP, UPDATED_TIMESTAMP) " +
+                    "VALUES (?, ?, ?, 'COMPLETED', ?, ?)")) {
+                stmt.setInt(1, enrolmentId);
+                stmt.setInt(2, operationId);
+                stmt.setString(3, status);
+                stmt.setInt(4, (int) timestamp);
+                stmt.setInt(5, (int) timestamp);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private int getGeneratedId(PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.getGeneratedKeys()) {
+            Assert.assertTrue(rs.next(), "Id is not generated.");
+            return rs.getInt(1);
+        }
+    }
+
+    private String getEnrolmentStatus(int enrolmentId) throws SQLException {
+        try (Connection conn = getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT STATUS FROM DM_ENROLMENT WHERE ID = ?")) {
+            stmt.setInt(1, enrolmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                Assert.assertTrue(rs.next(), "Enrolment '" + enrolmentId + "' is not found.");
+                return rs.getString("STATUS");
+            }
+        }
+    }
+}
@@ -45,6 +45,8 @@ public class DeviceTypePluginDAOImpl implements PluginDAO {
     private String createDBqueryForAddDevice;
     private String updateDBQueryForUpdateDevice;
     private String selectDBQueryToGetAllDevice;
+    // Upper bound of the IN-list of a bulk read, kept below the limits of the supported databases
+    private static final int BULK_READ_BATCH_SIZE = 500;
 
     public DeviceTypePluginDAOImpl(DeviceDAODefinition deviceDAODefinition,
                                    DeviceTypeDAOHandler deviceTypeDAOHandler) {
@@ -94,6 +96,41 @@ public class DeviceTypePluginDAOImpl implements PluginDAO {
         return device;
     }
 
+    public List<Device> getDevices(List<String> deviceIds) throws DeviceTypeMgtPluginException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        List<Device> devices = new ArrayList<>();
+        try {
+            conn = deviceTypeDAOHandler.getConnection();
+            for (int from = 0; from < deviceIds.size(); from += BULK_READ_BATCH_SIZE) {
+                List<String> batch = deviceIds.subList(from, Math.min(from + BULK_READ_BATCH_SIZE, deviceIds.size()));
+                stmt = conn.prepareStatement(selectDBQueryToGetAllDevice + " WHERE " +
+                        deviceDAODefinition.getPrimaryKey() + " IN (" + getPreparedInputString(batch.size()) + ")");
+                int index = 1;
+                for (String deviceId : batch) {
+                    stmt.setString(index++, deviceId);
+                }
+                resultSet = stmt.executeQuery();
+                while (resultSet.next()) {
+                    devices.add(loadDevice(resultSet));
+                }
+                DeviceTypeUtils.cleanupResources(stmt, resultSet);
+                stmt = null;
+                resultSet = null;
+            }
+        } catch (SQLException e) {
+            String msg = "Error occurred while fetching " + deviceIds.size() + " devices from " +
+                    deviceDAODefinition.getDeviceTableName();
+            log.error(msg, e);
+            throw new DeviceTypeMgtPluginException(msg, e);
+        } finally {
+            DeviceTypeUtils.cleanupResources(stmt, resultSet);
+            deviceTypeDAOHandler.closeConnection();
+        }
+        return devices;
+    }
+
     public boolean addDevice(Device device) throws DeviceTypeMgtPluginException {
         boolean status = false;
         Connection conn = null;
@@ -161,30 +198,18 @@ public class DeviceTypePluginDAOImpl implements PluginDAO {
         Connection conn;
         PreparedStatement stmt = null;
         ResultSet resultSet = null;
-        Device device;
         List<Device> devices = new ArrayList<>();
         try {
             conn = deviceTypeDAOHandler.getConnection();
             stmt = conn.prepareStatement(selectDBQueryToGetAllDevice);
             resultSet = stmt.executeQuery();
             while (resultSet.next()) {
-                device = new Device();
-                device.setDeviceIdentifier(resultSet.getString(deviceDAODefinition.getPrimaryKey()));
-                List<Device.Property> properties = new ArrayList<>();
-                for (String columnName : deviceDAODefinition.getColumnNames()) {
-                    Device.Property property = new Device.Property();
-                    property.setName(columnName);
-                    property.setValue(resultSet.getString(columnName));
-                    properties.add(property);
-                }
-                device.setProperties(properties);
-                devices.add(device);
+                devices.add(loadDevice(resultSet));
             }
             if (log.isDebugEnabled()) {
                 log.debug(
                         "All device details have fetched from " + deviceDAODefinition.getDeviceTableName() + " table.");
             }
-            return devices;
         } catch (SQLException e) {
             String msg =
                     "Error occurred while fetching all " + deviceDAODefinition.getDeviceTableName() + " device data'";
@@ -194,6 +219,21 @@ public class DeviceTypePluginDAOImpl implements PluginDAO {
             DeviceTypeUtils.cleanupResources(stmt, resultSet);
             deviceTypeDAOHandler.closeConnection();
         }
+        return devices;
+    }
+
+    private Device loadDevice(ResultSet resultSet) throws SQLException {
+        Device device = new Device();
+        device.setDeviceIdentifier(resultSet.getString(deviceDAODefinition.getPrimaryKey()));
+        List<Device.Property> properties = new ArrayList<>();
+        for (String columnName : deviceDAODefinition.getColumnNames()) {
+            Device.Property property = new Device.Property();
+            property.setName(columnName);
+            property.setValue(resultSet.getString(columnName));
+            properties.add(property);
+        }
+        device.setProperties(properties);
+        return device;
     }
 
     private String getDeviceTableColumnNames() {
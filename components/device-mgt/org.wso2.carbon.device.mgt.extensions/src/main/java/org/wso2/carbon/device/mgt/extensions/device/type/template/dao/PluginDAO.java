@@ -20,12 +20,18 @@ package org.wso2.carbon.device.mgt.extensions.device.type.template.dao;
 
 import org.wso2.carbon.device.mgt.common.Device;
 import org.wso2.carbon.device.mgt.extensions.device.type.template.exception.DeviceTypeMgtPluginException;
+
 import java.util.List;
 
 public interface PluginDAO {
 
     Device getDevice(String deviceId) throws DeviceTypeMgtPluginException;
 
+    /**
+     * Returns the devices with the given identifiers, devices which are not found are not included.
+     */
+    List<Device> getDevices(List<String> deviceIds) throws DeviceTypeMgtPluginException;
+
     boolean addDevice(Device device) throws DeviceTypeMgtPluginException;
 
     boolean updateDevice(Device device) throws DeviceTypeMgtPluginException;
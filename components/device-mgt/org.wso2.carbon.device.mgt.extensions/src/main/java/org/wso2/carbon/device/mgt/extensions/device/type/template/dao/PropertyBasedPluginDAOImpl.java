@@ -30,11 +30,12 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 /**
  * Implements CRUD for Devices. This holds the generic implementation. An instance of this will be created for
@@ -48,6 +49,11 @@ public class PropertyBasedPluginDAOImpl implements PluginDAO {
     private String deviceType;
     private static final String PROPERTY_KEY_COLUMN_NAME = "PROPERTY_NAME";
     private static final String PROPERTY_VALUE_COLUMN_NAME = "PROPERTY_VALUE";
+    private static final String DEVICE_ID_COLUMN_NAME = "DEVICE_IDENTIFICATION";
+    // Upper bound of the IN-list of a bulk read, kept below the limits of the supported databases
+    private static final int BULK_READ_BATCH_SIZE = 500;
+    // Rows fetched per round trip while iterating over the properties of all the devices of the type
+    private static final int FETCH_SIZE = 1000;
 
     public PropertyBasedPluginDAOImpl(DeviceDetails deviceDetails,
                                       DeviceTypeDAOHandler deviceTypeDAOHandler, String deviceType) {
@@ -95,6 +101,46 @@ public class PropertyBasedPluginDAOImpl implements PluginDAO {
         return device;
     }
 
+    public List<Device> getDevices(List<String> deviceIds) throws DeviceTypeMgtPluginException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        final List<Device> devices = new ArrayList<>();
+        try {
+            conn = deviceTypeDAOHandler.getConnection();
+            for (int from = 0; from < deviceIds.size(); from += BULK_READ_BATCH_SIZE) {
+                List<String> batch = deviceIds.subList(from, Math.min(from + BULK_READ_BATCH_SIZE, deviceIds.size()));
+                StringBuilder sql = new StringBuilder("SELECT DEVICE_IDENTIFICATION, PROPERTY_NAME, PROPERTY_VALUE " +
+                        "FROM DM_DEVICE_PROPERTIES WHERE DEVICE_TYPE_NAME = ? AND TENANT_ID = ? AND " +
+                        "DEVICE_IDENTIFICATION IN (");
+                for (int i = 0; i < batch.size(); i++) {
+                    sql.append(i == 0 ? "?" : ", ?");
+                }
+                sql.append(") ORDER BY DEVICE_IDENTIFICATION");
+                stmt = conn.prepareStatement(sql.toString());
+                int index = 1;
+                stmt.setString(index++, deviceType);
+                stmt.setInt(index++, PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true));
+                for (String deviceId : batch) {
+                    stmt.setString(index++, deviceId);
+                }
+                resultSet = stmt.executeQuery();
+                readDevices(resultSet, devices);
+                DeviceTypeUtils.cleanupResources(stmt, resultSet);
+                stmt = null;
+                resultSet = null;
+            }
+        } catch (SQLException e) {
+            String msg = "Error occurred while fetching " + deviceIds.size() + " devices of type " + deviceType;
+            log.error(msg, e);
+            throw new DeviceTypeMgtPluginException(msg, e);
+        } finally {
+            DeviceTypeUtils.cleanupResources(stmt, resultSet);
+            deviceTypeDAOHandler.closeConnection();
+        }
+        return devices;
+    }
+
     public boolean addDevice(Device device) throws DeviceTypeMgtPluginException {
         boolean status = false;
         Connection conn = null;
@@ -125,6 +171,10 @@ public class PropertyBasedPluginDAOImpl implements PluginDAO {
         return status;
     }
 
+    /**
+     * Updates the properties of the device with a single batch, and inserts the properties which did not exist
+     * before, e.g. properties added to the device type after the device was enrolled, with a second batch.
+     */
     public boolean updateDevice(Device device) throws DeviceTypeMgtPluginException {
         Connection conn;
         PreparedStatement stmt = null;
@@ -134,6 +184,8 @@ public class PropertyBasedPluginDAOImpl implements PluginDAO {
                     "UPDATE DM_DEVICE_PROPERTIES SET PROPERTY_VALUE = ? WHERE  DEVICE_TYPE_NAME = ? AND "
                             + "DEVICE_IDENTIFICATION = ? AND PROPERTY_NAME = ? AND TENANT_ID= ?");
 
+            int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true);
+            List<Device.Property> updatedProperties = new ArrayList<>();
             for (Device.Property property : device.getProperties()) {
                 if (!deviceProps.contains(property.getName())) {
                     continue;
@@ -142,10 +194,50 @@ public class PropertyBasedPluginDAOImpl implements PluginDAO {
                 stmt.setString(2, deviceType);
                 stmt.setString(3, device.getDeviceIdentifier());
                 stmt.setString(4, property.getName());
-                stmt.setInt(5, PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true));
+                stmt.setInt(5, tenantId);
                 stmt.addBatch();
+                updatedProperties.add(property);
+            }
+            if (updatedProperties.isEmpty()) {
+                return true;
+            }
+            int[] updateCounts = stmt.executeBatch();
+            DeviceTypeUtils.cleanupResources(stmt, null);
+            stmt = null;
+
+            List<Device.Property> missingProperties = new ArrayList<>();
+            List<Device.Property> unknownProperties = new ArrayList<>();
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == 0) {
+                    missingProperties.add(updatedProperties.get(i));
+                } else if (updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                    // The driver does not report the affected rows, hence whether the property exists is unknown
+                    unknownProperties.add(updatedProperties.get(i));
+                }
+            }
+            if (!unknownProperties.isEmpty()) {
+                Set<String> storedProperties = this.getStoredPropertyNames(conn, device.getDeviceIdentifier(),
+                        tenantId);
+                for (Device.Property property : unknownProperties) {
+                    if (!storedProperties.contains(property.getName())) {
+                        missingProperties.add(property);
+                    }
+                }
+            }
+            if (!missingProperties.isEmpty()) {
+                stmt = conn.prepareStatement(
+                        "INSERT INTO DM_DEVICE_PROPERTIES(DEVICE_TYPE_NAME, DEVICE_IDENTIFICATION, PROPERTY_NAME, " +
+                                "PROPERTY_VALUE, TENANT_ID) VALUES (?, ?, ?, ?, ?)");
+                for (Device.Property property : missingProperties) {
+                    stmt.setString(1, deviceType);
+                    stmt.setString(2, device.getDeviceIdentifier());
+                    stmt.setString(3, property.getName());
+                    stmt.setString(4, property.getValue());
+                    stmt.setInt(5, tenantId);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
             }
-            stmt.executeBatch();
             return true;
         } catch (SQLException e) {
             String msg = "Error occurred while modifying the device '" + device.getDeviceIdentifier() + "' data on"
@@ -157,39 +249,47 @@ public class PropertyBasedPluginDAOImpl implements PluginDAO {
         }
     }
 
+    private Set<String> getStoredPropertyNames(Connection conn, String deviceId, int tenantId) throws SQLException {
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        Set<String> propertyNames = new HashSet<>();
+        try {
+            stmt = conn.prepareStatement("SELECT PROPERTY_NAME FROM DM_DEVICE_PROPERTIES WHERE DEVICE_TYPE_NAME = ? " +
+                    "AND DEVICE_IDENTIFICATION = ? AND TENANT_ID = ?");
+            stmt.setString(1, deviceType);
+            stmt.setString(2, deviceId);
+            stmt.setInt(3, tenantId);
+            resultSet = stmt.executeQuery();
+            while (resultSet.next()) {
+                propertyNames.add(resultSet.getString(PROPERTY_KEY_COLUMN_NAME));
+            }
+        } finally {
+            DeviceTypeUtils.cleanupResources(stmt, resultSet);
+        }
+        return propertyNames;
+    }
+
     public List<Device> getAllDevices() throws DeviceTypeMgtPluginException {
         Connection conn;
         PreparedStatement stmt = null;
         ResultSet resultSet = null;
-        Map<String, Device> deviceMap = new HashMap<>();
+        List<Device> devices = new ArrayList<>();
         try {
             conn = deviceTypeDAOHandler.getConnection();
+            // Rows are ordered by device, hence each device is complete once the next device is read
             stmt = conn.prepareStatement("SELECT DEVICE_IDENTIFICATION, PROPERTY_NAME, PROPERTY_VALUE FROM " +
-                                                 "DM_DEVICE_PROPERTIES WHERE DEVICE_TYPE_NAME = ? AND TENANT_ID = ?");
+                            "DM_DEVICE_PROPERTIES WHERE DEVICE_TYPE_NAME = ? AND TENANT_ID = ? " +
+                            "ORDER BY DEVICE_IDENTIFICATION", ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(FETCH_SIZE);
             stmt.setString(1, deviceType);
             stmt.setInt(2, PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true));
             resultSet = stmt.executeQuery();
-            while (resultSet.next()) {
-                String deviceId = resultSet.getString("DEVICE_IDENTIFICATION");
-                Device deviceInMap = deviceMap.get(deviceId);
-                if (deviceInMap == null) {
-                    deviceInMap = new Device();
-                    deviceInMap.setDeviceIdentifier(deviceId);
-                    deviceInMap.setType(deviceType);
-                    List<Device.Property> properties = new ArrayList<>();
-                    deviceInMap.setProperties(properties);
-                    deviceMap.put(deviceId, deviceInMap);
-                }
-                Device.Property prop = new Device.Property();
-                prop.setName(resultSet.getString(PROPERTY_KEY_COLUMN_NAME));
-                prop.setName(resultSet.getString(PROPERTY_VALUE_COLUMN_NAME));
-                deviceInMap.getProperties().add(prop);
-            }
+            readDevices(resultSet, devices);
             if (log.isDebugEnabled()) {
                 log.debug(
                         "All device details have fetched from " + deviceType + " table.");
             }
-            return new ArrayList<>(deviceMap.values());
         } catch (SQLException e) {
             String msg =
                     "Error occurred while fetching all " + deviceType + " device data'";
@@ -199,6 +299,34 @@ public class PropertyBasedPluginDAOImpl implements PluginDAO {
             DeviceTypeUtils.cleanupResources(stmt, resultSet);
             deviceTypeDAOHandler.closeConnection();
         }
+        return devices;
+    }
+
+    /**
+     * Reads the devices from a result set of property rows which is ordered by the device identifier, adding each
+     * device to the given list once all of its properties are read.
+     */
+    private void readDevices(ResultSet resultSet, List<Device> devices) throws SQLException {
+        Device device = null;
+        while (resultSet.next()) {
+            String deviceId = resultSet.getString(DEVICE_ID_COLUMN_NAME);
+            if (device == null || !device.getDeviceIdentifier().equals(deviceId)) {
+                if (device != null) {
+                    devices.add(device);
+                }
+                device = new Device();
+                device.setDeviceIdentifier(deviceId);
+                device.setType(deviceType);
+                device.setProperties(new ArrayList<Device.Property>());
+            }
+            Device.Property property = new Device.Property();
+            property.setName(resultSet.getString(PROPERTY_KEY_COLUMN_NAME));
+            property.setValue(resultSet.getString(PROPERTY_VALUE_COLUMN_NAME));
+            device.getProperties().add(property);
+        }
+        if (device != null) {
+            devices.add(device);
+        }
     }
 
     private String getPropertyValue(List<Device.Property> properties, String propertyName) {
@@ -19,9 +19,12 @@
 package org.wso2.carbon.device.mgt.extensions.device.type.template;
 
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.device.mgt.common.Device;
 import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
 import org.wso2.carbon.device.mgt.common.DeviceManagementException;
@@ -36,6 +39,7 @@ import org.wso2.carbon.device.mgt.extensions.device.type.template.dao.DeviceType
 import org.wso2.carbon.device.mgt.extensions.device.type.template.dao.DeviceTypePluginDAOManager;
 import org.wso2.carbon.device.mgt.extensions.device.type.template.dao.PluginDAO;
 import org.wso2.carbon.device.mgt.extensions.device.type.template.dao.PropertyBasedPluginDAOImpl;
+import org.wso2.carbon.device.mgt.extensions.device.type.template.exception.DeviceTypeMgtPluginException;
 import org.wso2.carbon.device.mgt.extensions.utils.Utils;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.xml.sax.SAXException;
@@ -49,10 +53,16 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class tests the {@link DeviceTypeManager}.
@@ -73,6 +83,8 @@ public class DeviceTypeManagerTest {
     private String[] customDeviceTypeProperties = {"custom_property", "custom_property2"};
     private String updatedDeviceTypePropertyValue = "custom_property_updated";
     private final String SQL_FOLDER = "sql-files" + File.separator;
+    private javax.sql.DataSource customDataSource;
+    private PluginDAO customPluginDAO;
 
     @BeforeClass(description = "Mocking the classes for testing")
     public void setup() throws NoSuchFieldException, IllegalAccessException, IOException, SQLException, SAXException,
@@ -163,6 +175,24 @@ public class DeviceTypeManagerTest {
                 "GetDevice call" + " failed in custom deviceTypeManager");
     }
 
+    @Test(description = "This test case tests the getDevices method of the DeviceTypeManager", dependsOnMethods =
+            {"testEnrollDevice"})
+    public void testGetDevices() throws DeviceManagementException {
+        List<DeviceIdentifier> deviceIdentifiers = new ArrayList<>();
+        deviceIdentifiers.add(new DeviceIdentifier(sampleDevice2.getDeviceIdentifier(), androidDeviceType));
+        deviceIdentifiers.add(nonExistingDeviceIdentifier);
+        List<Device> devices = androidDeviceTypeManager.getDevices(deviceIdentifiers);
+        Assert.assertEquals(devices.size(), 1, "Existing devices were not retrieved in bulk");
+        Assert.assertEquals(devices.get(0).getDeviceIdentifier(), sampleDevice2.getDeviceIdentifier(),
+                "Retrieved device does not match the requested device");
+
+        List<Device> customDevices = customDeviceTypeManager.getDevices(Collections.singletonList(
+                new DeviceIdentifier(customDeviceType, customDeviceType)));
+        Assert.assertEquals(customDevices.size(), 1, "Existing custom device was not retrieved in bulk");
+        Assert.assertEquals(customDevices.get(0).getProperties().size(), 2,
+                "GetDevices call failed in custom deviceTypeManager");
+    }
+
     @Test(description = "This test case tests the enrollment of the device")
     public void testEnrollDevice() throws DeviceManagementException {
         Assert.assertTrue(androidDeviceTypeManager.enrollDevice(sampleDevice1), "New android device enrollment failed");
@@ -239,6 +269,97 @@ public class DeviceTypeManagerTest {
                 "GetDevice call" + " failed in custom deviceTypeManager");
     }
 
+    @Test(description = "This test case tests that all the devices of a type are read with all their properties",
+            dependsOnMethods = {"testEnrollDevice"})
+    public void testGetAllDevicesWithProperties() throws DeviceTypeMgtPluginException {
+        List<Device> devices = customPluginDAO.getAllDevices();
+        Assert.assertEquals(devices.size(), 1, "All the added devices are not read");
+        Assert.assertEquals(devices.get(0).getDeviceIdentifier(), customDeviceType);
+        Assert.assertEquals(devices.get(0).getProperties().size(), customDeviceTypeProperties.length,
+                "All the properties of the device are not read");
+    }
+
+    @Test(description = "This test case tests that properties are neither duplicated nor lost when the driver does "
+            + "not report the updated rows")
+    public void testUpdateDeviceWithoutUpdateCounts() throws Exception {
+        String deviceId = "no-update-count-device";
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true);
+        try (Connection conn = customDataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("INSERT INTO DM_DEVICE_PROPERTIES(DEVICE_TYPE_NAME, "
+                     + "DEVICE_IDENTIFICATION, PROPERTY_NAME, PROPERTY_VALUE, TENANT_ID) VALUES (?, ?, ?, ?, ?)")) {
+            stmt.setString(1, customDeviceType);
+            stmt.setString(2, deviceId);
+            stmt.setString(3, customDeviceTypeProperties[0]);
+            stmt.setString(4, customDeviceTypeProperties[0]);
+            stmt.setInt(5, tenantId);
+            stmt.executeUpdate();
+        }
+
+        Connection connection = Mockito.spy(customDataSource.getConnection());
+        Mockito.doAnswer(new Answer<PreparedStatement>() {
+            @Override
+            public PreparedStatement answer(InvocationOnMock invocation) throws Throwable {
+                PreparedStatement stmt = Mockito.spy((PreparedStatement) invocation.callRealMethod());
+                if (((String) invocation.getArguments()[0]).startsWith("UPDATE")) {
+                    Mockito.doAnswer(new Answer<int[]>() {
+                        @Override
+                        public int[] answer(InvocationOnMock invocation) throws Throwable {
+                            int[] updateCounts = (int[]) invocation.callRealMethod();
+                            Arrays.fill(updateCounts, Statement.SUCCESS_NO_INFO);
+                            return updateCounts;
+                        }
+                    }).when(stmt).executeBatch();
+                }
+                return stmt;
+            }
+        }).when(connection).prepareStatement(Mockito.anyString());
+        DeviceTypeDAOHandler deviceTypeDAOHandler = Mockito
+                .mock(DeviceTypeDAOHandler.class, Mockito.CALLS_REAL_METHODS);
+        datasourceField.set(deviceTypeDAOHandler, customDataSource);
+        ThreadLocal<Connection> connectionHolder = new ThreadLocal<>();
+        connectionHolder.set(connection);
+        currentConnection.set(deviceTypeDAOHandler, connectionHolder);
+
+        DeviceDetails deviceDetails = new DeviceDetails();
+        Properties properties = new Properties();
+        properties.addProperties(new ArrayList<>(Arrays.asList(customDeviceTypeProperties)));
+        deviceDetails.setProperties(properties);
+        PluginDAO pluginDAO = new PropertyBasedPluginDAOImpl(deviceDetails, deviceTypeDAOHandler, customDeviceType);
+        List<Device.Property> updatedProperties = new ArrayList<>();
+        for (String propertyName : customDeviceTypeProperties) {
+            Device.Property property = new Device.Property();
+            property.setName(propertyName);
+            property.setValue(updatedDeviceTypePropertyValue);
+            updatedProperties.add(property);
+        }
+        try {
+            Assert.assertTrue(pluginDAO.updateDevice(new Device(deviceId, customDeviceType, deviceId, deviceId, null,
+                    null, updatedProperties)));
+        } finally {
+            connection.close();
+        }
+
+        Map<String, Integer> rowCounts = new HashMap<>();
+        try (Connection conn = customDataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT PROPERTY_NAME, PROPERTY_VALUE FROM "
+                     + "DM_DEVICE_PROPERTIES WHERE DEVICE_TYPE_NAME = ? AND DEVICE_IDENTIFICATION = ?")) {
+            stmt.setString(1, customDeviceType);
+            stmt.setString(2, deviceId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Assert.assertEquals(rs.getString("PROPERTY_VALUE"), updatedDeviceTypePropertyValue);
+                    String propertyName = rs.getString("PROPERTY_NAME");
+                    rowCounts.put(propertyName, rowCounts.containsKey(propertyName) ?
+                            rowCounts.get(propertyName) + 1 : 1);
+                }
+            }
+        }
+        Assert.assertEquals(rowCounts.size(), customDeviceTypeProperties.length, "Missing property is not added");
+        for (Integer rowCount : rowCounts.values()) {
+            Assert.assertEquals(rowCount, Integer.valueOf(1), "Existing property is added again");
+        }
+    }
+
     /**
      * To create sample android devices to add to DAO Layer.
      */
@@ -323,6 +444,7 @@ public class DeviceTypeManagerTest {
         if (cdmDataScript != null) {
             dataSource = Utils.createDataTables(customDeviceType, cdmDataScript.getAbsolutePath());
         }
+        customDataSource = dataSource;
 
         DeviceDetails deviceDetails = new DeviceDetails();
         List<String> propertyList = new ArrayList<>();
@@ -337,6 +459,7 @@ public class DeviceTypeManagerTest {
         currentConnection.set(deviceTypeDAOHandler, new ThreadLocal<Connection>());
         PluginDAO deviceTypePluginDAO = new PropertyBasedPluginDAOImpl(deviceDetails, deviceTypeDAOHandler,
                 customDeviceType);
+        customPluginDAO = deviceTypePluginDAO;
 
         DeviceTypePluginDAOManager deviceTypePluginDAOManager = Mockito
                 .mock(DeviceTypePluginDAOManager.class, Mockito.CALLS_REAL_METHODS);
@@ -26,4 +26,7 @@ public class OauthAuthenticatorConstants {
     public static final String SPLITING_CHARACTOR = " ";
     public static final String OAUTH_ENDPOINT_POSTFIX =
             "/services/OAuth2TokenValidationService.OAuth2TokenValidationServiceHttpsSoap12Endpoint/";
+    public static final int DEFAULT_TOKEN_CACHE_CAPACITY = 10000;
+    public static final int DEFAULT_TOKEN_CACHE_MAX_EXPIRY_TIME = 60;
+    public static final int DEFAULT_TOKEN_CACHE_NEGATIVE_EXPIRY_TIME = 5;
 }
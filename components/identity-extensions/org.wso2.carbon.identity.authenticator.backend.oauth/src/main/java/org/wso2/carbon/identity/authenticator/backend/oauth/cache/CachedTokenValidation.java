@@ -0,0 +1,67 @@
+/*
+*  Copyright (c) 2018 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.wso2.carbon.identity.authenticator.backend.oauth.cache;
+
+/**
+ * Immutable token validation result held by the {@link OAuthTokenValidationCache}. Each authenticator converts its
+ * own validation response to and from this class, hence the cache does not depend on any of them.
+ */
+public class CachedTokenValidation {
+
+    private final String userName;
+    private final String tenantDomain;
+    private final boolean isValid;
+    private final String errorMsg;
+    private final long expiryTime;
+
+    /**
+     * @param userName     tenant aware name of the user the token is issued to.
+     * @param tenantDomain tenant domain of the user the token is issued to.
+     * @param isValid      whether the token is valid.
+     * @param errorMsg     reason for the token to be invalid, if any.
+     * @param expiryTime   seconds the token remains valid for, 0 if not known.
+     */
+    public CachedTokenValidation(String userName, String tenantDomain, boolean isValid, String errorMsg,
+                                 long expiryTime) {
+        this.userName = userName;
+        this.tenantDomain = tenantDomain;
+        this.isValid = isValid;
+        this.errorMsg = errorMsg;
+        this.expiryTime = expiryTime;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getTenantDomain() {
+        return tenantDomain;
+    }
+
+    public boolean isValid() {
+        return isValid;
+    }
+
+    public String getErrorMsg() {
+        return errorMsg;
+    }
+
+    public long getExpiryTime() {
+        return expiryTime;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+*  Copyright (c) 2018 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.wso2.carbon.identity.authenticator.backend.oauth.cache;
+
+import org.apache.commons.codec.binary.Hex;
+import org.wso2.carbon.identity.authenticator.backend.oauth.OauthAuthenticatorConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of OAuth token validation results, shared by the back-end OAuth authenticator and the authenticators
+ * of the webapp authenticator framework, so that the server holds a single cache which is bounded and invalidated as
+ * a whole. Results are keyed by a SHA-256 hash of the token, hence the tokens themselves are never stored, and by the
+ * scope the token was validated for, since the validity of a token may depend on it.
+ * <p>
+ * A valid result is kept until the token expires or for the maximum expiry time, whichever comes first, while an
+ * invalid result is kept for the negative expiry time. The least recently used result is evicted when the cache is
+ * full. Results of revoked tokens are removed through {@link #invalidate(String)}, which is called on each token
+ * revocation of this server. Revocations made on another node or on a remote key manager are not seen, hence such a
+ * token is accepted until its result expires, for at most the maximum expiry time.
+ */
+public class OAuthTokenValidationCache {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final OAuthTokenValidationCache instance = new OAuthTokenValidationCache();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final Map<CacheKey, Entry> entries = new LinkedHashMap<CacheKey, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest) {
+            return size() > capacity;
+        }
+    };
+    private volatile int capacity = OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_CAPACITY;
+    private volatile long maxExpiryNanos =
+            TimeUnit.SECONDS.toNanos(OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_MAX_EXPIRY_TIME);
+    private volatile long negativeExpiryNanos =
+            TimeUnit.SECONDS.toNanos(OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_NEGATIVE_EXPIRY_TIME);
+
+    private OAuthTokenValidationCache() {
+    }
+
+    public static OAuthTokenValidationCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Applies the given limits. Cached results are kept, apart from the least recently used ones which no longer fit
+     * in the capacity.
+     *
+     * @param capacity           maximum number of results, 0 or less to disable the cache.
+     * @param maxExpiryTime      maximum seconds a valid result is kept.
+     * @param negativeExpiryTime seconds an invalid result is kept.
+     */
+    public void configure(int capacity, int maxExpiryTime, int negativeExpiryTime) {
+        synchronized (entries) {
+            this.capacity = capacity;
+            this.maxExpiryNanos = TimeUnit.SECONDS.toNanos(maxExpiryTime);
+            this.negativeExpiryNanos = TimeUnit.SECONDS.toNanos(negativeExpiryTime);
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > Math.max(capacity, 0) && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * @param accessToken token which was validated.
+     * @param scope       scope the token was validated for, null if the validation does not depend on one.
+     * @return the cached result, or null if there is none or it expired.
+     */
+    public CachedTokenValidation get(String accessToken, String scope) {
+        if (!isEnabled()) {
+            return null;
+        }
+        CacheKey key = new CacheKey(hash(accessToken), scope);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.validation;
+    }
+
+    public void put(String accessToken, String scope, CachedTokenValidation validation) {
+        if (!isEnabled()) {
+            return;
+        }
+        long expiryNanos;
+        if (validation.isValid()) {
+            expiryNanos = maxExpiryNanos;
+            if (validation.getExpiryTime() > 0) {
+                expiryNanos = Math.min(expiryNanos, TimeUnit.SECONDS.toNanos(validation.getExpiryTime()));
+            }
+        } else {
+            expiryNanos = negativeExpiryNanos;
+        }
+        if (expiryNanos <= 0) {
+            return;
+        }
+        Entry entry = new Entry(validation, System.nanoTime() + expiryNanos);
+        CacheKey key = new CacheKey(hash(accessToken), scope);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Removes the results of the token for every scope. This must be called when the token is revoked.
+     */
+    public void invalidate(String accessToken) {
+        String tokenHash = hash(accessToken);
+        synchronized (entries) {
+            Iterator<CacheKey> iterator = entries.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (tokenHash.equals(iterator.next().tokenHash)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all the results. This must be called when tokens are revoked without knowing which.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private static String hash(String accessToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            return Hex.encodeHexString(digest.digest(String.valueOf(accessToken).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(HASH_ALGORITHM + " is not supported", e);
+        }
+    }
+
+    private static class CacheKey {
+
+        private final String tokenHash;
+        private final String scope;
+
+        private CacheKey(String tokenHash, String scope) {
+            this.tokenHash = tokenHash;
+            this.scope = scope;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return tokenHash.equals(other.tokenHash) && Objects.equals(scope, other.scope);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tokenHash, scope);
+        }
+    }
+
+    private static class Entry {
+
+        private final CachedTokenValidation validation;
+        private final long expiresAt;
+
+        private Entry(CachedTokenValidation validation, long expiresAt) {
+            this.validation = validation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -21,9 +21,12 @@ package org.wso2.carbon.identity.authenticator.backend.oauth.internal;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.ComponentContext;
 import org.wso2.carbon.core.services.authentication.CarbonServerAuthenticator;
 import org.wso2.carbon.identity.authenticator.backend.oauth.OauthAuthenticator;
+import org.wso2.carbon.identity.authenticator.backend.oauth.validator.OAuthValidatorFactory;
+import org.wso2.carbon.identity.oauth.event.OAuthEventInterceptor;
 import org.wso2.carbon.identity.oauth2.OAuth2TokenValidationService;
 
 /**
@@ -38,17 +41,29 @@ import org.wso2.carbon.identity.oauth2.OAuth2TokenValidationService;
 public class OAuthAuthenticatorServiceComponent {
 
     private static final Log log = LogFactory.getLog(OAuthAuthenticatorServiceComponent.class);
+    private ServiceRegistration tokenRevocationInterceptorRegistration;
 
     @SuppressWarnings("unused")
     protected void activate(ComponentContext componentContext) {
         if (log.isDebugEnabled()) {
             log.debug("Starting Backend OAuthAuthenticator Framework Bundle");
         }
+        try {
+            OAuthValidatorFactory.configureTokenCache();
+        } catch (IllegalArgumentException e) {
+            log.error("Failed to configure the OAuth token validation cache, hence the defaults are used", e);
+        }
+        BundleContext bundleContext = componentContext.getBundleContext();
+        tokenRevocationInterceptorRegistration = bundleContext.registerService(
+                OAuthEventInterceptor.class.getName(), new TokenRevocationInterceptor(), null);
     }
 
     @SuppressWarnings("unused")
     protected void deactivate(ComponentContext componentContext) {
-        //do nothing
+        if (tokenRevocationInterceptorRegistration != null) {
+            tokenRevocationInterceptorRegistration.unregister();
+            tokenRevocationInterceptorRegistration = null;
+        }
     }
 
     /**
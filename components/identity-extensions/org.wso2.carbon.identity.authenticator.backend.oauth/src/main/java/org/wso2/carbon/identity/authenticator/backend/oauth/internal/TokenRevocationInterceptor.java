@@ -0,0 +1,81 @@
+/*
+*  Copyright (c) 2018 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.wso2.carbon.identity.authenticator.backend.oauth.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.authenticator.backend.oauth.cache.OAuthTokenValidationCache;
+import org.wso2.carbon.identity.oauth.event.AbstractOAuthEventInterceptor;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.dto.OAuthRevocationRequestDTO;
+import org.wso2.carbon.identity.oauth2.dto.OAuthRevocationResponseDTO;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.carbon.identity.oauth2.model.RefreshTokenValidationDataDO;
+
+import java.util.Map;
+
+/**
+ * Removes the validation results of revoked tokens from the {@link OAuthTokenValidationCache}, so that a token
+ * revoked on this server is rejected by the OAuth authenticators right away.
+ */
+public class TokenRevocationInterceptor extends AbstractOAuthEventInterceptor {
+
+    private static final Log log = LogFactory.getLog(TokenRevocationInterceptor.class);
+
+    @Override
+    public boolean isEnabled() {
+        // The cache must always be invalidated, hence this does not depend on an event listener configuration
+        return true;
+    }
+
+    @Override
+    public void onPostTokenRevocationByClient(OAuthRevocationRequestDTO revokeRequestDTO,
+                                              OAuthRevocationResponseDTO revokeResponseDTO,
+                                              AccessTokenDO accessTokenDO,
+                                              RefreshTokenValidationDataDO refreshTokenDO,
+                                              Map<String, Object> params) throws IdentityOAuth2Exception {
+        if (accessTokenDO != null) {
+            invalidate(accessTokenDO.getAccessToken());
+        } else if (refreshTokenDO != null) {
+            // Revoking a refresh token revokes the access token issued with it
+            invalidate(refreshTokenDO.getAccessToken());
+        } else {
+            invalidate(revokeRequestDTO == null ? null : revokeRequestDTO.getToken());
+        }
+    }
+
+    @Override
+    public void onPostTokenRevocationByResourceOwner(
+            org.wso2.carbon.identity.oauth.dto.OAuthRevocationRequestDTO revokeRequestDTO,
+            org.wso2.carbon.identity.oauth.dto.OAuthRevocationResponseDTO revokeRespDTO, AccessTokenDO accessTokenDO,
+            Map<String, Object> params) throws IdentityOAuth2Exception {
+        invalidate(accessTokenDO == null ? null : accessTokenDO.getAccessToken());
+    }
+
+    private void invalidate(String accessToken) {
+        if (accessToken == null) {
+            // The revoked token is not known, hence none of the cached results can be trusted
+            if (log.isDebugEnabled()) {
+                log.debug("Invalidating all the token validation results on the revocation of an unknown token");
+            }
+            OAuthTokenValidationCache.getInstance().invalidateAll();
+        } else {
+            OAuthTokenValidationCache.getInstance().invalidate(accessToken);
+        }
+    }
+}
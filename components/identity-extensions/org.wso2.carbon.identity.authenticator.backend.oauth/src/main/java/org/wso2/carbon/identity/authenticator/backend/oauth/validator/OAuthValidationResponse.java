@@ -26,6 +26,7 @@ public class OAuthValidationResponse {
     private String userName;
     private String tenantDomain;
     private boolean isValid;
+    private long expiryTime;
 
     public OAuthValidationResponse(String userName, String tenantDomain, boolean isValid) {
         this.userName = userName;
@@ -56,4 +57,15 @@ public class OAuthValidationResponse {
     public void setIsValid(boolean isValid) {
         this.isValid = isValid;
     }
+
+    /**
+     * @return seconds the token remains valid for, 0 if not known.
+     */
+    public long getExpiryTime() {
+        return expiryTime;
+    }
+
+    public void setExpiryTime(long expiryTime) {
+        this.expiryTime = expiryTime;
+    }
 }
\ No newline at end of file
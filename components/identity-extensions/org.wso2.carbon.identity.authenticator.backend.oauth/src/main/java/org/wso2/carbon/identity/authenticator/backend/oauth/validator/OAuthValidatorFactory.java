@@ -19,9 +19,13 @@ package org.wso2.carbon.identity.authenticator.backend.oauth.validator;
 
 import org.wso2.carbon.core.security.AuthenticatorsConfiguration;
 import org.wso2.carbon.identity.authenticator.backend.oauth.OauthAuthenticatorConstants;
+import org.wso2.carbon.identity.authenticator.backend.oauth.cache.OAuthTokenValidationCache;
+import org.wso2.carbon.identity.authenticator.backend.oauth.validator.impl.CachingOAuthValidator;
 import org.wso2.carbon.identity.authenticator.backend.oauth.validator.impl.ExternalOAuthValidator;
 import org.wso2.carbon.identity.authenticator.backend.oauth.validator.impl.LocalOAuthValidator;
 
+import java.util.Map;
+
 /**
  * The class validate the configurations and provide the most suitable implementation according to the configuration.
  * Factory class for OAuthValidator.
@@ -32,6 +36,11 @@ public class OAuthValidatorFactory {
     private static final String AUTHENTICATOR_CONFIG_HOST_URL = "hostURL";
     private static final String AUTHENTICATOR_CONFIG_ADMIN_USERNAME = "adminUsername";
     private static final String AUTHENTICATOR_CONFIG_ADMIN_PASSWORD = "adminPassword";
+    private static final String AUTHENTICATOR_CONFIG_TOKEN_CACHE_ENABLED = "tokenCacheEnabled";
+    private static final String AUTHENTICATOR_CONFIG_TOKEN_CACHE_CAPACITY = "tokenCacheCapacity";
+    private static final String AUTHENTICATOR_CONFIG_TOKEN_CACHE_MAX_EXPIRY_TIME = "tokenCacheMaxExpiryTime";
+    private static final String AUTHENTICATOR_CONFIG_TOKEN_CACHE_NEGATIVE_EXPIRY_TIME =
+            "tokenCacheNegativeExpiryTime";
 
     /**
      * The method check the configuration and provide the appropriate implementation for OAuth2TokenValidator
@@ -46,7 +55,9 @@ public class OAuthValidatorFactory {
         String hostUrl;
         String adminUserName;
         String adminPassword;
+        Map<String, String> parameters;
         if (authenticatorConfig != null && authenticatorConfig.getParameters() != null) {
+            parameters = authenticatorConfig.getParameters();
             isRemote = Boolean.parseBoolean(authenticatorConfig.getParameters().get(
                     AUTHENTICATOR_CONFIG_IS_REMOTE));
             hostUrl = authenticatorConfig.getParameters().get(AUTHENTICATOR_CONFIG_HOST_URL);
@@ -55,14 +66,54 @@ public class OAuthValidatorFactory {
         } else {
             throw new IllegalArgumentException("Configuration parameters need to be defined in Authenticators.xml");
         }
+        OAuth2TokenValidator validator;
         if (isRemote) {
             if (!(hostUrl == null || hostUrl.trim().isEmpty())) {
                 hostUrl = hostUrl + OauthAuthenticatorConstants.OAUTH_ENDPOINT_POSTFIX;
-                return new ExternalOAuthValidator(hostUrl, adminUserName, adminPassword);
+                validator = new ExternalOAuthValidator(hostUrl, adminUserName, adminPassword);
             } else {
                 throw new IllegalArgumentException("Remote server name and ip both can't be empty");
             }
+        } else {
+            validator = new LocalOAuthValidator();
+        }
+        String tokenCacheEnabled = parameters.get(AUTHENTICATOR_CONFIG_TOKEN_CACHE_ENABLED);
+        if (tokenCacheEnabled != null && !Boolean.parseBoolean(tokenCacheEnabled.trim())) {
+            return validator;
+        }
+        return new CachingOAuthValidator(validator, OAuthTokenValidationCache.getInstance());
+    }
+
+    /**
+     * Applies the tokenCache* parameters of Authenticators.xml to the {@link OAuthTokenValidationCache}, which is
+     * shared by all the OAuth authenticators of the server. The defaults are kept for the parameters which are not
+     * defined.
+     */
+    public static void configureTokenCache() throws IllegalArgumentException {
+        AuthenticatorsConfiguration.AuthenticatorConfig authenticatorConfig = AuthenticatorsConfiguration
+                .getInstance().getAuthenticatorConfig(OauthAuthenticatorConstants.AUTHENTICATOR_NAME);
+        if (authenticatorConfig == null || authenticatorConfig.getParameters() == null) {
+            return;
+        }
+        Map<String, String> parameters = authenticatorConfig.getParameters();
+        OAuthTokenValidationCache.getInstance().configure(
+                getIntParameter(parameters, AUTHENTICATOR_CONFIG_TOKEN_CACHE_CAPACITY,
+                        OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_CAPACITY),
+                getIntParameter(parameters, AUTHENTICATOR_CONFIG_TOKEN_CACHE_MAX_EXPIRY_TIME,
+                        OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_MAX_EXPIRY_TIME),
+                getIntParameter(parameters, AUTHENTICATOR_CONFIG_TOKEN_CACHE_NEGATIVE_EXPIRY_TIME,
+                        OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_NEGATIVE_EXPIRY_TIME));
+    }
+
+    private static int getIntParameter(Map<String, String> parameters, String name, int defaultValue) {
+        String value = parameters.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' is provided for " + name, e);
         }
-        return new LocalOAuthValidator();
     }
 }
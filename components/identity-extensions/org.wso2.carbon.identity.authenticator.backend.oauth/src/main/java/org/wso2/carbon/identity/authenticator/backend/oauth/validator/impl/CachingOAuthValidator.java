@@ -0,0 +1,65 @@
+/*
+*  Copyright (c) 2018 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.wso2.carbon.identity.authenticator.backend.oauth.validator.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.authenticator.backend.oauth.cache.CachedTokenValidation;
+import org.wso2.carbon.identity.authenticator.backend.oauth.cache.OAuthTokenValidationCache;
+import org.wso2.carbon.identity.authenticator.backend.oauth.validator.OAuth2TokenValidator;
+import org.wso2.carbon.identity.authenticator.backend.oauth.validator.OAuthValidationResponse;
+
+import java.rmi.RemoteException;
+
+/**
+ * Serves token validation responses from the {@link OAuthTokenValidationCache}, and validates the tokens which are
+ * not cached through the given validator.
+ */
+public class CachingOAuthValidator implements OAuth2TokenValidator {
+
+    private static final Log log = LogFactory.getLog(CachingOAuthValidator.class);
+
+    private final OAuth2TokenValidator validator;
+    private final OAuthTokenValidationCache cache;
+
+    public CachingOAuthValidator(OAuth2TokenValidator validator, OAuthTokenValidationCache cache) {
+        this.validator = validator;
+        this.cache = cache;
+    }
+
+    @Override
+    public OAuthValidationResponse validateToken(String accessToken) throws RemoteException {
+        // Admin services do not check scopes, hence the validation is cached without one
+        CachedTokenValidation validation = cache.get(accessToken, null);
+        if (validation != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Token validation response is served from the cache");
+            }
+            OAuthValidationResponse response = new OAuthValidationResponse(validation.getUserName(),
+                    validation.getTenantDomain(), validation.isValid());
+            response.setExpiryTime(validation.getExpiryTime());
+            return response;
+        }
+        OAuthValidationResponse response = validator.validateToken(accessToken);
+        if (response != null) {
+            cache.put(accessToken, null, new CachedTokenValidation(response.getUserName(),
+                    response.getTenantDomain(), response.isValid(), null, response.getExpiryTime()));
+        }
+        return response;
+    }
+}
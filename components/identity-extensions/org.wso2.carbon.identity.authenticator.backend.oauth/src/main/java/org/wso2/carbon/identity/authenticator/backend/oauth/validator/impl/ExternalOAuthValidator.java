@@ -85,7 +85,12 @@ public class ExternalOAuthValidator implements OAuth2TokenValidator{
             tenantDomain = MultitenantUtils.
                     getTenantDomain(tokenValidationResponse.getAuthorizedUser());
         }
-        return new OAuthValidationResponse(userName,tenantDomain,isValid);
+        OAuthValidationResponse oAuthValidationResponse = new OAuthValidationResponse(userName, tenantDomain,
+                isValid);
+        if (isValid) {
+            oAuthValidationResponse.setExpiryTime(tokenValidationResponse.getExpiryTime());
+        }
+        return oAuthValidationResponse;
     }
 
     private String getBasicAuthCredentials() {
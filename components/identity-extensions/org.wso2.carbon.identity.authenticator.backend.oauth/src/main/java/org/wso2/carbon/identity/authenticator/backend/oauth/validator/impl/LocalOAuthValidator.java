@@ -55,6 +55,11 @@ public class LocalOAuthValidator implements OAuth2TokenValidator {
             tenantDomain =
                     MultitenantUtils.getTenantDomain(tokenValidationResponse.getAuthorizedUser());
         }
-        return new OAuthValidationResponse(userName, tenantDomain, isValid);
+        OAuthValidationResponse oAuthValidationResponse = new OAuthValidationResponse(userName, tenantDomain,
+                isValid);
+        if (isValid) {
+            oAuthValidationResponse.setExpiryTime(tokenValidationResponse.getExpiryTime());
+        }
+        return oAuthValidationResponse;
     }
 }
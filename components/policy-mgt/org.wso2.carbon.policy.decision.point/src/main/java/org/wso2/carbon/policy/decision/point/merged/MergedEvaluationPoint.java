@@ -27,6 +27,8 @@ import org.wso2.carbon.device.mgt.common.policy.mgt.Profile;
 import org.wso2.carbon.device.mgt.common.policy.mgt.ProfileFeature;
 import org.wso2.carbon.policy.mgt.common.*;
 import org.wso2.carbon.policy.mgt.core.PolicyManagerService;
+import org.wso2.carbon.policy.mgt.core.cache.impl.EffectivePolicyCache;
+import org.wso2.carbon.policy.mgt.core.util.PolicyManagementConstants;
 import org.wso2.carbon.policy.decision.point.internal.PolicyDecisionPointDataHolder;
 
 import java.sql.Timestamp;
@@ -41,6 +43,7 @@ public class MergedEvaluationPoint implements PolicyEvaluationPoint {
     private PolicyManagerService policyManagerService;
     private static final String effectivePolicyName = "Effective-Policy";
     private static final String policyEvaluationPoint = "Merged";
+    private volatile EffectivePolicyCache effectivePolicyCache;
 
     @Override
     public List<ProfileFeature> getEffectiveFeatures(DeviceIdentifier deviceIdentifier)
@@ -64,10 +67,18 @@ public class MergedEvaluationPoint implements PolicyEvaluationPoint {
                 return null;
             }
             PolicyInformationPoint policyInformationPoint = policyManagerService.getPIP();
+            EffectivePolicyCache cache = this.getEffectivePolicyCache();
+            String policyVersion = cache.getPolicyVersion();
             pipDevice = policyInformationPoint.getDeviceData(deviceIdentifier);
+            EffectivePolicyCache.Entry cachedPolicy = cache.get(pipDevice, policyVersion);
+            if (cachedPolicy != null) {
+                return cachedPolicy.getPolicy();
+            }
+            long startTime = System.nanoTime();
             policyList = policyInformationPoint.getRelatedPolicies(pipDevice);
 
             if (policyList.size() == 0) {
+                cache.put(pipDevice, policyVersion, null, System.nanoTime() - startTime);
                 return null;
             }
 
@@ -89,16 +100,24 @@ public class MergedEvaluationPoint implements PolicyEvaluationPoint {
             policy.setUpdated(true);
             policy.setTenantId(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId());
             String policyIds = "";
+            List<Integer> sourcePolicyIds = new ArrayList<>();
             Collections.sort(policyList);
             for (Policy appliedPolicy : policyList) {
                 policyIds += appliedPolicy.getId() + ", ";
+                sourcePolicyIds.add(appliedPolicy.getId());
             }
             policyIds = policyIds.substring(0, policyIds.length() - 2);
             policy.setDescription("This is a system generated effective policy by merging Policy Id : " + policyIds);
+            // Merged policies do not have an id of their own, hence they are identified by their source policies
+            Collections.sort(sourcePolicyIds);
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put(PolicyManagementConstants.SOURCE_POLICY_IDS, sourcePolicyIds);
+            policy.setAttributes(attributes);
             // Need to set compliance of the effective policy. Get compliance of first policy using priority order
             policy.setCompliance(policyList.get(0).getCompliance());
             // Change default 0 effective policy id to (-1)
             policy.setId(-1);
+            cache.put(pipDevice, policyVersion, policy, System.nanoTime() - startTime);
             return policy;
         } catch (PolicyManagementException e) {
             String msg = "Error occurred when retrieving the policy related data from policy management service.";
@@ -130,6 +149,21 @@ public class MergedEvaluationPoint implements PolicyEvaluationPoint {
         return effectivePolicy;
     }
 
+    /**
+     * Returns the cache of the effective policies merged by this evaluation point. It is created on first use, since
+     * the device management configuration is not available when the evaluation point is constructed.
+     */
+    private EffectivePolicyCache getEffectivePolicyCache() {
+        if (effectivePolicyCache == null) {
+            synchronized (this) {
+                if (effectivePolicyCache == null) {
+                    effectivePolicyCache = EffectivePolicyCache.getInstance(policyEvaluationPoint);
+                }
+            }
+        }
+        return effectivePolicyCache;
+    }
+
     private PolicyManagerService getPolicyManagerService() {
         return PolicyDecisionPointDataHolder.getInstance().getPolicyManagerService();
     }
@@ -32,7 +32,7 @@ public class PolicyEvaluationServiceImpl implements PolicyEvaluationPoint {
     private static final String policyEvaluationPoint = "Simple";
 
     public PolicyEvaluationServiceImpl() {
-        evaluation = new SimpleEvaluationImpl();
+        evaluation = new SimpleEvaluationImpl(policyEvaluationPoint);
     }
 
     @Override
@@ -25,6 +25,11 @@ import org.wso2.carbon.policy.mgt.common.PolicyEvaluationException;
 
 public interface SimpleEvaluation  {
 
+    /**
+     * @deprecated the related policies are sorted by {@link #getEffectivePolicy(DeviceIdentifier)} for each device,
+     * since evaluations of several devices may run at once. Kept for compatibility only.
+     */
+    @Deprecated
     void sortPolicies() throws PolicyEvaluationException;
 
     Policy getEffectivePolicy(DeviceIdentifier deviceIdentifier)  throws PolicyEvaluationException;
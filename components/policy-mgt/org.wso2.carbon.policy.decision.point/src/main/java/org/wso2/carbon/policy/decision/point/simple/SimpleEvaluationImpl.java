@@ -25,8 +25,8 @@ import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
 import org.wso2.carbon.policy.decision.point.internal.PolicyDecisionPointDataHolder;
 import org.wso2.carbon.policy.mgt.common.*;
 import org.wso2.carbon.policy.mgt.core.PolicyManagerService;
+import org.wso2.carbon.policy.mgt.core.cache.impl.EffectivePolicyCache;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -34,7 +34,12 @@ public class SimpleEvaluationImpl implements SimpleEvaluation {
 
     private static final Log log = LogFactory.getLog(SimpleEvaluationImpl.class);
     private PolicyManagerService policyManagerService;
-    private List<Policy> policyList = new ArrayList<Policy>();
+    private final String evaluationPointName;
+    private volatile EffectivePolicyCache effectivePolicyCache;
+
+    public SimpleEvaluationImpl(String evaluationPointName) {
+        this.evaluationPointName = evaluationPointName;
+    }
 
     @Override
     public Policy getEffectivePolicy(DeviceIdentifier deviceIdentifier) throws PolicyEvaluationException {
@@ -47,13 +52,22 @@ public class SimpleEvaluationImpl implements SimpleEvaluation {
             if (policyManagerService != null) {
 
                 policyInformationPoint = policyManagerService.getPIP();
+                EffectivePolicyCache cache = this.getEffectivePolicyCache();
+                String policyVersion = cache.getPolicyVersion();
                 PIPDevice pipDevice = policyInformationPoint.getDeviceData(deviceIdentifier);
-                policyList = policyInformationPoint.getRelatedPolicies(pipDevice);
-                policyAdministratorPoint = policyManagerService.getPAP();
-                sortPolicies();
-                if(!policyList.isEmpty()) {
-                    policy = policyList.get(0);
+                EffectivePolicyCache.Entry cachedPolicy = cache.get(pipDevice, policyVersion);
+                if (cachedPolicy != null) {
+                    policy = cachedPolicy.getPolicy();
                 } else {
+                    long startTime = System.nanoTime();
+                    // Sorted locally, since the evaluation may run for several devices at once
+                    List<Policy> relatedPolicies = policyInformationPoint.getRelatedPolicies(pipDevice);
+                    Collections.sort(relatedPolicies);
+                    policy = relatedPolicies.isEmpty() ? null : relatedPolicies.get(0);
+                    cache.put(pipDevice, policyVersion, policy, System.nanoTime() - startTime);
+                }
+                policyAdministratorPoint = policyManagerService.getPAP();
+                if (policy == null) {
                     policyAdministratorPoint.removePolicyUsed(deviceIdentifier);
                     return null;
                 }
@@ -70,9 +84,28 @@ public class SimpleEvaluationImpl implements SimpleEvaluation {
         return policy;
     }
 
+    /**
+     * @deprecated the related policies are sorted for each device by {@link #getEffectivePolicy(DeviceIdentifier)},
+     * hence this does nothing.
+     */
+    @Deprecated
     @Override
     public void sortPolicies() throws PolicyEvaluationException {
-        Collections.sort(policyList);
+    }
+
+    /**
+     * Returns the cache of the effective policies selected by this evaluation. It is created on first use, since the
+     * device management configuration is not available when the evaluation is constructed.
+     */
+    private EffectivePolicyCache getEffectivePolicyCache() {
+        if (effectivePolicyCache == null) {
+            synchronized (this) {
+                if (effectivePolicyCache == null) {
+                    effectivePolicyCache = EffectivePolicyCache.getInstance(evaluationPointName);
+                }
+            }
+        }
+        return effectivePolicyCache;
     }
 
     private PolicyManagerService getPolicyManagerService() {
@@ -28,6 +28,8 @@ import org.wso2.carbon.policy.mgt.common.*;
 import org.wso2.carbon.device.mgt.common.policy.mgt.monitor.NonComplianceData;
 import org.wso2.carbon.device.mgt.common.policy.mgt.monitor.ComplianceFeature;
 import org.wso2.carbon.device.mgt.common.policy.mgt.monitor.PolicyComplianceException;
+import org.wso2.carbon.policy.mgt.core.cache.EffectivePolicyCacheStatistics;
+import org.wso2.carbon.policy.mgt.core.enforcement.PolicyDelegationStatistics;
 import org.wso2.carbon.policy.mgt.core.task.TaskScheduleService;
 
 import java.util.List;
@@ -81,4 +83,15 @@ public interface PolicyManagerService {
     NonComplianceData getDeviceCompliance(DeviceIdentifier deviceIdentifier) throws PolicyComplianceException;
 
     boolean isCompliant(DeviceIdentifier deviceIdentifier) throws PolicyComplianceException;
+
+    /**
+     * Returns the statistics of the policy re-enforcements run by this node since it was started.
+     */
+    PolicyDelegationStatistics getPolicyDelegationStatistics();
+
+    /**
+     * Returns the statistics of the effective policy caches of the policy evaluation points used by this node since it
+     * was started.
+     */
+    List<EffectivePolicyCacheStatistics> getEffectivePolicyCacheStatistics();
 }
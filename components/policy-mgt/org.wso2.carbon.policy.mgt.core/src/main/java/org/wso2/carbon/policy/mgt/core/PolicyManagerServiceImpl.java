@@ -31,6 +31,9 @@ import org.wso2.carbon.policy.mgt.common.*;
 import org.wso2.carbon.device.mgt.common.policy.mgt.monitor.NonComplianceData;
 import org.wso2.carbon.device.mgt.common.policy.mgt.monitor.ComplianceFeature;
 import org.wso2.carbon.device.mgt.common.policy.mgt.monitor.PolicyComplianceException;
+import org.wso2.carbon.policy.mgt.core.cache.EffectivePolicyCacheStatistics;
+import org.wso2.carbon.policy.mgt.core.cache.impl.EffectivePolicyCache;
+import org.wso2.carbon.policy.mgt.core.enforcement.PolicyDelegationStatistics;
 import org.wso2.carbon.policy.mgt.core.impl.PolicyAdministratorPointImpl;
 import org.wso2.carbon.policy.mgt.core.impl.PolicyInformationPointImpl;
 import org.wso2.carbon.policy.mgt.core.internal.PolicyManagementDataHolder;
@@ -226,4 +229,14 @@ public class PolicyManagerServiceImpl implements PolicyManagerService {
     public boolean isCompliant(DeviceIdentifier deviceIdentifier) throws PolicyComplianceException {
         return monitoringManager.isCompliant(deviceIdentifier);
     }
+
+    @Override
+    public PolicyDelegationStatistics getPolicyDelegationStatistics() {
+        return PolicyManagementDataHolder.getInstance().getDelegationStatisticsCollector().getStatistics();
+    }
+
+    @Override
+    public List<EffectivePolicyCacheStatistics> getEffectivePolicyCacheStatistics() {
+        return EffectivePolicyCache.getAllStatistics();
+    }
 }
\ No newline at end of file
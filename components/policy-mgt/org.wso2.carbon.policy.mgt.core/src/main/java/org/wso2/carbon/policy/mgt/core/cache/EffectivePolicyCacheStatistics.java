@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.policy.mgt.core.cache;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * This represents the statistics of the effective policy cache of a policy evaluation point of a node, since the node
+ * was started.
+ */
+@ApiModel(value = "EffectivePolicyCacheStatistics", description = "Statistics of the effective policy cache of a " +
+        "policy evaluation point of a node.")
+public class EffectivePolicyCacheStatistics {
+
+    @ApiModelProperty(name = "evaluationPoint", value = "Name of the policy evaluation point.")
+    private String evaluationPoint;
+
+    @ApiModelProperty(name = "enabled", value = "Whether the cache is used, which requires the policy cache.")
+    private boolean enabled;
+
+    @ApiModelProperty(name = "hitCount", value = "Evaluations answered by the cache.")
+    private long hitCount;
+
+    @ApiModelProperty(name = "missCount", value = "Evaluations which had to select the policies of the device.")
+    private long missCount;
+
+    @ApiModelProperty(name = "hitRatio", value = "Ratio of the evaluations answered by the cache, between 0 and 1.")
+    private double hitRatio;
+
+    @ApiModelProperty(name = "evictionCount", value = "Least recently used entries evicted to keep the cache bounded.")
+    private long evictionCount;
+
+    @ApiModelProperty(name = "averageEvaluationTime", value = "Average time taken by the evaluations which were not " +
+            "answered by the cache, in microseconds.")
+    private long averageEvaluationTime;
+
+    @ApiModelProperty(name = "size", value = "Current number of entries in the cache.")
+    private int size;
+
+    public String getEvaluationPoint() {
+        return evaluationPoint;
+    }
+
+    public void setEvaluationPoint(String evaluationPoint) {
+        this.evaluationPoint = evaluationPoint;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    public double getHitRatio() {
+        return hitRatio;
+    }
+
+    public void setHitRatio(double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    public long getAverageEvaluationTime() {
+        return averageEvaluationTime;
+    }
+
+    public void setAverageEvaluationTime(long averageEvaluationTime) {
+        this.averageEvaluationTime = averageEvaluationTime;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -21,6 +21,7 @@ package org.wso2.carbon.policy.mgt.core.cache;
 
 import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
 import org.wso2.carbon.policy.mgt.common.PolicyManagementException;
+import org.wso2.carbon.policy.mgt.core.impl.PolicyApplicabilityIndex;
 
 import java.util.List;
 
@@ -49,6 +50,30 @@ public interface PolicyCacheManager {
      */
     List<Policy> getAllPolicies() throws PolicyManagementException;
 
+    /**
+     * This method will return the policies of a device type, ordered by priority.
+     * @param deviceType - Name of the device type.
+     * @return - list of policies
+     * @throws PolicyManagementException
+     */
+    List<Policy> getPoliciesOfDeviceType(String deviceType) throws PolicyManagementException;
+
+    /**
+     * This method will return the applicability index of all the cached policies. The index is built on demand
+     * once per version of the cached policies.
+     * @return - index of the policies
+     * @throws PolicyManagementException
+     */
+    PolicyApplicabilityIndex getApplicabilityIndex() throws PolicyManagementException;
+
+    /**
+     * This method will return the version of the cached policies of the current tenant, which changes on each change of
+     * the cached policies. Versions are unique across the cluster and are meant to be compared for equality only. It can
+     * be used to detect data derived from the policies which has become stale.
+     * @return - version of the cached policies
+     */
+    String getPolicyVersion();
+
     /**
      * This method will repopulate the cache, this will be called when there is a change of the policies.
      * @throws PolicyManagementException
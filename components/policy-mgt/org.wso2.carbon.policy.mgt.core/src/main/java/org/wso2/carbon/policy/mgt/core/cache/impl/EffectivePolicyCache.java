@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.policy.mgt.core.cache.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.device.mgt.common.group.mgt.DeviceGroup;
+import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.config.policy.PolicyConfiguration;
+import org.wso2.carbon.policy.mgt.common.PIPDevice;
+import org.wso2.carbon.policy.mgt.core.cache.EffectivePolicyCacheStatistics;
+import org.wso2.carbon.policy.mgt.core.util.PolicyManagementConstants;
+import org.wso2.carbon.policy.mgt.core.util.PolicyManagerUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memoizes the effective policies evaluated by a policy evaluation point. The policies of a device depend only on its
+ * device type, ownership type, roles, owner and groups, hence devices sharing these attributes share the result of a
+ * single evaluation. Results are kept together with the version of the cached policies they were evaluated from
+ * (see {@link PolicyCacheManagerImpl#getPolicyVersion()}), and are discarded as soon as the policies change.
+ * <p>
+ * The cache is used only when the policy cache is enabled, since the policy version is not maintained otherwise.
+ * It holds at most the number of entries configured as the effective policy cache capacity of the policy
+ * configuration, and evicts the least recently used ones. Policies are stored in
+ * serialized form and every lookup returns a copy, hence callers may modify the returned policy.
+ */
+public class EffectivePolicyCache {
+
+    private static final Log log = LogFactory.getLog(EffectivePolicyCache.class);
+    private static final Map<String, EffectivePolicyCache> instances = new LinkedHashMap<>();
+
+    private final String name;
+    private final boolean enabled;
+    private final int capacity;
+    private final Map<String, CachedPolicy> entries;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong evaluationTimeNanos = new AtomicLong();
+
+    public EffectivePolicyCache(String name, boolean enabled) {
+        this(name, enabled, PolicyManagementConstants.DEFAULT_EFFECTIVE_POLICY_CACHE_CAPACITY);
+    }
+
+    EffectivePolicyCache(String name, boolean enabled, int capacity) {
+        this.name = name;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<String, CachedPolicy>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPolicy> eldest) {
+                if (size() > EffectivePolicyCache.this.capacity) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache of the effective policies of the given policy evaluation point, creating it on first use.
+     *
+     * @param evaluationPointName name of the policy evaluation point.
+     * @return effective policy cache of the evaluation point.
+     */
+    public static EffectivePolicyCache getInstance(String evaluationPointName) {
+        synchronized (instances) {
+            EffectivePolicyCache cache = instances.get(evaluationPointName);
+            if (cache == null) {
+                PolicyConfiguration policyConfiguration = DeviceConfigurationManager.getInstance()
+                        .getDeviceManagementConfig().getPolicyConfiguration();
+                int capacity = policyConfiguration.getEffectivePolicyCacheCapacity();
+                if (capacity <= 0) {
+                    capacity = PolicyManagementConstants.DEFAULT_EFFECTIVE_POLICY_CACHE_CAPACITY;
+                }
+                cache = new EffectivePolicyCache(evaluationPointName, policyConfiguration.getCacheEnable(), capacity);
+                instances.put(evaluationPointName, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * @return statistics of the effective policy caches of all the policy evaluation points used by this node.
+     */
+    public static List<EffectivePolicyCacheStatistics> getAllStatistics() {
+        List<EffectivePolicyCacheStatistics> statistics = new ArrayList<>();
+        synchronized (instances) {
+            for (EffectivePolicyCache cache : instances.values()) {
+                statistics.add(cache.getStatistics());
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * @return the current version of the cached policies, to be passed to {@link #get(PIPDevice, String)} and
+     * {@link #put(PIPDevice, String, Policy, long)} by the evaluation of a device, null if the cache is disabled.
+     */
+    public String getPolicyVersion() {
+        return enabled ? PolicyCacheManagerImpl.getInstance().getPolicyVersion() : null;
+    }
+
+    /**
+     * Returns the effective policy evaluated for a device with the same attributes at the given policy version.
+     *
+     * @param pipDevice     device data collected by the policy information point.
+     * @param policyVersion version of the cached policies, obtained before collecting the device data.
+     * @return cached entry, which holds a null policy if no policy applies to such devices, or null if there is none.
+     */
+    public Entry get(PIPDevice pipDevice, String policyVersion) {
+        if (!enabled) {
+            return null;
+        }
+        String signature = getSignature(pipDevice);
+        CachedPolicy cachedPolicy;
+        synchronized (entries) {
+            cachedPolicy = entries.get(signature);
+        }
+        if (cachedPolicy != null && cachedPolicy.policyVersion.equals(policyVersion)) {
+            try {
+                Entry entry = new Entry(cachedPolicy.readPolicy());
+                hitCount.incrementAndGet();
+                return entry;
+            } catch (IOException | ClassNotFoundException e) {
+                log.error("Error occurred while reading the cached effective policy of devices of signature '" +
+                        signature + "'.", e);
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Adds the effective policy evaluated for a device.
+     *
+     * @param pipDevice      device data collected by the policy information point.
+     * @param policyVersion  version of the cached policies the policy was evaluated from.
+     * @param policy         effective policy, null if no policy applies to the device.
+     * @param evaluationTime time taken by the evaluation in nanoseconds.
+     */
+    public void put(PIPDevice pipDevice, String policyVersion, Policy policy, long evaluationTime) {
+        if (!enabled) {
+            return;
+        }
+        evaluationTimeNanos.addAndGet(evaluationTime);
+        if (!policyVersion.equals(this.getPolicyVersion())) {
+            // Policies have changed during the evaluation
+            return;
+        }
+        String signature = getSignature(pipDevice);
+        CachedPolicy cachedPolicy;
+        try {
+            cachedPolicy = new CachedPolicy(policy == null ? null : PolicyManagerUtil.getBytes(policy), policyVersion);
+        } catch (IOException e) {
+            log.error("Error occurred while caching the effective policy of devices of signature '" + signature +
+                    "'.", e);
+            return;
+        }
+        synchronized (entries) {
+            entries.put(signature, cachedPolicy);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return ratio of the lookups answered from the cache, between 0 and 1.
+     */
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long lookups = hits + missCount.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * @return average time taken by the evaluations which were not answered from the cache, in nanoseconds.
+     */
+    public long getAverageEvaluationTime() {
+        long misses = missCount.get();
+        return misses == 0 ? 0 : evaluationTimeNanos.get() / misses;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public EffectivePolicyCacheStatistics getStatistics() {
+        EffectivePolicyCacheStatistics statistics = new EffectivePolicyCacheStatistics();
+        statistics.setEvaluationPoint(name);
+        statistics.setEnabled(enabled);
+        statistics.setHitCount(hitCount.get());
+        statistics.setMissCount(missCount.get());
+        statistics.setHitRatio(this.getHitRatio());
+        statistics.setEvictionCount(evictionCount.get());
+        statistics.setAverageEvaluationTime(this.getAverageEvaluationTime() / 1000);
+        statistics.setSize(this.size());
+        return statistics;
+    }
+
+    private static String getSignature(PIPDevice pipDevice) {
+        StringBuilder signature = new StringBuilder();
+        signature.append(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId()).append('|');
+        if (pipDevice.getDeviceType() != null) {
+            signature.append(normalize(pipDevice.getDeviceType().getName()));
+        }
+        signature.append('|').append(normalize(pipDevice.getOwnershipType()));
+        signature.append('|').append(normalize(pipDevice.getUserId())).append('|');
+        if (pipDevice.getRoles() != null) {
+            String[] roles = new String[pipDevice.getRoles().length];
+            for (int i = 0; i < roles.length; i++) {
+                roles[i] = normalize(pipDevice.getRoles()[i]);
+            }
+            Arrays.sort(roles);
+            signature.append(Arrays.toString(roles));
+        }
+        signature.append('|');
+        if (pipDevice.getDeviceGroups() != null) {
+            List<Integer> groupIds = new ArrayList<>();
+            for (DeviceGroup group : pipDevice.getDeviceGroups()) {
+                groupIds.add(group.getGroupId());
+            }
+            Collections.sort(groupIds);
+            signature.append(groupIds);
+        }
+        return signature.toString();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Result of an evaluation, the policy is null if no policy applies to the devices. Each lookup returns its own copy
+     * of the cached policy.
+     */
+    public static class Entry {
+
+        private final Policy policy;
+
+        Entry(Policy policy) {
+            this.policy = policy;
+        }
+
+        public Policy getPolicy() {
+            return policy;
+        }
+    }
+
+    /**
+     * Cached result of an evaluation together with the version of the policies it was evaluated from.
+     */
+    private static class CachedPolicy {
+
+        private final byte[] serializedPolicy;
+        private final String policyVersion;
+
+        CachedPolicy(byte[] serializedPolicy, String policyVersion) {
+            this.serializedPolicy = serializedPolicy;
+            this.policyVersion = policyVersion;
+        }
+
+        Policy readPolicy() throws IOException, ClassNotFoundException {
+            if (serializedPolicy == null) {
+                return null;
+            }
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(serializedPolicy))) {
+                return (Policy) ois.readObject();
+            }
+        }
+    }
+}
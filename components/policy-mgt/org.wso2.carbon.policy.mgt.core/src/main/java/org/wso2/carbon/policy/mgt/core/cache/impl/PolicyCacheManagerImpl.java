@@ -21,26 +21,53 @@ package org.wso2.carbon.policy.mgt.core.cache.impl;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
 import org.wso2.carbon.policy.mgt.common.PolicyManagementException;
 import org.wso2.carbon.policy.mgt.core.cache.PolicyCacheManager;
+import org.wso2.carbon.policy.mgt.core.impl.PolicyApplicabilityIndex;
 import org.wso2.carbon.policy.mgt.core.mgt.PolicyManager;
 import org.wso2.carbon.policy.mgt.core.mgt.impl.PolicyManagerImpl;
 import org.wso2.carbon.policy.mgt.core.util.PolicyManagementConstants;
 import org.wso2.carbon.policy.mgt.core.util.PolicyManagerUtil;
 
 import javax.cache.Cache;
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
-
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the policies of each tenant as an immutable {@link PolicySnapshot} in the tenant scoped policy cache. Readers
+ * never block and always see a complete snapshot. Changes are applied as deltas on a copy of the current snapshot,
+ * which then replaces it, and are serialized among the writers of this node.
+ * <p>
+ * When the snapshot is invalidated, for instance by a change made in another node of the cluster, it is reloaded
+ * from the policy manager with a new version, which makes any data derived from the previous snapshot stale. Versions
+ * are made of an identifier of the node and a counter of the node, hence they are unique across the cluster, and are
+ * compared for equality only.
+ */
 public class PolicyCacheManagerImpl implements PolicyCacheManager {
 
     private static final Log log = LogFactory.getLog(PolicyCacheManagerImpl.class);
+    private static final int SNAPSHOT_KEY = 1;
 
     private static PolicyCacheManagerImpl policyCacheManager;
 
-    private static Cache<Integer, List<Policy>> getPolicyListCache() {
-        return PolicyManagerUtil.getPolicyListCache(PolicyManagementConstants.DM_CACHE_LIST);
+    // Snapshot versions are unique across the cluster, hence a snapshot loaded by another node is never mistaken for
+    // one of this node
+    private static final String NODE_ID = UUID.randomUUID().toString();
+    private static final AtomicLong versionSequence = new AtomicLong();
+
+    private final Object writeLock = new Object();
+    // Number of changes of the cached policies of each tenant made by this node, used to detect the changes made
+    // while loading the policies of the tenant
+    private final Map<Integer, Long> tenantChangeCounts = new ConcurrentHashMap<>();
+
+    private static Cache<Integer, PolicySnapshot> getPolicySnapshotCache() {
+        return PolicyManagerUtil.getPolicySnapshotCache(PolicyManagementConstants.DM_CACHE_LIST);
     }
 
     private PolicyCacheManagerImpl() {
@@ -60,29 +87,24 @@ public class PolicyCacheManagerImpl implements PolicyCacheManager {
     @Override
     public void addAllPolicies(List<Policy> policies) {
 
-        Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        lCache.put(1, policies);
+        synchronized (writeLock) {
+            this.countChange();
+            getPolicySnapshotCache().put(SNAPSHOT_KEY, new PolicySnapshot(policies, newVersion()));
+        }
     }
 
     @Override
     public void updateAllPolicies(List<Policy> policies) {
 
-        Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        lCache.removeAll();
-        lCache.put(1, policies);
+        this.addAllPolicies(policies);
     }
 
     @Override
     public List<Policy> getAllPolicies() throws PolicyManagementException {
 
-        Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        if (!lCache.containsKey(1)) {
-            PolicyManager policyManager = new PolicyManagerImpl();
-            this.addAllPolicies(policyManager.getPolicies());
-        }
+        List<Policy> cachedPolicies = this.getSnapshot().getPolicies();
         if (log.isDebugEnabled()) {
-            List<Policy> cachedPolicy = lCache.get(1);
-            for (Policy policy : cachedPolicy) {
+            for (Policy policy : cachedPolicies) {
                 log.debug("Policy id in cache .. : " + policy.getId() + " policy name : " + policy.
                         getPolicyName() + " Activated : " + policy.isActive());
 
@@ -97,66 +119,73 @@ public class PolicyCacheManagerImpl implements PolicyCacheManager {
             }
 
         }
-        return lCache.get(1);
+        return new ArrayList<>(cachedPolicies);
+
+    }
+
+    @Override
+    public List<Policy> getPoliciesOfDeviceType(String deviceType) throws PolicyManagementException {
+        return new ArrayList<>(this.getSnapshot().getPoliciesOfDeviceType(deviceType));
+    }
 
+    @Override
+    public PolicyApplicabilityIndex getApplicabilityIndex() throws PolicyManagementException {
+        return this.getSnapshot().getApplicabilityIndex();
+    }
+
+    @Override
+    public String getPolicyVersion() {
+        PolicySnapshot snapshot = getPolicySnapshotCache().get(SNAPSHOT_KEY);
+        if (snapshot == null) {
+            // The snapshot may have been invalidated by another node, hence a version no snapshot can have is
+            // returned, which keeps the data derived from an earlier snapshot from being considered valid
+            return newVersion();
+        }
+        return snapshot.getVersion();
     }
 
     @Override
     public void rePopulateCache() throws PolicyManagementException {
 
         this.removeAllPolicies();
-        this.getAllPolicies();
+        this.getSnapshot();
     }
 
     @Override
     public void removeAllPolicies() {
 
-        Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        lCache.removeAll();
+        synchronized (writeLock) {
+            this.countChange();
+            getPolicySnapshotCache().removeAll();
+        }
     }
 
     @Override
     public void addPolicy(Policy policy) {
 
-        Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        if (lCache.containsKey(1)) {
-            List<Policy> cachedPolicy = lCache.get(1);
-
-            for (Policy pol : cachedPolicy) {
-                if (pol.getId() == policy.getId()) {
-                    return;
-                }
+        synchronized (writeLock) {
+            Cache<Integer, PolicySnapshot> lCache = getPolicySnapshotCache();
+            PolicySnapshot snapshot = lCache.get(SNAPSHOT_KEY);
+            if (snapshot != null && snapshot.getPolicy(policy.getId()) != null) {
+                return;
             }
-            cachedPolicy.add(policy);
+            this.applyChange(lCache, snapshot, policy);
         }
-
     }
 
     @Override
     public void updatePolicy(Policy policy) {
 
-        Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        if (lCache.containsKey(1)) {
-            List<Policy> cachedPolicy = lCache.get(1);
-            Iterator iterator = cachedPolicy.iterator();
-            while (iterator.hasNext()) {
-                Policy pol = (Policy) iterator.next();
-                if (pol.getId() == policy.getId()) {
-                    iterator.remove();
-                    break;
-                }
-            }
-            cachedPolicy.add(policy);
-            lCache.replace(1, cachedPolicy);
+        synchronized (writeLock) {
+            Cache<Integer, PolicySnapshot> lCache = getPolicySnapshotCache();
+            this.applyChange(lCache, lCache.get(SNAPSHOT_KEY), policy);
         }
-
     }
 
     @Override
     public void updatePolicy(int policyId) throws PolicyManagementException {
 
-        Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        if (lCache.containsKey(1)) {
+        if (getPolicySnapshotCache().containsKey(SNAPSHOT_KEY)) {
             PolicyManager policyManager = new PolicyManagerImpl();
             Policy policy = policyManager.getPolicy(policyId);
             this.updatePolicy(policy);
@@ -167,40 +196,20 @@ public class PolicyCacheManagerImpl implements PolicyCacheManager {
     @Override
     public void removePolicy(int policyId) {
 
-        Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        if (lCache.containsKey(1)) {
-            List<Policy> cachedPolicy = lCache.get(1);
-            Iterator iterator = cachedPolicy.iterator();
-            while (iterator.hasNext()) {
-                Policy pol = (Policy) iterator.next();
-                if (pol.getId() == policyId) {
-                    iterator.remove();
-                    break;
-                }
+        synchronized (writeLock) {
+            Cache<Integer, PolicySnapshot> lCache = getPolicySnapshotCache();
+            PolicySnapshot snapshot = lCache.get(SNAPSHOT_KEY);
+            this.countChange();
+            if (snapshot != null) {
+                lCache.put(SNAPSHOT_KEY, snapshot.withoutPolicy(policyId, newVersion()));
             }
-            lCache.replace(1, cachedPolicy);
         }
     }
 
     @Override
     public Policy getPolicy(int policyId) throws PolicyManagementException {
 
-        Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        if (!lCache.containsKey(1)) {
-            this.removeAllPolicies();
-            this.getAllPolicies();
-        }
-
-        Policy policy = null;
-        List<Policy> cachedPolicy = lCache.get(1);
-        Iterator iterator = cachedPolicy.iterator();
-        while (iterator.hasNext()) {
-            Policy pol = (Policy) iterator.next();
-            if (pol.getId() == policyId) {
-                policy = pol;
-            }
-        }
-        return policy;
+        return this.getSnapshot().getPolicy(policyId);
     }
 
     @Override
@@ -218,4 +227,68 @@ public class PolicyCacheManagerImpl implements PolicyCacheManager {
         return 0;
     }
 
+    /**
+     * Replaces the cached snapshot with a copy including the given policy. Must be called holding the write lock.
+     */
+    private void applyChange(Cache<Integer, PolicySnapshot> lCache, PolicySnapshot snapshot, Policy policy) {
+        this.countChange();
+        if (snapshot != null) {
+            lCache.put(SNAPSHOT_KEY, snapshot.withPolicy(policy, newVersion()));
+        }
+    }
+
+    /**
+     * Records a change of the cached policies of the current tenant. Must be called holding the write lock.
+     */
+    private void countChange() {
+        int tenantId = getTenantId();
+        Long count = tenantChangeCounts.get(tenantId);
+        tenantChangeCounts.put(tenantId, count == null ? 1 : count + 1);
+    }
+
+    private long getChangeCount() {
+        Long count = tenantChangeCounts.get(getTenantId());
+        return count == null ? 0 : count;
+    }
+
+    private static int getTenantId() {
+        return PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+    }
+
+    private static String newVersion() {
+        return NODE_ID + ":" + versionSequence.incrementAndGet();
+    }
+
+    /**
+     * Returns the cached snapshot of the current tenant, loading it from the policy manager if it is not cached.
+     */
+    private PolicySnapshot getSnapshot() throws PolicyManagementException {
+        Cache<Integer, PolicySnapshot> lCache = getPolicySnapshotCache();
+        PolicySnapshot snapshot = lCache.get(SNAPSHOT_KEY);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long changeCount = this.getChangeCount();
+        PolicyManager policyManager = new PolicyManagerImpl();
+        List<Policy> policies = policyManager.getPolicies();
+        synchronized (writeLock) {
+            snapshot = lCache.get(SNAPSHOT_KEY);
+            if (snapshot != null) {
+                return snapshot;
+            }
+            snapshot = new PolicySnapshot(policies, newVersion());
+            if (changeCount == this.getChangeCount()) {
+                lCache.put(SNAPSHOT_KEY, snapshot);
+            } else if (log.isDebugEnabled()) {
+                // Policies of the tenant have changed while loading, the next call loads them again
+                log.debug("Policies changed while loading them to the cache, hence they are not cached.");
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Policy snapshot of version " + snapshot.getVersion() + " loaded with " +
+                    policies.size() + " policies.");
+        }
+        return snapshot;
+    }
+
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.policy.mgt.core.cache.impl;
+
+import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
+import org.wso2.carbon.policy.mgt.core.impl.PolicyApplicabilityIndex;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the policies of a tenant, ordered by priority and indexed by policy id, device type and
+ * profile id. Changes are applied by creating a new snapshot, which replaces the previous one in the policy cache as a
+ * whole, hence readers never observe a partially applied change.
+ * <p>
+ * Each snapshot carries a version, which is unique across the nodes of the cluster and is meant to be compared for
+ * equality only. Data derived from the policies, such as the applicability index, is bound to the snapshot it was
+ * derived from.
+ */
+public class PolicySnapshot implements Serializable {
+
+    private static final long serialVersionUID = 4810355263414587293L;
+
+    private final String version;
+    private final List<Policy> policies;
+    private final Map<Integer, Policy> policiesById = new HashMap<>();
+    private final Map<Integer, Policy> policiesByProfileId = new HashMap<>();
+    private final Map<String, List<Policy>> policiesByDeviceType = new HashMap<>();
+    private transient volatile PolicyApplicabilityIndex applicabilityIndex;
+
+    /**
+     * @param policies policies of the tenant, which must not be modified once added to the snapshot.
+     * @param version  version of the snapshot.
+     */
+    public PolicySnapshot(List<Policy> policies, String version) {
+        this.version = version;
+        List<Policy> sortedPolicies = new ArrayList<>(policies);
+        // Stable sort, hence policies of the same priority keep their order as in the policy manager
+        Collections.sort(sortedPolicies);
+        this.policies = Collections.unmodifiableList(sortedPolicies);
+        for (Policy policy : sortedPolicies) {
+            policiesById.put(policy.getId(), policy);
+            policiesByProfileId.put(policy.getProfileId(), policy);
+            if (policy.getProfile() != null && policy.getProfile().getDeviceType() != null) {
+                String deviceType = normalize(policy.getProfile().getDeviceType());
+                List<Policy> deviceTypePolicies = policiesByDeviceType.get(deviceType);
+                if (deviceTypePolicies == null) {
+                    deviceTypePolicies = new ArrayList<>();
+                    policiesByDeviceType.put(deviceType, deviceTypePolicies);
+                }
+                deviceTypePolicies.add(policy);
+            }
+        }
+    }
+
+    /**
+     * Returns a new snapshot with the given policy added, or replacing the policy with the same id.
+     */
+    public PolicySnapshot withPolicy(Policy policy, String newVersion) {
+        List<Policy> newPolicies = new ArrayList<>(policies.size() + 1);
+        for (Policy existing : policies) {
+            if (existing.getId() != policy.getId()) {
+                newPolicies.add(existing);
+            }
+        }
+        newPolicies.add(policy);
+        return new PolicySnapshot(newPolicies, newVersion);
+    }
+
+    /**
+     * Returns a new snapshot without the policy of the given id.
+     */
+    public PolicySnapshot withoutPolicy(int policyId, String newVersion) {
+        List<Policy> newPolicies = new ArrayList<>(policies.size());
+        for (Policy existing : policies) {
+            if (existing.getId() != policyId) {
+                newPolicies.add(existing);
+            }
+        }
+        return new PolicySnapshot(newPolicies, newVersion);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return unmodifiable list of all the policies, ordered by priority.
+     */
+    public List<Policy> getPolicies() {
+        return policies;
+    }
+
+    public Policy getPolicy(int policyId) {
+        return policiesById.get(policyId);
+    }
+
+    public Policy getPolicyOfProfile(int profileId) {
+        return policiesByProfileId.get(profileId);
+    }
+
+    /**
+     * @return policies of the given device type ordered by priority, empty if there is none.
+     */
+    public List<Policy> getPoliciesOfDeviceType(String deviceType) {
+        List<Policy> deviceTypePolicies = deviceType == null ? null : policiesByDeviceType.get(normalize(deviceType));
+        return deviceTypePolicies == null ? Collections.<Policy>emptyList() :
+                Collections.unmodifiableList(deviceTypePolicies);
+    }
+
+    /**
+     * @return applicability index of the policies, built on the first call.
+     */
+    public PolicyApplicabilityIndex getApplicabilityIndex() {
+        PolicyApplicabilityIndex index = applicabilityIndex;
+        if (index == null) {
+            index = new PolicyApplicabilityIndex(policies, version);
+            applicabilityIndex = index;
+        }
+        return index;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ENGLISH);
+    }
+}
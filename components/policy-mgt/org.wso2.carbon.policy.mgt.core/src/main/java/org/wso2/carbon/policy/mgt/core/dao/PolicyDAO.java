@@ -26,6 +26,7 @@ import org.wso2.carbon.device.mgt.common.policy.mgt.PolicyCriterion;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public interface PolicyDAO {
 
@@ -129,6 +130,41 @@ public interface PolicyDAO {
 
     List<String> getPolicyAppliedUsers(int policyId) throws PolicyManagerDAOException;
 
+    /**
+     * Returns the roles of all the policies of the current tenant.
+     * @return map of policy id to the role names, policies without roles are not included.
+     * @throws PolicyManagerDAOException
+     */
+    Map<Integer, List<String>> getAllPolicyAppliedRoles() throws PolicyManagerDAOException;
+
+    /**
+     * Returns the users of all the policies of the current tenant.
+     * @return map of policy id to the usernames, policies without users are not included.
+     * @throws PolicyManagerDAOException
+     */
+    Map<Integer, List<String>> getAllPolicyAppliedUsers() throws PolicyManagerDAOException;
+
+    /**
+     * Returns the criteria of all the policies of the current tenant.
+     * @return map of policy id to the policy criteria, policies without criteria are not included.
+     * @throws PolicyManagerDAOException
+     */
+    Map<Integer, List<PolicyCriterion>> getAllPolicyCriteriaOfPolicies() throws PolicyManagerDAOException;
+
+    /**
+     * Returns the device groups of all the policies of the current tenant. Only the group ids are populated.
+     * @return map of policy id to the device groups, policies without groups are not included.
+     * @throws PolicyManagerDAOException
+     */
+    Map<Integer, List<DeviceGroupWrapper>> getAllDeviceGroupsOfPolicies() throws PolicyManagerDAOException;
+
+    /**
+     * Returns the ids of the devices that all the policies of the current tenant are applied to.
+     * @return map of policy id to the device ids, policies without devices are not included.
+     * @throws PolicyManagerDAOException
+     */
+    Map<Integer, List<Integer>> getAllPolicyAppliedDevicesIds() throws PolicyManagerDAOException;
+
     void addEffectivePolicyToDevice(int deviceId, int enrolmentId, Policy policy)
             throws PolicyManagerDAOException;
 
@@ -149,5 +185,14 @@ public interface PolicyDAO {
 
     HashMap<Integer, Integer> getAppliedPolicyIds() throws PolicyManagerDAOException;
 
+    /**
+     * Returns the ids of the policies applied to the given devices of the current tenant.
+     *
+     * @param deviceIds ids of the devices.
+     * @return policy ids keyed by device id, devices without an applied policy are not included.
+     * @throws PolicyManagerDAOException if the applied policies cannot be read.
+     */
+    Map<Integer, Integer> getAppliedPolicyIds(List<Integer> deviceIds) throws PolicyManagerDAOException;
+
     HashMap<Integer, Integer> getAppliedPolicyIdsDeviceIds() throws PolicyManagerDAOException;
 }
@@ -29,7 +29,6 @@ import org.wso2.carbon.policy.mgt.core.dao.MonitoringDAO;
 import org.wso2.carbon.policy.mgt.core.dao.MonitoringDAOException;
 import org.wso2.carbon.policy.mgt.core.dao.PolicyManagementDAOFactory;
 import org.wso2.carbon.policy.mgt.core.dao.util.PolicyManagementDAOUtil;
-import org.wso2.carbon.policy.mgt.core.util.PolicyManagerUtil;
 
 import java.sql.*;
 import java.util.*;
@@ -280,13 +279,24 @@ public class MonitoringDAOImpl implements MonitoringDAO {
         PreparedStatement stmt = null;
         ResultSet resultSet = null;
         List<NonComplianceData> complianceDataList = new ArrayList<>();
+        if (deviceIds.isEmpty()) {
+            return complianceDataList;
+        }
         int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
         try {
             conn = this.getConnection();
-            String query = "SELECT * FROM DM_POLICY_COMPLIANCE_STATUS WHERE TENANT_ID = ? AND DEVICE_ID IN (?)";
-            stmt = conn.prepareStatement(query);
-            stmt.setInt(1, tenantId);
-            stmt.setString(2, PolicyManagerUtil.makeString(deviceIds));
+            StringBuilder query = new StringBuilder("SELECT * FROM DM_POLICY_COMPLIANCE_STATUS WHERE TENANT_ID = ? " +
+                    "AND DEVICE_ID IN (");
+            for (int i = 0; i < deviceIds.size(); i++) {
+                query.append(i == 0 ? "?" : ", ?");
+            }
+            query.append(")");
+            stmt = conn.prepareStatement(query.toString());
+            int index = 1;
+            stmt.setInt(index++, tenantId);
+            for (Integer deviceId : deviceIds) {
+                stmt.setInt(index++, deviceId);
+            }
 
             resultSet = stmt.executeQuery();
             while (resultSet.next()) {
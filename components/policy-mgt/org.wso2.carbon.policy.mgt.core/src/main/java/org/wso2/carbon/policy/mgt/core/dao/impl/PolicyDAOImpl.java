@@ -753,34 +753,17 @@ public class PolicyDAOImpl implements PolicyDAO {
         List<PolicyCriterion> criteria = new ArrayList<PolicyCriterion>();
         try {
             conn = this.getConnection();
-            String query = "SELECT DPC.ID, DPC.CRITERIA_ID, DPCP.PROP_KEY, DPCP.PROP_VALUE, DPCP.CONTENT FROM " +
-                    "DM_POLICY_CRITERIA DPC LEFT JOIN DM_POLICY_CRITERIA_PROPERTIES DPCP " +
+            String query = "SELECT DPC.ID, DPC.POLICY_ID, DPC.CRITERIA_ID, DPCP.PROP_KEY, DPCP.PROP_VALUE, " +
+                    "DPCP.CONTENT FROM DM_POLICY_CRITERIA DPC LEFT JOIN DM_POLICY_CRITERIA_PROPERTIES DPCP " +
                     "ON DPCP.POLICY_CRITERION_ID = DPC.ID RIGHT JOIN DM_CRITERIA DC " +
-                    "ON DC.ID=DPC.CRITERIA_ID WHERE DPC.POLICY_ID = ?";
+                    "ON DC.ID=DPC.CRITERIA_ID WHERE DPC.POLICY_ID = ? ORDER BY DPC.ID";
             stmt = conn.prepareStatement(query);
             stmt.setInt(1, policyId);
             resultSet = stmt.executeQuery();
 
-            int criteriaId = 0;
-
-            PolicyCriterion policyCriterion = null;
-            Properties prop = null;
-            while (resultSet.next()) {
-
-                if (criteriaId != resultSet.getInt("ID")) {
-                    if (policyCriterion != null) {
-                        policyCriterion.setProperties(prop);
-                        criteria.add(policyCriterion);
-                    }
-                    policyCriterion = new PolicyCriterion();
-                    prop = new Properties();
-                    criteriaId = resultSet.getInt("ID");
-
-                    policyCriterion.setId(resultSet.getInt("ID"));
-                    policyCriterion.setCriteriaId(resultSet.getInt("CRITERIA_ID"));
-                } else {
-                    prop.setProperty(resultSet.getString("PROP_KEY"), resultSet.getString("PROP_VALUE"));
-                }
+            List<PolicyCriterion> policyCriteria = this.readPolicyCriteria(resultSet).get(policyId);
+            if (policyCriteria != null) {
+                criteria = policyCriteria;
             }
         } catch (SQLException e) {
             throw new PolicyManagerDAOException("Error occurred while reading the criteria related to policies from " +
@@ -1079,6 +1062,135 @@ public class PolicyDAOImpl implements PolicyDAO {
         }
     }
 
+    @Override
+    public Map<Integer, List<String>> getAllPolicyAppliedRoles() throws PolicyManagerDAOException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        Map<Integer, List<String>> roleNames = new HashMap<>();
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        try {
+            conn = this.getConnection();
+            String query = "SELECT RP.POLICY_ID, RP.ROLE_NAME FROM DM_ROLE_POLICY RP INNER JOIN DM_POLICY P " +
+                    "ON P.ID = RP.POLICY_ID WHERE P.TENANT_ID = ?";
+            stmt = conn.prepareStatement(query);
+            stmt.setInt(1, tenantId);
+            resultSet = stmt.executeQuery();
+
+            while (resultSet.next()) {
+                addToPolicyMap(roleNames, resultSet.getInt("POLICY_ID"), resultSet.getString("ROLE_NAME"));
+            }
+            return roleNames;
+        } catch (SQLException e) {
+            throw new PolicyManagerDAOException("Error occurred while getting the roles related to policies", e);
+        } finally {
+            PolicyManagementDAOUtil.cleanupResources(stmt, resultSet);
+        }
+    }
+
+    @Override
+    public Map<Integer, List<String>> getAllPolicyAppliedUsers() throws PolicyManagerDAOException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        Map<Integer, List<String>> users = new HashMap<>();
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        try {
+            conn = this.getConnection();
+            String query = "SELECT UP.POLICY_ID, UP.USERNAME FROM DM_USER_POLICY UP INNER JOIN DM_POLICY P " +
+                    "ON P.ID = UP.POLICY_ID WHERE P.TENANT_ID = ?";
+            stmt = conn.prepareStatement(query);
+            stmt.setInt(1, tenantId);
+            resultSet = stmt.executeQuery();
+
+            while (resultSet.next()) {
+                addToPolicyMap(users, resultSet.getInt("POLICY_ID"), resultSet.getString("USERNAME"));
+            }
+            return users;
+        } catch (SQLException e) {
+            throw new PolicyManagerDAOException("Error occurred while getting the users related to policies", e);
+        } finally {
+            PolicyManagementDAOUtil.cleanupResources(stmt, resultSet);
+        }
+    }
+
+    @Override
+    public Map<Integer, List<PolicyCriterion>> getAllPolicyCriteriaOfPolicies() throws PolicyManagerDAOException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        try {
+            conn = this.getConnection();
+            String query = "SELECT DPC.ID, DPC.POLICY_ID, DPC.CRITERIA_ID, DPCP.PROP_KEY, DPCP.PROP_VALUE FROM " +
+                    "DM_POLICY_CRITERIA DPC INNER JOIN DM_POLICY P ON P.ID = DPC.POLICY_ID " +
+                    "LEFT JOIN DM_POLICY_CRITERIA_PROPERTIES DPCP ON DPCP.POLICY_CRITERION_ID = DPC.ID " +
+                    "WHERE P.TENANT_ID = ? ORDER BY DPC.ID";
+            stmt = conn.prepareStatement(query);
+            stmt.setInt(1, tenantId);
+            resultSet = stmt.executeQuery();
+            return this.readPolicyCriteria(resultSet);
+        } catch (SQLException e) {
+            throw new PolicyManagerDAOException("Error occurred while reading the criteria related to policies from " +
+                    "the database", e);
+        } finally {
+            PolicyManagementDAOUtil.cleanupResources(stmt, resultSet);
+        }
+    }
+
+    @Override
+    public Map<Integer, List<DeviceGroupWrapper>> getAllDeviceGroupsOfPolicies() throws PolicyManagerDAOException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        Map<Integer, List<DeviceGroupWrapper>> deviceGroupWrappers = new HashMap<>();
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        try {
+            conn = this.getConnection();
+            String query = "SELECT POLICY_ID, DEVICE_GROUP_ID FROM DM_DEVICE_GROUP_POLICY WHERE TENANT_ID = ?";
+            stmt = conn.prepareStatement(query);
+            stmt.setInt(1, tenantId);
+            resultSet = stmt.executeQuery();
+
+            while (resultSet.next()) {
+                DeviceGroupWrapper dgw = new DeviceGroupWrapper();
+                dgw.setId(resultSet.getInt("DEVICE_GROUP_ID"));
+                dgw.setTenantId(tenantId);
+                addToPolicyMap(deviceGroupWrappers, resultSet.getInt("POLICY_ID"), dgw);
+            }
+            return deviceGroupWrappers;
+        } catch (SQLException e) {
+            throw new PolicyManagerDAOException("Error occurred while reading the device groups form database.", e);
+        } finally {
+            PolicyManagementDAOUtil.cleanupResources(stmt, resultSet);
+        }
+    }
+
+    @Override
+    public Map<Integer, List<Integer>> getAllPolicyAppliedDevicesIds() throws PolicyManagerDAOException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        Map<Integer, List<Integer>> deviceIds = new HashMap<>();
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        try {
+            conn = this.getConnection();
+            String query = "SELECT DP.POLICY_ID, DP.DEVICE_ID FROM DM_DEVICE_POLICY DP INNER JOIN DM_POLICY P " +
+                    "ON P.ID = DP.POLICY_ID WHERE P.TENANT_ID = ?";
+            stmt = conn.prepareStatement(query);
+            stmt.setInt(1, tenantId);
+            resultSet = stmt.executeQuery();
+
+            while (resultSet.next()) {
+                addToPolicyMap(deviceIds, resultSet.getInt("POLICY_ID"), resultSet.getInt("DEVICE_ID"));
+            }
+            return deviceIds;
+        } catch (SQLException e) {
+            throw new PolicyManagerDAOException("Error occurred while getting the device ids related to policies", e);
+        } finally {
+            PolicyManagementDAOUtil.cleanupResources(stmt, resultSet);
+        }
+    }
 
     @Override
     public void addEffectivePolicyToDevice(int deviceId, int enrolmentId, Policy policy) throws
@@ -1424,6 +1536,42 @@ public class PolicyDAOImpl implements PolicyDAO {
         }
     }
 
+    /**
+     * Reads the policy criteria from a result set ordered by the policy criterion id, which contains one row per
+     * criterion property, or a single row with null properties for a criterion without properties.
+     */
+    private Map<Integer, List<PolicyCriterion>> readPolicyCriteria(ResultSet resultSet) throws SQLException {
+        Map<Integer, List<PolicyCriterion>> criteria = new HashMap<>();
+        PolicyCriterion policyCriterion = null;
+        Properties prop = null;
+        while (resultSet.next()) {
+            int policyCriterionId = resultSet.getInt("ID");
+            if (policyCriterion == null || policyCriterion.getId() != policyCriterionId) {
+                policyCriterion = new PolicyCriterion();
+                prop = new Properties();
+                policyCriterion.setId(policyCriterionId);
+                policyCriterion.setCriteriaId(resultSet.getInt("CRITERIA_ID"));
+                policyCriterion.setProperties(prop);
+                addToPolicyMap(criteria, resultSet.getInt("POLICY_ID"), policyCriterion);
+            }
+            String key = resultSet.getString("PROP_KEY");
+            String value = resultSet.getString("PROP_VALUE");
+            if (key != null && value != null) {
+                prop.setProperty(key, value);
+            }
+        }
+        return criteria;
+    }
+
+    private static <T> void addToPolicyMap(Map<Integer, List<T>> policyMap, int policyId, T value) {
+        List<T> values = policyMap.get(policyId);
+        if (values == null) {
+            values = new ArrayList<>();
+            policyMap.put(policyId, values);
+        }
+        values.add(value);
+    }
+
     private Connection getConnection() throws PolicyManagerDAOException {
         return PolicyManagementDAOFactory.getConnection();
     }
@@ -1677,6 +1825,43 @@ public class PolicyDAOImpl implements PolicyDAO {
         return devicePolicyIds;
     }
 
+    @Override
+    public Map<Integer, Integer> getAppliedPolicyIds(List<Integer> deviceIds) throws PolicyManagerDAOException {
+        Connection conn;
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        Map<Integer, Integer> devicePolicyIds = new HashMap<>();
+        if (deviceIds.isEmpty()) {
+            return devicePolicyIds;
+        }
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        try {
+            conn = this.getConnection();
+            StringBuilder query = new StringBuilder("SELECT DEVICE_ID, POLICY_ID FROM DM_DEVICE_POLICY_APPLIED " +
+                    "WHERE TENANT_ID = ? AND DEVICE_ID IN (");
+            for (int i = 0; i < deviceIds.size(); i++) {
+                query.append(i == 0 ? "?" : ", ?");
+            }
+            query.append(")");
+            stmt = conn.prepareStatement(query.toString());
+            int index = 1;
+            stmt.setInt(index++, tenantId);
+            for (Integer deviceId : deviceIds) {
+                stmt.setInt(index++, deviceId);
+            }
+            resultSet = stmt.executeQuery();
+
+            while (resultSet.next()) {
+                devicePolicyIds.put(resultSet.getInt("DEVICE_ID"), resultSet.getInt("POLICY_ID"));
+            }
+        } catch (SQLException e) {
+            throw new PolicyManagerDAOException("Error occurred while getting the applied policies of devices", e);
+        } finally {
+            PolicyManagementDAOUtil.cleanupResources(stmt, resultSet);
+        }
+        return devicePolicyIds;
+    }
+
     @Override
     public HashMap<Integer, Integer> getAppliedPolicyIdsDeviceIds() throws PolicyManagerDAOException {
 
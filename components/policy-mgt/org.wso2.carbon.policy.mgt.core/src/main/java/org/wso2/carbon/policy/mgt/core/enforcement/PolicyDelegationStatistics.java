@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.policy.mgt.core.enforcement;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * This represents the statistics of the policy re-enforcements run by a node, since the node was started.
+ */
+@ApiModel(value = "PolicyDelegationStatistics", description = "Statistics of the policy re-enforcements of a node.")
+public class PolicyDelegationStatistics {
+
+    @ApiModelProperty(name = "delegationCount", value = "Policy re-enforcements completed by the node.")
+    private long delegationCount;
+
+    @ApiModelProperty(name = "evaluatedDeviceCount", value = "Devices whose effective policy was evaluated.")
+    private long evaluatedDeviceCount;
+
+    @ApiModelProperty(name = "deviceGroupCount", value = "Groups of devices which received the same operations.")
+    private long deviceGroupCount;
+
+    @ApiModelProperty(name = "operationCount", value = "Policy and policy revoke operations added.")
+    private long operationCount;
+
+    @ApiModelProperty(name = "evaluationTime", value = "Time spent evaluating effective policies, in milliseconds.")
+    private long evaluationTime;
+
+    @ApiModelProperty(name = "operationTime", value = "Time spent adding operations, in milliseconds.")
+    private long operationTime;
+
+    @ApiModelProperty(name = "lastEvaluationThroughput", value = "Devices evaluated per second by the last " +
+            "re-enforcement.")
+    private long lastEvaluationThroughput;
+
+    public long getDelegationCount() {
+        return delegationCount;
+    }
+
+    public void setDelegationCount(long delegationCount) {
+        this.delegationCount = delegationCount;
+    }
+
+    public long getEvaluatedDeviceCount() {
+        return evaluatedDeviceCount;
+    }
+
+    public void setEvaluatedDeviceCount(long evaluatedDeviceCount) {
+        this.evaluatedDeviceCount = evaluatedDeviceCount;
+    }
+
+    public long getDeviceGroupCount() {
+        return deviceGroupCount;
+    }
+
+    public void setDeviceGroupCount(long deviceGroupCount) {
+        this.deviceGroupCount = deviceGroupCount;
+    }
+
+    public long getOperationCount() {
+        return operationCount;
+    }
+
+    public void setOperationCount(long operationCount) {
+        this.operationCount = operationCount;
+    }
+
+    public long getEvaluationTime() {
+        return evaluationTime;
+    }
+
+    public void setEvaluationTime(long evaluationTime) {
+        this.evaluationTime = evaluationTime;
+    }
+
+    public long getOperationTime() {
+        return operationTime;
+    }
+
+    public void setOperationTime(long operationTime) {
+        this.operationTime = operationTime;
+    }
+
+    public long getLastEvaluationThroughput() {
+        return lastEvaluationThroughput;
+    }
+
+    public void setLastEvaluationThroughput(long lastEvaluationThroughput) {
+        this.lastEvaluationThroughput = lastEvaluationThroughput;
+    }
+}
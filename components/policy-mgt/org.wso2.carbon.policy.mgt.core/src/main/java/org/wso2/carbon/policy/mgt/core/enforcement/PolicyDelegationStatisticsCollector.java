@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.policy.mgt.core.enforcement;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accumulates the outcome of the policy re-enforcements of a node, which are exposed as
+ * {@link PolicyDelegationStatistics}.
+ */
+public class PolicyDelegationStatisticsCollector {
+
+    private final AtomicLong delegationCount = new AtomicLong();
+    private final AtomicLong evaluatedDeviceCount = new AtomicLong();
+    private final AtomicLong deviceGroupCount = new AtomicLong();
+    private final AtomicLong operationCount = new AtomicLong();
+    private final AtomicLong evaluationTime = new AtomicLong();
+    private final AtomicLong operationTime = new AtomicLong();
+    private volatile long lastEvaluationThroughput;
+
+    /**
+     * Records a completed policy re-enforcement.
+     *
+     * @param deviceCount    number of devices evaluated
+     * @param groupCount     number of device groups operations were added for
+     * @param operations     number of operations added
+     * @param evaluationTime time taken to evaluate the effective policies, in milliseconds
+     * @param operationTime  time taken to add the operations, in milliseconds
+     */
+    public void record(int deviceCount, int groupCount, int operations, long evaluationTime, long operationTime) {
+        this.delegationCount.incrementAndGet();
+        this.evaluatedDeviceCount.addAndGet(deviceCount);
+        this.deviceGroupCount.addAndGet(groupCount);
+        this.operationCount.addAndGet(operations);
+        this.evaluationTime.addAndGet(evaluationTime);
+        this.operationTime.addAndGet(operationTime);
+        this.lastEvaluationThroughput = getThroughput(deviceCount, evaluationTime);
+    }
+
+    public PolicyDelegationStatistics getStatistics() {
+        PolicyDelegationStatistics statistics = new PolicyDelegationStatistics();
+        statistics.setDelegationCount(delegationCount.get());
+        statistics.setEvaluatedDeviceCount(evaluatedDeviceCount.get());
+        statistics.setDeviceGroupCount(deviceGroupCount.get());
+        statistics.setOperationCount(operationCount.get());
+        statistics.setEvaluationTime(evaluationTime.get());
+        statistics.setOperationTime(operationTime.get());
+        statistics.setLastEvaluationThroughput(lastEvaluationThroughput);
+        return statistics;
+    }
+
+    static long getThroughput(int count, long timeMills) {
+        return timeMills > 0 ? count * 1000L / timeMills : count;
+    }
+}
@@ -20,11 +20,13 @@ package org.wso2.carbon.policy.mgt.core.enforcement;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.device.mgt.common.Device;
 import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
 import org.wso2.carbon.device.mgt.common.InvalidDeviceException;
 import org.wso2.carbon.device.mgt.common.operation.mgt.Operation;
 import org.wso2.carbon.device.mgt.common.operation.mgt.OperationManagementException;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
 import org.wso2.carbon.device.mgt.core.operation.mgt.CommandOperation;
 import org.wso2.carbon.device.mgt.core.operation.mgt.OperationMgtConstants;
 import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
@@ -34,17 +36,35 @@ import org.wso2.carbon.policy.mgt.common.PolicyManagementException;
 import org.wso2.carbon.policy.mgt.core.PolicyManagerService;
 import org.wso2.carbon.policy.mgt.core.PolicyManagerServiceImpl;
 import org.wso2.carbon.policy.mgt.core.internal.PolicyManagementDataHolder;
+import org.wso2.carbon.policy.mgt.core.util.PolicyManagementConstants;
 import org.wso2.carbon.policy.mgt.core.util.PolicyManagerUtil;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Re-enforces the policies of the given devices after a policy change. The effective policies of the devices are
+ * evaluated in batches on the bounded pool of workers shared by all the delegations of the node, and the devices are then grouped by their resulting effective
+ * policy, so that a single revoke operation and a single policy operation are added for each group.
+ */
 public class PolicyEnforcementDelegatorImpl implements PolicyEnforcementDelegator{
 
     private static final Log log = LogFactory.getLog(PolicyEnforcementDelegatorImpl.class);
+    private static final int PROGRESS_LOG_INTERVAL = 10000;
 
     private List<Device> devices;
     private List<Integer> updatedPolicyIds;
+    private final AtomicInteger evaluatedDeviceCount = new AtomicInteger();
 
     public PolicyEnforcementDelegatorImpl(List<Device> devices, List<Integer> updatedPolicyIds) {
 
@@ -63,38 +83,104 @@ public class PolicyEnforcementDelegatorImpl implements PolicyEnforcementDelegato
 
     @Override
     public void delegate() throws PolicyDelegationException {
-        for (Device device : devices) {
-            DeviceIdentifier identifier = new DeviceIdentifier();
-            identifier.setId(device.getDeviceIdentifier());
-            identifier.setType(device.getType());
-
-            Policy devicePolicy = this.getAppliedPolicyToDevice(identifier);
-            Policy policy = this.getEffectivePolicy(identifier);
-            List<DeviceIdentifier> deviceIdentifiers = new ArrayList<>();
-            deviceIdentifiers.add(identifier);
-            if (policy != null) {
-                 /*
-                We add policy operation for the device if,
-                    1) Device does not have any policy or
-                    2) New Policy or
-                    3) Device existing policy has changed
-                 */
-                if (devicePolicy == null || devicePolicy.getId() != policy.getId() || updatedPolicyIds.contains
-                        (policy.getId())) {
-                    this.addPolicyRevokeOperation(deviceIdentifiers);
-                    this.addPolicyOperation(deviceIdentifiers, policy);
+        long startTime = System.currentTimeMillis();
+        Map<String, DelegationGroup> delegationGroups = this.evaluateDevices();
+        long evaluationTime = System.currentTimeMillis() - startTime;
+
+        int operationCount = 0;
+        for (DelegationGroup group : delegationGroups.values()) {
+            /*
+            We add policy operation for the devices if,
+                1) Device does not have any policy or
+                2) New Policy or
+                3) Device existing policy has changed
+            Group without a policy means all the applicable policies have been removed from its devices, hence only
+            a policy revoke is added.
+             */
+            this.addPolicyRevokeOperation(group.deviceIdentifiers);
+            operationCount++;
+            if (group.policy != null) {
+                this.addPolicyOperation(group.deviceIdentifiers, group.policy);
+                operationCount++;
+            }
+        }
+
+        long operationTime = System.currentTimeMillis() - startTime - evaluationTime;
+        PolicyManagementDataHolder.getInstance().getDelegationStatisticsCollector().record(devices.size(),
+                delegationGroups.size(), operationCount, evaluationTime, operationTime);
+        log.info("Policy re-enforcing evaluated " + devices.size() + " devices in " + evaluationTime + " ms (" +
+                PolicyDelegationStatisticsCollector.getThroughput(devices.size(), evaluationTime) +
+                " devices/s) and added " + operationCount + " operations for " + delegationGroups.size() +
+                " device groups in " + operationTime + " ms.");
+    }
+
+    /**
+     * Evaluates the effective policies of the devices in parallel and groups the devices which require a policy
+     * revoke by the effective policy to be applied.
+     */
+    private Map<String, DelegationGroup> evaluateDevices() throws PolicyDelegationException {
+        Map<String, DelegationGroup> delegationGroups = new LinkedHashMap<>();
+        if (devices.isEmpty()) {
+            return delegationGroups;
+        }
+        int batchSize = PolicyManagementConstants.DELEGATION_BATCH_SIZE;
+
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        int tenantId = carbonContext.getTenantId();
+        String tenantDomain = carbonContext.getTenantDomain();
+        String username = carbonContext.getUsername();
+        PolicyManagerService policyManagerService = new PolicyManagerServiceImpl();
+
+        List<Future<Map<String, DelegationGroup>>> results = new ArrayList<>();
+        try {
+            ExecutorService workers = PolicyManagementDataHolder.getInstance().getDelegationWorkers();
+            for (int i = 0; i < devices.size(); i += batchSize) {
+                results.add(workers.submit(new DeviceBatchEvaluator(devices.subList(i, Math.min(i + batchSize,
+                        devices.size())), policyManagerService, tenantId, tenantDomain, username)));
+            }
+            for (Future<Map<String, DelegationGroup>> result : results) {
+                for (Map.Entry<String, DelegationGroup> entry : result.get().entrySet()) {
+                    DelegationGroup group = delegationGroups.get(entry.getKey());
+                    if (group == null) {
+                        delegationGroups.put(entry.getKey(), entry.getValue());
+                    } else {
+                        group.deviceIdentifiers.addAll(entry.getValue().deviceIdentifiers);
+                    }
                 }
-            } else {
-                //This means all the applicable policies have been removed from device. Hence calling a policy revoke.
-                this.addPolicyRevokeOperation(deviceIdentifiers);
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PolicyDelegationException) {
+                throw (PolicyDelegationException) e.getCause();
+            }
+            String msg = "Error occurred while evaluating the effective policies of devices.";
+            log.error(msg, e.getCause());
+            throw new PolicyDelegationException(msg, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String msg = "Interrupted while evaluating the effective policies of devices.";
+            log.error(msg, e);
+            throw new PolicyDelegationException(msg, e);
+        } catch (RejectedExecutionException e) {
+            String msg = "Policy re-enforcing is rejected as the policy management core is shutting down.";
+            log.error(msg, e);
+            throw new PolicyDelegationException(msg, e);
+        } finally {
+            // Batches which are still queued are not needed once the delegation fails, and the pool is shared
+            for (Future<Map<String, DelegationGroup>> result : results) {
+                result.cancel(true);
             }
         }
+        return delegationGroups;
     }
 
     @Override
     public Policy getEffectivePolicy(DeviceIdentifier identifier) throws PolicyDelegationException {
+        return this.getEffectivePolicy(identifier, new PolicyManagerServiceImpl());
+    }
+
+    private Policy getEffectivePolicy(DeviceIdentifier identifier, PolicyManagerService policyManagerService)
+            throws PolicyDelegationException {
         try {
-            PolicyManagerService policyManagerService = new PolicyManagerServiceImpl();
             PolicyAdministratorPoint policyAdministratorPoint;
 
             Policy policy = policyManagerService.getPEP().getEffectivePolicy(identifier);
@@ -106,7 +192,6 @@ public class PolicyEnforcementDelegatorImpl implements PolicyEnforcementDelegato
                 return null;
             }
             return policy;
-            //return PolicyManagementDataHolder.getInstance().getPolicyEvaluationPoint().getEffectivePolicy(identifier);
         } catch (PolicyEvaluationException e) {
             String msg = "Error occurred while retrieving the effective policy for devices.";
             log.error(msg, e);
@@ -184,4 +269,131 @@ public class PolicyEnforcementDelegatorImpl implements PolicyEnforcementDelegato
             throw new PolicyDelegationException(msg, e);
         }
     }
+
+    /**
+     * Creates the pool of workers which evaluates the devices of all the delegations of the node. The pool is owned by
+     * the policy management component, which shuts it down when it is deactivated.
+     *
+     * @return Pool with the configured number of workers.
+     */
+    public static ExecutorService createWorkers() {
+        int threadCount = DeviceConfigurationManager.getInstance().getDeviceManagementConfig()
+                .getPolicyConfiguration().getDelegationThreadCount();
+        if (threadCount <= 0) {
+            threadCount = PolicyManagementConstants.DEFAULT_DELEGATION_THREAD_COUNT;
+        }
+        return Executors.newFixedThreadPool(threadCount, new WorkerThreadFactory());
+    }
+
+    /**
+     * Returns the key of the group a device with the given effective policy belongs to. Merged effective policies do
+     * not have an id of their own, hence they are keyed by the sorted ids of the policies they are merged from. An
+     * effective policy which carries neither is not shared with other devices.
+     */
+    static String getGroupKey(DeviceIdentifier identifier, Policy policy) {
+        String deviceType = identifier.getType();
+        if (policy == null) {
+            return deviceType;
+        }
+        if (policy.getId() > 0) {
+            return deviceType + ":" + policy.getId();
+        }
+        Object sourcePolicyIds = policy.getAttributes() == null ? null :
+                policy.getAttributes().get(PolicyManagementConstants.SOURCE_POLICY_IDS);
+        if (sourcePolicyIds instanceof List) {
+            return deviceType + ":merged:" + sourcePolicyIds;
+        }
+        return deviceType + ":device:" + identifier.getId();
+    }
+
+    /**
+     * Devices of the same type which receive the same effective policy, or only a policy revoke if the policy is null.
+     */
+    private static class DelegationGroup {
+
+        private final Policy policy;
+        private final List<DeviceIdentifier> deviceIdentifiers = new ArrayList<>();
+
+        DelegationGroup(Policy policy) {
+            this.policy = policy;
+        }
+    }
+
+    /**
+     * Evaluates the effective policies of a batch of devices in the tenant of the delegation.
+     */
+    private class DeviceBatchEvaluator implements Callable<Map<String, DelegationGroup>> {
+
+        private final List<Device> deviceBatch;
+        private final PolicyManagerService policyManagerService;
+        private final int tenantId;
+        private final String tenantDomain;
+        private final String username;
+
+        DeviceBatchEvaluator(List<Device> deviceBatch, PolicyManagerService policyManagerService, int tenantId,
+                             String tenantDomain, String username) {
+            this.deviceBatch = deviceBatch;
+            this.policyManagerService = policyManagerService;
+            this.tenantId = tenantId;
+            this.tenantDomain = tenantDomain;
+            this.username = username;
+        }
+
+        @Override
+        public Map<String, DelegationGroup> call() throws PolicyDelegationException {
+            Map<String, DelegationGroup> delegationGroups = new LinkedHashMap<>();
+            try {
+                PrivilegedCarbonContext.startTenantFlow();
+                PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+                carbonContext.setTenantId(tenantId);
+                carbonContext.setTenantDomain(tenantDomain);
+                carbonContext.setUsername(username);
+                for (Device device : deviceBatch) {
+                    DeviceIdentifier identifier = new DeviceIdentifier();
+                    identifier.setId(device.getDeviceIdentifier());
+                    identifier.setType(device.getType());
+
+                    Policy devicePolicy;
+                    try {
+                        devicePolicy = policyManagerService.getAppliedPolicyToDevice(identifier);
+                    } catch (PolicyManagementException e) {
+                        String msg = "Error occurred while retrieving the applied policy for devices.";
+                        log.error(msg, e);
+                        throw new PolicyDelegationException(msg, e);
+                    }
+                    Policy policy = getEffectivePolicy(identifier, policyManagerService);
+                    if (policy == null || devicePolicy == null || devicePolicy.getId() != policy.getId() ||
+                            updatedPolicyIds.contains(policy.getId())) {
+                        String key = getGroupKey(identifier, policy);
+                        DelegationGroup group = delegationGroups.get(key);
+                        if (group == null) {
+                            group = new DelegationGroup(policy);
+                            delegationGroups.put(key, group);
+                        }
+                        group.deviceIdentifiers.add(identifier);
+                    }
+                    int evaluated = evaluatedDeviceCount.incrementAndGet();
+                    if (evaluated % PROGRESS_LOG_INTERVAL == 0) {
+                        log.info("Policy re-enforcing evaluated " + evaluated + " of " + devices.size() +
+                                " devices.");
+                    }
+                }
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+            return delegationGroups;
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "policy-delegation-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
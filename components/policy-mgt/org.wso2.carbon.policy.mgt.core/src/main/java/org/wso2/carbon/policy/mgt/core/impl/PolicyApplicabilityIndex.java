@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.policy.mgt.core.impl;
+
+import org.wso2.carbon.device.mgt.common.group.mgt.DeviceGroup;
+import org.wso2.carbon.device.mgt.common.policy.mgt.DeviceGroupWrapper;
+import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
+import org.wso2.carbon.policy.mgt.common.PIPDevice;
+import org.wso2.carbon.policy.mgt.core.util.PolicyManagementConstants;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Pre-compiled lookup structure of the active policies, which returns the same policies as the chain of
+ * {@link PolicyFilterImpl} filters applied in {@link PolicyInformationPointImpl#getRelatedPolicies(PIPDevice)}.
+ * <p>
+ * Each policy gets a position in priority order. For every device type, ownership type, role, user and group the
+ * index keeps the set of policy positions it applies to, hence the policies of a device are resolved by intersecting
+ * a handful of bit sets instead of iterating over all the policies once per filter. An index is immutable and must be
+ * rebuilt when the policies change.
+ */
+public class PolicyApplicabilityIndex {
+
+    private final String version;
+    private final Policy[] policies;
+
+    private final Map<String, BitSet> deviceTypePolicies = new HashMap<>();
+    private final BitSet anyOwnershipPolicies = new BitSet();
+    private final Map<String, BitSet> ownershipPolicies = new HashMap<>();
+    private final BitSet anyRolePolicies = new BitSet();
+    private final Map<String, BitSet> rolePolicies = new HashMap<>();
+    private final BitSet anyUserPolicies = new BitSet();
+    private final Map<String, BitSet> userPolicies = new HashMap<>();
+    private final BitSet anyGroupPolicies = new BitSet();
+    private final Map<Integer, BitSet> groupPolicies = new HashMap<>();
+
+    public PolicyApplicabilityIndex(List<Policy> allPolicies) {
+        this(allPolicies, null);
+    }
+
+    /**
+     * @param allPolicies policies to be indexed, inactive policies and policies without a profile are skipped.
+     * @param version     version of the policies at the time of building, used by the callers to detect stale indices.
+     */
+    public PolicyApplicabilityIndex(List<Policy> allPolicies, String version) {
+        this.version = version;
+        List<Policy> activePolicies = new ArrayList<>();
+        for (Policy policy : allPolicies) {
+            if (policy.isActive() && policy.getProfile() != null && policy.getProfile().getDeviceType() != null) {
+                activePolicies.add(policy);
+            }
+        }
+        // Stable sort, hence policies of the same priority keep their order as in the policy manager
+        Collections.sort(activePolicies);
+        this.policies = activePolicies.toArray(new Policy[activePolicies.size()]);
+
+        for (int position = 0; position < policies.length; position++) {
+            Policy policy = policies[position];
+            addToIndex(deviceTypePolicies, normalize(policy.getProfile().getDeviceType()), position);
+
+            String ownershipType = policy.getOwnershipType();
+            if (ownershipType == null || PolicyManagementConstants.ANY.equalsIgnoreCase(ownershipType)) {
+                anyOwnershipPolicies.set(position);
+            } else {
+                addToIndex(ownershipPolicies, normalize(ownershipType), position);
+            }
+
+            List<String> roles = policy.getRoles();
+            if (roles == null || roles.isEmpty() || PolicyManagementConstants.ANY.equalsIgnoreCase(roles.get(0))) {
+                anyRolePolicies.set(position);
+            } else {
+                for (String role : roles) {
+                    addToIndex(rolePolicies, normalize(role), position);
+                }
+            }
+
+            List<String> users = policy.getUsers();
+            if (users == null || users.isEmpty() || users.contains(PolicyManagementConstants.ANY)) {
+                anyUserPolicies.set(position);
+            } else {
+                for (String user : users) {
+                    addToIndex(userPolicies, normalize(user), position);
+                }
+            }
+
+            List<DeviceGroupWrapper> groups = policy.getDeviceGroups();
+            if (groups == null || groups.isEmpty() ||
+                    PolicyManagementConstants.ANY.equalsIgnoreCase(groups.get(0).getName())) {
+                anyGroupPolicies.set(position);
+            } else {
+                for (DeviceGroupWrapper group : groups) {
+                    addToIndex(groupPolicies, group.getId(), position);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the active policies applicable to the given device, ordered by priority.
+     *
+     * @param pipDevice device data collected by the policy information point.
+     * @return applicable policies, empty if none of the policies applies.
+     */
+    public List<Policy> getApplicablePolicies(PIPDevice pipDevice) {
+        if (pipDevice.getDeviceType() == null) {
+            return new ArrayList<>();
+        }
+        BitSet candidates = deviceTypePolicies.get(normalize(pipDevice.getDeviceType().getName()));
+        if (candidates == null) {
+            return new ArrayList<>();
+        }
+        candidates = (BitSet) candidates.clone();
+
+        String ownershipType = pipDevice.getOwnershipType();
+        if (ownershipType != null && !ownershipType.isEmpty()) {
+            candidates.and(union(anyOwnershipPolicies, ownershipPolicies.get(normalize(ownershipType))));
+        }
+        if (pipDevice.getRoles() != null) {
+            BitSet matched = (BitSet) anyRolePolicies.clone();
+            for (String role : pipDevice.getRoles()) {
+                BitSet rolePolicySet = rolePolicies.get(normalize(role));
+                if (rolePolicySet != null) {
+                    matched.or(rolePolicySet);
+                }
+            }
+            candidates.and(matched);
+        }
+        String userId = pipDevice.getUserId();
+        if (userId != null && !userId.isEmpty()) {
+            candidates.and(union(anyUserPolicies, userPolicies.get(normalize(userId))));
+        }
+        List<DeviceGroup> deviceGroups = pipDevice.getDeviceGroups();
+        if (deviceGroups != null && !deviceGroups.isEmpty()) {
+            BitSet matched = (BitSet) anyGroupPolicies.clone();
+            for (DeviceGroup group : deviceGroups) {
+                BitSet groupPolicySet = groupPolicies.get(group.getGroupId());
+                if (groupPolicySet != null) {
+                    matched.or(groupPolicySet);
+                }
+            }
+            candidates.and(matched);
+        }
+
+        List<Policy> applicablePolicies = new ArrayList<>(candidates.cardinality());
+        for (int position = candidates.nextSetBit(0); position >= 0; position = candidates.nextSetBit(position + 1)) {
+            applicablePolicies.add(policies[position]);
+        }
+        return applicablePolicies;
+    }
+
+    /**
+     * @return version of the policies this index was built from.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    private static <K> void addToIndex(Map<K, BitSet> index, K key, int position) {
+        BitSet positions = index.get(key);
+        if (positions == null) {
+            positions = new BitSet();
+            index.put(key, positions);
+        }
+        positions.set(position);
+    }
+
+    private static BitSet union(BitSet first, BitSet second) {
+        if (second == null) {
+            return first;
+        }
+        BitSet union = (BitSet) first.clone();
+        union.or(second);
+        return union;
+    }
+
+    private static String normalize(String key) {
+        return key == null ? null : key.toLowerCase(Locale.ENGLISH);
+    }
+}
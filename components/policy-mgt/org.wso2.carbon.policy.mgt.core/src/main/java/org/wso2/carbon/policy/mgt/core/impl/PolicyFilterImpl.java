@@ -120,13 +120,20 @@ public class PolicyFilterImpl implements PolicyFilter {
                 continue;
             }
 
+            boolean matched = false;
             for (String role : roles) {
                 for (String policyRole : tempRoles) {
                     if (role.equalsIgnoreCase(policyRole)) {
-                        temp.add(policy);
-                        continue;
+                        matched = true;
+                        break;
                     }
                 }
+                if (matched) {
+                    break;
+                }
+            }
+            if (matched) {
+                temp.add(policy);
             }
         }
 
@@ -27,6 +27,8 @@ import org.wso2.carbon.device.mgt.common.DeviceManagementException;
 import org.wso2.carbon.device.mgt.common.group.mgt.DeviceGroup;
 import org.wso2.carbon.device.mgt.common.group.mgt.GroupManagementException;
 import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
+import org.wso2.carbon.device.mgt.core.config.policy.PolicyConfiguration;
 import org.wso2.carbon.device.mgt.core.dto.DeviceType;
 import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderService;
 import org.wso2.carbon.device.mgt.common.Feature;
@@ -34,6 +36,7 @@ import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderServiceIm
 import org.wso2.carbon.device.mgt.core.service.GroupManagementProviderService;
 import org.wso2.carbon.device.mgt.core.service.GroupManagementProviderServiceImpl;
 import org.wso2.carbon.policy.mgt.common.*;
+import org.wso2.carbon.policy.mgt.core.cache.impl.PolicyCacheManagerImpl;
 import org.wso2.carbon.policy.mgt.core.internal.PolicyManagementDataHolder;
 import org.wso2.carbon.policy.mgt.core.mgt.FeatureManager;
 import org.wso2.carbon.policy.mgt.core.mgt.PolicyManager;
@@ -54,12 +57,15 @@ public class PolicyInformationPointImpl implements PolicyInformationPoint {
     PolicyManager policyManager;
     FeatureManager featureManager;
     DeviceManagementProviderService deviceManagementService;
+    private PolicyConfiguration policyConfiguration;
 
     public PolicyInformationPointImpl() {
         deviceManagementService =
                 PolicyManagementDataHolder.getInstance().getDeviceManagementService();
         policyManager = new PolicyManagerImpl();
         featureManager = new FeatureManagerImpl();
+        policyConfiguration =
+                DeviceConfigurationManager.getInstance().getDeviceManagementConfig().getPolicyConfiguration();
     }
 
     @Override
@@ -101,6 +107,29 @@ public class PolicyInformationPointImpl implements PolicyInformationPoint {
     @Override
     public List<Policy> getRelatedPolicies(PIPDevice pipDevice) throws PolicyManagementException {
 
+        List<Policy> policies;
+        if (policyConfiguration.getCacheEnable()) {
+            policies = PolicyCacheManagerImpl.getInstance().getApplicabilityIndex().getApplicablePolicies(pipDevice);
+        } else {
+            // Without the cache the policies are loaded for each evaluation, hence building an index does not pay off
+            policies = this.filterPolicies(pipDevice);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("No of policies selected for the device type : " + pipDevice.getDeviceType().getName() + " : " +
+                    policies.size());
+            for (Policy policy : policies) {
+                log.debug("Names of selected policy  for above device type : " + policy.getPolicyName());
+            }
+        }
+
+        return policies;
+    }
+
+    private List<Policy> filterPolicies(PIPDevice pipDevice) throws PolicyManagementException {
+        if (pipDevice.getDeviceType() == null) {
+            return new ArrayList<>();
+        }
         List<Policy> policies = policyManager.getPoliciesOfDeviceType(pipDevice.getDeviceType().getName());
         PolicyFilter policyFilter = new PolicyFilterImpl();
 
@@ -113,10 +142,7 @@ public class PolicyInformationPointImpl implements PolicyInformationPoint {
         }
 
         policies = policyFilter.filterActivePolicies(policies);
-
-        if (pipDevice.getDeviceType() != null) {
-            policies = policyFilter.filterDeviceTypeBasedPolicies(pipDevice.getDeviceType().getName(), policies);
-        }
+        policies = policyFilter.filterDeviceTypeBasedPolicies(pipDevice.getDeviceType().getName(), policies);
         if (pipDevice.getOwnershipType() != null && !pipDevice.getOwnershipType().isEmpty()) {
             policies = policyFilter.filterOwnershipTypeBasedPolicies(pipDevice.getOwnershipType(), policies);
         }
@@ -127,23 +153,12 @@ public class PolicyInformationPointImpl implements PolicyInformationPoint {
             policies = policyFilter.filterUserBasedPolicies(pipDevice.getUserId(), policies);
         }
         if (pipDevice.getDeviceGroups() != null && !pipDevice.getDeviceGroups().isEmpty()) {
-
             Map<Integer, DeviceGroup> groupMap = new HashMap<>();
-            List<DeviceGroup> groups = pipDevice.getDeviceGroups();
-            for(DeviceGroup gr: groups){
-                groupMap.put(gr.getGroupId(), gr);
+            for (DeviceGroup group : pipDevice.getDeviceGroups()) {
+                groupMap.put(group.getGroupId(), group);
             }
             policies = policyFilter.filterDeviceGroupsPolicies(groupMap, policies);
         }
-
-        if (log.isDebugEnabled()) {
-            log.debug("No of policies selected for the device type : " + pipDevice.getDeviceType().getName() + " : " +
-                    policies.size());
-            for (Policy policy : policies) {
-                log.debug("Names of selected policy  for above device type : " + policy.getPolicyName());
-            }
-        }
-
         return policies;
     }
 
@@ -24,13 +24,18 @@ import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderService;
 import org.wso2.carbon.ntask.core.service.TaskService;
 import org.wso2.carbon.policy.mgt.common.PolicyEvaluationPoint;
 import org.wso2.carbon.policy.mgt.common.PolicyInformationPoint;
+import org.wso2.carbon.policy.mgt.core.enforcement.PolicyDelegationStatisticsCollector;
+import org.wso2.carbon.policy.mgt.core.enforcement.PolicyEnforcementDelegatorImpl;
 import org.wso2.carbon.policy.mgt.core.mgt.MonitoringManager;
 import org.wso2.carbon.policy.mgt.core.mgt.PolicyManager;
+import org.wso2.carbon.policy.mgt.core.task.MonitoringTask;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.carbon.user.core.tenant.TenantManager;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 public class PolicyManagementDataHolder {
 
@@ -43,6 +48,11 @@ public class PolicyManagementDataHolder {
     private MonitoringManager monitoringManager;
     private PolicyManager policyManager;
     private TaskService taskService;
+    private final PolicyDelegationStatisticsCollector delegationStatisticsCollector =
+            new PolicyDelegationStatisticsCollector();
+    private ExecutorService delegationWorkers;
+    private ExecutorService monitoringWorkers;
+    private boolean workersShutdown;
 
     private static PolicyManagementDataHolder thisInstance = new PolicyManagementDataHolder();
 
@@ -127,4 +137,63 @@ public class PolicyManagementDataHolder {
     public void setTaskService(TaskService taskService) {
         this.taskService = taskService;
     }
+
+    public PolicyDelegationStatisticsCollector getDelegationStatisticsCollector() {
+        return delegationStatisticsCollector;
+    }
+
+    /**
+     * Returns the pool of workers shared by the policy delegations of the node, which is created on first use.
+     *
+     * @return Pool of delegation workers.
+     * @throws RejectedExecutionException if the workers are shut down.
+     */
+    public synchronized ExecutorService getDelegationWorkers() {
+        if (workersShutdown) {
+            throw new RejectedExecutionException("Policy management workers are shut down");
+        }
+        if (delegationWorkers == null) {
+            delegationWorkers = PolicyEnforcementDelegatorImpl.createWorkers();
+        }
+        return delegationWorkers;
+    }
+
+    /**
+     * Returns the pool of workers shared by the runs of the monitoring task, which is created on first use.
+     *
+     * @return Pool of monitoring workers.
+     * @throws RejectedExecutionException if the workers are shut down.
+     */
+    public synchronized ExecutorService getMonitoringWorkers() {
+        if (workersShutdown) {
+            throw new RejectedExecutionException("Policy management workers are shut down");
+        }
+        if (monitoringWorkers == null) {
+            monitoringWorkers = MonitoringTask.createWorkers();
+        }
+        return monitoringWorkers;
+    }
+
+    /**
+     * Allows the worker pools to be created again after they were shut down, i.e. once the component is activated.
+     */
+    public synchronized void startWorkers() {
+        workersShutdown = false;
+    }
+
+    /**
+     * Shuts down the worker pools, interrupting the work in progress. Requests for the pools fail until
+     * {@link #startWorkers()} is called.
+     */
+    public synchronized void shutdownWorkers() {
+        workersShutdown = true;
+        if (delegationWorkers != null) {
+            delegationWorkers.shutdownNow();
+            delegationWorkers = null;
+        }
+        if (monitoringWorkers != null) {
+            monitoringWorkers.shutdownNow();
+            monitoringWorkers = null;
+        }
+    }
 }
@@ -76,6 +76,7 @@ public class PolicyManagementServiceComponent {
             PolicyManagementConfig config = PolicyConfigurationManager.getInstance().getPolicyManagementConfig();
             DataSourceConfig dsConfig = config.getPolicyManagementRepository().getDataSourceConfig();
             PolicyManagementDAOFactory.init(dsConfig);
+            PolicyManagementDataHolder.getInstance().startWorkers();
 
             componentContext.getBundleContext().registerService(
                     PolicyManagerService.class.getName(), new PolicyManagerServiceImpl(), null);
@@ -103,6 +104,8 @@ public class PolicyManagementServiceComponent {
             }
         } catch (Throwable t) {
             log.error("Error occurred while destroying the Policy management core.", t);
+        } finally {
+            PolicyManagementDataHolder.getInstance().shutdownWorkers();
         }
     }
 
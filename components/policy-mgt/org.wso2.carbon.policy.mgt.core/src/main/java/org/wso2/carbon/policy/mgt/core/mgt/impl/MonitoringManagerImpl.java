@@ -44,6 +44,8 @@ import org.wso2.carbon.policy.mgt.core.impl.ComplianceDecisionPointImpl;
 import org.wso2.carbon.policy.mgt.core.internal.PolicyManagementDataHolder;
 import org.wso2.carbon.policy.mgt.core.mgt.MonitoringManager;
 import org.wso2.carbon.policy.mgt.core.mgt.PolicyManager;
+import org.wso2.carbon.policy.mgt.core.util.PolicyManagementConstants;
+import org.wso2.carbon.policy.mgt.core.util.PolicyManagerUtil;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -236,36 +238,65 @@ public class MonitoringManagerImpl implements MonitoringManager {
 
     @Override
     public void addMonitoringOperation(List<Device> devices) throws PolicyComplianceException {
+        long currentSince = 0;
+        try {
+            int monitoringFrequency = PolicyManagerUtil.getMonitoringFrequency();
+            if (monitoringFrequency > 0) {
+                currentSince = System.currentTimeMillis() - monitoringFrequency;
+            }
+        } catch (PolicyManagementException e) {
+            log.error("Error occurred while reading the monitoring frequency, hence the monitoring operation is " +
+                    "added to the devices with current compliance data as well.", e);
+        }
+        int batchSize = PolicyManagementConstants.MONITORING_BATCH_SIZE;
+        for (int i = 0; i < devices.size(); i += batchSize) {
+            this.addMonitoringOperationToBatch(devices.subList(i, Math.min(i + batchSize, devices.size())),
+                    currentSince);
+        }
+    }
 
-        //int tenantId = PolicyManagerUtil.getTenantId();
+    /**
+     * Checks whether the compliance data of a device is still current, in which case the device is not asked to
+     * report its compliance again. That is when the device has answered the last monitoring operation, was compliant
+     * to the policy which is applied to it now, and reported so within the last monitoring period.
+     *
+     * @param complianceData  compliance data of the device.
+     * @param appliedPolicyId id of the policy applied to the device, or null if there is none.
+     * @param currentSince    time, in milliseconds, after which a successful report is current, or 0 when no report
+     *                        is considered current.
+     */
+    static boolean isComplianceCurrent(NonComplianceData complianceData, Integer appliedPolicyId,
+                                       long currentSince) {
+        return currentSince > 0 && complianceData.getAttempts() == 0 && complianceData.isStatus() &&
+                appliedPolicyId != null && complianceData.getPolicyId() == appliedPolicyId &&
+                complianceData.getLastSucceededTime() != null &&
+                complianceData.getLastSucceededTime().getTime() > currentSince;
+    }
+
+    /**
+     * Adds the monitoring operation to a batch of devices, within a transaction of its own. Only the compliance
+     * data and the applied policies of the devices in the batch are read. Devices whose compliance data is still
+     * current are skipped, without an operation or an update of their compliance data.
+     */
+    private void addMonitoringOperationToBatch(List<Device> devices, long currentSince)
+            throws PolicyComplianceException {
         Map<Integer, Device> deviceIds = new HashMap<>();
-        List<NonComplianceData> complianceDatas = new ArrayList<>();
-        HashMap<Integer, Integer> devicePolicyIdMap = new HashMap<>();
+        for (Device device : devices) {
+            deviceIds.put(device.getId(), device);
+        }
+        List<Integer> deviceIDs = new ArrayList<>(deviceIds.keySet());
+        Map<Integer, NonComplianceData> complianceDatas = new HashMap<>();
+        Map<Integer, Integer> devicePolicyIdMap;
 
         try {
             PolicyManagementDAOFactory.openConnection();
-            //TODO: Return a map from getCompliance to reduce O(n^2) -> O(n)
-            List<NonComplianceData> cd = monitoringDAO.getCompliance();
-
-            for (Device device : devices) {
-                deviceIds.put(device.getId(), device);
-
-                for (NonComplianceData data : cd) {
-                    if (device.getId() == data.getDeviceId() && device.getEnrolmentInfo().getId() == data
-                            .getEnrolmentId()) {
-                        complianceDatas.add(data);
-                    }
-                }
-            }
-            List<Integer> deviceIDs = new ArrayList<>(deviceIds.keySet());
-
-            HashMap<Integer, Integer> temp = policyDAO.getAppliedPolicyIds();
-            for (Integer id : deviceIDs) {
-                if (temp != null && !temp.isEmpty() && temp.containsKey(id)) {
-                    devicePolicyIdMap.put(id, temp.get(id));
+            for (NonComplianceData data : monitoringDAO.getCompliance(deviceIDs)) {
+                Device device = deviceIds.get(data.getDeviceId());
+                if (device != null && device.getEnrolmentInfo().getId() == data.getEnrolmentId()) {
+                    complianceDatas.put(data.getDeviceId(), data);
                 }
             }
-
+            devicePolicyIdMap = policyDAO.getAppliedPolicyIds(deviceIDs);
         } catch (SQLException e) {
             throw new PolicyComplianceException("SQL error occurred while getting monitoring details.", e);
         } catch (MonitoringDAOException e) {
@@ -277,61 +308,58 @@ public class MonitoringManagerImpl implements MonitoringManager {
         }
 
         Map<Integer, Device> deviceIdsToAddOperation = new HashMap<>();
-        Map<Integer, Device> deviceIdsWithExistingOperation = new HashMap<>();
-
+        List<Integer> deviceIdsWithExistingOperation = new ArrayList<>();
         List<PolicyDeviceWrapper> firstTimeDevices = new ArrayList<>();
 
-        Map<Integer, NonComplianceData> tempMap = new HashMap<>();
-
-        try {
-            if (complianceDatas != null || !complianceDatas.isEmpty()) {
-                for (NonComplianceData complianceData : complianceDatas) {
-
-                    tempMap.put(complianceData.getDeviceId(), complianceData);
-
-                    if (complianceData.getAttempts() == 0) {
-                        deviceIdsToAddOperation.put(complianceData.getDeviceId(),
-                                deviceIds.get(complianceData.getDeviceId()));
-                    } else {
-                        deviceIdsWithExistingOperation.put(complianceData.getDeviceId(),
-                                deviceIds.get(complianceData.getDeviceId()));
-                    }
-                }
+        int skippedDeviceCount = 0;
+        for (NonComplianceData complianceData : complianceDatas.values()) {
+            if (isComplianceCurrent(complianceData, devicePolicyIdMap.get(complianceData.getDeviceId()),
+                    currentSince)) {
+                skippedDeviceCount++;
+            } else if (complianceData.getAttempts() == 0) {
+                deviceIdsToAddOperation.put(complianceData.getDeviceId(), deviceIds.get(complianceData.getDeviceId()));
+            } else {
+                deviceIdsWithExistingOperation.add(complianceData.getDeviceId());
             }
+        }
 
-            for (Device device : devices) {
-                if ((!tempMap.containsKey(device.getId())) && (devicePolicyIdMap.containsKey(device.getId()))) {
-                    deviceIdsToAddOperation.put(device.getId(), device);
-
-                    PolicyDeviceWrapper policyDeviceWrapper = new PolicyDeviceWrapper();
-                    policyDeviceWrapper.setDeviceId(device.getId());
-                    policyDeviceWrapper.setEnrolmentId(device.getEnrolmentInfo().getId());
-                    policyDeviceWrapper.setPolicyId(devicePolicyIdMap.get(device.getId()));
+        for (Device device : devices) {
+            if ((!complianceDatas.containsKey(device.getId())) && (devicePolicyIdMap.containsKey(device.getId()))) {
+                deviceIdsToAddOperation.put(device.getId(), device);
 
-                    firstTimeDevices.add(policyDeviceWrapper);
+                PolicyDeviceWrapper policyDeviceWrapper = new PolicyDeviceWrapper();
+                policyDeviceWrapper.setDeviceId(device.getId());
+                policyDeviceWrapper.setEnrolmentId(device.getEnrolmentInfo().getId());
+                policyDeviceWrapper.setPolicyId(devicePolicyIdMap.get(device.getId()));
 
-                    // firstTimeDeviceIdsWithPolicyIds.put(device.getId(), devicePolicyIdMap.get(device.getId()));
-                }
+                firstTimeDevices.add(policyDeviceWrapper);
             }
+        }
 
-            if (log.isDebugEnabled()) {
-                log.debug("These devices are in the system for the first time");
-                for (PolicyDeviceWrapper wrapper : firstTimeDevices) {
-                    log.debug("First time device primary key : " + wrapper.getDeviceId() + " & policy id " +
-                            wrapper.getPolicyId());
-                }
+        if (log.isDebugEnabled()) {
+            log.debug(skippedDeviceCount + " of " + devices.size() + " devices are skipped as their compliance data " +
+                    "is current");
+            log.debug("These devices are in the system for the first time");
+            for (PolicyDeviceWrapper wrapper : firstTimeDevices) {
+                log.debug("First time device primary key : " + wrapper.getDeviceId() + " & policy id " +
+                        wrapper.getPolicyId());
             }
+        }
 
+        if (deviceIdsToAddOperation.isEmpty() && deviceIdsWithExistingOperation.isEmpty()) {
+            return;
+        }
+        try {
             PolicyManagementDAOFactory.beginTransaction();
 
-            if (!deviceIdsToAddOperation.isEmpty()) {
-                //                monitoringDAO.addComplianceDetails(firstTimeDeviceIdsWithPolicyIds);
+            if (!firstTimeDevices.isEmpty()) {
                 monitoringDAO.addComplianceDetails(firstTimeDevices);
+            }
+            if (!deviceIdsToAddOperation.isEmpty()) {
                 monitoringDAO.updateAttempts(new ArrayList<>(deviceIdsToAddOperation.keySet()), false);
             }
-
             if (!deviceIdsWithExistingOperation.isEmpty()) {
-                monitoringDAO.updateAttempts(new ArrayList<>(deviceIdsWithExistingOperation.keySet()), false);
+                monitoringDAO.updateAttempts(deviceIdsWithExistingOperation, false);
             }
             PolicyManagementDAOFactory.commitTransaction();
 
@@ -577,10 +577,20 @@ public class PolicyManagerImpl implements PolicyManager {
 
             policy.setRoles(roleNames);
             policy.setUsers(userNames);
+            // Read in the same shape as getPolicies, since the policy cache applies changes through this method
+            policy.setPolicyCriterias(policyDAO.getPolicyCriteria(policyId));
+            List<DeviceGroupWrapper> deviceGroupWrappers = policyDAO.getDeviceGroupsOfPolicy(policyId);
+            if (!deviceGroupWrappers.isEmpty()) {
+                deviceGroupWrappers = this.getDeviceGroupNames(deviceGroupWrappers);
+            }
+            policy.setDeviceGroups(deviceGroupWrappers);
 
         } catch (PolicyManagerDAOException e) {
             throw new PolicyManagementException("Error occurred while getting the policy related to policy ID (" +
                     policyId + ")", e);
+        } catch (GroupManagementException e) {
+            throw new PolicyManagementException("Error occurred while getting device groups of policy ID (" +
+                    policyId + ")", e);
 //        } catch (ProfileManagerDAOException e) {
 //            throw new PolicyManagementException("Error occurred while getting the profile related to policy ID (" +
 //                    policyId + ")", e);
@@ -617,32 +627,45 @@ public class PolicyManagerImpl implements PolicyManager {
     public List<Policy> getPolicies() throws PolicyManagementException {
 
         List<Policy> policyList;
-        List<Profile> profileList;
+        Map<Integer, Profile> profileMap = new HashMap<>();
+        Map<Integer, List<Integer>> appliedDeviceIds;
         try {
-            profileList = profileManager.getAllProfiles();
+            for (Profile profile : profileManager.getAllProfiles()) {
+                profileMap.put(profile.getProfileId(), profile);
+            }
         } catch (ProfileManagementException e) {
             throw new PolicyManagementException("Error occurred while getting all the profiles.", e);
         }
         try {
             PolicyManagementDAOFactory.openConnection();
             policyList = policyDAO.getAllPolicies();
+            Map<Integer, List<String>> roles = policyDAO.getAllPolicyAppliedRoles();
+            Map<Integer, List<String>> users = policyDAO.getAllPolicyAppliedUsers();
+            Map<Integer, List<PolicyCriterion>> criteria = policyDAO.getAllPolicyCriteriaOfPolicies();
+            Map<Integer, List<DeviceGroupWrapper>> deviceGroups = policyDAO.getAllDeviceGroupsOfPolicies();
+            appliedDeviceIds = policyDAO.getAllPolicyAppliedDevicesIds();
+
+            Map<Integer, DeviceGroup> groupMap = new HashMap<>();
+            if (!deviceGroups.isEmpty()) {
+                for (DeviceGroup deviceGroup : new GroupManagementProviderServiceImpl().getGroups()) {
+                    groupMap.put(deviceGroup.getGroupId(), deviceGroup);
+                }
+            }
 
             for (Policy policy : policyList) {
-                for (Profile profile : profileList) {
-                    if (policy.getProfileId() == profile.getProfileId()) {
-                        policy.setProfile(profile);
-                    }
+                Profile profile = profileMap.get(policy.getProfileId());
+                if (profile != null) {
+                    policy.setProfile(profile);
                 }
-                policy.setRoles(policyDAO.getPolicyAppliedRoles(policy.getId()));
-                policy.setUsers(policyDAO.getPolicyAppliedUsers(policy.getId()));
-                policy.setPolicyCriterias(policyDAO.getPolicyCriteria(policy.getId()));
+                policy.setRoles(getOrEmpty(roles, policy.getId()));
+                policy.setUsers(getOrEmpty(users, policy.getId()));
+                policy.setPolicyCriterias(getOrEmpty(criteria, policy.getId()));
 
-                List<DeviceGroupWrapper> deviceGroupWrappers = policyDAO.getDeviceGroupsOfPolicy(policy.getId());
+                List<DeviceGroupWrapper> deviceGroupWrappers = getOrEmpty(deviceGroups, policy.getId());
                 if (!deviceGroupWrappers.isEmpty()) {
-                    deviceGroupWrappers = this.getDeviceGroupNames(deviceGroupWrappers);
+                    deviceGroupWrappers = this.getDeviceGroupNames(deviceGroupWrappers, groupMap);
                 }
                 policy.setDeviceGroups(deviceGroupWrappers);
-
             }
             Collections.sort(policyList);
         } catch (PolicyManagerDAOException e) {
@@ -655,10 +678,27 @@ public class PolicyManagerImpl implements PolicyManager {
             PolicyManagementDAOFactory.closeConnection();
         }
 
-        // Following is done because connection close has been implemented in every method.
-
+        // Devices are read after closing the connection, since the device management service opens its own.
+        HashMap<Integer, Device> allDeviceMap = new HashMap<>();
+        if (!appliedDeviceIds.isEmpty()) {
+            try {
+                List<Device> allDevices = PolicyManagementDataHolder.getInstance().getDeviceManagementService()
+                        .getAllDevices();
+                if (!allDevices.isEmpty()) {
+                    allDeviceMap = PolicyManagerUtil.covertDeviceListToMap(allDevices);
+                }
+            } catch (DeviceManagementException e) {
+                throw new PolicyManagementException("Error occurred while getting the devices related to policies", e);
+            }
+        }
         for (Policy policy : policyList) {
-            policy.setDevices(this.getPolicyAppliedDevicesIds(policy.getId()));
+            List<Device> deviceList = new ArrayList<>();
+            for (int deviceId : getOrEmpty(appliedDeviceIds, policy.getId())) {
+                if (allDeviceMap.containsKey(deviceId)) {
+                    deviceList.add(allDeviceMap.get(deviceId));
+                }
+            }
+            policy.setDevices(deviceList);
         }
 
         return policyList;
@@ -714,16 +754,13 @@ public class PolicyManagerImpl implements PolicyManager {
 //        try {
         // List<Profile> profileList = profileManager.getProfilesOfDeviceType(deviceTypeName);
 //            List<Policy> allPolicies = this.getPolicies();
-        List<Policy> allPolicies;
         if (policyConfiguration.getCacheEnable()) {
-            allPolicies = PolicyCacheManagerImpl.getInstance().getAllPolicies();
+            policies = PolicyCacheManagerImpl.getInstance().getPoliciesOfDeviceType(deviceTypeName);
         } else {
-            allPolicies = this.getPolicies();
-        }
-
-        for (Policy policy : allPolicies) {
-            if (policy.getProfile().getDeviceType().equalsIgnoreCase(deviceTypeName)) {
-                policies.add(policy);
+            for (Policy policy : this.getPolicies()) {
+                if (policy.getProfile().getDeviceType().equalsIgnoreCase(deviceTypeName)) {
+                    policies.add(policy);
+                }
             }
         }
 
@@ -1094,6 +1131,34 @@ public class PolicyManagerImpl implements PolicyManager {
         }
     }
 
+    /**
+     * Populates the group names from the given groups of the tenant, groups missing from the map are looked up
+     * individually.
+     */
+    private List<DeviceGroupWrapper> getDeviceGroupNames(List<DeviceGroupWrapper> groupWrappers,
+                                                         Map<Integer, DeviceGroup> groupMap)
+            throws GroupManagementException {
+        List<DeviceGroupWrapper> unresolved = new ArrayList<>();
+        for (DeviceGroupWrapper wrapper : groupWrappers) {
+            DeviceGroup deviceGroup = groupMap.get(wrapper.getId());
+            if (deviceGroup == null) {
+                unresolved.add(wrapper);
+            } else {
+                wrapper.setName(deviceGroup.getName());
+                wrapper.setOwner(deviceGroup.getOwner());
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            this.getDeviceGroupNames(unresolved);
+        }
+        return groupWrappers;
+    }
+
+    private static <T> List<T> getOrEmpty(Map<Integer, List<T>> policyMap, int policyId) {
+        List<T> values = policyMap.get(policyId);
+        return values == null ? new ArrayList<T>() : values;
+    }
+
     private List<DeviceGroupWrapper> getDeviceGroupNames(List<DeviceGroupWrapper> groupWrappers) throws GroupManagementException {
         GroupManagementProviderService groupManagementProviderService = new GroupManagementProviderServiceImpl();
         for (DeviceGroupWrapper wrapper : groupWrappers) {
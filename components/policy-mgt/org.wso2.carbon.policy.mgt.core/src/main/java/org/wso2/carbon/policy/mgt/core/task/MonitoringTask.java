@@ -27,17 +27,32 @@ import org.wso2.carbon.device.mgt.common.DeviceManagementException;
 import org.wso2.carbon.device.mgt.common.EnrolmentInfo;
 import org.wso2.carbon.device.mgt.common.policy.mgt.PolicyMonitoringManager;
 import org.wso2.carbon.device.mgt.common.policy.mgt.monitor.PolicyComplianceException;
+import org.wso2.carbon.device.mgt.core.config.DeviceConfigurationManager;
 import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderService;
 import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderServiceImpl;
 import org.wso2.carbon.ntask.core.Task;
 import org.wso2.carbon.policy.mgt.core.internal.PolicyManagementDataHolder;
 import org.wso2.carbon.policy.mgt.core.mgt.MonitoringManager;
+import org.wso2.carbon.policy.mgt.core.util.PolicyManagementConstants;
 import org.wso2.carbon.user.api.UserStoreException;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Adds the monitoring operations to the devices of the monitoring enabled device types. Each device type of each
+ * tenant is monitored as a separate job, and the jobs are run by a bounded pool of workers in the tenant flow of
+ * their tenant. The pool is shared by the runs of the task and is shut down with the policy management component. The devices of a job are read and monitored in pages.
+ */
 public class MonitoringTask implements Task {
 
     private static Log log = LogFactory.getLog(MonitoringTask.class);
@@ -65,11 +80,18 @@ public class MonitoringTask implements Task {
         if(System.getProperty(IS_CLOUD) != null && Boolean.parseBoolean(System.getProperty(IS_CLOUD))){
             executeForTenants = true;
         }
+        List<MonitoringJob> jobs;
         if(executeForTenants) {
-            this.executeforAllTenants();
+            jobs = this.getMonitoringJobsOfAllTenants();
         } else {
-            this.executeTask();
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            jobs = this.getMonitoringJobs(carbonContext.getTenantId(), carbonContext.getTenantDomain());
+        }
+        if (jobs.isEmpty()) {
+            log.info("No device types registered currently. So did not run the monitoring task.");
+            return;
         }
+        this.runJobs(jobs);
     }
 
     /**
@@ -89,11 +111,12 @@ public class MonitoringTask implements Task {
         return false;
     }
 
-    private void executeforAllTenants() {
+    private List<MonitoringJob> getMonitoringJobsOfAllTenants() {
 
         if (log.isDebugEnabled()) {
             log.debug("Monitoring task started to run for all tenants.");
         }
+        List<MonitoringJob> jobs = new ArrayList<>();
         try {
             DeviceManagementProviderService deviceManagementService = new DeviceManagementProviderServiceImpl();
             List<Integer> tenants = deviceManagementService.getDeviceEnrolledTenants();
@@ -104,7 +127,7 @@ public class MonitoringTask implements Task {
                     PrivilegedCarbonContext.startTenantFlow();
                     PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain);
                     PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenant);
-                    this.executeTask();
+                    jobs.addAll(this.getMonitoringJobs(tenant, tenantDomain));
                 } finally {
                     PrivilegedCarbonContext.endTenantFlow();
                 }
@@ -114,73 +137,163 @@ public class MonitoringTask implements Task {
         } catch (DeviceManagementException e) {
             log.error("Error occurred while trying to get the available tenants from device manager service ", e);
         }
+        return jobs;
     }
 
-    private void executeTask(){
-
+    /**
+     * Returns a monitoring job for each monitoring enabled device type of the tenant in the current tenant flow.
+     */
+    private List<MonitoringJob> getMonitoringJobs(int tenantId, String tenantDomain) {
         MonitoringManager monitoringManager = PolicyManagementDataHolder.getInstance().getMonitoringManager();
-        List<String> deviceTypes = new ArrayList<>();
-        List<String> configDeviceTypes = new ArrayList<>();
+        List<MonitoringJob> jobs = new ArrayList<>();
         try {
-            deviceTypes = monitoringManager.getDeviceTypes();
-            for (String deviceType : deviceTypes) {
+            for (String deviceType : monitoringManager.getDeviceTypes()) {
                 if (isPlatformExist(deviceType)) {
-                    configDeviceTypes.add(deviceType);
+                    jobs.add(new MonitoringJob(tenantId, tenantDomain, deviceType));
                 }
             }
         } catch (PolicyComplianceException e) {
             log.error("Error occurred while getting the device types.");
         }
-        if (!deviceTypes.isEmpty()) {
-            try {
-                DeviceManagementProviderService deviceManagementProviderService =
-                        PolicyManagementDataHolder.getInstance().getDeviceManagementService();
-                for (String deviceType : configDeviceTypes) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Running task for device type : " + deviceType);
-                    }
-                    PolicyMonitoringManager monitoringService =
-                            PolicyManagementDataHolder.getInstance().getDeviceManagementService()
-                                    .getPolicyMonitoringManager(deviceType);
-                    List<Device> devices = deviceManagementProviderService.getAllDevices(deviceType, false);
-                    if (monitoringService != null && !devices.isEmpty()) {
-                        List<Device> notifiableDevices = new ArrayList<>();
-                        if (log.isDebugEnabled()) {
-                            log.debug("Removing inactive and blocked devices from the list for the device type : " +
-                                    deviceType);
-                        }
-                        for (Device device : devices) {
-
-                            EnrolmentInfo.Status status = device.getEnrolmentInfo().getStatus();
-                            if (status.equals(EnrolmentInfo.Status.BLOCKED) ||
-                                    status.equals(EnrolmentInfo.Status.REMOVED) ||
-                                    status.equals(EnrolmentInfo.Status.UNCLAIMED) ||
-                                    status.equals(EnrolmentInfo.Status.DISENROLLMENT_REQUESTED) ||
-                                    status.equals(EnrolmentInfo.Status.SUSPENDED)) {
-                                continue;
-                            } else {
-                                notifiableDevices.add(device);
-                            }
-                        }
-                        if (log.isDebugEnabled()) {
-                            log.debug("Following devices selected to send the notification for " + deviceType);
-                            for (Device device : notifiableDevices) {
-                                log.debug(device.getDeviceIdentifier());
-                            }
-                        }
-                        if (!notifiableDevices.isEmpty()) {
-                            monitoringManager.addMonitoringOperation(notifiableDevices);
-                        }
-                    }
+        return jobs;
+    }
+
+    /**
+     * Creates the pool of workers which runs the monitoring jobs of all the runs of the task. The pool is owned by the
+     * policy management component, which shuts it down when it is deactivated.
+     *
+     * @return Pool with the configured number of workers, whose threads are started on demand.
+     */
+    public static ExecutorService createWorkers() {
+        int threadCount = DeviceConfigurationManager.getInstance().getDeviceManagementConfig()
+                .getPolicyConfiguration().getMonitoringThreadCount();
+        if (threadCount <= 0) {
+            threadCount = PolicyManagementConstants.DEFAULT_MONITORING_THREAD_COUNT;
+        }
+        return Executors.newFixedThreadPool(threadCount, new WorkerThreadFactory());
+    }
+
+    private void runJobs(List<MonitoringJob> jobs) {
+        long startTime = System.currentTimeMillis();
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            ExecutorService workers = PolicyManagementDataHolder.getInstance().getMonitoringWorkers();
+            for (MonitoringJob job : jobs) {
+                results.add(workers.submit(job));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    log.error("Error occurred while running the monitoring task for device type : " +
+                            jobs.get(i).deviceType + " of tenant : " + jobs.get(i).tenantId, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Monitoring task was interrupted.", e);
+            for (Future<?> result : results) {
+                result.cancel(true);
+            }
+        } catch (RejectedExecutionException e) {
+            log.warn("Monitoring task is skipped as the policy management core is shutting down.");
+            for (Future<?> result : results) {
+                result.cancel(true);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Monitoring task running completed for " + jobs.size() + " device types in " +
+                    (System.currentTimeMillis() - startTime) + " ms.");
+        }
+    }
+
+    private void executeTask(String deviceType) throws DeviceManagementException, PolicyComplianceException {
+
+        MonitoringManager monitoringManager = PolicyManagementDataHolder.getInstance().getMonitoringManager();
+        DeviceManagementProviderService deviceManagementProviderService =
+                PolicyManagementDataHolder.getInstance().getDeviceManagementService();
+        if (log.isDebugEnabled()) {
+            log.debug("Running task for device type : " + deviceType);
+        }
+        PolicyMonitoringManager monitoringService =
+                PolicyManagementDataHolder.getInstance().getDeviceManagementService()
+                        .getPolicyMonitoringManager(deviceType);
+        if (monitoringService == null) {
+            return;
+        }
+        int pageSize = PolicyManagementConstants.MONITORING_BATCH_SIZE;
+        int lastEnrolmentId = 0;
+        List<Device> devices;
+        do {
+            devices = deviceManagementProviderService.getDevices(deviceType, lastEnrolmentId, pageSize);
+            if (devices.isEmpty()) {
+                break;
+            }
+            lastEnrolmentId = devices.get(devices.size() - 1).getEnrolmentInfo().getId();
+            List<Device> notifiableDevices = new ArrayList<>();
+            for (Device device : devices) {
+                EnrolmentInfo.Status status = device.getEnrolmentInfo().getStatus();
+                if (status.equals(EnrolmentInfo.Status.BLOCKED) ||
+                        status.equals(EnrolmentInfo.Status.REMOVED) ||
+                        status.equals(EnrolmentInfo.Status.UNCLAIMED) ||
+                        status.equals(EnrolmentInfo.Status.DISENROLLMENT_REQUESTED) ||
+                        status.equals(EnrolmentInfo.Status.SUSPENDED)) {
+                    continue;
+                } else {
+                    notifiableDevices.add(device);
                 }
-                if (log.isDebugEnabled()) {
-                    log.debug("Monitoring task running completed.");
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Following devices selected to send the notification for " + deviceType);
+                for (Device device : notifiableDevices) {
+                    log.debug(device.getDeviceIdentifier());
                 }
-            } catch (Exception e) {
-                log.error("Error occurred while trying to run a task.", e);
             }
-        } else {
-            log.info("No device types registered currently. So did not run the monitoring task.");
+            if (!notifiableDevices.isEmpty()) {
+                // Each page of devices is monitored in a transaction of its own
+                monitoringManager.addMonitoringOperation(notifiableDevices);
+            }
+        } while (devices.size() == pageSize);
+    }
+
+    /**
+     * Monitors the devices of a single device type of a tenant.
+     */
+    private class MonitoringJob implements Callable<Void> {
+
+        private final int tenantId;
+        private final String tenantDomain;
+        private final String deviceType;
+
+        MonitoringJob(int tenantId, String tenantDomain, String deviceType) {
+            this.tenantId = tenantId;
+            this.tenantDomain = tenantDomain;
+            this.deviceType = deviceType;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            try {
+                PrivilegedCarbonContext.startTenantFlow();
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain);
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId);
+                executeTask(deviceType);
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+            return null;
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "policy-monitoring-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         }
     }
 }
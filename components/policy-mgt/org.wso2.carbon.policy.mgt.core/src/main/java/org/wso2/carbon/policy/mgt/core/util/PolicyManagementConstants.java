@@ -34,6 +34,8 @@ public final class PolicyManagementConstants {
     public static final String MONITORING_TASK_TYPE = "MONITORING_TASK";
     public static final String MONITORING_TASK_NAME = "MONITORING";
     public static final String MONITORING_TASK_CLAZZ = "org.wso2.carbon.policy.mgt.core.task.MonitoringTask";
+    public static final int DEFAULT_MONITORING_THREAD_COUNT = 4;
+    public static final int MONITORING_BATCH_SIZE = 500;
 
     public static final String DM_CACHE_MANAGER = "DM_CACHE_MANAGER";
     // public static final String DM_CACHE = "DM_CACHE";
@@ -42,6 +44,11 @@ public final class PolicyManagementConstants {
     public static final String DELEGATION_TASK_TYPE = "DELEGATION__TASK";
     public static final String DELEGATION_TASK_NAME = "DELEGATION";
     public static final String DELEGATION_TASK_CLAZZ = "org.wso2.carbon.policy.mgt.core.enforcement.DelegationTask";
+    public static final int DEFAULT_DELEGATION_THREAD_COUNT = 4;
+    public static final int DEFAULT_EFFECTIVE_POLICY_CACHE_CAPACITY = 10000;
+    public static final int DELEGATION_BATCH_SIZE = 500;
+    // Attribute of a merged effective policy holding the sorted ids of the policies it is merged from
+    public static final String SOURCE_POLICY_IDS = "SOURCE_POLICY_IDS";
 
     /**
      Caller would reference the constants using PolicyManagementConstants.DEVICE_CONFIG_XML_NAME,
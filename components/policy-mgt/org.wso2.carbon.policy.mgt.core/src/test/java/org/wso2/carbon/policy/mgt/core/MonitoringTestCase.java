@@ -34,7 +34,12 @@ import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderService;
 import org.wso2.carbon.device.mgt.core.service.DeviceManagementProviderServiceImpl;
 import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
 import org.wso2.carbon.policy.mgt.common.PolicyManagementException;
+import org.wso2.carbon.device.mgt.common.policy.mgt.monitor.NonComplianceData;
 import org.wso2.carbon.device.mgt.common.policy.mgt.monitor.PolicyComplianceException;
+import org.wso2.carbon.policy.mgt.common.monitor.PolicyDeviceWrapper;
+import org.wso2.carbon.policy.mgt.core.dao.MonitoringDAO;
+import org.wso2.carbon.policy.mgt.core.dao.PolicyDAO;
+import org.wso2.carbon.policy.mgt.core.dao.PolicyManagementDAOFactory;
 import org.wso2.carbon.policy.mgt.core.internal.PolicyManagementDataHolder;
 import org.wso2.carbon.policy.mgt.core.mgt.MonitoringManager;
 import org.wso2.carbon.policy.mgt.core.mgt.PolicyManager;
@@ -42,13 +47,17 @@ import org.wso2.carbon.policy.mgt.core.mgt.impl.MonitoringManagerImpl;
 import org.wso2.carbon.policy.mgt.core.mgt.impl.PolicyManagerImpl;
 import org.wso2.carbon.policy.mgt.core.services.PolicyMonitoringManagerTest;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class MonitoringTestCase extends BasePolicyManagementDAOTest {
 
     private static final Log log = LogFactory.getLog(MonitoringTestCase.class);
 
     private static final String ANDROID = "android";
+    private static final int UNKNOWN_DEVICE_ID = -1;
 
     private DeviceIdentifier identifier = new DeviceIdentifier();
 
@@ -208,4 +217,115 @@ public class MonitoringTestCase extends BasePolicyManagementDAOTest {
 
     }
 
+    @Test(dependsOnMethods = ("checkCompliance"))
+    public void getAppliedPolicyIdsOfDevices() throws Exception {
+        PolicyManagerService policyManagerService = new PolicyManagerServiceImpl();
+        Policy policy = policyManagerService.getPolicies(ANDROID).get(0);
+        List<Device> devices = new DeviceManagementProviderServiceImpl().getAllDevices(ANDROID, false);
+        Device device = devices.get(0);
+        PolicyDAO policyDAO = PolicyManagementDAOFactory.getPolicyDAO();
+        List<Integer> deviceIds = new ArrayList<>();
+        for (Device androidDevice : devices) {
+            deviceIds.add(androidDevice.getId());
+        }
+        deviceIds.add(UNKNOWN_DEVICE_ID);
+
+        boolean policyApplied;
+        try {
+            PolicyManagementDAOFactory.beginTransaction();
+            policyApplied = policyDAO.checkPolicyAvailable(device.getId(), device.getEnrolmentInfo().getId());
+            if (!policyApplied) {
+                policyDAO.addEffectivePolicyToDevice(device.getId(), device.getEnrolmentInfo().getId(), policy);
+            }
+            PolicyManagementDAOFactory.commitTransaction();
+        } finally {
+            PolicyManagementDAOFactory.closeConnection();
+        }
+        try {
+            PolicyManagementDAOFactory.openConnection();
+            Map<Integer, Integer> appliedPolicyIds = policyDAO.getAppliedPolicyIds(deviceIds);
+            Assert.assertTrue("The applied policy of the device is not returned.",
+                    appliedPolicyIds.containsKey(device.getId()));
+            Assert.assertFalse("An applied policy is returned for an unknown device.",
+                    appliedPolicyIds.containsKey(UNKNOWN_DEVICE_ID));
+            for (Device androidDevice : devices) {
+                if (appliedPolicyIds.containsKey(androidDevice.getId())) {
+                    Assert.assertEquals(policyDAO.getAppliedPolicyId(androidDevice.getId(),
+                            androidDevice.getEnrolmentInfo().getId()),
+                            appliedPolicyIds.get(androidDevice.getId()).intValue());
+                }
+            }
+            Assert.assertTrue(policyDAO.getAppliedPolicyIds(new ArrayList<Integer>()).isEmpty());
+        } finally {
+            PolicyManagementDAOFactory.closeConnection();
+        }
+
+        if (!policyApplied) {
+            try {
+                PolicyManagementDAOFactory.beginTransaction();
+                policyDAO.deleteEffectivePolicyToDevice(device.getId(), device.getEnrolmentInfo().getId());
+                PolicyManagementDAOFactory.commitTransaction();
+            } finally {
+                PolicyManagementDAOFactory.closeConnection();
+            }
+        }
+    }
+
+    @Test(dependsOnMethods = ("checkCompliance"))
+    public void getComplianceOfDevices() throws Exception {
+        Policy policy = new PolicyManagerServiceImpl().getPolicies(ANDROID).get(0);
+        List<Device> devices = new DeviceManagementProviderServiceImpl().getAllDevices(ANDROID, false);
+        MonitoringDAO monitoringDAO = PolicyManagementDAOFactory.getMonitoringDAO();
+        List<Integer> deviceIds = new ArrayList<>();
+        try {
+            PolicyManagementDAOFactory.beginTransaction();
+            List<PolicyDeviceWrapper> newDevices = new ArrayList<>();
+            for (Device device : devices) {
+                deviceIds.add(device.getId());
+                if (monitoringDAO.getCompliance(device.getId(), device.getEnrolmentInfo().getId()).getId() == 0) {
+                    PolicyDeviceWrapper wrapper = new PolicyDeviceWrapper();
+                    wrapper.setDeviceId(device.getId());
+                    wrapper.setEnrolmentId(device.getEnrolmentInfo().getId());
+                    wrapper.setPolicyId(policy.getId());
+                    newDevices.add(wrapper);
+                }
+            }
+            if (!newDevices.isEmpty()) {
+                monitoringDAO.addComplianceDetails(newDevices);
+            }
+            PolicyManagementDAOFactory.commitTransaction();
+        } finally {
+            PolicyManagementDAOFactory.closeConnection();
+        }
+        deviceIds.add(UNKNOWN_DEVICE_ID);
+
+        try {
+            PolicyManagementDAOFactory.openConnection();
+            Map<Integer, NonComplianceData> complianceData = new HashMap<>();
+            for (NonComplianceData data : monitoringDAO.getCompliance(deviceIds)) {
+                complianceData.put(data.getId(), data);
+            }
+            Assert.assertTrue("The compliance data of some devices is missing.",
+                    complianceData.size() >= devices.size());
+            for (Device device : devices) {
+                NonComplianceData expected = monitoringDAO.getCompliance(device.getId(),
+                        device.getEnrolmentInfo().getId());
+                NonComplianceData actual = complianceData.get(expected.getId());
+                Assert.assertNotNull("The compliance data of device " + device.getId() + " is not returned.", actual);
+                Assert.assertEquals(expected.getDeviceId(), actual.getDeviceId());
+                Assert.assertEquals(device.getEnrolmentInfo().getId(), actual.getEnrolmentId());
+                Assert.assertEquals(expected.getPolicyId(), actual.getPolicyId());
+                Assert.assertEquals(expected.isStatus(), actual.isStatus());
+                Assert.assertEquals(expected.getAttempts(), actual.getAttempts());
+            }
+            for (NonComplianceData data : complianceData.values()) {
+                Assert.assertTrue("The compliance data of another device is returned.",
+                        deviceIds.contains(data.getDeviceId()) && data.getDeviceId() != UNKNOWN_DEVICE_ID);
+            }
+            Assert.assertTrue(monitoringDAO.getCompliance(new ArrayList<Integer>()).isEmpty());
+        } finally {
+            PolicyManagementDAOFactory.closeConnection();
+        }
+    }
+
 }
@@ -36,6 +36,8 @@ import org.wso2.carbon.policy.mgt.common.FeatureManagementException;
 import org.wso2.carbon.policy.mgt.common.*;
 import org.wso2.carbon.policy.mgt.core.impl.PolicyAdministratorPointImpl;
 import org.wso2.carbon.policy.mgt.core.internal.PolicyManagementDataHolder;
+import org.wso2.carbon.policy.mgt.core.mgt.PolicyManager;
+import org.wso2.carbon.policy.mgt.core.mgt.impl.PolicyManagerImpl;
 import org.wso2.carbon.policy.mgt.core.util.*;
 
 import java.util.ArrayList;
@@ -246,6 +248,23 @@ public class PolicyDAOTestCase extends BasePolicyManagementDAOTest {
         }
     }
 
+    @Test(dependsOnMethods = ("getPolicies"))
+    public void getPoliciesMatchesPolicyLookups() throws PolicyManagementException {
+        PolicyManager policyManager = new PolicyManagerImpl();
+        List<Policy> policyList = policyManager.getPolicies();
+        Assert.assertFalse(policyList.isEmpty());
+
+        for (Policy policy : policyList) {
+            Policy expected = policyManager.getPolicy(policy.getId());
+            Assert.assertEquals(policy.getRoles(), expected.getRoles());
+            Assert.assertEquals(policy.getUsers(), expected.getUsers());
+            Assert.assertNotNull(policy.getProfile());
+            Assert.assertEquals(policy.getProfile().getProfileId(), expected.getProfileId());
+            Assert.assertEquals(policy.getDevices().size(),
+                    policyManager.getPolicyAppliedDevicesIds(policy.getId()).size());
+        }
+    }
+
     @Test(dependsOnMethods = ("getPolicies"))
     public void getDeviceTypeRelatedPolicy() {
 
@@ -46,6 +46,7 @@ import org.wso2.carbon.policy.mgt.common.PolicyEvaluationException;
 import org.wso2.carbon.policy.mgt.common.PolicyEvaluationPoint;
 import org.wso2.carbon.policy.mgt.common.PolicyManagementException;
 import org.wso2.carbon.policy.mgt.core.enforcement.DelegationTask;
+import org.wso2.carbon.policy.mgt.core.enforcement.PolicyDelegationStatistics;
 import org.wso2.carbon.policy.mgt.core.internal.PolicyManagementDataHolder;
 import org.wso2.carbon.policy.mgt.core.mgt.MonitoringManager;
 import org.wso2.carbon.policy.mgt.core.mgt.impl.MonitoringManagerImpl;
@@ -205,7 +206,13 @@ public class  PolicyManagerServiceImplTest extends BasePolicyManagementDAOTest {
 
     @Test(dependsOnMethods = "activatePolicy")
     public void applyPolicy() throws PolicyManagementException, OperationManagementException {
+        PolicyDelegationStatistics statistics = policyManagerService.getPolicyDelegationStatistics();
         new DelegationTask().execute();
+        PolicyDelegationStatistics updatedStatistics = policyManagerService.getPolicyDelegationStatistics();
+        Assert.assertTrue(updatedStatistics.getDelegationCount() > statistics.getDelegationCount(),
+                "Policy re-enforcement was not recorded.");
+        Assert.assertTrue(updatedStatistics.getOperationCount() >= statistics.getOperationCount() + 2,
+                "Policy revoke and policy operations of the re-enforcement were not recorded.");
         Policy appliedPolicy = policyManagerService.getAppliedPolicyToDevice(new DeviceIdentifier(DEVICE1, DEVICE_TYPE_A));
         Assert.assertEquals(appliedPolicy.getPolicyName(), POLICY1, POLICY1 + " was not applied on " + DEVICE1);
 
@@ -265,6 +272,24 @@ public class  PolicyManagerServiceImplTest extends BasePolicyManagementDAOTest {
     }
 
     @Test(dependsOnMethods = "checkCompliance")
+    public void skipCurrentCompliance() throws PolicyComplianceException, DeviceManagementException {
+        DeviceIdentifier deviceIdentifier = new DeviceIdentifier(DEVICE1, DEVICE_TYPE_A);
+        NonComplianceData complianceData = policyManagerService.getDeviceCompliance(deviceIdentifier);
+        Assert.assertTrue(complianceData.isStatus(), "Policy was not compliant");
+
+        List<Device> deviceList = new ArrayList<>();
+        deviceList.add(DeviceManagementDataHolder.getInstance().getDeviceManagementProvider().
+                getDevice(deviceIdentifier, false));
+        new MonitoringManagerImpl().addMonitoringOperation(deviceList);
+
+        NonComplianceData currentComplianceData = policyManagerService.getDeviceCompliance(deviceIdentifier);
+        Assert.assertEquals(currentComplianceData.getAttempts(), complianceData.getAttempts(),
+                "Monitoring was requested from a device which reported its compliance in the current period.");
+        Assert.assertEquals(currentComplianceData.getLastRequestedTime(), complianceData.getLastRequestedTime(),
+                "Monitoring was requested from a device which reported its compliance in the current period.");
+    }
+
+    @Test(dependsOnMethods = "skipCurrentCompliance")
     public void checkNonCompliance() throws PolicyComplianceException, DeviceManagementException {
         new MonitoringTask().execute();
 
@@ -297,6 +322,21 @@ public class  PolicyManagerServiceImplTest extends BasePolicyManagementDAOTest {
         Assert.assertEquals(POLICY1_FEATURE1_CODE,complianceFeatureList.get(0).getFeatureCode());
     }
 
+    @Test(dependsOnMethods = "checkNonCompliance")
+    public void monitorNonCompliantDevice() throws PolicyComplianceException, DeviceManagementException {
+        DeviceIdentifier deviceIdentifier = new DeviceIdentifier(DEVICE1, DEVICE_TYPE_A);
+        NonComplianceData complianceData = policyManagerService.getDeviceCompliance(deviceIdentifier);
+
+        List<Device> deviceList = new ArrayList<>();
+        deviceList.add(DeviceManagementDataHolder.getInstance().getDeviceManagementProvider().
+                getDevice(deviceIdentifier, false));
+        new MonitoringManagerImpl().addMonitoringOperation(deviceList);
+
+        NonComplianceData currentComplianceData = policyManagerService.getDeviceCompliance(deviceIdentifier);
+        Assert.assertEquals(currentComplianceData.getAttempts(), complianceData.getAttempts() + 1,
+                "Monitoring was not requested from a non compliant device.");
+    }
+
     @Test(dependsOnMethods = "inactivatePolicy")
     public void updatePolicy() throws PolicyManagementException {
         Policy policy1Temp = policyManagerService.getPAP().getPolicy(policy1.getId());
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.policy.mgt.core.cache.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.common.group.mgt.DeviceGroup;
+import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
+import org.wso2.carbon.device.mgt.core.dto.DeviceType;
+import org.wso2.carbon.policy.mgt.common.PIPDevice;
+import org.wso2.carbon.policy.mgt.core.cache.EffectivePolicyCacheStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the memoization of effective policies by the attributes of devices in {@link EffectivePolicyCache}.
+ */
+public class EffectivePolicyCacheTest {
+
+    @BeforeClass
+    public void init() throws Exception {
+        // Results are cached only against the version of a cached snapshot of the policies
+        PolicyCacheManagerImpl.getInstance().rePopulateCache();
+    }
+
+    @Test(description = "Checks that devices with the same attributes share the cached effective policy")
+    public void testSameSignature() {
+        EffectivePolicyCache cache = new EffectivePolicyCache("Merged", true);
+        String version = cache.getPolicyVersion();
+        Policy policy = new Policy();
+        policy.setId(1);
+        cache.put(createDevice("user1", new String[]{"Role-A", "role-b"}, 2, 1), version, policy, 1000);
+
+        EffectivePolicyCache.Entry entry = cache.get(createDevice("USER1", new String[]{"role-b", "role-a"}, 1, 2),
+                version);
+        Assert.assertNotNull(entry);
+        Assert.assertEquals(entry.getPolicy().getId(), policy.getId());
+        Assert.assertNull(cache.get(createDevice("user2", new String[]{"role-a", "role-b"}, 1, 2), version));
+        Assert.assertNull(cache.get(createDevice("user1", new String[]{"role-a"}, 1, 2), version));
+        Assert.assertNull(cache.get(createDevice("user1", new String[]{"role-a", "role-b"}, 1), version));
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.getMissCount(), 3);
+        Assert.assertEquals(cache.getHitRatio(), 0.25);
+    }
+
+    @Test(description = "Checks that devices without an applicable policy are cached as well")
+    public void testNoPolicy() {
+        EffectivePolicyCache cache = new EffectivePolicyCache("Merged", true);
+        String version = cache.getPolicyVersion();
+        cache.put(createDevice("user1", null), version, null, 1000);
+        EffectivePolicyCache.Entry entry = cache.get(createDevice("user1", null), version);
+        Assert.assertNotNull(entry);
+        Assert.assertNull(entry.getPolicy());
+    }
+
+    @Test(description = "Checks that results of an older policy version are not returned")
+    public void testStaleVersion() {
+        EffectivePolicyCache cache = new EffectivePolicyCache("Merged", true);
+        String version = cache.getPolicyVersion();
+        cache.put(createDevice("user1", null), version, new Policy(), 1000);
+        Assert.assertNull(cache.get(createDevice("user1", null), version + "-changed"));
+
+        cache.put(createDevice("user2", null), version + "-changed", new Policy(), 1000);
+        Assert.assertNull(cache.get(createDevice("user2", null), version));
+    }
+
+    @Test(description = "Checks that a lookup returns a copy, which does not change the cached policy")
+    public void testPolicyCopy() {
+        EffectivePolicyCache cache = new EffectivePolicyCache("Merged", true);
+        String version = cache.getPolicyVersion();
+        Policy policy = new Policy();
+        policy.setId(1);
+        policy.setPolicyName("policy1");
+        cache.put(createDevice("user1", null), version, policy, 1000);
+        policy.setPolicyName("changed-after-put");
+
+        Policy cachedPolicy = cache.get(createDevice("user1", null), version).getPolicy();
+        Assert.assertNotSame(cachedPolicy, policy);
+        Assert.assertEquals(cachedPolicy.getPolicyName(), "policy1");
+        cachedPolicy.setPolicyName("changed-after-get");
+        Assert.assertEquals(cache.get(createDevice("user1", null), version).getPolicy().getPolicyName(), "policy1");
+    }
+
+    @Test(description = "Checks that the least recently used entries are evicted when the cache is full")
+    public void testEviction() {
+        EffectivePolicyCache cache = new EffectivePolicyCache("Merged", true, 2);
+        String version = cache.getPolicyVersion();
+        cache.put(createDevice("user1", null), version, new Policy(), 1000);
+        cache.put(createDevice("user2", null), version, new Policy(), 1000);
+        Assert.assertNotNull(cache.get(createDevice("user1", null), version));
+        cache.put(createDevice("user3", null), version, new Policy(), 1000);
+
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+        Assert.assertNotNull(cache.get(createDevice("user1", null), version));
+        Assert.assertNull(cache.get(createDevice("user2", null), version));
+        Assert.assertNotNull(cache.get(createDevice("user3", null), version));
+    }
+
+    @Test(description = "Checks the statistics exposed for the cache")
+    public void testStatistics() {
+        EffectivePolicyCache cache = new EffectivePolicyCache("Merged", true);
+        String version = cache.getPolicyVersion();
+        cache.put(createDevice("user1", null), version, new Policy(), 4000);
+        cache.get(createDevice("user1", null), version);
+        cache.get(createDevice("user1", null), version);
+        cache.get(createDevice("user2", null), version);
+        cache.get(createDevice("user3", null), version);
+
+        EffectivePolicyCacheStatistics statistics = cache.getStatistics();
+        Assert.assertEquals(statistics.getEvaluationPoint(), "Merged");
+        Assert.assertTrue(statistics.isEnabled());
+        Assert.assertEquals(statistics.getHitCount(), 2);
+        Assert.assertEquals(statistics.getMissCount(), 2);
+        Assert.assertEquals(statistics.getHitRatio(), 0.5);
+        Assert.assertEquals(statistics.getAverageEvaluationTime(), 2);
+        Assert.assertEquals(statistics.getSize(), 1);
+    }
+
+    @Test(description = "Checks that the policy version changes with the cached policies")
+    public void testPolicyVersion() throws Exception {
+        EffectivePolicyCache cache = new EffectivePolicyCache("Merged", true);
+        String version = cache.getPolicyVersion();
+        Assert.assertEquals(cache.getPolicyVersion(), version);
+        cache.put(createDevice("user1", null), version, new Policy(), 1000);
+
+        PolicyCacheManagerImpl.getInstance().rePopulateCache();
+        Assert.assertNotEquals(cache.getPolicyVersion(), version);
+        Assert.assertNull(cache.get(createDevice("user1", null), cache.getPolicyVersion()));
+    }
+
+    @Test(description = "Checks that nothing is cached when the policy cache is disabled")
+    public void testDisabled() {
+        EffectivePolicyCache cache = new EffectivePolicyCache("Merged", false);
+        cache.put(createDevice("user1", null), cache.getPolicyVersion(), new Policy(), 1000);
+        Assert.assertNull(cache.get(createDevice("user1", null), cache.getPolicyVersion()));
+        Assert.assertEquals(cache.getMissCount(), 0);
+    }
+
+    private PIPDevice createDevice(String userId, String[] roles, int... groupIds) {
+        PIPDevice device = new PIPDevice();
+        DeviceType deviceType = new DeviceType();
+        deviceType.setName("android");
+        device.setDeviceType(deviceType);
+        device.setOwnershipType("BYOD");
+        device.setUserId(userId);
+        device.setRoles(roles);
+        List<DeviceGroup> groups = new ArrayList<>();
+        for (int groupId : groupIds) {
+            DeviceGroup group = new DeviceGroup();
+            group.setGroupId(groupId);
+            groups.add(group);
+        }
+        device.setDeviceGroups(groups);
+        return device;
+    }
+}
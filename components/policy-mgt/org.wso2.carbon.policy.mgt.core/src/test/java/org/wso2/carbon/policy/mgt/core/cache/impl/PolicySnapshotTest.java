@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.policy.mgt.core.cache.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
+import org.wso2.carbon.device.mgt.common.policy.mgt.Profile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests the indices of {@link PolicySnapshot} and the copy-on-write changes applied to it.
+ */
+public class PolicySnapshotTest {
+
+    @Test(description = "Checks that policies are ordered by priority and indexed by id, profile and device type")
+    public void testIndices() {
+        PolicySnapshot snapshot = new PolicySnapshot(Arrays.asList(createPolicy(1, 3, "android"),
+                createPolicy(2, 1, "ios"), createPolicy(3, 2, "Android")), "1");
+
+        Assert.assertEquals(getPolicyIds(snapshot.getPolicies()), Arrays.asList(2, 3, 1));
+        Assert.assertEquals(snapshot.getPolicy(3).getId(), 3);
+        Assert.assertNull(snapshot.getPolicy(4));
+        Assert.assertEquals(snapshot.getPolicyOfProfile(102).getId(), 2);
+        Assert.assertEquals(getPolicyIds(snapshot.getPoliciesOfDeviceType("ANDROID")), Arrays.asList(3, 1));
+        Assert.assertTrue(snapshot.getPoliciesOfDeviceType("windows").isEmpty());
+        Assert.assertSame(snapshot.getApplicabilityIndex(), snapshot.getApplicabilityIndex());
+    }
+
+    @Test(description = "Checks that changes create a new snapshot and leave the existing one untouched")
+    public void testCopyOnWrite() {
+        PolicySnapshot snapshot = new PolicySnapshot(Arrays.asList(createPolicy(1, 1, "android"),
+                createPolicy(2, 2, "android")), "1");
+
+        PolicySnapshot updated = snapshot.withPolicy(createPolicy(1, 3, "ios"), "2");
+        Assert.assertEquals(updated.getVersion(), "2");
+        Assert.assertEquals(getPolicyIds(updated.getPolicies()), Arrays.asList(2, 1));
+        Assert.assertEquals(getPolicyIds(updated.getPoliciesOfDeviceType("ios")), Arrays.asList(1));
+        Assert.assertEquals(getPolicyIds(snapshot.getPolicies()), Arrays.asList(1, 2));
+        Assert.assertEquals(getPolicyIds(snapshot.getPoliciesOfDeviceType("android")), Arrays.asList(1, 2));
+
+        PolicySnapshot removed = updated.withoutPolicy(2, "3");
+        Assert.assertEquals(getPolicyIds(removed.getPolicies()), Arrays.asList(1));
+        Assert.assertNull(removed.getPolicy(2));
+        Assert.assertNotNull(updated.getPolicy(2));
+        Assert.assertNotSame(removed.getApplicabilityIndex(), updated.getApplicabilityIndex());
+    }
+
+    @Test(description = "Checks that the policies of a snapshot cannot be modified",
+            expectedExceptions = UnsupportedOperationException.class)
+    public void testUnmodifiablePolicies() {
+        PolicySnapshot snapshot = new PolicySnapshot(Arrays.asList(createPolicy(1, 1, "android")), "1");
+        snapshot.getPolicies().add(createPolicy(2, 2, "android"));
+    }
+
+    private static List<Integer> getPolicyIds(List<Policy> policies) {
+        List<Integer> policyIds = new ArrayList<>();
+        for (Policy policy : policies) {
+            policyIds.add(policy.getId());
+        }
+        return policyIds;
+    }
+
+    private static Policy createPolicy(int id, int priority, String deviceType) {
+        Policy policy = new Policy();
+        policy.setId(id);
+        policy.setPriorityId(priority);
+        policy.setProfileId(100 + id);
+        policy.setActive(true);
+        Profile profile = new Profile();
+        profile.setDeviceType(deviceType);
+        policy.setProfile(profile);
+        return policy;
+    }
+}
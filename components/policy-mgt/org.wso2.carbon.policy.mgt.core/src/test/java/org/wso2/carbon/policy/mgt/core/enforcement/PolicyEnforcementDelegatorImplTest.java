@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.policy.mgt.core.enforcement;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.common.DeviceIdentifier;
+import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
+import org.wso2.carbon.policy.mgt.core.util.PolicyManagementConstants;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifies how {@link PolicyEnforcementDelegatorImpl} groups devices by their effective policy, and the statistics
+ * recorded for the re-enforcements.
+ */
+public class PolicyEnforcementDelegatorImplTest {
+
+    private static final String DEVICE_TYPE_A = "deviceTypeA";
+    private static final String DEVICE_TYPE_B = "deviceTypeB";
+
+    @Test(description = "Checks that merged policies of the same source policies share a group")
+    public void testMergedPolicyGroups() {
+        Policy policy = createMergedPolicy("Merging Policy Id : 3, 1", "BYOD", 1, 3);
+        Policy samePolicy = createMergedPolicy("Merging Policy Id : 1, 3", "COPE", 1, 3);
+        Policy otherPolicy = createMergedPolicy("Merging Policy Id : 3, 1", "BYOD", 1, 2, 3);
+
+        Assert.assertEquals(getGroupKey("device-1", DEVICE_TYPE_A, samePolicy),
+                getGroupKey("device-2", DEVICE_TYPE_A, policy),
+                "Merged policies of the same source policies are not grouped together.");
+        Assert.assertNotEquals(getGroupKey("device-1", DEVICE_TYPE_A, otherPolicy),
+                getGroupKey("device-2", DEVICE_TYPE_A, policy),
+                "Merged policies of different source policies are grouped together.");
+        Assert.assertNotEquals(getGroupKey("device-1", DEVICE_TYPE_B, samePolicy),
+                getGroupKey("device-2", DEVICE_TYPE_A, policy),
+                "Devices of different types are grouped together.");
+    }
+
+    @Test(description = "Checks the groups of devices with a stored policy, no policy or an unidentified policy")
+    public void testPolicyGroups() {
+        Policy policy = new Policy();
+        policy.setId(5);
+        Policy samePolicy = new Policy();
+        samePolicy.setId(5);
+        samePolicy.setDescription("Updated");
+        Assert.assertEquals(getGroupKey("device-1", DEVICE_TYPE_A, samePolicy),
+                getGroupKey("device-2", DEVICE_TYPE_A, policy),
+                "Devices of the same policy are not grouped together.");
+        Assert.assertEquals(getGroupKey("device-1", DEVICE_TYPE_A, null), getGroupKey("device-2", DEVICE_TYPE_A, null),
+                "Devices without a policy are not grouped together.");
+        Assert.assertNotEquals(getGroupKey("device-1", DEVICE_TYPE_A, null),
+                getGroupKey("device-2", DEVICE_TYPE_A, policy),
+                "Devices with and without a policy are grouped together.");
+
+        Policy unidentifiedPolicy = new Policy();
+        unidentifiedPolicy.setId(-1);
+        unidentifiedPolicy.setDescription("Merging Policy Id : 1, 3");
+        Assert.assertNotEquals(getGroupKey("device-1", DEVICE_TYPE_A, unidentifiedPolicy),
+                getGroupKey("device-2", DEVICE_TYPE_A, unidentifiedPolicy),
+                "Devices of a policy without an id or source policies are grouped together.");
+    }
+
+    @Test(description = "Checks the statistics accumulated over re-enforcements")
+    public void testStatistics() {
+        PolicyDelegationStatisticsCollector collector = new PolicyDelegationStatisticsCollector();
+        collector.record(1000, 3, 5, 500, 20);
+        collector.record(10, 1, 1, 0, 5);
+
+        PolicyDelegationStatistics statistics = collector.getStatistics();
+        Assert.assertEquals(statistics.getDelegationCount(), 2);
+        Assert.assertEquals(statistics.getEvaluatedDeviceCount(), 1010);
+        Assert.assertEquals(statistics.getDeviceGroupCount(), 4);
+        Assert.assertEquals(statistics.getOperationCount(), 6);
+        Assert.assertEquals(statistics.getEvaluationTime(), 500);
+        Assert.assertEquals(statistics.getOperationTime(), 25);
+        Assert.assertEquals(statistics.getLastEvaluationThroughput(), 10);
+    }
+
+    private static String getGroupKey(String deviceId, String deviceType, Policy policy) {
+        return PolicyEnforcementDelegatorImpl.getGroupKey(new DeviceIdentifier(deviceId, deviceType), policy);
+    }
+
+    private static Policy createMergedPolicy(String description, String ownershipType, Integer... sourcePolicyIds) {
+        Policy policy = new Policy();
+        policy.setId(-1);
+        policy.setDescription(description);
+        policy.setOwnershipType(ownershipType);
+        List<Integer> policyIds = Arrays.asList(sourcePolicyIds);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(PolicyManagementConstants.SOURCE_POLICY_IDS, policyIds);
+        policy.setAttributes(attributes);
+        return policy;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.policy.mgt.core.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.device.mgt.common.group.mgt.DeviceGroup;
+import org.wso2.carbon.device.mgt.common.policy.mgt.DeviceGroupWrapper;
+import org.wso2.carbon.device.mgt.common.policy.mgt.Policy;
+import org.wso2.carbon.device.mgt.common.policy.mgt.Profile;
+import org.wso2.carbon.device.mgt.core.dto.DeviceType;
+import org.wso2.carbon.policy.mgt.common.PIPDevice;
+import org.wso2.carbon.policy.mgt.common.PolicyFilter;
+import org.wso2.carbon.policy.mgt.core.util.PolicyManagementConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Verifies that {@link PolicyApplicabilityIndex} selects the same policies as the {@link PolicyFilterImpl} chain, on
+ * a generated data set of 2000 policies and 10000 roles.
+ */
+public class PolicyApplicabilityIndexTest {
+
+    private static final Log log = LogFactory.getLog(PolicyApplicabilityIndexTest.class);
+    private static final String[] DEVICE_TYPES = {"android", "ios", "windows"};
+    private static final String[] OWNERSHIP_TYPES = {null, PolicyManagementConstants.ANY, "BYOD", "COPE"};
+    private static final int POLICY_COUNT = 2000;
+    private static final int ROLE_COUNT = 10000;
+    private static final int USER_COUNT = 500;
+    private static final int GROUP_COUNT = 200;
+    private static final int DEVICE_COUNT = 200;
+
+    private final Random random = new Random(42);
+    private List<Policy> policies;
+    private List<PIPDevice> devices;
+
+    @BeforeClass
+    public void init() {
+        policies = new ArrayList<>();
+        for (int i = 1; i <= POLICY_COUNT; i++) {
+            policies.add(createPolicy(i));
+        }
+        devices = new ArrayList<>();
+        for (int i = 0; i < DEVICE_COUNT; i++) {
+            devices.add(createDevice());
+        }
+    }
+
+    @Test(description = "Compares the policies selected by the index with the policies selected by the filters")
+    public void testApplicablePolicies() {
+        PolicyApplicabilityIndex index = new PolicyApplicabilityIndex(policies);
+        for (PIPDevice device : devices) {
+            Assert.assertEquals(getPolicyIds(index.getApplicablePolicies(device)),
+                    getPolicyIds(filterPolicies(device)), "Policies selected for the device of user '" +
+                            device.getUserId() + "' differ.");
+        }
+    }
+
+    @Test(description = "Checks that inactive policies and unknown device types do not match any policy")
+    public void testInactiveAndUnknownDeviceType() {
+        Policy policy = createPolicy(POLICY_COUNT + 1);
+        policy.setActive(false);
+        PIPDevice device = createDevice();
+        device.getDeviceType().setName(policy.getProfile().getDeviceType());
+        Assert.assertTrue(new PolicyApplicabilityIndex(Collections.singletonList(policy))
+                .getApplicablePolicies(device).isEmpty());
+
+        device.getDeviceType().setName("unknown");
+        Assert.assertTrue(new PolicyApplicabilityIndex(policies).getApplicablePolicies(device).isEmpty());
+    }
+
+    @Test(description = "Logs the evaluation time of the filter chain and the index for comparison",
+            dependsOnMethods = "testApplicablePolicies")
+    public void testEvaluationTime() {
+        long start = System.nanoTime();
+        int filtered = 0;
+        for (PIPDevice device : devices) {
+            filtered += filterPolicies(device).size();
+        }
+        long filterTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        PolicyApplicabilityIndex index = new PolicyApplicabilityIndex(policies);
+        long buildTime = System.nanoTime() - start;
+        int indexed = 0;
+        for (PIPDevice device : devices) {
+            indexed += index.getApplicablePolicies(device).size();
+        }
+        long indexTime = System.nanoTime() - start - buildTime;
+
+        log.info("Evaluated " + DEVICE_COUNT + " devices against " + POLICY_COUNT + " policies. Filters: " +
+                filterTime / 1000000 + " ms, index: " + indexTime / 1000000 + " ms, index build: " +
+                buildTime / 1000000 + " ms.");
+        Assert.assertTrue(indexed <= filtered);
+    }
+
+    /**
+     * Applies the filters in the same order as PolicyInformationPointImpl did before the index was introduced.
+     */
+    private List<Policy> filterPolicies(PIPDevice device) {
+        PolicyFilter policyFilter = new PolicyFilterImpl();
+        List<Policy> deviceTypePolicies = new ArrayList<>();
+        for (Policy policy : policies) {
+            if (policy.getProfile().getDeviceType().equalsIgnoreCase(device.getDeviceType().getName())) {
+                deviceTypePolicies.add(policy);
+            }
+        }
+        Collections.sort(deviceTypePolicies);
+        List<Policy> result = policyFilter.filterActivePolicies(deviceTypePolicies);
+        result = policyFilter.filterDeviceTypeBasedPolicies(device.getDeviceType().getName(), result);
+        result = policyFilter.filterOwnershipTypeBasedPolicies(device.getOwnershipType(), result);
+        result = policyFilter.filterRolesBasedPolicies(device.getRoles(), result);
+        result = policyFilter.filterUserBasedPolicies(device.getUserId(), result);
+        if (!device.getDeviceGroups().isEmpty()) {
+            Map<Integer, DeviceGroup> groupMap = new HashMap<>();
+            for (DeviceGroup group : device.getDeviceGroups()) {
+                groupMap.put(group.getGroupId(), group);
+            }
+            result = policyFilter.filterDeviceGroupsPolicies(groupMap, result);
+        }
+        return result;
+    }
+
+    private List<Integer> getPolicyIds(List<Policy> policyList) {
+        // The role filter adds a policy once per matching role, hence duplicates are dropped before comparing
+        Set<Integer> policyIds = new LinkedHashSet<>();
+        for (Policy policy : policyList) {
+            policyIds.add(policy.getId());
+        }
+        return new ArrayList<>(policyIds);
+    }
+
+    private Policy createPolicy(int id) {
+        Policy policy = new Policy();
+        policy.setId(id);
+        policy.setPolicyName("policy-" + id);
+        policy.setPriorityId(1 + random.nextInt(POLICY_COUNT));
+        policy.setActive(random.nextInt(10) != 0);
+        Profile profile = new Profile();
+        profile.setDeviceType(DEVICE_TYPES[random.nextInt(DEVICE_TYPES.length)]);
+        policy.setProfile(profile);
+        policy.setOwnershipType(OWNERSHIP_TYPES[random.nextInt(OWNERSHIP_TYPES.length)]);
+
+        List<String> roles = new ArrayList<>();
+        int roleChoice = random.nextInt(20);
+        if (roleChoice == 0) {
+            roles.add(PolicyManagementConstants.ANY);
+        } else if (roleChoice > 6) {
+            for (int i = random.nextInt(5); i >= 0; i--) {
+                roles.add("Role-" + random.nextInt(ROLE_COUNT));
+            }
+        }
+        policy.setRoles(roles);
+
+        List<String> users = new ArrayList<>();
+        int userChoice = random.nextInt(10);
+        if (userChoice == 0) {
+            users.add(PolicyManagementConstants.ANY);
+        } else if (userChoice > 6) {
+            for (int i = random.nextInt(3); i >= 0; i--) {
+                users.add("user" + random.nextInt(USER_COUNT));
+            }
+        }
+        policy.setUsers(users);
+
+        List<DeviceGroupWrapper> groups = new ArrayList<>();
+        int groupChoice = random.nextInt(20);
+        if (groupChoice == 0) {
+            DeviceGroupWrapper wrapper = new DeviceGroupWrapper();
+            wrapper.setName(PolicyManagementConstants.ANY);
+            groups.add(wrapper);
+        } else if (groupChoice > 10) {
+            for (int i = random.nextInt(3); i >= 0; i--) {
+                DeviceGroupWrapper wrapper = new DeviceGroupWrapper();
+                wrapper.setId(random.nextInt(GROUP_COUNT));
+                wrapper.setName("group-" + wrapper.getId());
+                groups.add(wrapper);
+            }
+        }
+        policy.setDeviceGroups(groups);
+        return policy;
+    }
+
+    private PIPDevice createDevice() {
+        PIPDevice device = new PIPDevice();
+        DeviceType deviceType = new DeviceType();
+        deviceType.setName(DEVICE_TYPES[random.nextInt(DEVICE_TYPES.length)].toUpperCase());
+        device.setDeviceType(deviceType);
+        device.setOwnershipType(random.nextBoolean() ? "BYOD" : "cope");
+        String[] roles = new String[1 + random.nextInt(100)];
+        for (int i = 0; i < roles.length; i++) {
+            roles[i] = "role-" + random.nextInt(ROLE_COUNT);
+        }
+        device.setRoles(roles);
+        device.setUserId("USER" + random.nextInt(USER_COUNT));
+        List<DeviceGroup> groups = new ArrayList<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            DeviceGroup group = new DeviceGroup();
+            group.setGroupId(random.nextInt(GROUP_COUNT));
+            groups.add(group);
+        }
+        device.setDeviceGroups(groups);
+        return device;
+    }
+}
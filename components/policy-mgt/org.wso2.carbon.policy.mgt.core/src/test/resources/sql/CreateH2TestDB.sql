@@ -139,6 +139,7 @@ CREATE TABLE IF NOT EXISTS DM_ENROLMENT_OP_MAPPING (
     STATUS VARCHAR(50) NULL,
     CREATED_TIMESTAMP INT NOT NULL,
     UPDATED_TIMESTAMP INT NOT NULL,
+    LEASE_EXPIRY_TIMESTAMP INT NULL,
     PUSH_NOTIFICATION_STATUS VARCHAR(50),
     PRIMARY KEY (ID),
     CONSTRAINT fk_dm_device_operation_mapping_device FOREIGN KEY (ENROLMENT_ID) REFERENCES
@@ -508,6 +509,22 @@ CREATE TABLE IF NOT EXISTS DM_DEVICE_LOCATION (
 );
 
 
+-- Per tenant aggregate of the device locations within each geohash prefix of length 7, used for geo clustering
+CREATE TABLE IF NOT EXISTS DM_GEO_TILE (
+  TENANT_ID INT NOT NULL,
+  GEOHASH_PREFIX VARCHAR(16) NOT NULL,
+  DEVICE_COUNT BIGINT NOT NULL,
+  SUM_LATITUDE DOUBLE NOT NULL,
+  SUM_LONGITUDE DOUBLE NOT NULL,
+  MIN_LATITUDE DOUBLE NOT NULL,
+  MAX_LATITUDE DOUBLE NOT NULL,
+  MIN_LONGITUDE DOUBLE NOT NULL,
+  MAX_LONGITUDE DOUBLE NOT NULL,
+  PRIMARY KEY (TENANT_ID, GEOHASH_PREFIX)
+);
+
+CREATE INDEX IDX_DM_GEO_TILE_LATITUDE ON DM_GEO_TILE(TENANT_ID, MIN_LATITUDE);
+
 CREATE TABLE IF NOT EXISTS DM_DEVICE_DETAIL (
   ID INT NOT NULL AUTO_INCREMENT,
   DEVICE_ID INT NOT NULL,
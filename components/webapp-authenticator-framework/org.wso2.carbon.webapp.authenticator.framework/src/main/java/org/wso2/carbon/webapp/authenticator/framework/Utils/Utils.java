@@ -29,6 +29,7 @@ import org.wso2.carbon.webapp.authenticator.framework.AuthenticationException;
 import org.wso2.carbon.webapp.authenticator.framework.AuthenticationInfo;
 import org.wso2.carbon.webapp.authenticator.framework.authenticator.WebappAuthenticator;
 import org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.OAuth2TokenValidator;
+import org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.OAuthConstants;
 import org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.OAuthValidationResponse;
 import org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.OAuthValidatorFactory;
 import org.wso2.carbon.webapp.authenticator.framework.internal.AuthenticatorFrameworkDataHolder;
@@ -118,6 +119,10 @@ public class Utils {
         if (maxConnectionsPerHost != null) {
             validatorProperties.setProperty("MaxConnectionsPerHost", maxConnectionsPerHost);
         }
+        String tokenCacheEnabled = properties.getProperty(OAuthConstants.TOKEN_CACHE_ENABLED);
+        if (tokenCacheEnabled != null) {
+            validatorProperties.setProperty(OAuthConstants.TOKEN_CACHE_ENABLED, tokenCacheEnabled);
+        }
         return OAuthValidatorFactory.getValidator(url, adminUsername, adminPassword, isRemote, validatorProperties);
     }
 
@@ -29,5 +29,6 @@ public class OAuthConstants {
     public static final String BEARER_TOKEN_IDENTIFIER = "token";
     public static final String AUTHENTICATOR_NAME = "OAuthAuthenticator";
     public static final String RESOURCE_KEY = "resource";
+    public static final String TOKEN_CACHE_ENABLED = "TokenCacheEnabled";
 
 }
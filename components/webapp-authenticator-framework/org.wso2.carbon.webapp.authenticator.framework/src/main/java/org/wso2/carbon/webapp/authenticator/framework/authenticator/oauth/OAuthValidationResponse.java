@@ -27,6 +27,7 @@ public class OAuthValidationResponse {
     private String tenantDomain;
     private boolean isValid;
     private String errorMsg;
+    private long expiryTime;
 
     public OAuthValidationResponse() {}
 
@@ -67,4 +68,15 @@ public class OAuthValidationResponse {
     public void setErrorMsg(String errorMsg) {
         this.errorMsg = errorMsg;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return seconds the token remains valid for, 0 if not known.
+     */
+    public long getExpiryTime() {
+        return expiryTime;
+    }
+
+    public void setExpiryTime(long expiryTime) {
+        this.expiryTime = expiryTime;
+    }
+}
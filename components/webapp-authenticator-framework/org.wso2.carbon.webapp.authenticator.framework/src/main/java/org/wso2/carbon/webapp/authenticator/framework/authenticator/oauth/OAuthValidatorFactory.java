@@ -17,6 +17,8 @@
  */
 package org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth;
 
+import org.wso2.carbon.identity.authenticator.backend.oauth.cache.OAuthTokenValidationCache;
+import org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.impl.CachingOAuthValidator;
 import org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.impl.LocalOAuthValidator;
 import org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.impl.RemoteOAuthValidator;
 
@@ -30,16 +32,26 @@ public class OAuthValidatorFactory {
 
     public static OAuth2TokenValidator getValidator(String url, String adminUsername, String adminPassword,
             boolean isRemote, Properties properties) throws IllegalArgumentException {
+        OAuth2TokenValidator validator;
         if (isRemote) {
             if ((url != null) && (!url.trim().isEmpty())) {
                 url = url + "/services/OAuth2TokenValidationService.OAuth2TokenValidationServiceHttpsSoap12Endpoint/";
-                return new RemoteOAuthValidator(url, adminUsername, adminPassword, properties);
+                validator = new RemoteOAuthValidator(url, adminUsername, adminPassword, properties);
+            } else {
+                throw new IllegalArgumentException(
+                        "Remote server host can't be empty in OAuthAuthenticator configuration.");
             }
-            throw new IllegalArgumentException(
-                    "Remote server host can't be empty in OAuthAuthenticator configuration.");
+        } else {
+            validator = new LocalOAuthValidator();
         }
 
-        return new LocalOAuthValidator();
+        String tokenCacheEnabled = properties == null ? null :
+                properties.getProperty(OAuthConstants.TOKEN_CACHE_ENABLED);
+        if (tokenCacheEnabled != null && !Boolean.parseBoolean(tokenCacheEnabled.trim())) {
+            return validator;
+        }
+        // The cache is shared with the back-end OAuth authenticator, which configures its limits
+        return new CachingOAuthValidator(validator, OAuthTokenValidationCache.getInstance());
     }
 
 }
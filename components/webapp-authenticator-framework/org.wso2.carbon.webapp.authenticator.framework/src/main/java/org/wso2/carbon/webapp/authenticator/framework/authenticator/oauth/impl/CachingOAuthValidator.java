@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * you may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.authenticator.backend.oauth.cache.CachedTokenValidation;
+import org.wso2.carbon.identity.authenticator.backend.oauth.cache.OAuthTokenValidationCache;
+import org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.OAuth2TokenValidator;
+import org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.OAuthTokenValidationException;
+import org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.OAuthValidationResponse;
+
+/**
+ * Serves token validation responses from the {@link OAuthTokenValidationCache}, and validates the tokens which are
+ * not cached through the given validator.
+ */
+public class CachingOAuthValidator implements OAuth2TokenValidator {
+
+    private static final Log log = LogFactory.getLog(CachingOAuthValidator.class);
+
+    private final OAuth2TokenValidator validator;
+    private final OAuthTokenValidationCache cache;
+
+    public CachingOAuthValidator(OAuth2TokenValidator validator, OAuthTokenValidationCache cache) {
+        this.validator = validator;
+        this.cache = cache;
+    }
+
+    @Override
+    public OAuthValidationResponse validateToken(String accessToken, String resource)
+            throws OAuthTokenValidationException {
+        // The scopes required by the resource are checked, hence the validation is cached for the resource
+        CachedTokenValidation validation = cache.get(accessToken, resource);
+        if (validation != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Token validation response for '" + resource + "' is served from the cache");
+            }
+            OAuthValidationResponse response = new OAuthValidationResponse(validation.getUserName(),
+                    validation.getTenantDomain(), validation.isValid());
+            response.setErrorMsg(validation.getErrorMsg());
+            response.setExpiryTime(validation.getExpiryTime());
+            return response;
+        }
+        OAuthValidationResponse response = validator.validateToken(accessToken, resource);
+        if (response != null) {
+            cache.put(accessToken, resource, new CachedTokenValidation(response.getUserName(),
+                    response.getTenantDomain(), response.isValid(), response.getErrorMsg(),
+                    response.getExpiryTime()));
+        }
+        return response;
+    }
+}
@@ -68,7 +68,10 @@ public class LocalOAuthValidator implements OAuth2TokenValidator {
             if (MultitenantConstants.SUPER_TENANT_DOMAIN_NAME.equals(tenantDomain)) {
                 tenantDomain = MultitenantUtils.getTenantDomain(userName);
             }
-            return new OAuthValidationResponse(userName, tenantDomain, true);
+            OAuthValidationResponse oAuthValidationResponse = new OAuthValidationResponse(userName, tenantDomain,
+                    true);
+            oAuthValidationResponse.setExpiryTime(tokenValidationResponse.getExpiryTime());
+            return oAuthValidationResponse;
         } else {
             OAuthValidationResponse oAuthValidationResponse = new OAuthValidationResponse();
             oAuthValidationResponse.setErrorMsg(tokenValidationResponse.getErrorMsg());
@@ -30,6 +30,7 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import org.wso2.carbon.base.MultitenantConstants;
+import org.wso2.carbon.identity.authenticator.backend.oauth.cache.OAuthTokenValidationCache;
 import org.wso2.carbon.identity.oauth2.OAuth2TokenValidationService;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2ClientApplicationDTO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2TokenValidationResponseDTO;
@@ -207,6 +208,8 @@ public class BSTAuthenticatorTest {
                 .findOAuthConsumerIfTokenIsValid(Mockito.any());
         oAuth2ClientApplicationDTO.setAccessTokenValidationResponse(unAuthorizedValidationRespose);
         AuthenticatorFrameworkDataHolder.getInstance().setOAuth2TokenValidationService(oAuth2TokenValidationService);
+        // The validation response of the token is cached, hence it has to be invalidated as on revocation
+        OAuthTokenValidationCache.getInstance().invalidateAll();
         authenticationInfo = bstAuthenticator.authenticate(request, null);
         Assert.assertEquals(authenticationInfo.getStatus(), WebappAuthenticator.Status.FAILURE,
                 "Un-authorized user got authenticated with BST");
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * you may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.authenticator.backend.oauth.OauthAuthenticatorConstants;
+import org.wso2.carbon.identity.authenticator.backend.oauth.cache.CachedTokenValidation;
+import org.wso2.carbon.identity.authenticator.backend.oauth.cache.OAuthTokenValidationCache;
+import org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.impl.CachingOAuthValidator;
+import org.wso2.carbon.webapp.authenticator.framework.authenticator.oauth.impl.LocalOAuthValidator;
+
+import java.util.Properties;
+
+/**
+ * This is a test class for {@link OAuthTokenValidationCache} and {@link CachingOAuthValidator}.
+ */
+public class OAuthTokenValidationCacheTest {
+    private static final String TOKEN = "b9f1c6d8-2a4e-4bb1-9d3f-6f0e2c7a5d11";
+    private static final String RESOURCE = "/api/device-mgt/v1.0/devices:GET";
+    private static final int CAPACITY = 100;
+    private OAuthTokenValidationCache cache = OAuthTokenValidationCache.getInstance();
+
+    @BeforeMethod
+    public void setup() {
+        cache.configure(CAPACITY, OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_MAX_EXPIRY_TIME,
+                OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_NEGATIVE_EXPIRY_TIME);
+        cache.invalidateAll();
+    }
+
+    @AfterClass
+    public void cleanup() {
+        cache.configure(OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_CAPACITY,
+                OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_MAX_EXPIRY_TIME,
+                OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_NEGATIVE_EXPIRY_TIME);
+        cache.invalidateAll();
+    }
+
+    @Test(description = "This method tests that responses are cached per token and scope")
+    public void testGetAndPut() {
+        Assert.assertNull(cache.get(TOKEN, RESOURCE), "Response is cached before it is added");
+        cache.put(TOKEN, RESOURCE, new CachedTokenValidation("admin", "carbon.super", true, null, 0));
+        CachedTokenValidation validation = cache.get(TOKEN, RESOURCE);
+        Assert.assertNotNull(validation, "Response is not cached");
+        Assert.assertTrue(validation.isValid());
+        Assert.assertEquals(validation.getUserName(), "admin");
+        Assert.assertNull(cache.get(TOKEN, RESOURCE + "/other"),
+                "Response of a token should not be served for another resource");
+        Assert.assertNull(cache.get(TOKEN, null), "Response of a token should not be served without a scope");
+    }
+
+    @Test(description = "This method tests the expiry of valid and invalid responses")
+    public void testExpiry() {
+        cache.put(TOKEN, RESOURCE, new CachedTokenValidation("admin", "carbon.super", true, null, -1));
+        Assert.assertNotNull(cache.get(TOKEN, RESOURCE), "Response without a known expiry should be cached");
+
+        CachedTokenValidation invalidValidation = new CachedTokenValidation(null, null, false, "Invalid token", 0);
+        cache.put("invalid", RESOURCE, invalidValidation);
+        Assert.assertFalse(cache.get("invalid", RESOURCE).isValid(), "Invalid response is not cached");
+        Assert.assertEquals(cache.get("invalid", RESOURCE).getErrorMsg(), "Invalid token");
+
+        cache.configure(CAPACITY, OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_MAX_EXPIRY_TIME, 0);
+        cache.put("invalid-other", RESOURCE, invalidValidation);
+        Assert.assertNull(cache.get("invalid-other", RESOURCE),
+                "Invalid response is cached when negative caching is off");
+    }
+
+    @Test(description = "This method tests the eviction of responses")
+    public void testEvict() {
+        for (int i = 0; i < 3; i++) {
+            cache.put(TOKEN + i, RESOURCE, new CachedTokenValidation("admin", "carbon.super", true, null, 0));
+        }
+        cache.configure(2, OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_MAX_EXPIRY_TIME,
+                OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_NEGATIVE_EXPIRY_TIME);
+        Assert.assertEquals(cache.size(), 2, "Cache is not trimmed to its new capacity");
+        Assert.assertNull(cache.get(TOKEN + 0, RESOURCE), "Least recently used response is not evicted");
+        cache.put(TOKEN + 3, RESOURCE, new CachedTokenValidation("admin", "carbon.super", true, null, 0));
+        Assert.assertEquals(cache.size(), 2, "Cache is not bounded by its capacity");
+    }
+
+    @Test(description = "This method tests that the responses of a revoked token are invalidated for every scope")
+    public void testInvalidate() {
+        cache.put(TOKEN, RESOURCE, new CachedTokenValidation("admin", "carbon.super", true, null, 0));
+        cache.put(TOKEN, null, new CachedTokenValidation("admin", "carbon.super", true, null, 0));
+        cache.put("other", RESOURCE, new CachedTokenValidation("admin", "carbon.super", true, null, 0));
+        cache.invalidate(TOKEN);
+        Assert.assertNull(cache.get(TOKEN, RESOURCE), "Response of a revoked token is not invalidated");
+        Assert.assertNull(cache.get(TOKEN, null), "Response of a revoked token is not invalidated for all scopes");
+        Assert.assertNotNull(cache.get("other", RESOURCE), "Response of another token is invalidated");
+
+        cache.invalidateAll();
+        Assert.assertEquals(cache.size(), 0, "Responses are not invalidated");
+    }
+
+    @Test(description = "This method tests that nothing is cached when the capacity is 0")
+    public void testDisabled() {
+        cache.configure(0, OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_MAX_EXPIRY_TIME,
+                OauthAuthenticatorConstants.DEFAULT_TOKEN_CACHE_NEGATIVE_EXPIRY_TIME);
+        cache.put(TOKEN, RESOURCE, new CachedTokenValidation("admin", "carbon.super", true, null, 0));
+        Assert.assertNull(cache.get(TOKEN, RESOURCE), "Response is cached when the cache is disabled");
+    }
+
+    @Test(description = "This method tests that validators cache responses unless it is disabled")
+    public void testValidatorFactory() {
+        Assert.assertTrue(OAuthValidatorFactory.getValidator(null, null, null, false, new Properties())
+                instanceof CachingOAuthValidator, "Token validation responses are not cached by default");
+
+        Properties properties = new Properties();
+        properties.setProperty(OAuthConstants.TOKEN_CACHE_ENABLED, "false");
+        Assert.assertTrue(OAuthValidatorFactory.getValidator(null, null, null, false, properties)
+                instanceof LocalOAuthValidator, "Token validation responses are cached when disabled");
+    }
+
+    @Test(description = "This method tests that the caching validator validates a token only once")
+    public void testCachingValidator() throws OAuthTokenValidationException {
+        OAuth2TokenValidator validator = Mockito.mock(OAuth2TokenValidator.class);
+        Mockito.doReturn(new OAuthValidationResponse("admin", "carbon.super", true)).when(validator)
+                .validateToken(TOKEN, RESOURCE);
+        CachingOAuthValidator cachingValidator = new CachingOAuthValidator(validator, cache);
+        long hitCount = cache.getHitCount();
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(cachingValidator.validateToken(TOKEN, RESOURCE).getUserName(), "admin");
+        }
+        Mockito.verify(validator, Mockito.times(1)).validateToken(TOKEN, RESOURCE);
+        Assert.assertEquals(cache.getHitCount(), hitCount + 4);
+
+        cache.invalidate(TOKEN);
+        cachingValidator.validateToken(TOKEN, RESOURCE);
+        Mockito.verify(validator, Mockito.times(2)).validateToken(TOKEN, RESOURCE);
+    }
+}
@@ -0,0 +1,33 @@
+-- Upgrades an existing device management database to the current schema.
+
+-- Lease of scheduled push notifications claimed by a node
+IF NOT EXISTS (SELECT * FROM SYS.COLUMNS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[DM_ENROLMENT_OP_MAPPING]') AND NAME = 'LEASE_EXPIRY_TIMESTAMP')
+ALTER TABLE DM_ENROLMENT_OP_MAPPING ADD LEASE_EXPIRY_TIMESTAMP BIGINT NULL;
+
+-- Per tenant aggregate of the device locations within each geohash prefix of length 7, used for geo clustering
+IF NOT  EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[DM_GEO_TILE]') AND TYPE IN (N'U'))
+CREATE TABLE DM_GEO_TILE (
+  TENANT_ID INTEGER NOT NULL,
+  GEOHASH_PREFIX VARCHAR(16) NOT NULL,
+  DEVICE_COUNT BIGINT NOT NULL,
+  SUM_LATITUDE FLOAT NOT NULL,
+  SUM_LONGITUDE FLOAT NOT NULL,
+  MIN_LATITUDE FLOAT NOT NULL,
+  MAX_LATITUDE FLOAT NOT NULL,
+  MIN_LONGITUDE FLOAT NOT NULL,
+  MAX_LONGITUDE FLOAT NOT NULL,
+  PRIMARY KEY (TENANT_ID, GEOHASH_PREFIX)
+);
+
+IF NOT  EXISTS (SELECT * FROM SYS.INDEXES WHERE NAME = 'IDX_DM_GEO_TILE_LATITUDE' AND  OBJECT_ID = OBJECT_ID('DM_GEO_TILE'))
+CREATE INDEX IDX_DM_GEO_TILE_LATITUDE ON DM_GEO_TILE(TENANT_ID, MIN_LATITUDE);
+
+-- Rebuilds the geo tiles from the stored device locations
+DELETE FROM DM_GEO_TILE;
+INSERT INTO DM_GEO_TILE (TENANT_ID, GEOHASH_PREFIX, DEVICE_COUNT, SUM_LATITUDE, SUM_LONGITUDE, MIN_LATITUDE,
+  MAX_LATITUDE, MIN_LONGITUDE, MAX_LONGITUDE)
+SELECT D.TENANT_ID, SUBSTRING(L.GEO_HASH, 1, 7), COUNT(*), SUM(L.LATITUDE), SUM(L.LONGITUDE), MIN(L.LATITUDE),
+  MAX(L.LATITUDE), MIN(L.LONGITUDE), MAX(L.LONGITUDE)
+FROM DM_DEVICE_LOCATION L, DM_DEVICE D
+WHERE L.DEVICE_ID = D.ID AND L.GEO_HASH IS NOT NULL
+GROUP BY D.TENANT_ID, SUBSTRING(L.GEO_HASH, 1, 7);
@@ -164,6 +164,7 @@ CREATE TABLE DM_ENROLMENT_OP_MAPPING (
     PUSH_NOTIFICATION_STATUS VARCHAR(50) NULL,
     CREATED_TIMESTAMP BIGINT NOT NULL,
     UPDATED_TIMESTAMP BIGINT NOT NULL,
+    LEASE_EXPIRY_TIMESTAMP BIGINT NULL,
     PRIMARY KEY (ID),
     CONSTRAINT FK_DM_DEVICE_OPERATION_MAPPING_DEVICE FOREIGN KEY (ENROLMENT_ID) REFERENCES
     DM_ENROLMENT (ID) ON DELETE NO ACTION ON UPDATE NO ACTION,
@@ -177,6 +178,8 @@ IF NOT  EXISTS (SELECT * FROM SYS.INDEXES WHERE NAME = 'IDX_EN_OP_MAPPING_EN_ID'
 CREATE INDEX IDX_EN_OP_MAPPING_EN_ID ON DM_ENROLMENT_OP_MAPPING(ENROLMENT_ID);
 IF NOT  EXISTS (SELECT * FROM SYS.INDEXES WHERE NAME = 'IDX_EN_OP_MAPPING_OP_ID' AND  OBJECT_ID = OBJECT_ID('DM_ENROLMENT_OP_MAPPING'))
 CREATE INDEX IDX_EN_OP_MAPPING_OP_ID ON DM_ENROLMENT_OP_MAPPING(OPERATION_ID);
+IF NOT  EXISTS (SELECT * FROM SYS.INDEXES WHERE NAME = 'IDX_EN_OP_MAPPING_STATUS_CREATED' AND  OBJECT_ID = OBJECT_ID('DM_ENROLMENT_OP_MAPPING'))
+CREATE INDEX IDX_EN_OP_MAPPING_STATUS_CREATED ON DM_ENROLMENT_OP_MAPPING(STATUS, CREATED_TIMESTAMP);
 
 IF NOT  EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[DM_DEVICE_OPERATION_RESPONSE]') AND TYPE IN (N'U'))
 CREATE TABLE DM_DEVICE_OPERATION_RESPONSE (
@@ -505,6 +508,24 @@ CREATE TABLE DM_DEVICE_LOCATION (
     ON UPDATE NO ACTION
 );
 
+-- Per tenant aggregate of the device locations within each geohash prefix of length 7, used for geo clustering
+IF NOT  EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[DM_GEO_TILE]') AND TYPE IN (N'U'))
+CREATE TABLE DM_GEO_TILE (
+  TENANT_ID INTEGER NOT NULL,
+  GEOHASH_PREFIX VARCHAR(16) NOT NULL,
+  DEVICE_COUNT BIGINT NOT NULL,
+  SUM_LATITUDE FLOAT NOT NULL,
+  SUM_LONGITUDE FLOAT NOT NULL,
+  MIN_LATITUDE FLOAT NOT NULL,
+  MAX_LATITUDE FLOAT NOT NULL,
+  MIN_LONGITUDE FLOAT NOT NULL,
+  MAX_LONGITUDE FLOAT NOT NULL,
+  PRIMARY KEY (TENANT_ID, GEOHASH_PREFIX)
+);
+
+IF NOT  EXISTS (SELECT * FROM SYS.INDEXES WHERE NAME = 'IDX_DM_GEO_TILE_LATITUDE' AND  OBJECT_ID = OBJECT_ID('DM_GEO_TILE'))
+CREATE INDEX IDX_DM_GEO_TILE_LATITUDE ON DM_GEO_TILE(TENANT_ID, MIN_LATITUDE);
+
 IF NOT  EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[DM_DEVICE_DETAIL]') AND TYPE IN (N'U'))
 CREATE TABLE DM_DEVICE_DETAIL (
   ID INTEGER IDENTITY(1,1) NOT NULL,
@@ -233,6 +233,7 @@ CREATE TABLE DM_ENROLMENT_OP_MAPPING (
   PUSH_NOTIFICATION_STATUS VARCHAR2(50) NULL,
   CREATED_TIMESTAMP NUMBER(14) NOT NULL,
   UPDATED_TIMESTAMP NUMBER(14) NOT NULL,
+  LEASE_EXPIRY_TIMESTAMP NUMBER(14) NULL,
   PRIMARY KEY (ID),
   CONSTRAINT FK_DM_DEVICE_OP_MAP_DEVICE FOREIGN KEY (ENROLMENT_ID) REFERENCES
     DM_ENROLMENT (ID),
@@ -253,6 +254,8 @@ WHEN (NEW.ID IS NULL)
     SELECT DM_ENROLMENT_OP_MAP_seq.NEXTVAL INTO :NEW.ID FROM DUAL;
   END;
 /
+CREATE INDEX IDX_EN_OP_MAPPING_STATUS_CREATED ON DM_ENROLMENT_OP_MAPPING(STATUS, CREATED_TIMESTAMP)
+/
 
 CREATE TABLE DM_DEVICE_OPERATION_RESPONSE (
   ID NUMBER(10) NOT NULL,
@@ -852,6 +855,24 @@ WHEN (NEW.ID IS NULL)
   END;
 /
 
+-- Per tenant aggregate of the device locations within each geohash prefix of length 7, used for geo clustering
+CREATE TABLE DM_GEO_TILE (
+  TENANT_ID NUMBER(10) NOT NULL,
+  GEOHASH_PREFIX VARCHAR2(16) NOT NULL,
+  DEVICE_COUNT NUMBER(19) NOT NULL,
+  SUM_LATITUDE BINARY_DOUBLE NOT NULL,
+  SUM_LONGITUDE BINARY_DOUBLE NOT NULL,
+  MIN_LATITUDE BINARY_DOUBLE NOT NULL,
+  MAX_LATITUDE BINARY_DOUBLE NOT NULL,
+  MIN_LONGITUDE BINARY_DOUBLE NOT NULL,
+  MAX_LONGITUDE BINARY_DOUBLE NOT NULL,
+  PRIMARY KEY (TENANT_ID, GEOHASH_PREFIX)
+)
+/
+
+CREATE INDEX IDX_DM_GEO_TILE_LATITUDE ON DM_GEO_TILE(TENANT_ID, MIN_LATITUDE)
+/
+
 CREATE TABLE DM_DEVICE_DETAIL (
   ID NUMBER(10) NOT NULL,
   DEVICE_ID NUMBER(10) NOT NULL,
@@ -128,6 +128,7 @@ CREATE TABLE IF NOT EXISTS  DM_ENROLMENT_OP_MAPPING (
   PUSH_NOTIFICATION_STATUS VARCHAR(50) NULL,
   CREATED_TIMESTAMP INTEGER NOT NULL,
   UPDATED_TIMESTAMP INTEGER NOT NULL,
+  LEASE_EXPIRY_TIMESTAMP INTEGER NULL,
   CONSTRAINT fk_dm_device_operation_mapping_device FOREIGN KEY (ENROLMENT_ID) REFERENCES
     DM_ENROLMENT (ID) ON DELETE NO ACTION ON UPDATE NO ACTION,
   CONSTRAINT fk_dm_device_operation_mapping_operation FOREIGN KEY (OPERATION_ID) REFERENCES
@@ -137,6 +138,7 @@ CREATE TABLE IF NOT EXISTS  DM_ENROLMENT_OP_MAPPING (
 CREATE INDEX IDX_ENROLMENT_OP_MAPPING ON DM_ENROLMENT_OP_MAPPING (UPDATED_TIMESTAMP);
 CREATE INDEX IDX_EN_OP_MAPPING_EN_ID ON DM_ENROLMENT_OP_MAPPING(ENROLMENT_ID);
 CREATE INDEX IDX_EN_OP_MAPPING_OP_ID ON DM_ENROLMENT_OP_MAPPING(OPERATION_ID);
+CREATE INDEX IDX_EN_OP_MAPPING_STATUS_CREATED ON DM_ENROLMENT_OP_MAPPING(STATUS, CREATED_TIMESTAMP);
 
 CREATE TABLE IF NOT EXISTS  DM_DEVICE_OPERATION_RESPONSE (
   ID BIGSERIAL NOT NULL PRIMARY KEY,
@@ -460,6 +462,22 @@ CREATE TABLE IF NOT EXISTS DM_DEVICE_LOCATION (
 
 CREATE INDEX DM_DEVICE_LOCATION_GEO_hashx ON DM_DEVICE_LOCATION(GEO_HASH ASC);
 
+-- Per tenant aggregate of the device locations within each geohash prefix of length 7, used for geo clustering
+CREATE TABLE IF NOT EXISTS DM_GEO_TILE (
+  TENANT_ID INTEGER NOT NULL,
+  GEOHASH_PREFIX VARCHAR(16) NOT NULL,
+  DEVICE_COUNT BIGINT NOT NULL,
+  SUM_LATITUDE DOUBLE PRECISION NOT NULL,
+  SUM_LONGITUDE DOUBLE PRECISION NOT NULL,
+  MIN_LATITUDE DOUBLE PRECISION NOT NULL,
+  MAX_LATITUDE DOUBLE PRECISION NOT NULL,
+  MIN_LONGITUDE DOUBLE PRECISION NOT NULL,
+  MAX_LONGITUDE DOUBLE PRECISION NOT NULL,
+  PRIMARY KEY (TENANT_ID, GEOHASH_PREFIX)
+);
+
+CREATE INDEX IDX_DM_GEO_TILE_LATITUDE ON DM_GEO_TILE(TENANT_ID, MIN_LATITUDE);
+
 CREATE TABLE IF NOT EXISTS DM_DEVICE_DETAIL (
   ID BIGSERIAL NOT NULL PRIMARY KEY,
   DEVICE_ID INT NOT NULL,